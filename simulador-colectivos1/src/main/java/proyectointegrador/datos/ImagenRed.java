@@ -0,0 +1,340 @@
+package proyectointegrador.datos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Imagen binaria precompilada de la red de transporte, para arrancar sin volver
+ * a leer y validar los archivos de texto.
+ * <p>
+ * La imagen guarda, en columnas de primitivos, la tabla de paradas, los
+ * recorridos de las líneas como arreglos de índices (un arreglo de inicios y
+ * uno de paradas, uno a continuación del otro) y la adyacencia del grafo de
+ * rutas en formato CSR: para la parada {@code i}, sus tramos salientes son las
+ * posiciones {@code [inicio[i], inicio[i + 1])} de los arreglos de destinos y
+ * pesos. Los tramos son los mismos que arma {@link
+ * proyectointegrador.logica.PlanificadorRutas#construirGrafoDesdeLineas}: uno por
+ * cada par de paradas consecutivas de un recorrido, sin repetidos.
+ * <p>
+ * El archivo empieza con un encabezado (marca, versión, largo y CRC32 de los
+ * datos) y se lee mapeándolo en memoria; un archivo truncado, de otra versión o
+ * con el CRC incorrecto se rechaza con una {@link IllegalStateException}. Se
+ * genera con {@link proyectointegrador.interfaz.ConversorImagenRed} a partir de
+ * los archivos de texto de la configuración, y {@link LectorArchivos} la prefiere si la propiedad
+ * {@code imagen_red} apunta a ella. La imagen no se actualiza sola: hay que
+ * volver a generarla cada vez que cambian los archivos de texto.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+public final class ImagenRed {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	private static final int MAGIA = 0x52454442; // "REDB"
+	private static final int VERSION = 1;
+	/** Marca, versión, largo de los datos y CRC32. */
+	private static final int TAMANIO_ENCABEZADO = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+	/** Peso de cada tramo entre paradas consecutivas, como en el planificador. */
+	private static final int PESO_TRAMO = 1;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final TopologiaRed topologia;
+
+	// --- Grafo de rutas (CSR) ---
+	private final int[] inicioAdyacencia;
+	private final int[] destinosAdyacencia;
+	private final int[] pesosAdyacencia;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	private ImagenRed(TopologiaRed topologia, int[] inicioAdyacencia, int[] destinosAdyacencia, int[] pesosAdyacencia) {
+		this.topologia = topologia;
+		this.inicioAdyacencia = inicioAdyacencia;
+		this.destinosAdyacencia = destinosAdyacencia;
+		this.pesosAdyacencia = pesosAdyacencia;
+	}
+
+	// =================================================================================
+	// ESCRITURA
+	// =================================================================================
+
+	/**
+	 * Escribe la imagen de una red. El archivo se escribe primero como temporal y
+	 * luego reemplaza al destino, así que un corte no deja una imagen a medias.
+	 *
+	 * @param topologia La red a guardar.
+	 * @param archivo   Archivo destino; si existe, se reemplaza.
+	 */
+	public static void escribir(TopologiaRed topologia, Path archivo) throws IOException {
+		if (topologia == null || archivo == null) {
+			throw new IllegalArgumentException("La topología y el archivo no pueden ser nulos.");
+		}
+		ByteBuffer datos = codificar(topologia);
+		CRC32 crc = new CRC32();
+		crc.update(datos.duplicate());
+
+		ByteBuffer encabezado = ByteBuffer.allocate(TAMANIO_ENCABEZADO);
+		encabezado.putInt(MAGIA).putInt(VERSION).putLong(datos.remaining()).putInt((int) crc.getValue());
+		encabezado.flip();
+
+		Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+		try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (encabezado.hasRemaining()) canal.write(encabezado);
+			while (datos.hasRemaining()) canal.write(datos);
+			canal.force(false);
+		}
+		Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static ByteBuffer codificar(TopologiaRed topologia) {
+		int[][] recorridos = topologia.recorridos();
+		int[] inicioRecorridos = new int[recorridos.length + 1];
+		for (int l = 0; l < recorridos.length; l++) {
+			inicioRecorridos[l + 1] = inicioRecorridos[l] + recorridos[l].length;
+		}
+		int[] paradasRecorridos = new int[inicioRecorridos[recorridos.length]];
+		for (int l = 0; l < recorridos.length; l++) {
+			System.arraycopy(recorridos[l], 0, paradasRecorridos, inicioRecorridos[l], recorridos[l].length);
+		}
+		int cantidadParadas = topologia.getCantidadParadas();
+		int[][] adyacencia = construirAdyacencia(cantidadParadas, recorridos);
+
+		byte[][][] textos = {
+				codificarTextos(topologia.idsParadas()), codificarTextos(topologia.direcciones()),
+				codificarTextos(topologia.clavesLineas()), codificarTextos(topologia.idsLineas()),
+				codificarTextos(topologia.nombresLineas()) };
+
+		long tamanio = 4L * Integer.BYTES
+				+ 2L * cantidadParadas * Double.BYTES
+				+ (long) (inicioRecorridos.length + paradasRecorridos.length) * Integer.BYTES
+				+ (long) (adyacencia[0].length + 2 * adyacencia[1].length) * Integer.BYTES;
+		for (byte[][] columna : textos) {
+			tamanio += (long) (columna.length + 1) * Integer.BYTES;
+			for (byte[] texto : columna) tamanio += texto.length;
+		}
+		if (tamanio > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("La red es demasiado grande para una imagen (" + tamanio + " bytes).");
+		}
+
+		ByteBuffer datos = ByteBuffer.allocate((int) tamanio);
+		datos.putInt(cantidadParadas).putInt(recorridos.length).putInt(paradasRecorridos.length)
+				.putInt(adyacencia[1].length);
+		datos.asDoubleBuffer().put(topologia.latitudes()).put(topologia.longitudes());
+		datos.position(datos.position() + 2 * cantidadParadas * Double.BYTES);
+		escribirInts(datos, inicioRecorridos);
+		escribirInts(datos, paradasRecorridos);
+		escribirInts(datos, adyacencia[0]);
+		escribirInts(datos, adyacencia[1]);
+		escribirInts(datos, adyacencia[2]);
+		for (byte[][] columna : textos) {
+			int desplazamiento = 0;
+			datos.putInt(desplazamiento);
+			for (byte[] texto : columna) {
+				desplazamiento += texto.length;
+				datos.putInt(desplazamiento);
+			}
+			for (byte[] texto : columna) datos.put(texto);
+		}
+		datos.flip();
+		return datos;
+	}
+
+	/**
+	 * Arma el grafo de rutas en formato CSR: un tramo por cada par de paradas
+	 * consecutivas de un recorrido, sin repetidos y ordenados por origen y destino.
+	 *
+	 * @return Los arreglos de inicios, destinos y pesos.
+	 */
+	private static int[][] construirAdyacencia(int cantidadParadas, int[][] recorridos) {
+		int tramos = 0;
+		for (int[] recorrido : recorridos) tramos += Math.max(0, recorrido.length - 1);
+		long[] pares = new long[tramos];
+		int cantidad = 0;
+		for (int[] recorrido : recorridos) {
+			for (int i = 0; i + 1 < recorrido.length; i++) {
+				pares[cantidad++] = ((long) recorrido[i] << 32) | recorrido[i + 1];
+			}
+		}
+		Arrays.sort(pares);
+
+		int[] inicio = new int[cantidadParadas + 1];
+		int[] destinos = new int[cantidad];
+		int unicos = 0;
+		for (int k = 0; k < cantidad; k++) {
+			if (k > 0 && pares[k] == pares[k - 1]) continue;
+			inicio[(int) (pares[k] >>> 32) + 1]++;
+			destinos[unicos++] = (int) pares[k];
+		}
+		for (int i = 0; i < cantidadParadas; i++) inicio[i + 1] += inicio[i];
+		int[] pesos = new int[unicos];
+		Arrays.fill(pesos, PESO_TRAMO);
+		return new int[][] { inicio, Arrays.copyOf(destinos, unicos), pesos };
+	}
+
+	private static byte[][] codificarTextos(String[] textos) {
+		byte[][] bytes = new byte[textos.length][];
+		for (int i = 0; i < textos.length; i++) {
+			bytes[i] = textos[i].getBytes(StandardCharsets.UTF_8);
+		}
+		return bytes;
+	}
+
+	private static void escribirInts(ByteBuffer datos, int[] valores) {
+		datos.asIntBuffer().put(valores);
+		datos.position(datos.position() + valores.length * Integer.BYTES);
+	}
+
+	// =================================================================================
+	// LECTURA
+	// =================================================================================
+
+	/**
+	 * Lee una imagen mapeando el archivo en memoria.
+	 *
+	 * @throws IllegalStateException si el archivo no es una imagen de red válida
+	 *                               (marca, versión, largo o CRC incorrectos).
+	 */
+	public static ImagenRed leer(Path archivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			if (canal.size() < TAMANIO_ENCABEZADO || canal.size() > Integer.MAX_VALUE) {
+				throw new IllegalStateException("El archivo " + archivo + " no es una imagen de red válida.");
+			}
+			return leer(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+		}
+	}
+
+	/**
+	 * Lee una imagen desde un buffer con el contenido completo del archivo (por
+	 * ejemplo, un recurso del classpath que no se puede mapear).
+	 *
+	 * @throws IllegalStateException si el contenido no es una imagen de red válida.
+	 */
+	static ImagenRed leer(ByteBuffer contenido) {
+		if (contenido.remaining() < TAMANIO_ENCABEZADO || contenido.getInt() != MAGIA) {
+			throw new IllegalStateException("El contenido no es una imagen de red.");
+		}
+		int version = contenido.getInt();
+		if (version != VERSION) {
+			throw new IllegalStateException("Versión de imagen de red no soportada: " + version + ".");
+		}
+		long longitud = contenido.getLong();
+		int crcEsperado = contenido.getInt();
+		if (longitud != contenido.remaining()) {
+			throw new IllegalStateException("La imagen de red está truncada o tiene datos de más.");
+		}
+		CRC32 crc = new CRC32();
+		crc.update(contenido.duplicate());
+		if ((int) crc.getValue() != crcEsperado) {
+			throw new IllegalStateException("La imagen de red está dañada (CRC incorrecto).");
+		}
+		try {
+			return decodificar(contenido.slice());
+		} catch (RuntimeException e) {
+			throw new IllegalStateException("La imagen de red tiene un contenido inconsistente.", e);
+		}
+	}
+
+	private static ImagenRed decodificar(ByteBuffer datos) {
+		int cantidadParadas = datos.getInt();
+		int cantidadLineas = datos.getInt();
+		int cantidadParadasRecorridos = datos.getInt();
+		int cantidadTramos = datos.getInt();
+
+		double[] latitudes = new double[cantidadParadas];
+		double[] longitudes = new double[cantidadParadas];
+		datos.asDoubleBuffer().get(latitudes).get(longitudes);
+		datos.position(datos.position() + 2 * cantidadParadas * Double.BYTES);
+		int[] inicioRecorridos = leerInts(datos, cantidadLineas + 1);
+		int[] paradasRecorridos = leerInts(datos, cantidadParadasRecorridos);
+		int[] inicioAdyacencia = leerInts(datos, cantidadParadas + 1);
+		int[] destinosAdyacencia = leerInts(datos, cantidadTramos);
+		int[] pesosAdyacencia = leerInts(datos, cantidadTramos);
+
+		String[] idsParadas = leerTextos(datos, cantidadParadas);
+		String[] direcciones = leerTextos(datos, cantidadParadas);
+		String[] clavesLineas = leerTextos(datos, cantidadLineas);
+		String[] idsLineas = leerTextos(datos, cantidadLineas);
+		String[] nombresLineas = leerTextos(datos, cantidadLineas);
+		if (datos.hasRemaining()) {
+			throw new IllegalStateException("Sobran " + datos.remaining() + " bytes al final de la imagen.");
+		}
+
+		validarIndices(inicioRecorridos, paradasRecorridos, cantidadParadas);
+		validarIndices(inicioAdyacencia, destinosAdyacencia, cantidadParadas);
+		int[][] recorridos = new int[cantidadLineas][];
+		for (int l = 0; l < cantidadLineas; l++) {
+			recorridos[l] = Arrays.copyOfRange(paradasRecorridos, inicioRecorridos[l], inicioRecorridos[l + 1]);
+		}
+		TopologiaRed topologia = TopologiaRed.deColumnas(idsParadas, direcciones, latitudes, longitudes, clavesLineas,
+				idsLineas, nombresLineas, recorridos);
+		return new ImagenRed(topologia, inicioAdyacencia, destinosAdyacencia, pesosAdyacencia);
+	}
+
+	private static int[] leerInts(ByteBuffer datos, int cantidad) {
+		int[] valores = new int[cantidad];
+		datos.asIntBuffer().get(valores);
+		datos.position(datos.position() + cantidad * Integer.BYTES);
+		return valores;
+	}
+
+	private static String[] leerTextos(ByteBuffer datos, int cantidad) {
+		int[] desplazamientos = leerInts(datos, cantidad + 1);
+		byte[] bytes = new byte[desplazamientos[cantidad]];
+		datos.get(bytes);
+		String[] textos = new String[cantidad];
+		for (int i = 0; i < cantidad; i++) {
+			textos[i] = new String(bytes, desplazamientos[i], desplazamientos[i + 1] - desplazamientos[i],
+					StandardCharsets.UTF_8);
+		}
+		return textos;
+	}
+
+	/** Verifica que los inicios sean crecientes y que todos los índices sean de paradas existentes. */
+	private static void validarIndices(int[] inicio, int[] indices, int cantidadParadas) {
+		if (inicio[0] != 0 || inicio[inicio.length - 1] != indices.length) {
+			throw new IllegalStateException("Arreglo de inicios inconsistente.");
+		}
+		for (int i = 0; i + 1 < inicio.length; i++) {
+			if (inicio[i] > inicio[i + 1]) throw new IllegalStateException("Arreglo de inicios no creciente.");
+		}
+		for (int indice : indices) {
+			if (indice < 0 || indice >= cantidadParadas) {
+				throw new IllegalStateException("Índice de parada fuera de rango: " + indice + ".");
+			}
+		}
+	}
+
+	// =================================================================================
+	// GETTERS
+	// =================================================================================
+
+	public TopologiaRed getTopologia() { return this.topologia; }
+	public int getCantidadTramos() { return this.destinosAdyacencia.length; }
+
+	/** Posición del primer tramo saliente de cada parada (en orden de ID), más un último elemento con el total. */
+	public int[] getInicioAdyacencia() { return this.inicioAdyacencia.clone(); }
+
+	/** Índice de la parada destino de cada tramo. */
+	public int[] getDestinosAdyacencia() { return this.destinosAdyacencia.clone(); }
+
+	/** Peso de cada tramo. */
+	public int[] getPesosAdyacencia() { return this.pesosAdyacencia.clone(); }
+}
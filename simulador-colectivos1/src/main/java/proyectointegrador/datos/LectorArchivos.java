@@ -2,11 +2,21 @@ package proyectointegrador.datos;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Properties;
-import java.util.Scanner;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 import proyectointegrador.modelo.Linea;
 import proyectointegrador.modelo.Parada;
@@ -16,10 +26,34 @@ import proyectointegrador.modelo.Parada;
  * <p>
  * Proporciona una interfaz unificada para leer los datos necesarios para la
  * simulación, manejando errores de archivo y de formato de datos.
+ * <p>
+ * Cada archivo se lee completo en memoria y se recorre byte a byte con un
+ * {@link TokenizadorRegistros}: no se usan expresiones regulares ni se crean
+ * cadenas intermedias, solo las de los IDs y textos que se guardan. Los registros
+ * válidos se juntan en un {@link HashMap} y al final se ordenan una sola vez y se
+ * insertan en orden en el {@link TreeMap}.
+ * Los registros con formato incorrecto o datos inválidos se omiten y se cuentan
+ * ({@link #getParadasOmitidas()}, {@link #getLineasOmitidas()}); al final de cada
+ * archivo se emite una única advertencia con el total.
+ * <p>
+ * Los archivos grandes se parten en bloques que terminan en un fin de línea y se
+ * procesan en paralelo, cada uno en su propio mapa parcial (la propiedad
+ * {@code bloques_carga} fija la cantidad; por defecto se elige según el tamaño
+ * del archivo y los procesadores). Los mapas parciales se combinan en el orden
+ * del archivo, así que el resultado es el mismo que el de una lectura secuencial:
+ * gana la primera parada con cada ID y la primera línea con cada
+ * {@code id + " - " + nombre}, y se cuentan los mismos registros omitidos.
+ * <p>
+ * Si la propiedad {@code imagen_red} apunta a una {@link ImagenRed} válida,
+ * {@link #cargarDatosCompletos()} la usa en lugar de los archivos de texto; si no
+ * existe o está dañada, se avisa y se leen los archivos de texto.
+ * <p>
+ * Los horarios de las líneas (propiedad {@code horarios}) se cargan aparte, con
+ * {@link #cargarHorarios()}.
  *
  * @author Miyen
  * @author Enzo
- * @version 1.2
+ * @version 1.9
  */
 public class LectorArchivos {
 
@@ -28,8 +62,18 @@ public class LectorArchivos {
 	// =================================================================================
 
 	private static final String DEFAULT_CONFIG_FILE = "config.properties";
-	private static final String DELIMITADOR_CAMPOS = ";";
-	private static final String DELIMITADOR_RECORRIDO = ",";
+	private static final byte DELIMITADOR_CAMPOS = ';';
+	private static final byte DELIMITADOR_RECORRIDO = ',';
+	private static final int CAMPOS_PARADA = 4;
+	private static final int CAMPOS_LINEA = 3;
+
+	private static final String KEY_BLOQUES_CARGA = "bloques_carga";
+	private static final String KEY_IMAGEN_RED = "imagen_red";
+	private static final String KEY_HORARIOS = "horarios";
+	/** Por debajo de este tamaño por bloque, repartir la lectura cuesta más de lo que ahorra. */
+	private static final int TAMANIO_MINIMO_BLOQUE = 256 * 1024;
+	/** Bloques por procesador, para repartir mejor la carga entre los hilos. */
+	private static final int BLOQUES_POR_PROCESADOR = 4;
 
 	// =================================================================================
 	// ATRIBUTOS
@@ -39,6 +83,17 @@ public class LectorArchivos {
 	private final Map<String, Linea> lineasCargadas;
 	private final Properties propiedades;
 
+	// Vistas de solo lectura de los mapas anteriores (se crean una sola vez)
+	private final Map<String, Parada> paradasVista;
+	private final Map<String, Linea> lineasVista;
+
+	// Registros omitidos en la última carga de cada archivo
+	private int paradasOmitidas;
+	private int lineasOmitidas;
+
+	// Imagen binaria usada en la última carga completa (null si se leyeron los textos)
+	private ImagenRed imagenRed;
+
 	// =================================================================================
 	// CONSTRUCTORES
 	// =================================================================================
@@ -51,6 +106,8 @@ public class LectorArchivos {
 		cargarPropiedadesDesdeClasspath(DEFAULT_CONFIG_FILE);
 		this.paradasCargadas = new TreeMap<>();
 		this.lineasCargadas = new TreeMap<>();
+		this.paradasVista = Collections.unmodifiableMap(this.paradasCargadas);
+		this.lineasVista = Collections.unmodifiableMap(this.lineasCargadas);
 	}
 
 	/**
@@ -65,6 +122,8 @@ public class LectorArchivos {
 		this.propiedades = props;
 		this.paradasCargadas = new TreeMap<>();
 		this.lineasCargadas = new TreeMap<>();
+		this.paradasVista = Collections.unmodifiableMap(this.paradasCargadas);
+		this.lineasVista = Collections.unmodifiableMap(this.lineasCargadas);
 	}
 
 	// =================================================================================
@@ -72,13 +131,23 @@ public class LectorArchivos {
 	// =================================================================================
 
 	/**
-	 * Carga todos los datos necesarios en orden: paradas y luego líneas.
+	 * Carga todos los datos necesarios en orden: paradas y luego líneas. Si hay
+	 * una imagen binaria de la red configurada y válida, se carga de ella.
 	 * 
 	 * @throws IOException si ocurre un error al leer los archivos de datos.
 	 */
 	public void cargarDatosCompletos() throws IOException {
 		this.paradasCargadas.clear();
 		this.lineasCargadas.clear();
+		this.imagenRed = buscarImagenRed();
+		if (this.imagenRed != null) {
+			TopologiaRed.Instancia red = this.imagenRed.getTopologia().instanciar();
+			this.paradasCargadas.putAll(red.getParadas());
+			this.lineasCargadas.putAll(red.getLineas());
+			this.paradasOmitidas = 0;
+			this.lineasOmitidas = 0;
+			return;
+		}
 		cargarParadas();
 		cargarLineas();
 	}
@@ -90,11 +159,9 @@ public class LectorArchivos {
 	 *                     encuentra.
 	 */
 	public void cargarParadas() throws IOException {
-		try (Scanner scanner = obtenerScannerParaArchivo("parada")) {
-			while (scanner.hasNextLine()) {
-				procesarLineaDeParada(scanner.nextLine());
-			}
-		}
+		this.paradasOmitidas = cargarRegistros(leerArchivo("parada"), CAMPOS_PARADA, this::procesarLineaDeParada,
+				this.paradasCargadas);
+		advertirOmitidos(this.paradasOmitidas, "paradas");
 	}
 
 	/**
@@ -108,15 +175,28 @@ public class LectorArchivos {
 			System.err.println("Advertencia: No se cargaron líneas porque no hay paradas cargadas previamente.");
 			return;
 		}
-		try (Scanner scanner = obtenerScannerParaArchivo("linea")) {
-			while (scanner.hasNextLine()) {
-				procesarLineaDeLinea(scanner.nextLine());
-			}
-		}
+		this.lineasOmitidas = cargarRegistros(leerArchivo("linea"), CAMPOS_LINEA, this::procesarLineaDeLinea,
+				this.lineasCargadas);
+		advertirOmitidos(this.lineasOmitidas, "líneas");
+	}
+
+	/**
+	 * Carga la tabla de horarios de las líneas desde el archivo de la propiedad
+	 * {@code horarios}. Los horarios no forman parte de la carga completa: solo
+	 * los usa el planificador de viajes.
+	 *
+	 * @return La tabla de horarios leída.
+	 * @throws IOException si la propiedad no está definida o el archivo no se
+	 *                     encuentra.
+	 */
+	public TablaHorarios cargarHorarios() throws IOException {
+		TablaHorarios horarios = TablaHorarios.leer(leerArchivo(KEY_HORARIOS));
+		advertirOmitidos(horarios.getRegistrosOmitidos(), "horarios");
+		return horarios;
 	}
 
 	// =================================================================================
-	// GETTERS (Defensivos, devuelven copias)
+	// GETTERS (Defensivos: copias, o vistas de solo lectura)
 	// =================================================================================
 
 	public Map<String, Parada> getParadasCargadas() {
@@ -127,6 +207,40 @@ public class LectorArchivos {
 		return new TreeMap<>(this.lineasCargadas);
 	}
 
+	/**
+	 * Devuelve una vista de solo lectura de las paradas cargadas, sin copiarlas.
+	 * Refleja las recargas posteriores.
+	 */
+	public Map<String, Parada> getParadasVista() {
+		return this.paradasVista;
+	}
+
+	/**
+	 * Devuelve una vista de solo lectura de las líneas cargadas, sin copiarlas.
+	 * Refleja las recargas posteriores.
+	 */
+	public Map<String, Linea> getLineasVista() {
+		return this.lineasVista;
+	}
+
+	/** Cantidad de registros de paradas omitidos (formato o datos inválidos) en la última carga. */
+	public int getParadasOmitidas() {
+		return this.paradasOmitidas;
+	}
+
+	/** Cantidad de registros de líneas omitidos (formato, datos o paradas inválidas) en la última carga. */
+	public int getLineasOmitidas() {
+		return this.lineasOmitidas;
+	}
+
+	/**
+	 * Devuelve la imagen binaria de la que salió la última carga completa, o null
+	 * si se leyeron los archivos de texto.
+	 */
+	public ImagenRed getImagenRed() {
+		return this.imagenRed;
+	}
+
 	public Properties getPropiedades() {
 		Properties copia = new Properties();
 		copia.putAll(propiedades);
@@ -138,112 +252,293 @@ public class LectorArchivos {
 	// =================================================================================
 
 	/**
-	 * Procesa una única línea del archivo de paradas y la añade al mapa si es
-	 * válida.
-	 * * @param linea La línea de texto a procesar.
+	 * Lee todos los registros de un archivo, en bloques paralelos si corresponde,
+	 * y agrega los válidos al mapa de destino.
+	 *
+	 * @return La cantidad de registros omitidos, igual que en una lectura secuencial.
 	 */
-	private void procesarLineaDeParada(String linea) {
-		if (linea.trim().isEmpty())
-			return;
+	private <V> int cargarRegistros(byte[] datos, int camposPorRegistro, ProcesadorRegistro<V> procesador,
+			Map<String, V> destino) {
+		int[] cortes = partirEnBloques(datos, cantidadDeBloques(datos.length));
+		List<BloqueRegistros<V>> bloques = new ArrayList<>(cortes.length - 1);
+		for (int b = 0; b + 1 < cortes.length; b++) {
+			bloques.add(new BloqueRegistros<>(new TokenizadorRegistros(datos, cortes[b], cortes[b + 1]), camposPorRegistro));
+		}
+		IntStream tareas = IntStream.range(0, bloques.size());
+		if (bloques.size() > 1) {
+			tareas = tareas.parallel();
+		}
+		tareas.forEach(b -> bloques.get(b).recorrer(procesador));
+
+		int omitidos = 0;
+		for (int b = 0; b < bloques.size(); b++) {
+			BloqueRegistros<V> bloque = bloques.get(b);
+			omitidos += bloque.omitidosSinClave;
+			for (String clave : bloque.clavesOmitidas) {
+				// Una lectura secuencial no lo cuenta si un bloque anterior ya tenía esa clave válida.
+				if (!validaEnBloquesAnteriores(bloques, b, clave)) omitidos++;
+			}
+		}
+		agregarOrdenadas(destino, bloques);
+		return omitidos;
+	}
 
-		String[] partes = linea.split(DELIMITADOR_CAMPOS, -1);
-		if (partes.length != 4) {
-			System.err.println("Advertencia: Línea de parada con formato incorrecto omitida -> " + linea);
-			return;
+	private static boolean validaEnBloquesAnteriores(List<? extends BloqueRegistros<?>> bloques, int hasta, String clave) {
+		for (int b = 0; b < hasta; b++) {
+			if (bloques.get(b).nuevos.containsKey(clave)) return true;
 		}
+		return false;
+	}
 
-		try {
-			String id = partes[0].trim();
-			String direccion = partes[1].trim();
-			
-
-			// Verificamos que los campos obligatorios no estén vacíos ANTES de crear el objeto.
-			if (id.isEmpty() || direccion.isEmpty()) {
-				System.err.println("Advertencia: ID o Dirección de parada vacíos en línea omitida -> " + linea);
-				return;
+	/** Cantidad de bloques en los que conviene partir un archivo de este tamaño. */
+	private int cantidadDeBloques(int bytes) {
+		String valor = propiedades.getProperty(KEY_BLOQUES_CARGA, "auto").trim();
+		if (!valor.equalsIgnoreCase("auto")) {
+			try {
+				return Math.max(1, Integer.parseInt(valor));
+			} catch (NumberFormatException e) {
+				System.err.println("Advertencia: '" + KEY_BLOQUES_CARGA + "' inválido (" + valor + "), se usa 'auto'.");
 			}
+		}
+		int procesadores = Runtime.getRuntime().availableProcessors();
+		if (procesadores == 1) {
+			return 1;
+		}
+		return Math.max(1, Math.min(procesadores * BLOQUES_POR_PROCESADOR, bytes / TAMANIO_MINIMO_BLOQUE));
+	}
 
-			
-			if (paradasCargadas.containsKey(id)) {
-				// Ya existe una parada con este ID, la ignoramos.
-				return;
+	/**
+	 * Parte el arreglo en a lo sumo {@code bloques} rangos contiguos, cada uno
+	 * terminado justo después de un fin de línea (o en el final del arreglo).
+	 *
+	 * @return Las posiciones de corte: el bloque {@code b} es {@code [cortes[b], cortes[b + 1])}.
+	 */
+	static int[] partirEnBloques(byte[] datos, int bloques) {
+		int[] cortes = new int[bloques + 1];
+		int cantidad = 0;
+		cortes[0] = 0;
+		for (int b = 1; b < bloques; b++) {
+			int corte = Math.max(cortes[cantidad], (int) ((long) datos.length * b / bloques));
+			// Avanza hasta el comienzo del próximo registro; un \r\n no se separa.
+			while (corte < datos.length && !(corte > 0 && (datos[corte - 1] == '\n'
+					|| (datos[corte - 1] == '\r' && datos[corte] != '\n')))) {
+				corte++;
+			}
+			if (corte > cortes[cantidad] && corte < datos.length) {
+				cortes[++cantidad] = corte;
 			}
+		}
+		cortes[++cantidad] = datos.length;
+		return Arrays.copyOf(cortes, cantidad + 1);
+	}
 
-			double latitud = Double.parseDouble(partes[2].trim());
-			double longitud = Double.parseDouble(partes[3].trim());
+	/**
+	 * Procesa el registro actual del archivo de paradas y lo añade a las nuevas
+	 * paradas del bloque si es válido. Si el ID ya existe, se conserva la primera
+	 * parada.
+	 *
+	 * @return false si el registro tiene formato incorrecto o datos inválidos.
+	 */
+	private boolean procesarLineaDeParada(BloqueRegistros<Parada> bloque) {
+		TokenizadorRegistros tokenizador = bloque.tokenizador;
+		int[] campos = bloque.campos;
+		if (tokenizador.registroEnBlanco())
+			return true;
+
+		if (tokenizador.separarCampos(DELIMITADOR_CAMPOS, campos) != CAMPOS_PARADA) {
+			return false;
+		}
+
+		// Verificamos que los campos obligatorios no estén vacíos ANTES de crear el objeto.
+		if (campos[0] == campos[1] || campos[2] == campos[3]) {
+			return false;
+		}
 
-			paradasCargadas.put(id, new Parada(id, direccion, latitud, longitud));
+		String id = tokenizador.texto(campos[0], campos[1]);
+		if (bloque.nuevos.containsKey(id) || paradasCargadas.containsKey(id)) {
+			// Ya existe una parada con este ID, la ignoramos.
+			return true;
+		}
+
+		bloque.clave = id;
+		try {
+			double latitud = tokenizador.decimal(campos[4], campos[5]);
+			double longitud = tokenizador.decimal(campos[6], campos[7]);
+			String direccion = tokenizador.texto(campos[2], campos[3]);
+			bloque.nuevos.put(id, new Parada(id, direccion, latitud, longitud));
+			return true;
 		} catch (NumberFormatException e) {
-			System.err.println("Advertencia: Coordenadas inválidas en línea de parada omitida -> " + linea);
+			return false; // Coordenadas inválidas
 		}
 	}
 
 	/**
-	 * Procesa una única línea del archivo de líneas y la añade al mapa si es
-	 * válida.
-	 * 
-	 * @param lineaStr La línea de texto a procesar.
+	 * Procesa el registro actual del archivo de líneas y lo añade a las nuevas
+	 * líneas del bloque si es válido. Las líneas se identifican por {@code id + " - " + nombre}; si la clave
+	 * ya existe, se conserva la primera. Una línea que referencia una parada
+	 * desconocida se omite completa.
+	 *
+	 * @return false si el registro tiene formato incorrecto o datos inválidos.
 	 */
-	private void procesarLineaDeLinea(String lineaStr) {
-		if (lineaStr.trim().isEmpty())
-			return;
-
-		String[] partes = lineaStr.split(DELIMITADOR_CAMPOS, -1);
-		if (partes.length != 3) {
-			System.err.println("Advertencia: Línea de línea con formato incorrecto omitida -> " + lineaStr);
-			return;
+	private boolean procesarLineaDeLinea(BloqueRegistros<Linea> bloque) {
+		TokenizadorRegistros tokenizador = bloque.tokenizador;
+		int[] campos = bloque.campos;
+		if (tokenizador.registroEnBlanco())
+			return true;
+
+		if (tokenizador.separarCampos(DELIMITADOR_CAMPOS, campos) != CAMPOS_LINEA) {
+			return false;
+		}
+		if (campos[0] == campos[1]) {
+			return false; // ID vacío
 		}
 
 		try {
-			String id = partes[0].trim();
-			String nombre = partes[1].trim();
-			if (id.isEmpty())
-				return;
-
+			String id = tokenizador.texto(campos[0], campos[1]);
+			String nombre = tokenizador.texto(campos[2], campos[3]);
 			String claveMapa = id + " - " + nombre;
-			if (lineasCargadas.containsKey(claveMapa))
-				return;
+			if (bloque.nuevos.containsKey(claveMapa) || lineasCargadas.containsKey(claveMapa))
+				return true;
+			bloque.clave = claveMapa;
 
 			Linea lineaObj = new Linea(id, nombre);
-			String[] idsParadas = partes[2].trim().split(DELIMITADOR_RECORRIDO);
 
-			if (idsParadas.length == 1 && idsParadas[0].isEmpty()) {
-				// Línea sin paradas, es válida.
-			} else {
-				for (String idParada : idsParadas) {
-					Parada parada = this.paradasCargadas.get(idParada.trim());
+			// Como con split(","), las comas finales no generan paradas vacías.
+			int finRecorrido = campos[5];
+			while (finRecorrido > campos[4] && tokenizador.byteEn(finRecorrido - 1) == DELIMITADOR_RECORRIDO) {
+				finRecorrido--;
+			}
+			if (finRecorrido > campos[4]) {
+				int[] paradas = bloque.limitesRecorrido;
+				int cantidad = tokenizador.separar(campos[4], finRecorrido, DELIMITADOR_RECORRIDO, paradas);
+				if (2 * cantidad > paradas.length) {
+					paradas = bloque.limitesRecorrido = new int[2 * cantidad];
+					tokenizador.separar(campos[4], finRecorrido, DELIMITADOR_RECORRIDO, paradas);
+				}
+				for (int k = 0; k < cantidad; k++) {
+					Parada parada = this.paradasCargadas.get(tokenizador.texto(paradas[2 * k], paradas[2 * k + 1]));
 					if (parada == null) {
-						System.err.println("Error: La línea '" + claveMapa + "' referencia una parada desconocida ('"
-								+ idParada.trim() + "'). La línea no será cargada.");
-						return; // Omite toda la línea si una parada no existe
+						return false; // Omite toda la línea si una parada no existe
 					}
 					lineaObj.agregarParadaAlRecorrido(parada);
 				}
 			}
-			lineasCargadas.put(claveMapa, lineaObj);
+			bloque.nuevos.put(claveMapa, lineaObj);
+			return true;
 		} catch (IllegalArgumentException e) {
-			System.err.println("Advertencia: Argumentos inválidos en línea de línea omitida -> " + lineaStr);
+			return false; // Argumentos inválidos (por ejemplo, nombre vacío)
+		}
+	}
+
+	/**
+	 * Agrega las entradas nuevas de los bloques a un mapa ordenado. Las entradas se
+	 * juntan en el orden del archivo y se ordenan por clave con un ordenamiento
+	 * estable, así que de cada clave repetida entre bloques queda la primera. Se
+	 * insertan ya ordenadas, por lo que cada inserción recorre la misma rama del
+	 * árbol que la anterior.
+	 */
+	private static <V> void agregarOrdenadas(Map<String, V> destino, List<BloqueRegistros<V>> bloques) {
+		int total = 0;
+		for (BloqueRegistros<V> bloque : bloques) total += bloque.nuevos.size();
+		if (total == 0) return;
+		Map.Entry<String, V>[] entradas = nuevasEntradas(total);
+		int cantidad = 0;
+		for (BloqueRegistros<V> bloque : bloques) {
+			for (Map.Entry<String, V> entrada : bloque.nuevos.entrySet()) {
+				entradas[cantidad++] = entrada;
+			}
+		}
+		// Ambos ordenamientos son estables
+		if (bloques.size() > 1) {
+			Arrays.parallelSort(entradas, Map.Entry.comparingByKey());
+		} else {
+			Arrays.sort(entradas, Map.Entry.comparingByKey());
+		}
+		int unicas = 1;
+		for (int i = 1; i < total; i++) {
+			if (!entradas[i].getKey().equals(entradas[unicas - 1].getKey())) {
+				entradas[unicas++] = entradas[i];
+			}
+		}
+		for (int i = 0; i < unicas; i++) {
+			destino.put(entradas[i].getKey(), entradas[i].getValue());
+		}
+	}
+
+	/** Arreglo de entradas del tipo pedido (Java no permite crear arreglos genéricos). */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static <V> Map.Entry<String, V>[] nuevasEntradas(int cantidad) {
+		return new Map.Entry[cantidad];
+	}
+
+	/** Emite una única advertencia con la cantidad de registros omitidos de un archivo. */
+	private static void advertirOmitidos(int omitidos, String tipo) {
+		if (omitidos > 0) {
+			System.err.println("Advertencia: se omitieron " + omitidos + " registros de " + tipo
+					+ " con formato incorrecto o datos inválidos.");
 		}
 	}
 
 	/**
-	 * Obtiene un Scanner para un archivo especificado en la configuración.
+	 * Lee completo un archivo especificado en la configuración. Se busca primero
+	 * en el classpath y, si no está, como ruta del sistema de archivos.
 	 * 
 	 * @param propiedadKey La clave en config.properties que contiene el nombre del
 	 *                     archivo.
-	 * @return Un Scanner listo para leer el archivo.
+	 * @return El contenido del archivo.
 	 * @throws IOException si la propiedad no existe o el archivo no se encuentra.
 	 */
-	private Scanner obtenerScannerParaArchivo(String propiedadKey) throws IOException {
+	private byte[] leerArchivo(String propiedadKey) throws IOException {
 		String nombreArchivo = propiedades.getProperty(propiedadKey);
 		if (nombreArchivo == null || nombreArchivo.trim().isEmpty()) {
 			throw new IOException("La propiedad '" + propiedadKey + "' no está definida en config.properties.");
 		}
-		InputStream input = LectorArchivos.class.getClassLoader().getResourceAsStream(nombreArchivo);
-		if (input == null) {
-			throw new IOException("Archivo no encontrado en classpath: " + nombreArchivo);
+		try (InputStream input = LectorArchivos.class.getClassLoader().getResourceAsStream(nombreArchivo)) {
+			if (input != null) {
+				return input.readAllBytes();
+			}
+		}
+		Path ruta = Paths.get(nombreArchivo);
+		if (!Files.isRegularFile(ruta)) {
+			throw new IOException("Archivo no encontrado en classpath ni en disco: " + nombreArchivo);
+		}
+		return Files.readAllBytes(ruta);
+	}
+
+	/**
+	 * Busca la imagen binaria de la propiedad {@code imagen_red}, primero en el
+	 * classpath y luego en disco. Se mapea en memoria si es un archivo; si es un
+	 * recurso empaquetado, se lee completo.
+	 *
+	 * @return La imagen, o null si no está configurada, no existe o no es válida.
+	 */
+	private ImagenRed buscarImagenRed() {
+		String nombreArchivo = propiedades.getProperty(KEY_IMAGEN_RED);
+		if (nombreArchivo == null || nombreArchivo.trim().isEmpty()) {
+			return null;
+		}
+		nombreArchivo = nombreArchivo.trim();
+		try {
+			URL recurso = LectorArchivos.class.getClassLoader().getResource(nombreArchivo);
+			if (recurso != null && "file".equals(recurso.getProtocol())) {
+				return ImagenRed.leer(Paths.get(recurso.toURI()));
+			}
+			if (recurso != null) {
+				try (InputStream input = recurso.openStream()) {
+					return ImagenRed.leer(ByteBuffer.wrap(input.readAllBytes()));
+				}
+			}
+			Path ruta = Paths.get(nombreArchivo);
+			if (Files.isRegularFile(ruta)) {
+				return ImagenRed.leer(ruta);
+			}
+			System.err.println("Advertencia: no se encontró la imagen de red '" + nombreArchivo
+					+ "'; se leen los archivos de texto.");
+		} catch (IOException | URISyntaxException | IllegalStateException e) {
+			System.err.println("Advertencia: no se pudo usar la imagen de red '" + nombreArchivo + "' ("
+					+ e.getMessage() + "); se leen los archivos de texto.");
 		}
-		return new Scanner(input, StandardCharsets.UTF_8.name());
+		return null;
 	}
 
 	/**
@@ -263,4 +558,50 @@ public class LectorArchivos {
 			throw new RuntimeException("Error crítico al cargar el archivo de configuración: " + nombreArchivo, ex);
 		}
 	}
-}
\ No newline at end of file
+
+	// =================================================================================
+	// CLASES INTERNAS
+	// =================================================================================
+
+	/** Procesa el registro actual de un bloque; devuelve false si debe omitirse. */
+	@FunctionalInterface
+	private interface ProcesadorRegistro<V> {
+		boolean procesar(BloqueRegistros<V> bloque);
+	}
+
+	/**
+	 * Estado de la lectura de un bloque del archivo. Cada bloque lo usa un único
+	 * hilo, así que no necesita sincronización.
+	 */
+	private static final class BloqueRegistros<V> {
+		final TokenizadorRegistros tokenizador;
+		final int[] campos;
+		/** Arreglo de trabajo para los límites de las paradas de un recorrido. */
+		int[] limitesRecorrido = new int[64];
+		final Map<String, V> nuevos = new HashMap<>();
+
+		/** Clave del registro actual, si se llegó a leer antes de omitirlo. */
+		String clave;
+		int omitidosSinClave;
+		/** Claves de los registros omitidos luego de leer la clave, en orden. */
+		final List<String> clavesOmitidas = new ArrayList<>();
+
+		BloqueRegistros(TokenizadorRegistros tokenizador, int camposPorRegistro) {
+			this.tokenizador = tokenizador;
+			this.campos = new int[2 * camposPorRegistro];
+		}
+
+		void recorrer(ProcesadorRegistro<V> procesador) {
+			while (tokenizador.siguienteRegistro()) {
+				this.clave = null;
+				if (!procesador.procesar(this)) {
+					if (this.clave == null) {
+						this.omitidosSinClave++;
+					} else {
+						this.clavesOmitidas.add(this.clave);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package proyectointegrador.datos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import proyectointegrador.modelo.Linea;
+
+/**
+ * Horarios de servicio de las líneas, leídos del archivo de horarios
+ * ({@code horarios_pm.txt}).
+ * <p>
+ * Cada registro tiene el formato
+ * {@code idLinea;sentido;días;primeraSalida;últimaSalida;frecuencia}, por ejemplo
+ * {@code 1;Ida;L-V;06:00;21:30;0}. El sentido es el final del nombre de la línea
+ * ("Línea 1 - Ida"). Los días son un día ({@code LUN}, {@code MAR}, {@code MIE},
+ * {@code JUE}, {@code VIE}, {@code SAB}, {@code DOM}) o un rango de días con esas
+ * abreviaturas o sus iniciales ({@code L-V}, {@code L-J}, {@code L-S}). Las horas
+ * son las salidas desde la primera parada, en formato {@code HH:MM}; si la última
+ * es anterior o igual a la primera, el servicio pasa la medianoche. La frecuencia
+ * está en minutos, y 0 indica que se usa la frecuencia de la configuración.
+ * <p>
+ * Los registros con formato incorrecto se omiten y se cuentan
+ * ({@link #getRegistrosOmitidos()}). La tabla es inmutable.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public final class TablaHorarios {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	private static final byte DELIMITADOR_CAMPOS = ';';
+	private static final int CAMPOS_HORARIO = 6;
+	private static final int MINUTOS_POR_DIA = 24 * 60;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	/** Servicios por {@code idLinea + " - " + sentido} (sentido en minúsculas), en el orden del archivo. */
+	private final Map<String, List<Servicio>> serviciosPorLinea;
+	private final int cantidadServicios;
+	private final int registrosOmitidos;
+
+	// =================================================================================
+	// CONSTRUCCIÓN
+	// =================================================================================
+
+	private TablaHorarios(Map<String, List<Servicio>> serviciosPorLinea, int cantidadServicios, int registrosOmitidos) {
+		this.serviciosPorLinea = serviciosPorLinea;
+		this.cantidadServicios = cantidadServicios;
+		this.registrosOmitidos = registrosOmitidos;
+	}
+
+	/** Lee un archivo de horarios del disco. */
+	public static TablaHorarios leer(Path archivo) throws IOException {
+		if (archivo == null) {
+			throw new IllegalArgumentException("El archivo no puede ser nulo.");
+		}
+		return leer(Files.readAllBytes(archivo));
+	}
+
+	/** Interpreta el contenido completo de un archivo de horarios (UTF-8). */
+	static TablaHorarios leer(byte[] datos) {
+		TokenizadorRegistros tokenizador = new TokenizadorRegistros(datos);
+		int[] limites = new int[2 * CAMPOS_HORARIO];
+		Map<String, List<Servicio>> servicios = new HashMap<>();
+		int cantidad = 0;
+		int omitidos = 0;
+		while (tokenizador.siguienteRegistro()) {
+			if (tokenizador.registroEnBlanco()) continue;
+			if (tokenizador.separarCampos(DELIMITADOR_CAMPOS, limites) != CAMPOS_HORARIO) {
+				omitidos++;
+				continue;
+			}
+			try {
+				String idLinea = tokenizador.texto(limites[0], limites[1]);
+				String sentido = tokenizador.texto(limites[2], limites[3]);
+				EnumSet<DayOfWeek> dias = dias(tokenizador.texto(limites[4], limites[5]));
+				int primera = minutos(tokenizador.texto(limites[6], limites[7]));
+				int ultima = minutos(tokenizador.texto(limites[8], limites[9]));
+				int frecuencia = Integer.parseInt(tokenizador.texto(limites[10], limites[11]));
+				if (idLinea.isEmpty() || sentido.isEmpty() || frecuencia < 0) {
+					throw new IllegalArgumentException("Registro de horario incompleto.");
+				}
+				if (ultima <= primera) ultima += MINUTOS_POR_DIA;
+				servicios.computeIfAbsent(clave(idLinea, sentido), k -> new ArrayList<>())
+						.add(new Servicio(dias, primera, ultima, frecuencia));
+				cantidad++;
+			} catch (IllegalArgumentException e) { // Incluye NumberFormatException
+				omitidos++;
+			}
+		}
+		for (Map.Entry<String, List<Servicio>> entrada : servicios.entrySet()) {
+			entrada.setValue(Collections.unmodifiableList(entrada.getValue()));
+		}
+		return new TablaHorarios(servicios, cantidad, omitidos);
+	}
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	/**
+	 * Servicio de una línea en un sentido para un día de la semana.
+	 *
+	 * @return El primer servicio del archivo que incluye ese día, o null si la
+	 *         línea no tiene servicio ese día.
+	 */
+	public Servicio servicio(String idLinea, String sentido, DayOfWeek dia) {
+		if (idLinea == null || sentido == null || dia == null) {
+			return null;
+		}
+		for (Servicio servicio : this.serviciosPorLinea.getOrDefault(clave(idLinea.trim(), sentido.trim()),
+				Collections.emptyList())) {
+			if (servicio.dias.contains(dia)) return servicio;
+		}
+		return null;
+	}
+
+	/**
+	 * Servicio de una línea para un día de la semana. El sentido se toma del final
+	 * del nombre de la línea (lo que sigue al último {@code " - "}).
+	 */
+	public Servicio servicio(Linea linea, DayOfWeek dia) {
+		if (linea == null) {
+			return null;
+		}
+		String nombre = linea.getNombre();
+		int separador = nombre.lastIndexOf(" - ");
+		String sentido = (separador >= 0) ? nombre.substring(separador + 3) : nombre;
+		return servicio(linea.getId(), sentido, dia);
+	}
+
+	/** Cantidad de servicios (registros válidos) de la tabla. */
+	public int getCantidadServicios() { return this.cantidadServicios; }
+
+	/** Cantidad de registros omitidos por formato o datos inválidos. */
+	public int getRegistrosOmitidos() { return this.registrosOmitidos; }
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private static String clave(String idLinea, String sentido) {
+		return idLinea + " - " + sentido.toLowerCase(Locale.ROOT);
+	}
+
+	/** Convierte {@code HH:MM} a minutos desde la medianoche. */
+	private static int minutos(String hora) {
+		int separador = hora.indexOf(':');
+		if (separador <= 0) {
+			throw new IllegalArgumentException("Hora inválida: " + hora);
+		}
+		int horas = Integer.parseInt(hora.substring(0, separador));
+		int minutos = Integer.parseInt(hora.substring(separador + 1));
+		if (horas < 0 || horas > 23 || minutos < 0 || minutos > 59) {
+			throw new IllegalArgumentException("Hora inválida: " + hora);
+		}
+		return horas * 60 + minutos;
+	}
+
+	/** Interpreta un día o un rango de días ({@code L-V}, {@code SAB}, {@code VIE-DOM}). */
+	private static EnumSet<DayOfWeek> dias(String texto) {
+		int guion = texto.indexOf('-');
+		if (guion < 0) {
+			return EnumSet.of(dia(texto));
+		}
+		DayOfWeek desde = dia(texto.substring(0, guion));
+		DayOfWeek hasta = dia(texto.substring(guion + 1));
+		EnumSet<DayOfWeek> dias = EnumSet.of(desde);
+		for (DayOfWeek d = desde; d != hasta; d = d.plus(1)) {
+			dias.add(d.plus(1));
+		}
+		return dias;
+	}
+
+	private static DayOfWeek dia(String abreviatura) {
+		switch (abreviatura.trim().toUpperCase(Locale.ROOT)) {
+			case "L": case "LUN": return DayOfWeek.MONDAY;
+			case "M": case "MAR": return DayOfWeek.TUESDAY;
+			case "X": case "MIE": return DayOfWeek.WEDNESDAY;
+			case "J": case "JUE": return DayOfWeek.THURSDAY;
+			case "V": case "VIE": return DayOfWeek.FRIDAY;
+			case "S": case "SAB": return DayOfWeek.SATURDAY;
+			case "D": case "DOM": return DayOfWeek.SUNDAY;
+			default: throw new IllegalArgumentException("Día inválido: " + abreviatura);
+		}
+	}
+
+	// =================================================================================
+	// CLASE ANIDADA
+	// =================================================================================
+
+	/** Ventana de salidas de una línea en un sentido, para ciertos días de la semana. */
+	public static final class Servicio {
+		private final EnumSet<DayOfWeek> dias;
+		private final int primeraSalida;
+		private final int ultimaSalida;
+		private final int frecuencia;
+
+		private Servicio(EnumSet<DayOfWeek> dias, int primeraSalida, int ultimaSalida, int frecuencia) {
+			this.dias = dias;
+			this.primeraSalida = primeraSalida;
+			this.ultimaSalida = ultimaSalida;
+			this.frecuencia = frecuencia;
+		}
+
+		/** Primera salida desde la cabecera, en minutos desde la medianoche. */
+		public int getPrimeraSalida() { return this.primeraSalida; }
+
+		/** Última salida desde la cabecera, en minutos desde la medianoche (puede pasar de 24:00). */
+		public int getUltimaSalida() { return this.ultimaSalida; }
+
+		/** Minutos entre salidas, o 0 si no se indica. */
+		public int getFrecuencia() { return this.frecuencia; }
+
+		public boolean incluye(DayOfWeek dia) { return this.dias.contains(dia); }
+	}
+}
@@ -0,0 +1,205 @@
+package proyectointegrador.datos;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorre los registros (líneas de texto) de un archivo ya leído en memoria y
+ * separa sus campos trabajando directamente sobre los bytes, sin expresiones
+ * regulares y sin crear un {@code String} por línea ni por campo.
+ * <p>
+ * Los campos se describen por su posición en el arreglo ({@code [inicio, fin)}),
+ * ya recortados de espacios como con {@link String#trim()}. Solo se crean
+ * cadenas para los campos que se guardan, y los números decimales simples se
+ * convierten sin pasar por texto.
+ * <p>
+ * Reconoce los finales de línea {@code \n}, {@code \r\n} y {@code \r}. El texto
+ * debe estar en UTF-8; los delimitadores son ASCII, por lo que nunca coinciden
+ * con un byte de un carácter multibyte.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+final class TokenizadorRegistros {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	/** Potencias de 10 representables en forma exacta como double. */
+	private static final double[] POTENCIAS_DE_10 = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/** Máximo de dígitos significativos que se acumulan sin perder precisión (menor a 2^53). */
+	private static final int MAX_DIGITOS_EXACTOS = 15;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final byte[] datos;
+	private final int fin;
+	private int posicion;
+
+	// --- Registro actual ---
+	private int inicioRegistro;
+	private int finRegistro;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	TokenizadorRegistros(byte[] datos) {
+		this(datos, 0, datos.length);
+	}
+
+	/**
+	 * @param desde Posición del primer byte del primer registro.
+	 * @param hasta Posición siguiente al último byte a recorrer.
+	 */
+	TokenizadorRegistros(byte[] datos, int desde, int hasta) {
+		if (desde < 0 || hasta > datos.length || desde > hasta) {
+			throw new IndexOutOfBoundsException("Rango inválido: [" + desde + ", " + hasta + ")");
+		}
+		this.datos = datos;
+		this.posicion = desde;
+		this.fin = hasta;
+	}
+
+	// =================================================================================
+	// REGISTROS
+	// =================================================================================
+
+	/**
+	 * Avanza al próximo registro.
+	 * @return false si no quedan registros.
+	 */
+	boolean siguienteRegistro() {
+		if (this.posicion >= this.fin) {
+			return false;
+		}
+		int i = this.posicion;
+		while (i < this.fin && this.datos[i] != '\n' && this.datos[i] != '\r') {
+			i++;
+		}
+		this.inicioRegistro = this.posicion;
+		this.finRegistro = i;
+		if (i < this.fin && this.datos[i] == '\r' && i + 1 < this.fin && this.datos[i + 1] == '\n') {
+			i++;
+		}
+		this.posicion = i + 1;
+		return true;
+	}
+
+	/** Indica si el registro actual está vacío o tiene solo espacios. */
+	boolean registroEnBlanco() {
+		return recortarInicio(this.inicioRegistro, this.finRegistro) == this.finRegistro;
+	}
+
+	/** Devuelve el registro actual completo como texto (para mensajes). */
+	String registro() {
+		return new String(this.datos, this.inicioRegistro, this.finRegistro - this.inicioRegistro, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Separa el registro actual por un delimitador, como {@code split(delimitador, -1)}
+	 * seguido de {@code trim()} en cada campo.
+	 *
+	 * @param limites Recibe inicio y fin de cada campo en las posiciones {@code 2k} y {@code 2k + 1}.
+	 * @return La cantidad total de campos del registro, aunque no entren todos en {@code limites}.
+	 */
+	int separarCampos(byte delimitador, int[] limites) {
+		return separar(this.inicioRegistro, this.finRegistro, delimitador, limites);
+	}
+
+	/**
+	 * Igual que {@link #separarCampos}, pero sobre un rango arbitrario del arreglo
+	 * (por ejemplo, un campo ya separado).
+	 */
+	int separar(int desde, int hasta, byte delimitador, int[] limites) {
+		int campos = 0;
+		int inicioCampo = desde;
+		for (int i = desde; i <= hasta; i++) {
+			if (i == hasta || this.datos[i] == delimitador) {
+				if (2 * campos + 1 < limites.length) {
+					int a = recortarInicio(inicioCampo, i);
+					limites[2 * campos] = a;
+					limites[2 * campos + 1] = recortarFin(a, i);
+				}
+				campos++;
+				inicioCampo = i + 1;
+			}
+		}
+		return campos;
+	}
+
+	// =================================================================================
+	// CONVERSIÓN DE CAMPOS
+	// =================================================================================
+
+	byte byteEn(int i) {
+		return this.datos[i];
+	}
+
+	String texto(int desde, int hasta) {
+		return new String(this.datos, desde, hasta - desde, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Convierte un campo a double con el mismo resultado que
+	 * {@link Double#parseDouble}. Los decimales simples (signo, hasta 15 dígitos
+	 * significativos y hasta 22 decimales) se convierten con una única división
+	 * exacta, que IEEE 754 redondea correctamente; el resto se delega en
+	 * {@code Double.parseDouble}.
+	 *
+	 * @throws NumberFormatException si el campo no es un número.
+	 */
+	double decimal(int desde, int hasta) {
+		int i = desde;
+		boolean negativo = false;
+		if (i < hasta && (this.datos[i] == '-' || this.datos[i] == '+')) {
+			negativo = this.datos[i] == '-';
+			i++;
+		}
+		long mantisa = 0;
+		int digitos = 0;      // Dígitos significativos acumulados en la mantisa
+		int decimales = -1;   // Dígitos después del punto (-1: sin punto)
+		boolean hayDigitos = false;
+		for (; i < hasta; i++) {
+			byte b = this.datos[i];
+			if (b >= '0' && b <= '9') {
+				hayDigitos = true;
+				if (mantisa != 0 || b != '0') {
+					if (++digitos > MAX_DIGITOS_EXACTOS) break;
+				}
+				mantisa = mantisa * 10 + (b - '0');
+				if (decimales >= 0) decimales++;
+			} else if (b == '.' && decimales < 0) {
+				decimales = 0;
+			} else {
+				break;
+			}
+		}
+		if (i == hasta && hayDigitos && decimales < POTENCIAS_DE_10.length) {
+			double valor = (decimales > 0) ? mantisa / POTENCIAS_DE_10[decimales] : (double) mantisa;
+			return negativo ? -valor : valor;
+		}
+		return Double.parseDouble(texto(desde, hasta));
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	/** Avanza sobre los bytes menores o iguales a un espacio, como {@link String#trim()}. */
+	private int recortarInicio(int desde, int hasta) {
+		while (desde < hasta && (this.datos[desde] & 0xFF) <= ' ') desde++;
+		return desde;
+	}
+
+	private int recortarFin(int desde, int hasta) {
+		while (hasta > desde && (this.datos[hasta - 1] & 0xFF) <= ' ') hasta--;
+		return hasta;
+	}
+}
@@ -0,0 +1,191 @@
+package proyectointegrador.datos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Instantánea inmutable de la red de transporte: paradas y recorridos de líneas.
+ * <p>
+ * Se construye una única vez a partir de los datos cargados por
+ * {@link LectorArchivos} y puede compartirse entre hilos. Como {@link Parada} y
+ * {@link Linea} tienen estado mutable (colas de espera, estadísticas), cada
+ * réplica de simulación obtiene sus propios objetos con {@link #instanciar()}.
+ * <p>
+ * Las columnas se pueden guardar y leer en forma binaria con {@link ImagenRed}.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.1
+ */
+public final class TopologiaRed {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	// --- Paradas (columnas paralelas, en orden de ID) ---
+	private final String[] idsParadas;
+	private final String[] direcciones;
+	private final double[] latitudes;
+	private final double[] longitudes;
+
+	// --- Líneas (en el orden de las claves del mapa original) ---
+	private final String[] clavesLineas;
+	private final String[] idsLineas;
+	private final String[] nombresLineas;
+	private final int[][] recorridos; // Índices de parada de cada línea
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	private TopologiaRed(String[] idsParadas, String[] direcciones, double[] latitudes, double[] longitudes,
+			String[] clavesLineas, String[] idsLineas, String[] nombresLineas, int[][] recorridos) {
+		this.idsParadas = idsParadas;
+		this.direcciones = direcciones;
+		this.latitudes = latitudes;
+		this.longitudes = longitudes;
+		this.clavesLineas = clavesLineas;
+		this.idsLineas = idsLineas;
+		this.nombresLineas = nombresLineas;
+		this.recorridos = recorridos;
+	}
+
+	/**
+	 * Crea la topología a partir de columnas ya armadas (por ejemplo, leídas de una
+	 * {@link ImagenRed}). Los arreglos no se copian.
+	 */
+	static TopologiaRed deColumnas(String[] idsParadas, String[] direcciones, double[] latitudes, double[] longitudes,
+			String[] clavesLineas, String[] idsLineas, String[] nombresLineas, int[][] recorridos) {
+		return new TopologiaRed(idsParadas, direcciones, latitudes, longitudes, clavesLineas, idsLineas, nombresLineas,
+				recorridos);
+	}
+
+	/**
+	 * Toma una instantánea de las paradas y líneas cargadas.
+	 *
+	 * @param paradas Mapa de paradas por ID.
+	 * @param lineas  Mapa de líneas; sus claves se conservan en las instancias.
+	 * @return La topología inmutable.
+	 * @throws IllegalArgumentException si los mapas son nulos o una línea usa una
+	 *                                  parada que no está en el mapa de paradas.
+	 */
+	public static TopologiaRed desde(Map<String, Parada> paradas, Map<String, Linea> lineas) {
+		if (paradas == null || lineas == null) {
+			throw new IllegalArgumentException("Las paradas y líneas no pueden ser nulas.");
+		}
+		List<Parada> listaParadas = new ArrayList<>(new TreeMap<>(paradas).values());
+		int cantidadParadas = listaParadas.size();
+		String[] idsParadas = new String[cantidadParadas];
+		String[] direcciones = new String[cantidadParadas];
+		double[] latitudes = new double[cantidadParadas];
+		double[] longitudes = new double[cantidadParadas];
+		Map<Parada, Integer> indicePorParada = new HashMap<>();
+		for (int i = 0; i < cantidadParadas; i++) {
+			Parada p = listaParadas.get(i);
+			idsParadas[i] = p.getId();
+			direcciones[i] = p.getDireccion();
+			latitudes[i] = p.getLatitud();
+			longitudes[i] = p.getLongitud();
+			indicePorParada.put(p, i);
+		}
+
+		int cantidadLineas = lineas.size();
+		String[] claves = new String[cantidadLineas];
+		String[] idsLineas = new String[cantidadLineas];
+		String[] nombres = new String[cantidadLineas];
+		int[][] recorridos = new int[cantidadLineas][];
+		int l = 0;
+		for (Map.Entry<String, Linea> entry : lineas.entrySet()) {
+			Linea linea = entry.getValue();
+			List<Parada> recorrido = linea.getRecorridoVista();
+			int[] indices = new int[recorrido.size()];
+			for (int i = 0; i < indices.length; i++) {
+				Integer indice = indicePorParada.get(recorrido.get(i));
+				if (indice == null) {
+					throw new IllegalArgumentException("La línea '" + entry.getKey() + "' usa la parada desconocida "
+							+ recorrido.get(i).getId() + ".");
+				}
+				indices[i] = indice;
+			}
+			claves[l] = entry.getKey();
+			idsLineas[l] = linea.getId();
+			nombres[l] = linea.getNombre();
+			recorridos[l] = indices;
+			l++;
+		}
+		return new TopologiaRed(idsParadas, direcciones, latitudes, longitudes, claves, idsLineas, nombres, recorridos);
+	}
+
+	// =================================================================================
+	// MÉTODOS PÚBLICOS
+	// =================================================================================
+
+	/**
+	 * Crea objetos {@link Parada} y {@link Linea} nuevos, sin pasajeros ni
+	 * estadísticas, con la misma estructura que la red original.
+	 *
+	 * @return Una instancia independiente de la red.
+	 */
+	public Instancia instanciar() {
+		Parada[] paradas = new Parada[this.idsParadas.length];
+		Map<String, Parada> mapaParadas = new TreeMap<>();
+		for (int i = 0; i < paradas.length; i++) {
+			paradas[i] = new Parada(this.idsParadas[i], this.direcciones[i], this.latitudes[i], this.longitudes[i]);
+			mapaParadas.put(this.idsParadas[i], paradas[i]);
+		}
+
+		Map<String, Linea> mapaLineas = new TreeMap<>();
+		for (int l = 0; l < this.clavesLineas.length; l++) {
+			Linea linea = new Linea(this.idsLineas[l], this.nombresLineas[l]);
+			for (int indice : this.recorridos[l]) {
+				linea.agregarParadaAlRecorrido(paradas[indice]);
+			}
+			mapaLineas.put(this.clavesLineas[l], linea);
+		}
+		return new Instancia(mapaParadas, mapaLineas);
+	}
+
+	public int getCantidadParadas() { return this.idsParadas.length; }
+	public int getCantidadLineas() { return this.clavesLineas.length; }
+
+	/** ID de la parada con el índice dado; las paradas se indexan en orden de ID. */
+	public String getIdParada(int indice) { return this.idsParadas[indice]; }
+
+	// --- Columnas, sin copiar (solo para ImagenRed; no deben modificarse) ---
+	String[] idsParadas() { return this.idsParadas; }
+	String[] direcciones() { return this.direcciones; }
+	double[] latitudes() { return this.latitudes; }
+	double[] longitudes() { return this.longitudes; }
+	String[] clavesLineas() { return this.clavesLineas; }
+	String[] idsLineas() { return this.idsLineas; }
+	String[] nombresLineas() { return this.nombresLineas; }
+	int[][] recorridos() { return this.recorridos; }
+
+	// =================================================================================
+	// CLASE ANIDADA
+	// =================================================================================
+
+	/**
+	 * Objetos mutables de una réplica de la red, listos para una simulación.
+	 */
+	public static final class Instancia {
+		private final Map<String, Parada> paradas;
+		private final Map<String, Linea> lineas;
+
+		private Instancia(Map<String, Parada> paradas, Map<String, Linea> lineas) {
+			this.paradas = Collections.unmodifiableMap(paradas);
+			this.lineas = Collections.unmodifiableMap(lineas);
+		}
+
+		public Map<String, Parada> getParadas() { return this.paradas; }
+		public Map<String, Linea> getLineas() { return this.lineas; }
+	}
+}
@@ -0,0 +1,50 @@
+package proyectointegrador.interfaz;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import proyectointegrador.datos.ImagenRed;
+import proyectointegrador.datos.LectorArchivos;
+import proyectointegrador.datos.TopologiaRed;
+
+/**
+ * Punto de entrada del conversor que genera la {@link ImagenRed} a partir de los
+ * archivos de texto de {@code config.properties}:
+ * {@code java -cp <classpath> proyectointegrador.interfaz.ConversorImagenRed [archivo-salida]}.
+ * Sin argumentos, se escribe en el archivo de la propiedad {@code imagen_red}.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public final class ConversorImagenRed {
+
+	/**
+	 * Constructor privado para evitar que la clase de utilidad sea instanciada.
+	 */
+	private ConversorImagenRed() {
+	}
+
+	/**
+	 * Lee la red de los archivos de texto, escribe la imagen e informa un resumen.
+	 *
+	 * @param args Archivo de salida (opcional).
+	 */
+	public static void main(String[] args) throws IOException {
+		LectorArchivos lector = new LectorArchivos();
+		String destino = (args.length > 0) ? args[0] : lector.getPropiedades().getProperty("imagen_red");
+		if (destino == null || destino.trim().isEmpty()) {
+			System.err.println("Uso: ConversorImagenRed <archivo-salida> (o definir 'imagen_red' en config.properties)");
+			System.exit(1);
+		}
+		lector.cargarParadas();
+		lector.cargarLineas();
+		TopologiaRed topologia = TopologiaRed.desde(lector.getParadasVista(), lector.getLineasVista());
+		Path archivo = Paths.get(destino.trim());
+		ImagenRed.escribir(topologia, archivo);
+		System.out.printf("Imagen de red escrita en %s: %d paradas, %d líneas, %d bytes.%n", archivo,
+				topologia.getCantidadParadas(), topologia.getCantidadLineas(), Files.size(archivo));
+	}
+}
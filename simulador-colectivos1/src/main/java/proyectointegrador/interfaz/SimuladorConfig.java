@@ -2,6 +2,10 @@ package proyectointegrador.interfaz;
 
 import java.util.Properties;
 
+import proyectointegrador.logica.EstrategiaRuteo;
+import proyectointegrador.logica.FuenteAleatoria;
+import proyectointegrador.logica.ModoMotor;
+
 /**
  * Clase de utilidad para leer y validar la configuración del simulador desde un
  * archivo de propiedades.
@@ -45,6 +49,28 @@ public final class SimuladorConfig {
 	private static final String KEY_FRECUENCIA_SALIDA = "frecuencia_salida_colectivos_minutos";
 	private static final int DEFAULT_FRECUENCIA_SALIDA = 10;
 
+	private static final String KEY_MODO_MOTOR = "modo_motor";
+	private static final ModoMotor DEFAULT_MODO_MOTOR = ModoMotor.PASOS;
+
+	private static final String KEY_ESTRATEGIA_RUTEO = "estrategia_ruteo";
+	private static final EstrategiaRuteo DEFAULT_ESTRATEGIA_RUTEO = EstrategiaRuteo.DIJKSTRA;
+	private static final String KEY_JERARQUIA_RUTAS = "jerarquia_rutas";
+
+	private static final String KEY_HORARIOS = "horarios";
+	private static final String KEY_MINUTOS_POR_TRAMO = "minutos_por_tramo";
+	private static final int DEFAULT_MINUTOS_POR_TRAMO = 2;
+
+	private static final String KEY_CANTIDAD_REPLICAS = "cantidad_replicas";
+	private static final int DEFAULT_CANTIDAD_REPLICAS = 30;
+
+	private static final String KEY_HILOS_REPLICAS = "hilos_replicas";
+
+	private static final String KEY_SEMILLA = "semilla";
+
+	private static final String KEY_CHECKPOINT_CADA_PASOS = "checkpoint_cada_pasos";
+	private static final String KEY_CHECKPOINT_ARCHIVO = "checkpoint_archivo";
+	private static final String DEFAULT_CHECKPOINT_ARCHIVO = "checkpoint_simulacion.bin";
+
 	/**
 	 * Constructor privado para evitar que la clase de utilidad sea instanciada.
 	 */
@@ -96,6 +122,105 @@ public final class SimuladorConfig {
 		return obtenerEnteroDeConfig(configProperties, KEY_FRECUENCIA_SALIDA, DEFAULT_FRECUENCIA_SALIDA);
 	}
 
+	// Método para obtener el motor de simulación ("pasos", "eventos" o "paralelo").
+	// Si la clave no está definida se usa el motor por pasos sin emitir advertencias.
+	public static ModoMotor obtenerModoMotor(Properties configProperties) {
+		String valor = (configProperties != null) ? configProperties.getProperty(KEY_MODO_MOTOR) : null;
+		if (valor == null || valor.trim().isEmpty()) {
+			return DEFAULT_MODO_MOTOR;
+		}
+		try {
+			return ModoMotor.valueOf(valor.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			System.err.println("Valor de '" + KEY_MODO_MOTOR + "' inválido en configuración. Se usará '"
+					+ DEFAULT_MODO_MOTOR + "' por defecto.");
+			return DEFAULT_MODO_MOTOR;
+		}
+	}
+
+	// Método para obtener la estrategia de ruteo ("dijkstra", "bidireccional", "a_estrella" o "contracciones").
+	// Si la clave no está definida se usa Dijkstra sin emitir advertencias.
+	public static EstrategiaRuteo obtenerEstrategiaRuteo(Properties configProperties) {
+		String valor = (configProperties != null) ? configProperties.getProperty(KEY_ESTRATEGIA_RUTEO) : null;
+		if (valor == null || valor.trim().isEmpty()) {
+			return DEFAULT_ESTRATEGIA_RUTEO;
+		}
+		try {
+			return EstrategiaRuteo.valueOf(valor.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			System.err.println("Valor de '" + KEY_ESTRATEGIA_RUTEO + "' inválido en configuración. Se usará '"
+					+ DEFAULT_ESTRATEGIA_RUTEO + "' por defecto.");
+			return DEFAULT_ESTRATEGIA_RUTEO;
+		}
+	}
+
+	// Método para obtener el archivo donde se guarda la jerarquía de contracciones de la red.
+	// Devuelve null si la clave no está definida (la jerarquía se arma en cada arranque).
+	public static String obtenerArchivoJerarquiaRutas(Properties configProperties) {
+		String valor = (configProperties != null) ? configProperties.getProperty(KEY_JERARQUIA_RUTAS) : null;
+		return (valor == null || valor.trim().isEmpty()) ? null : valor.trim();
+	}
+
+	// Método para saber si hay un archivo de horarios de las líneas (habilita el planificador de viajes).
+	public static boolean tieneHorarios(Properties configProperties) {
+		String valor = (configProperties != null) ? configProperties.getProperty(KEY_HORARIOS) : null;
+		return valor != null && !valor.trim().isEmpty();
+	}
+
+	// Método para obtener los minutos que tarda un colectivo entre dos paradas consecutivas.
+	// Si la clave no está definida se usan 2 minutos (un paso de la simulación) sin emitir advertencias.
+	public static int obtenerMinutosPorTramo(Properties configProperties) {
+		if (configProperties == null || configProperties.getProperty(KEY_MINUTOS_POR_TRAMO) == null) {
+			return DEFAULT_MINUTOS_POR_TRAMO;
+		}
+		return obtenerEnteroDeConfig(configProperties, KEY_MINUTOS_POR_TRAMO, DEFAULT_MINUTOS_POR_TRAMO);
+	}
+
+	// Método para obtener la cantidad de réplicas de Monte Carlo a ejecutar
+	public static int obtenerCantidadReplicas(Properties configProperties) {
+		return obtenerEnteroDeConfig(configProperties, KEY_CANTIDAD_REPLICAS, DEFAULT_CANTIDAD_REPLICAS);
+	}
+
+	// Método para obtener la cantidad de réplicas que se ejecutan a la vez.
+	// Por defecto se usa un hilo por procesador disponible, sin emitir advertencias.
+	public static int obtenerHilosReplicas(Properties configProperties) {
+		int procesadores = Runtime.getRuntime().availableProcessors();
+		if (configProperties == null || configProperties.getProperty(KEY_HILOS_REPLICAS) == null) {
+			return procesadores;
+		}
+		return obtenerEnteroDeConfig(configProperties, KEY_HILOS_REPLICAS, procesadores);
+	}
+
+	// Método para obtener la semilla de los generadores aleatorios. Con la misma
+	// semilla, la simulación y las réplicas se reproducen exactamente.
+	// Si la clave no está definida se elige una semilla al azar sin emitir advertencias.
+	public static long obtenerSemilla(Properties configProperties) {
+		String valor = (configProperties != null) ? configProperties.getProperty(KEY_SEMILLA) : null;
+		if (valor == null || valor.trim().isEmpty()) {
+			return FuenteAleatoria.nuevaSemilla();
+		}
+		try {
+			return Long.parseLong(valor.trim());
+		} catch (NumberFormatException e) {
+			System.err.println("Valor de '" + KEY_SEMILLA + "' inválido en configuración. Se usará una semilla al azar.");
+			return FuenteAleatoria.nuevaSemilla();
+		}
+	}
+
+	// Método para obtener cada cuántos pasos se escribe un checkpoint de la simulación.
+	// 0 (o la clave sin definir, sin emitir advertencias) deshabilita los checkpoints.
+	public static int obtenerCheckpointCadaPasos(Properties configProperties) {
+		if (configProperties == null || configProperties.getProperty(KEY_CHECKPOINT_CADA_PASOS) == null) {
+			return 0;
+		}
+		return obtenerEnteroDeConfig(configProperties, KEY_CHECKPOINT_CADA_PASOS, 0, 0);
+	}
+
+	// Método para obtener el archivo donde se escriben los checkpoints
+	public static String obtenerArchivoCheckpoint(Properties configProperties) {
+		return configProperties.getProperty(KEY_CHECKPOINT_ARCHIVO, DEFAULT_CHECKPOINT_ARCHIVO);
+	}
+
 	// =================================================================================
 	// MÉTODO PRIVADO DE AYUDA (HELPER)
 	// (Contiene la lógica repetida para leer y validar un entero)
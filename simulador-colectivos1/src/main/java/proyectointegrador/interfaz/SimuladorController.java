@@ -1,15 +1,27 @@
 package proyectointegrador.interfaz;
 
+import proyectointegrador.datos.ImagenRed;
 import proyectointegrador.datos.LectorArchivos;
+import proyectointegrador.datos.TablaHorarios;
+import proyectointegrador.datos.TopologiaRed;
+import proyectointegrador.logica.CheckpointSimulacion;
+import proyectointegrador.logica.EjecutorReplicas;
+import proyectointegrador.logica.EstrategiaRuteo;
 import proyectointegrador.logica.GeneradorPasajeros;
 import proyectointegrador.logica.GestorEstadisticas;
 import proyectointegrador.logica.PlanificadorRutas;
+import proyectointegrador.logica.PlanificadorViajes;
+import proyectointegrador.logica.ResultadoReplicas;
 import proyectointegrador.logica.Simulador;
 import proyectointegrador.modelo.Linea;
 import proyectointegrador.modelo.Parada;
 import proyectointegrador.modelo.Pasajero;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -23,7 +35,7 @@ import java.util.Properties;
  *
  * @author Miyo
  * @author Enzo
- * @version 1.3
+ * @version 2.0
  */
 public class SimuladorController {
 
@@ -38,6 +50,9 @@ public class SimuladorController {
 	private List<Pasajero> pasajerosGenerados;
 	private GestorEstadisticas gestorEstadisticas;
 	private PlanificadorRutas planificadorRutas;
+	private TopologiaRed topologiaRed;
+	private TablaHorarios tablaHorarios;
+	private long semillaSimulacion;
 
 	// =================================================================================
 	// CONSTRUCTOR
@@ -62,20 +77,13 @@ public class SimuladorController {
 	 */
 	public void inicializar() {
 		try {
-			// 1. Carga de datos base desde archivos
-			LectorArchivos lector = new LectorArchivos();
-			lector.cargarDatosCompletos();
-			this.paradasCargadas = lector.getParadasCargadas();
-			this.lineasCargadas = lector.getLineasCargadas();
-			this.configProperties = lector.getPropiedades();
-
-			// 2. Creación de componentes de lógica
-			this.gestorEstadisticas = new GestorEstadisticas();
-			this.planificadorRutas = new PlanificadorRutas();
-			this.planificadorRutas.construirGrafoDesdeLineas(lineasCargadas);
+			// 1 y 2. Carga de la red y creación de componentes de lógica
+			cargarRedYComponentes();
 			
-			// 3. Generación de pasajeros
-			GeneradorPasajeros generador = new GeneradorPasajeros(lineasCargadas, configProperties, gestorEstadisticas);
+			// 3. Generación de pasajeros (con semilla, para poder reproducir la ejecución)
+			this.semillaSimulacion = SimuladorConfig.obtenerSemilla(configProperties);
+			GeneradorPasajeros generador = new GeneradorPasajeros(lineasCargadas, configProperties, gestorEstadisticas,
+					this.semillaSimulacion);
 			this.pasajerosGenerados = generador.generarPasajeros();
 
 			// 4. Creación del simulador principal, inyectando todos los componentes
@@ -87,6 +95,7 @@ public class SimuladorController {
 			int capacidadSentados = SimuladorConfig.obtenerCapacidadSentadosColectivo(configProperties);
 
 			simulador.inicializarColectivos(capacidadColectivo, capacidadSentados);
+			configurarCheckpoints();
 
 		} catch (IOException e) {
 			System.err.println("Error fatal al cargar archivos de datos: " + e.getMessage());
@@ -94,6 +103,138 @@ public class SimuladorController {
 		}
 	}
 
+	/**
+	 * Igual que {@link #inicializar()}, pero en lugar de generar pasajeros y empezar
+	 * desde el paso 0, reanuda la simulación guardada en un checkpoint.
+	 *
+	 * @param archivo Checkpoint escrito por una simulación con la misma red y configuración.
+	 * @throws RuntimeException si ocurre un error al cargar los archivos o leer el checkpoint.
+	 */
+	public void restaurarDesdeCheckpoint(Path archivo) {
+		try {
+			cargarRedYComponentes();
+			this.semillaSimulacion = CheckpointSimulacion.leerSemilla(archivo);
+			this.simulador = CheckpointSimulacion.restaurar(archivo, lineasCargadas, paradasCargadas,
+					gestorEstadisticas, planificadorRutas, configProperties);
+			this.pasajerosGenerados = simulador.getPasajerosSimulados();
+			configurarCheckpoints();
+		} catch (IOException e) {
+			System.err.println("Error fatal al restaurar la simulación: " + e.getMessage());
+			throw new RuntimeException("No se pudo restaurar la simulación desde " + archivo + ".", e);
+		}
+	}
+
+	/** Carga paradas, líneas y configuración, y crea el gestor de estadísticas y el planificador. */
+	private void cargarRedYComponentes() throws IOException {
+		// 1. Carga de datos base desde archivos
+		LectorArchivos lector = new LectorArchivos();
+		lector.cargarDatosCompletos();
+		this.paradasCargadas = lector.getParadasCargadas();
+		this.lineasCargadas = lector.getLineasCargadas();
+		this.configProperties = lector.getPropiedades();
+		ImagenRed imagen = lector.getImagenRed();
+		this.topologiaRed = (imagen != null) ? imagen.getTopologia() : TopologiaRed.desde(paradasCargadas, lineasCargadas);
+
+		// 2. Creación de componentes de lógica (con la imagen, el grafo ya viene armado)
+		this.gestorEstadisticas = new GestorEstadisticas();
+		this.planificadorRutas = new PlanificadorRutas();
+		if (imagen != null) {
+			this.planificadorRutas.construirGrafoDesdeImagen(imagen, paradasCargadas);
+		} else {
+			this.planificadorRutas.construirGrafoDesdeLineas(lineasCargadas);
+		}
+		EstrategiaRuteo estrategia = SimuladorConfig.obtenerEstrategiaRuteo(configProperties);
+		this.planificadorRutas.setEstrategiaRuteo(estrategia);
+		if (estrategia == EstrategiaRuteo.CONTRACCIONES) {
+			prepararJerarquiaRutas(SimuladorConfig.obtenerArchivoJerarquiaRutas(configProperties));
+		}
+
+		// 3. Horarios de las líneas (opcionales: solo los usa el planificador de viajes)
+		this.tablaHorarios = null;
+		if (SimuladorConfig.tieneHorarios(configProperties)) {
+			try {
+				this.tablaHorarios = lector.cargarHorarios();
+			} catch (IOException e) {
+				System.err.println("Advertencia: No se pudieron cargar los horarios: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Carga la jerarquía de contracciones guardada o, si no existe o no
+	 * corresponde a esta red, la arma y la guarda para el próximo arranque.
+	 */
+	private void prepararJerarquiaRutas(String nombreArchivo) {
+		if (nombreArchivo == null) {
+			this.planificadorRutas.prepararJerarquia();
+			return;
+		}
+		Path archivo = Paths.get(nombreArchivo);
+		if (Files.isRegularFile(archivo)) {
+			try {
+				this.planificadorRutas.cargarJerarquia(archivo);
+				return;
+			} catch (IOException | IllegalStateException e) {
+				System.err.println("Advertencia: No se pudo usar la jerarquía de rutas " + archivo + " ("
+						+ e.getMessage() + "). Se vuelve a armar.");
+			}
+		}
+		this.planificadorRutas.prepararJerarquia();
+		try {
+			this.planificadorRutas.guardarJerarquia(archivo);
+		} catch (IOException e) {
+			System.err.println("Advertencia: No se pudo guardar la jerarquía de rutas en " + archivo + ": " + e.getMessage());
+		}
+	}
+
+	/** Habilita los checkpoints periódicos si la configuración los pide. */
+	private void configurarCheckpoints() {
+		int cadaPasos = SimuladorConfig.obtenerCheckpointCadaPasos(configProperties);
+		if (cadaPasos > 0) {
+			Path archivo = Paths.get(SimuladorConfig.obtenerArchivoCheckpoint(configProperties));
+			simulador.setCheckpointPeriodico(archivo, cadaPasos, this.semillaSimulacion);
+		}
+	}
+
+	// =================================================================================
+	// MÉTODOS DE EJECUCIÓN POR LOTES
+	// =================================================================================
+
+	/**
+	 * Ejecuta réplicas independientes de la simulación sobre la red ya cargada,
+	 * sin volver a leer los archivos.
+	 *
+	 * @param cantidad    Cantidad de réplicas.
+	 * @param semillaBase Semilla base; cada réplica usa una semilla derivada de ella.
+	 * @return Las métricas de las réplicas y sus intervalos de confianza.
+	 * @throws IllegalStateException si el controlador no fue inicializado.
+	 */
+	public ResultadoReplicas ejecutarReplicas(int cantidad, long semillaBase) {
+		if (this.topologiaRed == null) {
+			throw new IllegalStateException("El controlador debe inicializarse antes de ejecutar réplicas.");
+		}
+		EjecutorReplicas ejecutor = new EjecutorReplicas(this.topologiaRed, this.configProperties,
+				SimuladorConfig.obtenerHilosReplicas(this.configProperties));
+		return ejecutor.ejecutar(cantidad, semillaBase);
+	}
+
+	/**
+	 * Crea un planificador de viajes con los horarios de las líneas para un día
+	 * de la semana.
+	 *
+	 * @param dia El día de la semana a planificar.
+	 * @return El planificador, listo para consultar.
+	 * @throws IllegalStateException si no hay horarios cargados (propiedad {@code horarios}).
+	 */
+	public PlanificadorViajes crearPlanificadorViajes(DayOfWeek dia) {
+		if (this.tablaHorarios == null) {
+			throw new IllegalStateException("No hay horarios cargados para planificar viajes.");
+		}
+		return new PlanificadorViajes(this.lineasCargadas, this.tablaHorarios, dia,
+				SimuladorConfig.obtenerFrecuenciaSalidaColectivosMinutos(this.configProperties),
+				SimuladorConfig.obtenerMinutosPorTramo(this.configProperties));
+	}
+
 	// =================================================================================
 	// GETTERS (API para la UI)
 	// =================================================================================
@@ -101,9 +242,11 @@ public class SimuladorController {
 	public Simulador getSimulador() { return this.simulador; }
 	public Map<String, Parada> getParadasCargadas() { return this.paradasCargadas; }
 	public Map<String, Linea> getLineasCargadas() { return this.lineasCargadas; }
+	public long getSemillaSimulacion() { return this.semillaSimulacion; }
 	public Properties getConfigProperties() { return this.configProperties; }
 	public List<Pasajero> getPasajerosGenerados() { return this.pasajerosGenerados; }
 	public GestorEstadisticas getGestorEstadisticas() { return this.gestorEstadisticas; }
+	public TopologiaRed getTopologiaRed() { return this.topologiaRed; }
 	
 	/**
 	 * Devuelve el planificador de rutas para que la UI pueda usarlo.
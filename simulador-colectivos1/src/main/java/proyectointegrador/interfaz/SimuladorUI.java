@@ -1,5 +1,6 @@
 package proyectointegrador.interfaz;
 
+import proyectointegrador.logica.BufferEventos;
 import proyectointegrador.reporte.ReporteSimulacion;
 import proyectointegrador.util.EventoUtils;
 
@@ -18,7 +19,7 @@ import java.util.Scanner;
  *
  * @author Miyo
  * @author Enzo
- * @version 1.3
+ * @version 1.4
  */
 public class SimuladorUI {
 
@@ -59,6 +60,7 @@ public class SimuladorUI {
 
 		System.out.println("Simulación lista para comenzar con " + controller.getPasajerosGenerados().size() + " pasajeros.");
 		System.out.println("Se han inicializado " + controller.getSimulador().getColectivosEnSimulacion().size() + " colectivos.");
+		System.out.println("Semilla: " + controller.getSemillaSimulacion());
 
 		boolean salir = false;
 		while (!salir) {
@@ -86,6 +88,9 @@ public class SimuladorUI {
 						calcularRutaOptima();
 						break;
 					*/
+				case "3":
+					ejecutarReplicas();
+					break;
 				case "0":
 					salir = true;
 					break;
@@ -110,6 +115,7 @@ public class SimuladorUI {
 		System.out.println("\n--- MENÚ PRINCIPAL ---");
 		System.out.println("1. Ejecutar simulación completa");
 		System.out.println("2. Ver estadísticas de la simulación");
+		System.out.println("3. Ejecutar réplicas (Monte Carlo)");
 		// System.out.println("4. Calcular ruta óptima entre paradas"); // Opción HABILITADA
 		System.out.println("0. Salir");
 		System.out.print("Seleccione una opción: ");
@@ -126,8 +132,8 @@ public class SimuladorUI {
 		System.out.println("Ejecutando simulación... por favor espere.");
 		Map<String, List<String>> simulacionColectivo = new LinkedHashMap<>();
 		while (!simulador.isSimulacionTerminada()) {
-			List<String> eventosDelPaso = simulador.ejecutarPasoDeSimulacion();
-			Map<String, List<String>> eventosPorColectivo = EventoUtils.mostrarEventosAgrupadosPorColectivo(eventosDelPaso);
+			BufferEventos eventosDelPaso = simulador.avanzarPaso();
+			Map<String, List<String>> eventosPorColectivo = EventoUtils.agruparEventosPorColectivo(eventosDelPaso, simulador.getFormateadorEventos());
 			for (Map.Entry<String, List<String>> entry : eventosPorColectivo.entrySet()) {
 				simulacionColectivo.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
 			}
@@ -149,6 +155,18 @@ public class SimuladorUI {
 		mostrarEstadisticas();
 	}
 
+	private void ejecutarReplicas() {
+		int cantidad = SimuladorConfig.obtenerCantidadReplicas(controller.getConfigProperties());
+		// Se usa la semilla de la simulación: las réplicas se pueden reproducir con ella.
+		long semillaBase = controller.getSemillaSimulacion();
+		System.out.println("Ejecutando " + cantidad + " réplicas... por favor espere.");
+		try {
+			ReporteSimulacion.imprimirResumenReplicas(controller.ejecutarReplicas(cantidad, semillaBase));
+		} catch (IllegalStateException e) {
+			System.out.println("No se pudieron ejecutar las réplicas: " + e.getMessage());
+		}
+	}
+
 	private void mostrarEstadisticas() {
 		var simulador = controller.getSimulador();
 		if (simulador.getGestorEstadisticas() == null) {
@@ -161,6 +179,7 @@ public class SimuladorUI {
 			ReporteSimulacion.imprimirReportePasajeros(simulador);
 			ReporteSimulacion.imprimirEstadisticasDeSatisfaccion(simulador);
 			ReporteSimulacion.imprimirOcupacionPromedioColectivos(simulador);
+			ReporteSimulacion.imprimirTiemposDeEsperaYViaje(simulador);
 
 			System.out.println("\n--- Mensajes Finales del Simulador ---");
 			List<String> reporteFinal = simulador.getReporteFinal();
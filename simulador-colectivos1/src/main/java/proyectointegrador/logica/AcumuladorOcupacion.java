@@ -0,0 +1,225 @@
+package proyectointegrador.logica;
+
+import java.io.IOException;
+
+/**
+ * Acumulador en línea (streaming) de las ocupaciones de un colectivo.
+ * <p>
+ * Registra cada observación en campos primitivos, sin guardar la muestra:
+ * cantidad, suma (con compensación de Kahan), mínimo, máximo y varianza por el
+ * método de Welford. Opcionalmente mantiene un histograma de intervalos fijos
+ * sobre [0, 1]. La memoria es constante y todas las consultas son O(1), por lo
+ * que pueden hacerse en cualquier momento de la simulación.
+ * <p>
+ * Dos acumuladores pueden combinarse con {@link #combinar}, por ejemplo los de
+ * distintos hilos. El resultado coincide con haber registrado todas las
+ * observaciones en uno solo (salvo redondeo en la suma y la varianza).
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.2
+ */
+public final class AcumuladorOcupacion {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private long cantidad;
+	private double suma;
+	private double compensacion; // Error de redondeo acumulado de la suma (Kahan)
+	private double minimo;
+	private double maximo;
+	private double media;        // Media de Welford
+	private double m2;           // Suma de cuadrados de las diferencias (Welford)
+
+	/** Conteos del histograma, o null si está deshabilitado. */
+	private final long[] histograma;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	/** Crea un acumulador sin histograma. */
+	public AcumuladorOcupacion() {
+		this(0);
+	}
+
+	/**
+	 * @param intervalosHistograma Cantidad de intervalos iguales en que se divide
+	 *                             [0, 1]; 0 deshabilita el histograma. Los valores
+	 *                             fuera del rango se cuentan en el primer o último intervalo.
+	 */
+	public AcumuladorOcupacion(int intervalosHistograma) {
+		if (intervalosHistograma < 0) {
+			throw new IllegalArgumentException("La cantidad de intervalos no puede ser negativa.");
+		}
+		this.histograma = (intervalosHistograma > 0) ? new long[intervalosHistograma] : null;
+		reiniciar();
+	}
+
+	// =================================================================================
+	// MÉTODOS DE REGISTRO
+	// =================================================================================
+
+	/**
+	 * Registra una ocupación (fracción de la capacidad, normalmente entre 0 y 1).
+	 */
+	public void registrar(double ocupacion) {
+		this.cantidad++;
+
+		double y = ocupacion - this.compensacion;
+		double t = this.suma + y;
+		this.compensacion = (t - this.suma) - y;
+		this.suma = t;
+
+		if (ocupacion < this.minimo) this.minimo = ocupacion;
+		if (ocupacion > this.maximo) this.maximo = ocupacion;
+
+		double delta = ocupacion - this.media;
+		this.media += delta / this.cantidad;
+		this.m2 += delta * (ocupacion - this.media);
+
+		if (this.histograma != null) {
+			int intervalo = (int) (ocupacion * this.histograma.length);
+			intervalo = Math.max(0, Math.min(this.histograma.length - 1, intervalo));
+			this.histograma[intervalo]++;
+		}
+	}
+
+	/**
+	 * Incorpora las observaciones de otro acumulador (fórmula de Chan et al. para
+	 * la varianza). El otro acumulador no se modifica.
+	 *
+	 * @throws IllegalArgumentException si los histogramas no tienen los mismos intervalos.
+	 */
+	public void combinar(AcumuladorOcupacion otro) {
+		if (otro == null) {
+			throw new IllegalArgumentException("El acumulador a combinar no puede ser nulo.");
+		}
+		int intervalos = (this.histograma != null) ? this.histograma.length : 0;
+		int intervalosOtro = (otro.histograma != null) ? otro.histograma.length : 0;
+		if (intervalos != intervalosOtro) {
+			throw new IllegalArgumentException("Los histogramas de ambos acumuladores deben tener los mismos intervalos.");
+		}
+		if (otro.cantidad == 0) return;
+
+		long total = this.cantidad + otro.cantidad;
+		double delta = otro.media - this.media;
+		this.media += delta * otro.cantidad / total;
+		this.m2 += otro.m2 + delta * delta * ((double) this.cantidad * otro.cantidad / total);
+
+		double y = (otro.suma - otro.compensacion) - this.compensacion;
+		double t = this.suma + y;
+		this.compensacion = (t - this.suma) - y;
+		this.suma = t;
+
+		this.minimo = Math.min(this.minimo, otro.minimo);
+		this.maximo = Math.max(this.maximo, otro.maximo);
+		this.cantidad = total;
+
+		if (this.histograma != null) {
+			for (int i = 0; i < this.histograma.length; i++) {
+				this.histograma[i] += otro.histograma[i];
+			}
+		}
+	}
+
+	/** Vuelve el acumulador a su estado inicial. */
+	public void reiniciar() {
+		this.cantidad = 0;
+		this.suma = 0;
+		this.compensacion = 0;
+		this.minimo = Double.POSITIVE_INFINITY;
+		this.maximo = Double.NEGATIVE_INFINITY;
+		this.media = 0;
+		this.m2 = 0;
+		if (this.histograma != null) {
+			java.util.Arrays.fill(this.histograma, 0);
+		}
+	}
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	public long getCantidad() { return this.cantidad; }
+	public double getSuma() { return this.suma; }
+
+	/** @return El promedio de las ocupaciones, o 0 si no hay observaciones. */
+	public double getPromedio() {
+		return (this.cantidad == 0) ? 0.0 : this.suma / this.cantidad;
+	}
+
+	/** @return La mínima ocupación registrada, o 0 si no hay observaciones. */
+	public double getMinimo() {
+		return (this.cantidad == 0) ? 0.0 : this.minimo;
+	}
+
+	/** @return La máxima ocupación registrada, o 0 si no hay observaciones. */
+	public double getMaximo() {
+		return (this.cantidad == 0) ? 0.0 : this.maximo;
+	}
+
+	/** @return La varianza muestral (n - 1), o 0 con menos de dos observaciones. */
+	public double getVarianza() {
+		return (this.cantidad < 2) ? 0.0 : this.m2 / (this.cantidad - 1);
+	}
+
+	public double getDesvio() {
+		return Math.sqrt(getVarianza());
+	}
+
+	public boolean tieneHistograma() {
+		return this.histograma != null;
+	}
+
+	/**
+	 * @return Una copia de los conteos del histograma.
+	 * @throws IllegalStateException si el histograma está deshabilitado.
+	 */
+	public long[] getHistograma() {
+		if (this.histograma == null) {
+			throw new IllegalStateException("El acumulador no tiene histograma.");
+		}
+		return this.histograma.clone();
+	}
+
+	// =================================================================================
+	// PERSISTENCIA (checkpoints)
+	// =================================================================================
+
+	/** Escribe el estado completo, bit a bit, para {@link #leerDe}. */
+	void escribirEn(SalidaBinaria salida) throws IOException {
+		salida.escribirInt(this.histograma != null ? this.histograma.length : 0);
+		salida.escribirLong(this.cantidad);
+		salida.escribirDouble(this.suma);
+		salida.escribirDouble(this.compensacion);
+		salida.escribirDouble(this.minimo);
+		salida.escribirDouble(this.maximo);
+		salida.escribirDouble(this.media);
+		salida.escribirDouble(this.m2);
+		if (this.histograma != null) {
+			for (long conteo : this.histograma) {
+				salida.escribirLong(conteo);
+			}
+		}
+	}
+
+	static AcumuladorOcupacion leerDe(EntradaBinaria entrada) throws IOException {
+		AcumuladorOcupacion acumulador = new AcumuladorOcupacion(entrada.leerInt());
+		acumulador.cantidad = entrada.leerLong();
+		acumulador.suma = entrada.leerDouble();
+		acumulador.compensacion = entrada.leerDouble();
+		acumulador.minimo = entrada.leerDouble();
+		acumulador.maximo = entrada.leerDouble();
+		acumulador.media = entrada.leerDouble();
+		acumulador.m2 = entrada.leerDouble();
+		if (acumulador.histograma != null) {
+			for (int i = 0; i < acumulador.histograma.length; i++) {
+				acumulador.histograma[i] = entrada.leerLong();
+			}
+		}
+		return acumulador;
+	}
+}
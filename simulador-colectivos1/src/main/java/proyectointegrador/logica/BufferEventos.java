@@ -0,0 +1,211 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Buffer circular y reutilizable de eventos de simulación.
+ * <p>
+ * Guarda los eventos en columnas paralelas de primitivos (tipo, handle del
+ * colectivo, índice de parada, valor) más una columna con el pasajero
+ * involucrado, por lo que registrar un evento no crea objetos. La capacidad
+ * crece al doble cuando se llena y se conserva entre pasos, de modo que una
+ * simulación en régimen no vuelve a reservar memoria.
+ * <p>
+ * Los eventos se leen por posición, desde 0 (el más antiguo) hasta
+ * {@link #tamanio()} - 1. {@link #descartar(int)} libera los más antiguos, lo que
+ * permite consumir el buffer de a partes sin copiar.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class BufferEventos {
+
+	private static final int CAPACIDAD_INICIAL = 64;
+	private static final TipoEvento[] TIPOS = TipoEvento.values();
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private byte[] tipos;
+	private int[] colectivos;
+	private int[] paradas;
+	private int[] valores;
+	private Pasajero[] pasajeros;
+
+	private int inicio;
+	private int tamanio;
+	private boolean habilitado;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	public BufferEventos() {
+		this(CAPACIDAD_INICIAL);
+	}
+
+	/**
+	 * @param capacidadInicial Capacidad inicial; se redondea a la próxima potencia de 2.
+	 */
+	public BufferEventos(int capacidadInicial) {
+		if (capacidadInicial <= 0) {
+			throw new IllegalArgumentException("La capacidad inicial debe ser positiva.");
+		}
+		int capacidad = Integer.highestOneBit(Math.max(capacidadInicial - 1, 1)) << 1;
+		this.tipos = new byte[capacidad];
+		this.colectivos = new int[capacidad];
+		this.paradas = new int[capacidad];
+		this.valores = new int[capacidad];
+		this.pasajeros = new Pasajero[capacidad];
+		this.habilitado = true;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE ESCRITURA
+	// =================================================================================
+
+	/**
+	 * Registra un evento al final del buffer. Si el buffer está deshabilitado no hace nada.
+	 * @param tipo Tipo de evento.
+	 * @param colectivo Handle del colectivo en el {@link RegistroColectivos}.
+	 * @param parada Índice de la parada en el recorrido de la línea, o -1.
+	 * @param valor Valor asociado al tipo de evento (cantidades, número de recorrido).
+	 * @param pasajero Pasajero involucrado, o null.
+	 */
+	public void agregar(TipoEvento tipo, int colectivo, int parada, int valor, Pasajero pasajero) {
+		if (!this.habilitado) return;
+		if (this.tamanio == this.tipos.length) {
+			crecer();
+		}
+		int i = (this.inicio + this.tamanio) & (this.tipos.length - 1);
+		this.tipos[i] = (byte) tipo.ordinal();
+		this.colectivos[i] = colectivo;
+		this.paradas[i] = parada;
+		this.valores[i] = valor;
+		this.pasajeros[i] = pasajero;
+		this.tamanio++;
+	}
+
+	/**
+	 * Agrega al final de este buffer una copia de los eventos de otro buffer.
+	 * @param origen Buffer del que se copian los eventos.
+	 * @param desde Posición inicial en el origen (inclusive).
+	 * @param hasta Posición final en el origen (exclusive).
+	 */
+	public void copiarDesde(BufferEventos origen, int desde, int hasta) {
+		for (int i = desde; i < hasta; i++) {
+			agregar(origen.tipo(i), origen.colectivo(i), origen.parada(i), origen.valor(i), origen.pasajero(i));
+		}
+	}
+
+	/**
+	 * Descarta los {@code cantidad} eventos más antiguos.
+	 */
+	public void descartar(int cantidad) {
+		if (cantidad < 0 || cantidad > this.tamanio) {
+			throw new IllegalArgumentException("No se pueden descartar " + cantidad + " eventos de " + this.tamanio + ".");
+		}
+		int mascara = this.tipos.length - 1;
+		for (int k = 0; k < cantidad; k++) {
+			this.pasajeros[(this.inicio + k) & mascara] = null;
+		}
+		this.inicio = (this.inicio + cantidad) & mascara;
+		this.tamanio -= cantidad;
+	}
+
+	/**
+	 * Vacía el buffer conservando la capacidad reservada.
+	 */
+	public void limpiar() {
+		descartar(this.tamanio);
+		this.inicio = 0;
+	}
+
+	/**
+	 * Habilita o deshabilita el registro de eventos. Deshabilitado, {@link #agregar}
+	 * no escribe nada; útil en corridas por lotes donde nadie lee los eventos.
+	 */
+	public void setHabilitado(boolean habilitado) {
+		this.habilitado = habilitado;
+	}
+
+	public boolean isHabilitado() {
+		return this.habilitado;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE LECTURA
+	// =================================================================================
+
+	public int tamanio() {
+		return this.tamanio;
+	}
+
+	public boolean estaVacio() {
+		return this.tamanio == 0;
+	}
+
+	public TipoEvento tipo(int posicion) {
+		return TIPOS[this.tipos[indice(posicion)]];
+	}
+
+	public int colectivo(int posicion) {
+		return this.colectivos[indice(posicion)];
+	}
+
+	public int parada(int posicion) {
+		return this.paradas[indice(posicion)];
+	}
+
+	public int valor(int posicion) {
+		return this.valores[indice(posicion)];
+	}
+
+	public Pasajero pasajero(int posicion) {
+		return this.pasajeros[indice(posicion)];
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private int indice(int posicion) {
+		if (posicion < 0 || posicion >= this.tamanio) {
+			throw new IndexOutOfBoundsException("Posición " + posicion + " fuera del buffer (tamaño " + this.tamanio + ").");
+		}
+		return (this.inicio + posicion) & (this.tipos.length - 1);
+	}
+
+	/** Duplica la capacidad dejando los eventos ordenados desde la posición 0. */
+	private void crecer() {
+		int capacidad = this.tipos.length;
+		this.tipos = desenrollar(this.tipos, capacidad);
+		this.colectivos = desenrollar(this.colectivos, capacidad);
+		this.paradas = desenrollar(this.paradas, capacidad);
+		this.valores = desenrollar(this.valores, capacidad);
+		Pasajero[] nuevosPasajeros = new Pasajero[capacidad * 2];
+		int primeros = capacidad - this.inicio;
+		System.arraycopy(this.pasajeros, this.inicio, nuevosPasajeros, 0, primeros);
+		System.arraycopy(this.pasajeros, 0, nuevosPasajeros, primeros, this.inicio);
+		this.pasajeros = nuevosPasajeros;
+		this.inicio = 0;
+	}
+
+	private byte[] desenrollar(byte[] columna, int capacidad) {
+		byte[] nueva = new byte[capacidad * 2];
+		int primeros = capacidad - this.inicio;
+		System.arraycopy(columna, this.inicio, nueva, 0, primeros);
+		System.arraycopy(columna, 0, nueva, primeros, this.inicio);
+		return nueva;
+	}
+
+	private int[] desenrollar(int[] columna, int capacidad) {
+		int[] nueva = new int[capacidad * 2];
+		int primeros = capacidad - this.inicio;
+		System.arraycopy(columna, this.inicio, nueva, 0, primeros);
+		System.arraycopy(columna, 0, nueva, primeros, this.inicio);
+		return nueva;
+	}
+}
@@ -0,0 +1,174 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Calendario de eventos discretos utilizado por el motor {@link ModoMotor#EVENTOS}.
+ * <p>
+ * Los eventos se ordenan por paso, luego por tipo (que representa la fase dentro
+ * del paso) y finalmente por un orden de desempate. Así, dentro de un mismo paso
+ * los eventos se atienden en el mismo orden que usa el motor por pasos: primero
+ * las llegadas de pasajeros, luego el avance de los colectivos y por último la
+ * atención de paradas, colectivo por colectivo.
+ * <p>
+ * Los eventos de colectivo guardan el handle del colectivo en el
+ * {@link RegistroColectivos}, que además sirve como desempate.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.2
+ */
+final class CalendarioEventos {
+
+	// =================================================================================
+	// TIPOS DE EVENTO
+	// =================================================================================
+
+	/** Tipos de evento. El orden de declaración define la fase dentro de un paso. */
+	enum TipoEventoProgramado {
+		/** Un pasajero llega a su parada de origen y se suma a la cola de espera. */
+		LLEGADA_PASAJERO,
+		/** Un colectivo llega a la próxima parada de su recorrido (o a la terminal). */
+		LLEGADA_COLECTIVO,
+		/** Un colectivo atiende la parada actual (bajadas y subidas) y parte. */
+		SALIDA_COLECTIVO
+	}
+
+	/** Un evento pendiente del calendario. */
+	static final class EventoProgramado {
+		private final int paso;
+		private final TipoEventoProgramado tipo;
+		private final long orden;
+		private final Pasajero pasajero;
+
+		private EventoProgramado(int paso, TipoEventoProgramado tipo, long orden, Pasajero pasajero) {
+			this.paso = paso;
+			this.tipo = tipo;
+			this.orden = orden;
+			this.pasajero = pasajero;
+		}
+
+		int getPaso() { return this.paso; }
+		TipoEventoProgramado getTipo() { return this.tipo; }
+		/** Handle del colectivo en el registro (solo para eventos de colectivo). */
+		int getHandleColectivo() { return (int) this.orden; }
+		long getOrden() { return this.orden; }
+		Pasajero getPasajero() { return this.pasajero; }
+	}
+
+	private static final Comparator<EventoProgramado> ORDEN_CALENDARIO = Comparator
+			.comparingInt((EventoProgramado e) -> e.paso)
+			.thenComparingInt(e -> e.tipo.ordinal())
+			.thenComparingLong(e -> e.orden);
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final PriorityQueue<EventoProgramado> eventos;
+	/** Secuencia para desempatar llegadas de pasajeros en el orden en que se programaron. */
+	private long secuenciaPasajeros;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	CalendarioEventos() {
+		this.eventos = new PriorityQueue<>(ORDEN_CALENDARIO);
+		this.secuenciaPasajeros = 0;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE PROGRAMACIÓN
+	// =================================================================================
+
+	/**
+	 * Programa la atención de la parada actual de un colectivo.
+	 * @param paso El paso en el que ocurre.
+	 * @param handleColectivo Handle del colectivo en el registro.
+	 */
+	void programarSalida(int paso, int handleColectivo) {
+		this.eventos.add(new EventoProgramado(paso, TipoEventoProgramado.SALIDA_COLECTIVO, handleColectivo, null));
+	}
+
+	/**
+	 * Programa la llegada de un colectivo a la próxima parada de su recorrido.
+	 * @param paso El paso en el que ocurre.
+	 * @param handleColectivo Handle del colectivo en el registro.
+	 */
+	void programarLlegadaColectivo(int paso, int handleColectivo) {
+		this.eventos.add(new EventoProgramado(paso, TipoEventoProgramado.LLEGADA_COLECTIVO, handleColectivo, null));
+	}
+
+	/**
+	 * Programa la llegada de un pasajero a su parada de origen.
+	 * @param paso El paso en el que ocurre.
+	 * @param pasajero El pasajero.
+	 */
+	void programarLlegadaPasajero(int paso, Pasajero pasajero) {
+		this.eventos.add(new EventoProgramado(paso, TipoEventoProgramado.LLEGADA_PASAJERO, this.secuenciaPasajeros++, pasajero));
+	}
+
+	// =================================================================================
+	// MÉTODOS DE CONSULTA Y EXTRACCIÓN
+	// =================================================================================
+
+	boolean estaVacio() {
+		return this.eventos.isEmpty();
+	}
+
+	int tamanio() {
+		return this.eventos.size();
+	}
+
+	/**
+	 * Devuelve el paso del próximo evento sin extraerlo.
+	 * @throws IllegalStateException si el calendario está vacío.
+	 */
+	int proximoPaso() {
+		EventoProgramado siguiente = this.eventos.peek();
+		if (siguiente == null) {
+			throw new IllegalStateException("El calendario de eventos está vacío.");
+		}
+		return siguiente.paso;
+	}
+
+	/** Extrae el próximo evento del calendario, o null si está vacío. */
+	EventoProgramado extraer() {
+		return this.eventos.poll();
+	}
+
+	// =================================================================================
+	// PERSISTENCIA (checkpoints)
+	// =================================================================================
+
+	/** Copia de los eventos pendientes, sin un orden en particular. */
+	List<EventoProgramado> eventosPendientes() {
+		return new ArrayList<>(this.eventos);
+	}
+
+	long getSecuenciaPasajeros() {
+		return this.secuenciaPasajeros;
+	}
+
+	/**
+	 * Vuelve a programar un evento leído de un checkpoint, con su orden de desempate original.
+	 */
+	void restaurarEvento(int paso, TipoEventoProgramado tipo, long orden, Pasajero pasajero) {
+		this.eventos.add(new EventoProgramado(paso, tipo, orden, pasajero));
+	}
+
+	void restaurarSecuenciaPasajeros(long secuencia) {
+		this.secuenciaPasajeros = secuencia;
+	}
+
+	void limpiar() {
+		this.eventos.clear();
+		this.secuenciaPasajeros = 0;
+	}
+}
@@ -0,0 +1,706 @@
+package proyectointegrador.logica;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.ToIntFunction;
+
+import proyectointegrador.interfaz.SimuladorConfig;
+import proyectointegrador.modelo.AlmacenPasajeros;
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.ListaPasajeros;
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Checkpoint binario de una simulación en curso, para poder reanudarla más tarde
+ * exactamente en el mismo punto.
+ * <p>
+ * El archivo tiene una <b>base</b> y uno o más <b>segmentos</b>. La base guarda una
+ * sola vez lo que no cambia durante la simulación: la tabla de paradas, el origen,
+ * el destino, el paso de llegada y el ID de cada pasajero, y los IDs y la capacidad
+ * de la flota. Cada segmento guarda el estado en un paso: las columnas de estado de
+ * los pasajeros, la posición y el manifiesto de los colectivos, las colas de espera
+ * y estadísticas de las paradas, el calendario de eventos y los acumuladores del
+ * {@link GestorEstadisticas}. El primer segmento, escrito junto con la base, está
+ * completo; los siguientes (ver {@link Incremental}) traen solo los pasajeros,
+ * manifiestos y paradas que cambiaron desde el segmento anterior. La red no se
+ * guarda: al restaurar se usa la misma red, recién cargada. Los pasajeros y las
+ * paradas se referencian por índice.
+ * <p>
+ * La aleatoriedad solo interviene al generar los pasajeros, por lo que alcanza con
+ * guardar la semilla: el resto de la simulación es determinista.
+ * <p>
+ * El archivo se escribe en forma secuencial por un {@link FileChannel} con un
+ * buffer directo de tamaño fijo. La base se escribe en un archivo temporal que
+ * luego reemplaza al destino; cada segmento lleva delante su largo, que se escribe
+ * recién al final, de modo que un corte durante la escritura deja a lo sumo un
+ * segmento incompleto que la restauración ignora. No se admite el
+ * {@link GestorEstadisticasConcurrente}.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 2.1
+ */
+public final class CheckpointSimulacion {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	private static final int MAGIA = 0x53494D43; // "SIMC"
+	private static final int VERSION = 2;
+
+	private CheckpointSimulacion() {
+	}
+
+	// =================================================================================
+	// ESCRITURA
+	// =================================================================================
+
+	/**
+	 * Escribe el estado actual de la simulación en un checkpoint nuevo (base y un
+	 * segmento completo).
+	 *
+	 * @param simulador La simulación a guardar.
+	 * @param semilla   Semilla con la que se generaron los pasajeros.
+	 * @param archivo   Archivo destino; si existe, se reemplaza.
+	 * @throws IllegalStateException si algún pasajero o parada en uso no pertenece a la simulación.
+	 */
+	public static void escribir(Simulador simulador, long semilla, Path archivo) throws IOException {
+		escribirBase(new Contexto(simulador), semilla, archivo, null);
+	}
+
+	/**
+	 * Escritor de checkpoints periódicos sobre un mismo archivo. El primero escribe
+	 * la base; los siguientes agregan al final un segmento con lo que cambió. Cuando
+	 * los segmentos ya ocupan más que la base, el próximo checkpoint vuelve a
+	 * escribir la base, para que el archivo y su restauración no crezcan sin límite.
+	 * <p>
+	 * Para saber qué pasajeros cambiaron, activa el seguimiento de cambios del
+	 * {@link AlmacenPasajeros}. Si los pasajeros de la simulación no son las vistas
+	 * de un único almacén en orden de handle, cada segmento los trae a todos.
+	 */
+	static final class Incremental {
+
+		private final Path archivo;
+		private final long semilla;
+
+		// --- Estado de la última base escrita ---
+		private Contexto contexto;
+		private int[] versionesManifiesto;
+		private int[] versionesParada;
+		private int registradosEscritos;
+		private long bytesBase;
+		private long bytesSegmentos;
+		/** Índices de los pasajeros modificados (reutilizable). */
+		private int[] modificados = new int[0];
+
+		Incremental(Path archivo, long semilla) {
+			this.archivo = archivo;
+			this.semilla = semilla;
+		}
+
+		Path getArchivo() {
+			return this.archivo;
+		}
+
+		/** Escribe un checkpoint: la base si hace falta o, si no, un segmento con los cambios. */
+		void escribir(Simulador simulador) throws IOException {
+			if (requiereBase(simulador)) {
+				this.contexto = new Contexto(simulador);
+				if (this.contexto.almacen != null) {
+					this.contexto.almacen.seguirCambios();
+				}
+				this.versionesManifiesto = new int[this.contexto.colectivos.size()];
+				this.versionesParada = new int[this.contexto.paradas.length];
+				this.bytesBase = escribirBase(this.contexto, this.semilla, this.archivo, this);
+				this.bytesSegmentos = 0;
+				return;
+			}
+			try (FileChannel canal = FileChannel.open(this.archivo, StandardOpenOption.WRITE);
+					SalidaBinaria salida = new SalidaBinaria(canal)) {
+				long inicio = canal.size();
+				canal.position(inicio);
+				this.bytesSegmentos += escribirSegmentoConLargo(canal, inicio, salida, this.contexto, this);
+			}
+		}
+
+		private boolean requiereBase(Simulador simulador) {
+			return this.contexto == null || this.contexto.simulador != simulador
+					|| this.contexto.pasajeros.size() != this.contexto.cantidadPasajeros
+					|| simulador.getColectivosVista().size() != this.versionesManifiesto.length
+					|| this.bytesSegmentos > this.bytesBase || !Files.exists(this.archivo);
+		}
+
+		/** Junta los índices de los pasajeros que cambiaron desde el segmento anterior. */
+		private int juntarModificados() {
+			AlmacenPasajeros almacen = this.contexto.almacen;
+			int cantidad = this.contexto.cantidadPasajeros;
+			if (this.modificados.length < cantidad) {
+				this.modificados = new int[cantidad];
+			}
+			int n = 0;
+			for (int h = 0; h < cantidad; h++) {
+				if (almacen == null || almacen.tomarCambios(h) != 0) {
+					this.modificados[n++] = h;
+				}
+			}
+			return n;
+		}
+	}
+
+	/** Lo que hace falta para escribir checkpoints de una simulación. */
+	private static final class Contexto {
+		final Simulador simulador;
+		final List<Pasajero> pasajeros;
+		/** Los mismos pasajeros como handles, para leer sus columnas sin crear vistas. */
+		final ListaPasajeros handles;
+		final int cantidadPasajeros;
+		final List<Colectivo> colectivos;
+		final ToIntFunction<Pasajero> indiceDe;
+		/** Almacén de los pasajeros si son sus vistas en orden de handle; null si no. */
+		final AlmacenPasajeros almacen;
+		/** Paradas en el orden de sus IDs. */
+		final Parada[] paradas;
+		final String[] idsParadas;
+		final Map<Parada, Integer> indicesParada;
+		/** Buffer para copiar las colas de espera. */
+		Pasajero[] cola = new Pasajero[16];
+
+		Contexto(Simulador simulador) {
+			this.simulador = simulador;
+			this.pasajeros = simulador.getPasajerosSimuladosVista();
+			this.handles = simulador.getPasajerosComoHandles();
+			this.cantidadPasajeros = this.handles.size();
+			this.colectivos = simulador.getColectivosVista();
+			this.almacen = almacenPorHandle(this.handles);
+			this.indiceDe = indexar(this.handles, this.almacen);
+
+			List<String> ids = new ArrayList<>(simulador.getParadasDisponibles().keySet());
+			ids.sort(null);
+			this.idsParadas = ids.toArray(new String[0]);
+			this.paradas = new Parada[this.idsParadas.length];
+			this.indicesParada = new HashMap<>();
+			for (int i = 0; i < this.paradas.length; i++) {
+				this.paradas[i] = simulador.getParadasDisponibles().get(this.idsParadas[i]);
+				this.indicesParada.put(this.paradas[i], i);
+			}
+		}
+	}
+
+	/**
+	 * Escribe la base y un segmento completo en un archivo temporal que luego
+	 * reemplaza al destino.
+	 * @param seguimiento Escritor incremental que se pone al día, o null.
+	 * @return Los bytes escritos.
+	 */
+	private static long escribirBase(Contexto contexto, long semilla, Path archivo, Incremental seguimiento)
+			throws IOException {
+		Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+		long bytes;
+		try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+				SalidaBinaria salida = new SalidaBinaria(canal)) {
+			Simulador simulador = contexto.simulador;
+
+			// --- Encabezado ---
+			salida.escribirInt(MAGIA);
+			salida.escribirInt(VERSION);
+			salida.escribirLong(semilla);
+			salida.escribirInt(simulador.getModoMotor().ordinal());
+
+			// --- Tabla de paradas (en el orden de las claves, ordenadas) ---
+			salida.escribirInt(contexto.idsParadas.length);
+			for (String id : contexto.idsParadas) {
+				salida.escribirString(id);
+			}
+
+			// --- Columnas fijas de los pasajeros (el ID, solo si no es el que tendrá por defecto al restaurar) ---
+			salida.escribirInt(contexto.cantidadPasajeros);
+			for (int i = 0; i < contexto.cantidadPasajeros; i++) {
+				AlmacenPasajeros almacen = contexto.handles.almacen(i);
+				int h = contexto.handles.handle(i);
+				salida.escribirInt(indiceDeParada(contexto.indicesParada, almacen.origen(h)));
+				salida.escribirInt(indiceDeParada(contexto.indicesParada, almacen.destino(h)));
+				salida.escribirInt(almacen.pasoLlegada(h));
+				salida.escribirString((h != i || almacen.tieneIdExplicito(h)) ? almacen.id(h) : null);
+				if (seguimiento != null && contexto.almacen != null) {
+					contexto.almacen.tomarCambios(h); // La base ya trae el estado actual
+				}
+			}
+
+			// --- Flota (en orden de handle; la capacidad es la misma para toda la flota) ---
+			List<Colectivo> colectivos = contexto.colectivos;
+			salida.escribirInt(colectivos.size());
+			salida.escribirInt(colectivos.isEmpty() ? 0 : colectivos.get(0).getCapacidadMaxima());
+			salida.escribirInt(colectivos.isEmpty() ? 0 : colectivos.get(0).getCapacidadSentados());
+			for (Colectivo c : colectivos) {
+				salida.escribirString(c.getIdColectivo());
+			}
+
+			bytes = escribirSegmentoConLargo(canal, 0, salida, contexto, null);
+			if (seguimiento != null) {
+				// El segmento completo deja al escritor incremental al día.
+				for (int h = 0; h < colectivos.size(); h++) {
+					seguimiento.versionesManifiesto[h] = colectivos.get(h).getVersionManifiesto();
+				}
+				for (int i = 0; i < contexto.paradas.length; i++) {
+					seguimiento.versionesParada[i] = contexto.paradas[i].getVersionEstado();
+				}
+				seguimiento.registradosEscritos = simulador.getGestorEstadisticas().getPasajerosTotales();
+			}
+		}
+		Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return bytes;
+	}
+
+	/**
+	 * Escribe un segmento precedido por su largo. El largo se escribe al final, con
+	 * el segmento ya en disco; hasta entonces vale 0 y el segmento se ignora.
+	 * @param origen Posición del canal donde empieza la salida.
+	 * @param seguimiento Escritor incremental si el segmento trae solo los cambios; null para uno completo.
+	 * @return La cantidad total de bytes escritos por la salida.
+	 */
+	private static long escribirSegmentoConLargo(FileChannel canal, long origen, SalidaBinaria salida,
+			Contexto contexto, Incremental seguimiento) throws IOException {
+		long inicio = salida.getBytesEscritos();
+		salida.escribirLong(0);
+		escribirSegmento(salida, contexto, seguimiento);
+		long fin = salida.getBytesEscritos();
+		salida.vaciar();
+		canal.force(false);
+
+		ByteBuffer largo = ByteBuffer.allocate(Long.BYTES).putLong(0, fin - inicio - Long.BYTES);
+		long posicion = origen + inicio;
+		while (largo.hasRemaining()) {
+			posicion += canal.write(largo, posicion);
+		}
+		canal.force(false);
+		return fin;
+	}
+
+	private static void escribirSegmento(SalidaBinaria salida, Contexto contexto, Incremental seguimiento)
+			throws IOException {
+		Simulador simulador = contexto.simulador;
+		salida.escribirInt(simulador.getPasoActual());
+		salida.escribirBoolean(simulador.isSimulacionFinalizada());
+
+		// --- Pasajeros modificados (todos, si el segmento es completo) ---
+		int cantidad = (seguimiento != null) ? seguimiento.juntarModificados() : contexto.cantidadPasajeros;
+		salida.escribirInt(cantidad);
+		for (int k = 0; k < cantidad; k++) {
+			int i = (seguimiento != null) ? seguimiento.modificados[k] : k;
+			AlmacenPasajeros almacen = contexto.handles.almacen(i);
+			int h = contexto.handles.handle(i);
+			salida.escribirInt(i);
+			salida.escribirInt(almacen.colectivosEsperados(h));
+			salida.escribirByte((almacen.viajoSentado(h) ? 1 : 0) | (almacen.pudoSubir(h) ? 2 : 0)
+					| (almacen.bajadaForzosa(h) ? 4 : 0));
+			salida.escribirByte(almacen.satisfaccion(h));
+			salida.escribirInt(almacen.pasoLlegada(h));
+			salida.escribirInt(almacen.pasoSubida(h));
+		}
+
+		// --- Colectivos: la posición de todos y los manifiestos que cambiaron ---
+		RegistroColectivos registro = simulador.getRegistroColectivos();
+		List<Colectivo> colectivos = contexto.colectivos;
+		for (int h = 0; h < colectivos.size(); h++) {
+			Colectivo c = colectivos.get(h);
+			salida.escribirInt(c.getIndiceParadaActualEnRecorrido());
+			salida.escribirInt(c.getRecorridoActual());
+			salida.escribirInt(c.getRecorridosRestantes());
+			salida.escribirInt(c.getPasoDeSalida());
+			salida.escribirString(c.getEstado());
+			salida.escribirBoolean(registro.esPendiente(h));
+			int version = c.getVersionManifiesto();
+			boolean conManifiesto = seguimiento == null || seguimiento.versionesManifiesto[h] != version;
+			salida.escribirBoolean(conManifiesto);
+			if (conManifiesto) {
+				escribirPasajeros(salida, c.getPasajerosABordoVista(), contexto.indiceDe);
+				if (seguimiento != null) seguimiento.versionesManifiesto[h] = version;
+			}
+		}
+
+		// --- Paradas que cambiaron: estadísticas y cola de espera ---
+		int cambiadas = 0;
+		for (int i = 0; i < contexto.paradas.length; i++) {
+			if (seguimiento == null || seguimiento.versionesParada[i] != contexto.paradas[i].getVersionEstado()) {
+				cambiadas++;
+			}
+		}
+		salida.escribirInt(cambiadas);
+		for (int i = 0; i < contexto.paradas.length; i++) {
+			Parada parada = contexto.paradas[i];
+			int version = parada.getVersionEstado();
+			if (seguimiento != null && seguimiento.versionesParada[i] == version) continue;
+			salida.escribirInt(i);
+			salida.escribirDouble(parada.getTiempoEsperaPromedio());
+			salida.escribirLong(parada.getEsperasRegistradas());
+			salida.escribirInt(parada.getPasajerosAbordados());
+			salida.escribirInt(parada.getColectivosPasados());
+			escribirCola(salida, parada, contexto);
+			if (seguimiento != null) seguimiento.versionesParada[i] = version;
+		}
+
+		// --- Calendario de eventos ---
+		CalendarioEventos calendario = simulador.getCalendario();
+		List<CalendarioEventos.EventoProgramado> eventos = calendario.eventosPendientes();
+		salida.escribirLong(calendario.getSecuenciaPasajeros());
+		salida.escribirInt(eventos.size());
+		for (CalendarioEventos.EventoProgramado evento : eventos) {
+			salida.escribirInt(evento.getPaso());
+			salida.escribirByte(evento.getTipo().ordinal());
+			salida.escribirLong(evento.getOrden());
+			salida.escribirInt(evento.getPasajero() != null ? contexto.indiceDe.applyAsInt(evento.getPasajero()) : -1);
+		}
+
+		// --- Estadísticas ---
+		GestorEstadisticas gestor = simulador.getGestorEstadisticas();
+		gestor.escribirEstado(salida, contexto.indiceDe, (seguimiento != null) ? seguimiento.registradosEscritos : 0);
+		if (seguimiento != null) {
+			seguimiento.registradosEscritos = gestor.getPasajerosTotales();
+		}
+	}
+
+	// =================================================================================
+	// RESTAURACIÓN
+	// =================================================================================
+
+	/**
+	 * Reconstruye una simulación desde un checkpoint, lista para seguir ejecutando
+	 * pasos. Las paradas y líneas deben ser las mismas que las de la simulación
+	 * original, recién cargadas; su estado se reemplaza por el del checkpoint. Se
+	 * aplican en orden todos los segmentos completos; uno incompleto al final (por
+	 * un corte durante la escritura) se ignora.
+	 *
+	 * @param gestorEstadisticas Gestor donde se restauran las estadísticas (puede ser null).
+	 * @param configProperties   Configuración de la simulación original (mismo motor y flota).
+	 * @throws IllegalStateException si el archivo no es un checkpoint válido o no corresponde a la red o la configuración.
+	 */
+	public static Simulador restaurar(Path archivo, Map<String, Linea> lineas, Map<String, Parada> paradas,
+			GestorEstadisticas gestorEstadisticas, PlanificadorRutas planificadorRutas, Properties configProperties)
+			throws IOException {
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			long tamanio = canal.size();
+			EntradaBinaria entrada = new EntradaBinaria(canal);
+			leerEncabezado(entrada);
+			entrada.leerLong(); // Semilla: solo informativa al restaurar
+			ModoMotor modo = ModoMotor.values()[entrada.leerInt()];
+			if (modo != SimuladorConfig.obtenerModoMotor(configProperties)) {
+				throw new IllegalStateException("El checkpoint se escribió con el motor " + modo + ", distinto del configurado.");
+			}
+
+			// --- Tabla de paradas ---
+			int cantidadParadas = entrada.leerInt();
+			Parada[] tablaParadas = new Parada[cantidadParadas];
+			for (int i = 0; i < cantidadParadas; i++) {
+				String id = entrada.leerString();
+				tablaParadas[i] = paradas.get(id);
+				if (tablaParadas[i] == null) {
+					throw new IllegalStateException("La parada " + id + " del checkpoint no existe en la red.");
+				}
+			}
+
+			// --- Pasajeros, en un almacén nuevo (el índice del checkpoint es el handle) ---
+			int cantidadPasajeros = entrada.leerInt();
+			AlmacenPasajeros almacen = new AlmacenPasajeros(cantidadPasajeros);
+			int[] traduccionParadas = new int[cantidadParadas];
+			for (int i = 0; i < cantidadParadas; i++) {
+				traduccionParadas[i] = almacen.indiceDeParada(tablaParadas[i]);
+			}
+			almacen.reservar(cantidadPasajeros);
+			for (int h = 0; h < cantidadPasajeros; h++) {
+				almacen.asignarParadas(h, traduccionParadas[entrada.leerInt()], traduccionParadas[entrada.leerInt()]);
+				almacen.setPasoLlegada(h, entrada.leerInt());
+				String id = entrada.leerString();
+				if (id != null) {
+					almacen.asignarId(h, id);
+				}
+			}
+			ListaPasajeros pasajeros = new ListaPasajeros(cantidadPasajeros);
+			pasajeros.agregarRango(almacen, 0, cantidadPasajeros);
+
+			// --- Colectivos: se crea la flota según la configuración y se verifica ---
+			int cantidadColectivos = entrada.leerInt();
+			int capacidadTotal = entrada.leerInt();
+			int capacidadSentados = entrada.leerInt();
+			Simulador simulador = new Simulador(lineas, paradas, pasajeros, gestorEstadisticas, planificadorRutas,
+					configProperties);
+			if (cantidadColectivos > 0) {
+				simulador.inicializarColectivos(capacidadTotal, capacidadSentados);
+			}
+			RegistroColectivos registro = simulador.getRegistroColectivos();
+			if (registro.cantidad() != cantidadColectivos) {
+				throw new IllegalStateException("La flota configurada no coincide con la del checkpoint.");
+			}
+			for (int h = 0; h < cantidadColectivos; h++) {
+				String id = entrada.leerString();
+				Colectivo colectivo = registro.obtener(h);
+				if (!colectivo.getIdColectivo().equals(id)) {
+					throw new IllegalStateException("El colectivo " + id + " del checkpoint no coincide con " + colectivo.getIdColectivo() + ".");
+				}
+			}
+
+			// --- Segmentos, en orden ---
+			EstadoRestaurado estado = new EstadoRestaurado(cantidadColectivos, cantidadParadas);
+			int segmentos = 0;
+			while (true) {
+				long inicio = entrada.getBytesLeidos();
+				if (inicio + Long.BYTES > tamanio) break;
+				long largo = entrada.leerLong();
+				if (largo <= 0 || inicio + Long.BYTES + largo > tamanio) break; // Segmento incompleto
+				leerSegmento(entrada, simulador, almacen, pasajeros, estado);
+				if (entrada.getBytesLeidos() != inicio + Long.BYTES + largo) {
+					throw new IllegalStateException("El checkpoint está dañado: un segmento no tiene el largo indicado.");
+				}
+				segmentos++;
+			}
+			if (segmentos == 0) {
+				throw new IllegalStateException("El checkpoint no tiene ningún estado completo.");
+			}
+
+			for (int h = 0; h < cantidadColectivos; h++) {
+				Colectivo colectivo = registro.obtener(h);
+				colectivo.restaurarEstado(estado.indicesParada[h], estado.recorridosActuales[h],
+						estado.recorridosRestantes[h], estado.pasosDeSalida[h], estado.estados[h],
+						pasajerosDe(estado.aBordo[h], pasajeros));
+				if (estado.pendientes[h]) {
+					registro.marcarPendiente(h);
+				}
+			}
+			for (int i = 0; i < cantidadParadas; i++) {
+				tablaParadas[i].restaurarEstado(estado.esperasPromedio[i], estado.esperas[i], estado.abordados[i],
+						estado.pasados[i], pasajerosDe(estado.esperando[i], pasajeros));
+			}
+			simulador.recalcularHandlesEstadisticos();
+			simulador.restaurarProgreso(estado.paso, estado.finalizada);
+			return simulador;
+		}
+	}
+
+	/**
+	 * Lee la semilla con la que se generaron los pasajeros de un checkpoint.
+	 * @throws IllegalStateException si el archivo no es un checkpoint válido.
+	 */
+	public static long leerSemilla(Path archivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			EntradaBinaria entrada = new EntradaBinaria(canal);
+			leerEncabezado(entrada);
+			return entrada.leerLong();
+		}
+	}
+
+	/** Estado de colectivos y paradas que se va actualizando segmento a segmento. */
+	private static final class EstadoRestaurado {
+		int paso;
+		boolean finalizada;
+
+		final int[] indicesParada;
+		final int[] recorridosActuales;
+		final int[] recorridosRestantes;
+		final int[] pasosDeSalida;
+		final String[] estados;
+		final boolean[] pendientes;
+		final int[][] aBordo;
+
+		final double[] esperasPromedio;
+		final long[] esperas;
+		final int[] abordados;
+		final int[] pasados;
+		final int[][] esperando;
+
+		EstadoRestaurado(int colectivos, int paradas) {
+			this.indicesParada = new int[colectivos];
+			this.recorridosActuales = new int[colectivos];
+			this.recorridosRestantes = new int[colectivos];
+			this.pasosDeSalida = new int[colectivos];
+			this.estados = new String[colectivos];
+			this.pendientes = new boolean[colectivos];
+			this.aBordo = new int[colectivos][0];
+			this.esperasPromedio = new double[paradas];
+			this.esperas = new long[paradas];
+			this.abordados = new int[paradas];
+			this.pasados = new int[paradas];
+			this.esperando = new int[paradas][0];
+		}
+	}
+
+	private static void leerSegmento(EntradaBinaria entrada, Simulador simulador, AlmacenPasajeros almacen,
+			List<Pasajero> pasajeros, EstadoRestaurado estado) throws IOException {
+		estado.paso = entrada.leerInt();
+		estado.finalizada = entrada.leerBoolean();
+
+		// --- Pasajeros ---
+		int modificados = entrada.leerInt();
+		for (int k = 0; k < modificados; k++) {
+			int h = entrada.leerInt();
+			almacen.setColectivosEsperados(h, entrada.leerInt());
+			int banderas = entrada.leerByte();
+			almacen.setViajoSentado(h, (banderas & 1) != 0);
+			almacen.setPudoSubir(h, (banderas & 2) != 0);
+			almacen.setBajadaForzosa(h, (banderas & 4) != 0);
+			almacen.setSatisfaccion(h, entrada.leerByte());
+			almacen.setPasoLlegada(h, entrada.leerInt());
+			almacen.setPasoSubida(h, entrada.leerInt());
+		}
+
+		// --- Colectivos ---
+		for (int h = 0; h < estado.indicesParada.length; h++) {
+			estado.indicesParada[h] = entrada.leerInt();
+			estado.recorridosActuales[h] = entrada.leerInt();
+			estado.recorridosRestantes[h] = entrada.leerInt();
+			estado.pasosDeSalida[h] = entrada.leerInt();
+			estado.estados[h] = entrada.leerString();
+			estado.pendientes[h] = entrada.leerBoolean();
+			if (entrada.leerBoolean()) {
+				estado.aBordo[h] = leerIndices(entrada, pasajeros.size());
+			}
+		}
+
+		// --- Paradas que cambiaron ---
+		int cambiadas = entrada.leerInt();
+		for (int k = 0; k < cambiadas; k++) {
+			int i = entrada.leerInt();
+			estado.esperasPromedio[i] = entrada.leerDouble();
+			estado.esperas[i] = entrada.leerLong();
+			estado.abordados[i] = entrada.leerInt();
+			estado.pasados[i] = entrada.leerInt();
+			estado.esperando[i] = leerIndices(entrada, pasajeros.size());
+		}
+
+		// --- Calendario (el de inicializarColectivos o el del segmento anterior se reemplaza) ---
+		CalendarioEventos calendario = simulador.getCalendario();
+		calendario.limpiar();
+		calendario.restaurarSecuenciaPasajeros(entrada.leerLong());
+		int cantidadEventos = entrada.leerInt();
+		CalendarioEventos.TipoEventoProgramado[] tipos = CalendarioEventos.TipoEventoProgramado.values();
+		for (int i = 0; i < cantidadEventos; i++) {
+			int pasoEvento = entrada.leerInt();
+			CalendarioEventos.TipoEventoProgramado tipo = tipos[entrada.leerByte()];
+			long orden = entrada.leerLong();
+			int indicePasajero = entrada.leerInt();
+			calendario.restaurarEvento(pasoEvento, tipo, orden, (indicePasajero >= 0) ? pasajeros.get(indicePasajero) : null);
+		}
+
+		// --- Estadísticas ---
+		simulador.getGestorEstadisticas().leerEstado(entrada, pasajeros::get);
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private static void leerEncabezado(EntradaBinaria entrada) throws IOException {
+		if (entrada.leerInt() != MAGIA) {
+			throw new IllegalStateException("El archivo no es un checkpoint de simulación.");
+		}
+		int version = entrada.leerInt();
+		if (version != VERSION) {
+			throw new IllegalStateException("Versión de checkpoint no soportada: " + version);
+		}
+	}
+
+	/**
+	 * Devuelve el almacén de los pasajeros si la lista es la de un único almacén en
+	 * orden de handle (el caso del generador), o null si no.
+	 */
+	private static AlmacenPasajeros almacenPorHandle(ListaPasajeros pasajeros) {
+		AlmacenPasajeros almacen = pasajeros.getAlmacenUnico();
+		if (almacen == null) return null;
+		for (int i = 0; i < pasajeros.size(); i++) {
+			if (pasajeros.handle(i) != i) {
+				return null;
+			}
+		}
+		return almacen;
+	}
+
+	/**
+	 * Devuelve la función que traduce un pasajero a su posición en la lista. Si los
+	 * pasajeros son las vistas de un almacén en orden de handle, la posición es el
+	 * handle y no hace falta ningún índice auxiliar.
+	 */
+	private static ToIntFunction<Pasajero> indexar(ListaPasajeros pasajeros, AlmacenPasajeros almacen) {
+		if (almacen != null || pasajeros.isEmpty()) {
+			int cantidad = pasajeros.size();
+			return p -> {
+				if (p.getAlmacen() != almacen || p.getHandle() >= cantidad) {
+					throw new IllegalStateException("El pasajero " + p.getId() + " no pertenece a la simulación.");
+				}
+				return p.getHandle();
+			};
+		}
+		Map<Pasajero, Integer> indices = new HashMap<>(pasajeros.size() * 2);
+		for (int i = 0; i < pasajeros.size(); i++) {
+			indices.putIfAbsent(pasajeros.get(i), i);
+		}
+		return p -> {
+			Integer indice = indices.get(p);
+			if (indice == null) {
+				throw new IllegalStateException("El pasajero " + p.getId() + " no pertenece a la simulación.");
+			}
+			return indice;
+		};
+	}
+
+	private static int indiceDeParada(Map<Parada, Integer> indicesParada, Parada parada) {
+		Integer indice = indicesParada.get(parada);
+		if (indice == null) {
+			throw new IllegalStateException("La parada " + parada.getId() + " no pertenece a la simulación.");
+		}
+		return indice;
+	}
+
+	private static void escribirPasajeros(SalidaBinaria salida, Collection<Pasajero> pasajeros,
+			ToIntFunction<Pasajero> indiceDe) throws IOException {
+		salida.escribirInt(pasajeros.size());
+		for (Pasajero p : pasajeros) {
+			salida.escribirInt(indiceDe.applyAsInt(p));
+		}
+	}
+
+	/** Escribe la cola de espera de la parada en orden de llegada, sin pasar por su copia pública. */
+	private static void escribirCola(SalidaBinaria salida, Parada parada, Contexto contexto) throws IOException {
+		int cantidad = parada.cantidadPasajerosEsperando();
+		if (contexto.cola.length < cantidad) {
+			contexto.cola = new Pasajero[Math.max(cantidad, contexto.cola.length * 2)];
+		}
+		parada.copiarPasajerosEsperando(contexto.cola);
+		salida.escribirInt(cantidad);
+		for (int i = 0; i < cantidad; i++) {
+			salida.escribirInt(contexto.indiceDe.applyAsInt(contexto.cola[i]));
+			contexto.cola[i] = null;
+		}
+	}
+
+	private static int[] leerIndices(EntradaBinaria entrada, int cantidadPasajeros) throws IOException {
+		int[] indices = new int[entrada.leerInt()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = entrada.leerInt();
+			if (indices[i] < 0 || indices[i] >= cantidadPasajeros) {
+				throw new IllegalStateException("El checkpoint referencia un pasajero inexistente: " + indices[i]);
+			}
+		}
+		return indices;
+	}
+
+	private static List<Pasajero> pasajerosDe(int[] indices, List<Pasajero> pasajeros) {
+		List<Pasajero> resultado = new ArrayList<>(indices.length);
+		for (int indice : indices) {
+			resultado.add(pasajeros.get(indice));
+		}
+		return resultado;
+	}
+}
@@ -0,0 +1,223 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Destino de los efectos que produce la atención de colectivos durante un paso:
+ * eventos, registros de estadísticas y colectivos que quedan pendientes de avanzar.
+ * <p>
+ * Un contexto <b>directo</b> escribe en el {@link GestorEstadisticas} y en el buffer
+ * del simulador a medida que ocurren los hechos. Un contexto <b>diferido</b> (uno por
+ * partición en el modo {@link ModoMotor#PARALELO}) los acumula localmente para que el
+ * simulador los combine al final del paso, en orden de handle, sin compartir estado
+ * entre hilos.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.3
+ */
+final class ContextoPaso {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final GestorEstadisticas gestorDirecto;
+	private final BufferEventos eventos;
+
+	// --- Operaciones diferidas ---
+	private int[] ocupacionColectivos; // Handles en el gestor de estadísticas
+	private int[] ocupacionPasajeros;
+	private int cantidadOcupaciones;
+	private final List<Pasajero> transportes;
+	private final List<Parada> esperaParadas;
+	private final List<Linea> esperaLineas;
+	private int[] esperaPasos;
+	private final List<Linea> viajeLineas;
+	private int[] viajePasos;
+	private int[] pendientes;
+	private int cantidadPendientes;
+
+	// --- Segmentos de eventos por colectivo: [handle, fin) en el buffer local ---
+	private int[] segmentoHandles;
+	private int[] segmentoFin;
+	private int cantidadSegmentos;
+	private int segmentoLeido;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	private ContextoPaso(GestorEstadisticas gestorDirecto, BufferEventos eventos) {
+		this.gestorDirecto = gestorDirecto;
+		this.eventos = eventos;
+		this.ocupacionColectivos = new int[16];
+		this.ocupacionPasajeros = new int[16];
+		this.transportes = new ArrayList<>();
+		this.esperaParadas = new ArrayList<>();
+		this.esperaLineas = new ArrayList<>();
+		this.esperaPasos = new int[16];
+		this.viajeLineas = new ArrayList<>();
+		this.viajePasos = new int[16];
+		this.pendientes = new int[16];
+		this.segmentoHandles = new int[16];
+		this.segmentoFin = new int[16];
+	}
+
+	/** Contexto que aplica cada efecto inmediatamente. */
+	static ContextoPaso directo(GestorEstadisticas gestor, BufferEventos eventos) {
+		return new ContextoPaso(gestor, eventos);
+	}
+
+	/** Contexto que acumula los efectos hasta {@link #combinarEn}. */
+	static ContextoPaso diferido() {
+		return new ContextoPaso(null, new BufferEventos());
+	}
+
+	// =================================================================================
+	// MÉTODOS DE REGISTRO
+	// =================================================================================
+
+	BufferEventos eventos() {
+		return this.eventos;
+	}
+
+	/**
+	 * @param handleEstadistico Handle del colectivo devuelto por
+	 *                          {@link GestorEstadisticas#registrarCapacidadColectivo}.
+	 */
+	void registrarOcupacionTramo(int handleEstadistico, int pasajerosEnTramo) {
+		if (this.gestorDirecto != null) {
+			this.gestorDirecto.registrarOcupacionTramo(handleEstadistico, pasajerosEnTramo);
+			return;
+		}
+		int i = this.cantidadOcupaciones;
+		if (i == this.ocupacionPasajeros.length) {
+			this.ocupacionColectivos = Arrays.copyOf(this.ocupacionColectivos, i * 2);
+			this.ocupacionPasajeros = Arrays.copyOf(this.ocupacionPasajeros, i * 2);
+		}
+		this.ocupacionColectivos[i] = handleEstadistico;
+		this.ocupacionPasajeros[i] = pasajerosEnTramo;
+		this.cantidadOcupaciones++;
+	}
+
+	void registrarTransporte(Pasajero pasajero) {
+		if (this.gestorDirecto != null) {
+			this.gestorDirecto.registrarTransporte(pasajero);
+		} else {
+			this.transportes.add(pasajero);
+		}
+	}
+
+	void registrarEspera(Parada parada, Linea linea, int pasos) {
+		if (this.gestorDirecto != null) {
+			this.gestorDirecto.registrarEspera(parada.getId(), claveLinea(linea), pasos);
+			return;
+		}
+		int i = this.esperaParadas.size();
+		if (i == this.esperaPasos.length) {
+			this.esperaPasos = Arrays.copyOf(this.esperaPasos, i * 2);
+		}
+		this.esperaParadas.add(parada);
+		this.esperaLineas.add(linea);
+		this.esperaPasos[i] = pasos;
+	}
+
+	void registrarViaje(Linea linea, int pasos) {
+		if (this.gestorDirecto != null) {
+			this.gestorDirecto.registrarViaje(claveLinea(linea), pasos);
+			return;
+		}
+		int i = this.viajeLineas.size();
+		if (i == this.viajePasos.length) {
+			this.viajePasos = Arrays.copyOf(this.viajePasos, i * 2);
+		}
+		this.viajeLineas.add(linea);
+		this.viajePasos[i] = pasos;
+	}
+
+	/**
+	 * Clave de la línea en las estadísticas, igual a la del mapa de líneas cargadas:
+	 * el ID solo no alcanza, porque la ida y el regreso de una línea comparten ID.
+	 */
+	static String claveLinea(Linea linea) {
+		return linea.getId() + " - " + linea.getNombre();
+	}
+
+	/** Anota un colectivo pendiente de avanzar (solo contextos diferidos). */
+	void marcarPendiente(int handle) {
+		if (this.cantidadPendientes == this.pendientes.length) {
+			this.pendientes = Arrays.copyOf(this.pendientes, this.cantidadPendientes * 2);
+		}
+		this.pendientes[this.cantidadPendientes++] = handle;
+	}
+
+	/** Cierra el segmento de eventos del colectivo que se acaba de atender. */
+	void cerrarSegmento(int handle) {
+		if (this.cantidadSegmentos == this.segmentoHandles.length) {
+			this.segmentoHandles = Arrays.copyOf(this.segmentoHandles, this.cantidadSegmentos * 2);
+			this.segmentoFin = Arrays.copyOf(this.segmentoFin, this.cantidadSegmentos * 2);
+		}
+		this.segmentoHandles[this.cantidadSegmentos] = handle;
+		this.segmentoFin[this.cantidadSegmentos] = this.eventos.tamanio();
+		this.cantidadSegmentos++;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE COMBINACIÓN
+	// =================================================================================
+
+	/**
+	 * Aplica las estadísticas y los pendientes acumulados. El orden de las
+	 * ocupaciones de cada colectivo se conserva, por lo que el resultado es idéntico
+	 * al de aplicarlas a medida que ocurrieron.
+	 */
+	void combinarEn(GestorEstadisticas gestor, RegistroColectivos registro) {
+		for (int i = 0; i < this.cantidadOcupaciones; i++) {
+			gestor.registrarOcupacionTramo(this.ocupacionColectivos[i], this.ocupacionPasajeros[i]);
+		}
+		for (Pasajero p : this.transportes) {
+			gestor.registrarTransporte(p);
+		}
+		for (int i = 0; i < this.esperaParadas.size(); i++) {
+			gestor.registrarEspera(this.esperaParadas.get(i).getId(), claveLinea(this.esperaLineas.get(i)), this.esperaPasos[i]);
+		}
+		for (int i = 0; i < this.viajeLineas.size(); i++) {
+			gestor.registrarViaje(claveLinea(this.viajeLineas.get(i)), this.viajePasos[i]);
+		}
+		for (int i = 0; i < this.cantidadPendientes; i++) {
+			registro.marcarPendiente(this.pendientes[i]);
+		}
+	}
+
+	/**
+	 * Copia al buffer destino los eventos del colectivo indicado si es el próximo
+	 * segmento pendiente de este contexto. Los segmentos se consumen en orden de handle.
+	 */
+	void copiarEventosDe(int handle, BufferEventos destino) {
+		if (this.segmentoLeido < this.cantidadSegmentos && this.segmentoHandles[this.segmentoLeido] == handle) {
+			int desde = (this.segmentoLeido == 0) ? 0 : this.segmentoFin[this.segmentoLeido - 1];
+			destino.copiarDesde(this.eventos, desde, this.segmentoFin[this.segmentoLeido]);
+			this.segmentoLeido++;
+		}
+	}
+
+	/** Descarta todo lo acumulado para reutilizar el contexto en el próximo paso. */
+	void limpiar() {
+		this.eventos.limpiar();
+		this.cantidadOcupaciones = 0;
+		this.transportes.clear();
+		this.esperaParadas.clear();
+		this.esperaLineas.clear();
+		this.viajeLineas.clear();
+		this.cantidadPendientes = 0;
+		this.cantidadSegmentos = 0;
+		this.segmentoLeido = 0;
+	}
+}
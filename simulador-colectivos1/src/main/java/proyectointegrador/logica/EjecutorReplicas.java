@@ -0,0 +1,135 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import proyectointegrador.datos.TopologiaRed;
+import proyectointegrador.interfaz.SimuladorConfig;
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Ejecuta réplicas independientes de una misma simulación (Monte Carlo) en un
+ * pool de hilos.
+ * <p>
+ * La red se carga una sola vez y se comparte como {@link TopologiaRed}
+ * inmutable. Cada réplica crea su propia instancia de paradas y líneas, su propio
+ * {@link GestorEstadisticas} y su propio generador de pasajeros con una semilla
+ * distinta, de modo que las réplicas no comparten estado mutable y el resultado
+ * de cada una depende solo de su semilla.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class EjecutorReplicas {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final TopologiaRed topologia;
+	private final Properties configProperties;
+	private final int hilos;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	/**
+	 * @param topologia        La red compartida por todas las réplicas.
+	 * @param configProperties La configuración de la simulación.
+	 * @param hilos            Cantidad máxima de réplicas simultáneas.
+	 * @throws IllegalArgumentException si algún argumento es nulo o hilos no es positivo.
+	 */
+	public EjecutorReplicas(TopologiaRed topologia, Properties configProperties, int hilos) {
+		if (topologia == null || configProperties == null) {
+			throw new IllegalArgumentException("La topología y la configuración no pueden ser nulas.");
+		}
+		if (hilos <= 0) {
+			throw new IllegalArgumentException("La cantidad de hilos debe ser positiva.");
+		}
+		this.topologia = topologia;
+		this.configProperties = configProperties;
+		this.hilos = hilos;
+	}
+
+	// =================================================================================
+	// MÉTODOS PÚBLICOS
+	// =================================================================================
+
+	/**
+	 * Ejecuta un lote de réplicas y espera a que terminen todas.
+	 *
+	 * @param cantidad    Cantidad de réplicas.
+	 * @param semillaBase Semilla a partir de la cual se deriva la de cada réplica.
+	 * @return Las métricas de cada réplica, en orden de réplica.
+	 * @throws IllegalArgumentException si la cantidad no es positiva.
+	 * @throws IllegalStateException si alguna réplica falla o el hilo es interrumpido.
+	 */
+	public ResultadoReplicas ejecutar(int cantidad, long semillaBase) {
+		if (cantidad <= 0) {
+			throw new IllegalArgumentException("La cantidad de réplicas debe ser positiva.");
+		}
+		long[] semillas = new long[cantidad];
+		double[] satisfaccion = new double[cantidad];
+		double[] ocupacion = new double[cantidad];
+
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.hilos, cantidad));
+		try {
+			List<Future<GestorEstadisticas>> resultados = new ArrayList<>(cantidad);
+			for (int i = 0; i < cantidad; i++) {
+				semillas[i] = semillaDeReplica(semillaBase, i);
+				long semilla = semillas[i];
+				resultados.add(pool.submit(() -> ejecutarReplica(semilla)));
+			}
+			for (int i = 0; i < cantidad; i++) {
+				GestorEstadisticas gestor = resultados.get(i).get();
+				satisfaccion[i] = gestor.getIndiceSatisfaccion();
+				ocupacion[i] = gestor.getOcupacionPromedioGeneral();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Falló una réplica de la simulación: " + e.getCause().getMessage(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("La ejecución de réplicas fue interrumpida.", e);
+		} finally {
+			pool.shutdownNow();
+		}
+		return new ResultadoReplicas(semillas, satisfaccion, ocupacion);
+	}
+
+	/**
+	 * Ejecuta una réplica completa de la simulación, sin registrar eventos.
+	 *
+	 * @param semilla La semilla de la réplica.
+	 * @return El gestor con las estadísticas finales de la réplica.
+	 */
+	public GestorEstadisticas ejecutarReplica(long semilla) {
+		TopologiaRed.Instancia red = this.topologia.instanciar();
+		GestorEstadisticas gestor = new GestorEstadisticas();
+		GeneradorPasajeros generador = new GeneradorPasajeros(red.getLineas(), this.configProperties, gestor, semilla);
+		List<Pasajero> pasajeros = generador.generarPasajeros();
+
+		Simulador simulador = new Simulador(red.getLineas(), red.getParadas(), pasajeros, gestor, null, this.configProperties);
+		simulador.setRegistrarEventos(false);
+		simulador.inicializarColectivos(SimuladorConfig.obtenerCapacidadColectivo(this.configProperties),
+				SimuladorConfig.obtenerCapacidadSentadosColectivo(this.configProperties));
+		while (!simulador.isSimulacionTerminada()) {
+			simulador.avanzarPaso();
+		}
+		return gestor;
+	}
+
+	/**
+	 * Deriva la semilla de una réplica a partir de la semilla base. Las semillas de
+	 * réplicas consecutivas no están correlacionadas (a diferencia de {@code base + i}).
+	 */
+	static long semillaDeReplica(long semillaBase, int replica) {
+		return FuenteAleatoria.semillaDerivada(semillaBase, replica);
+	}
+}
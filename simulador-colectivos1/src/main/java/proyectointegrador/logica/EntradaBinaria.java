@@ -0,0 +1,90 @@
+package proyectointegrador.logica;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lectura de datos primitivos desde un canal NIO, complemento de
+ * {@link SalidaBinaria}. Lee por bloques en un buffer directo de tamaño fijo.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+final class EntradaBinaria {
+
+	private static final int TAMANIO_BUFFER = 1 << 20;
+
+	private final ReadableByteChannel canal;
+	private final ByteBuffer buffer;
+	private long bytesDelCanal;
+
+	EntradaBinaria(ReadableByteChannel canal) {
+		this.canal = canal;
+		this.buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+		this.buffer.flip(); // Vacío hasta la primera lectura
+	}
+
+	int leerByte() throws IOException {
+		asegurarDisponibles(Byte.BYTES);
+		return this.buffer.get();
+	}
+
+	boolean leerBoolean() throws IOException {
+		return leerByte() != 0;
+	}
+
+	int leerInt() throws IOException {
+		asegurarDisponibles(Integer.BYTES);
+		return this.buffer.getInt();
+	}
+
+	long leerLong() throws IOException {
+		asegurarDisponibles(Long.BYTES);
+		return this.buffer.getLong();
+	}
+
+	double leerDouble() throws IOException {
+		asegurarDisponibles(Double.BYTES);
+		return this.buffer.getDouble();
+	}
+
+	/** Cantidad de bytes consumidos desde que se creó la entrada. */
+	long getBytesLeidos() {
+		return this.bytesDelCanal - this.buffer.remaining();
+	}
+
+	String leerString() throws IOException {
+		int largo = leerInt();
+		if (largo < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[largo];
+		int leidos = 0;
+		while (leidos < largo) {
+			asegurarDisponibles(1);
+			int n = Math.min(this.buffer.remaining(), largo - leidos);
+			this.buffer.get(bytes, leidos, n);
+			leidos += n;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void asegurarDisponibles(int bytes) throws IOException {
+		if (this.buffer.remaining() >= bytes) {
+			return;
+		}
+		this.buffer.compact();
+		while (this.buffer.position() < bytes) {
+			int leidos = this.canal.read(this.buffer);
+			if (leidos < 0) {
+				throw new EOFException("El archivo terminó antes de lo esperado.");
+			}
+			this.bytesDelCanal += leidos;
+		}
+		this.buffer.flip();
+	}
+}
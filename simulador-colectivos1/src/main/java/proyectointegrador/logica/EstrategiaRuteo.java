@@ -0,0 +1,45 @@
+package proyectointegrador.logica;
+
+/**
+ * Define el algoritmo con el que el {@link PlanificadorRutas} busca la ruta
+ * óptima entre dos paradas.
+ * <p>
+ * Todas las estrategias devuelven una ruta de costo mínimo con el mismo formato;
+ * solo cambia cuántas paradas se exploran para encontrarla. Si hay varias rutas
+ * de igual costo, dos estrategias pueden devolver rutas distintas.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+public enum EstrategiaRuteo {
+
+	/**
+	 * Dijkstra desde el origen. Con la caché del planificador habilitada se
+	 * calcula el árbol hacia todas las paradas y se reutiliza para cualquier
+	 * destino; sin caché, la búsqueda termina al llegar al destino.
+	 */
+	DIJKSTRA,
+
+	/**
+	 * Dijkstra bidireccional: una búsqueda avanza desde el origen y otra hacia
+	 * atrás desde el destino, hasta que la suma de sus fronteras alcanza la mejor
+	 * ruta encontrada.
+	 */
+	BIDIRECCIONAL,
+
+	/**
+	 * A*: Dijkstra guiado por una cota inferior del costo restante, calculada con la
+	 * distancia geográfica (haversine) hasta el destino. Si alguna parada no tiene
+	 * coordenadas, la cota es 0 y se comporta como Dijkstra.
+	 */
+	A_ESTRELLA,
+
+	/**
+	 * Búsqueda bidireccional sobre una jerarquía de contracciones: las dos
+	 * búsquedas solo suben hacia paradas más importantes, así que exploran muy
+	 * pocas. Requiere un preprocesamiento de la red, que se hace en la primera
+	 * consulta o con {@link PlanificadorRutas#prepararJerarquia()}.
+	 */
+	CONTRACCIONES
+}
@@ -0,0 +1,114 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Convierte los eventos tipados de un {@link BufferEventos} en los textos que
+ * muestra la interfaz de consola.
+ * <p>
+ * El formateo es opcional: el simulador solo registra datos primitivos y el
+ * texto se arma únicamente para los eventos que alguien quiere leer.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class FormateadorEventos {
+
+	private static final String SEPARADOR_REINICIO = "\n\n--##--->\n\n";
+
+	private final RegistroColectivos registroColectivos;
+
+	/**
+	 * @param registroColectivos Registro usado para resolver los handles de colectivo.
+	 */
+	public FormateadorEventos(RegistroColectivos registroColectivos) {
+		if (registroColectivos == null) {
+			throw new IllegalArgumentException("El registro de colectivos no puede ser nulo.");
+		}
+		this.registroColectivos = registroColectivos;
+	}
+
+	/**
+	 * Formatea todos los eventos del buffer, en orden.
+	 * @return Una lista con el texto de cada evento.
+	 */
+	public List<String> formatear(BufferEventos buffer) {
+		List<String> textos = new ArrayList<>(buffer.tamanio());
+		for (int i = 0; i < buffer.tamanio(); i++) {
+			textos.add(formatear(buffer, i));
+		}
+		return textos;
+	}
+
+	/**
+	 * Formatea un único evento del buffer.
+	 * @param buffer El buffer de eventos.
+	 * @param posicion La posición del evento en el buffer.
+	 * @return El texto del evento.
+	 */
+	public String formatear(BufferEventos buffer, int posicion) {
+		Colectivo colectivo = this.registroColectivos.obtener(buffer.colectivo(posicion));
+		Pasajero pasajero = buffer.pasajero(posicion);
+		int valor = buffer.valor(posicion);
+
+		switch (buffer.tipo(posicion)) {
+			case COLECTIVO_AVANZA:
+				return "  Colectivo " + colectivo.getIdColectivo() + " avanza a la próxima parada.";
+			case COLECTIVO_LLEGA_TERMINAL:
+				return "  Colectivo " + colectivo.getIdColectivo() + " ha llegado a la terminal.";
+			case COLECTIVO_EN_PARADA: {
+				Parada parada = paradaDelRecorrido(colectivo, buffer.parada(posicion));
+				return "\nColectivo " + colectivo.getEtiqueta() + " en Parada: " + parada.getDireccion() + " (ID: " + parada.getId() + ")";
+			}
+			case OCUPACION_COLECTIVO:
+				return "  Pasajeros a bordo: " + valor + "/" + colectivo.getCapacidadMaxima();
+			case PASAJERO_BAJA:
+				return "  - Bajó " + pasajero + " en su destino.";
+			case PASAJEROS_ESPERANDO:
+				return "  Pasajeros esperando en parada: " + valor;
+			case PASAJERO_SUBE:
+				return "  + Subió " + pasajero;
+			case PASAJERO_NO_SUBE:
+				return "  - No pudo subir " + pasajero.getId() + " (colectivo lleno).";
+			case RESUMEN_SUBIDAS:
+				return "  Pasajeros que subieron: " + valor;
+			case QUEDAN_ESPERANDO:
+				return "  Quedan esperando: " + valor;
+			case FIN_RECORRIDO: {
+				Parada parada = paradaDelRecorrido(colectivo, buffer.parada(posicion));
+				String paradaInfo = (parada != null) ? parada.getDireccion() + " (ID: " + parada.getId() + ")" : "N/A";
+				return "Colectivo " + colectivo.getEtiqueta() + " ha finalizado su recorrido " + valor + " en: " + paradaInfo;
+			}
+			case PROCESANDO_TERMINAL:
+				return "  Procesando pasajeros en la parada terminal...";
+			case PASAJERO_BAJA_TERMINAL:
+				return "  - Bajó " + pasajero + " en su destino (terminal).";
+			case BAJADA_FORZOSA:
+				return "  - BAJADA FORZOSA: " + pasajero + " no llegó a su destino (" + pasajero.getParadaDestino().getId() + ").";
+			case COLECTIVO_REINICIADO:
+				return String.format("%sEVENTO: Colectivo %s reiniciado para un nuevo recorrido %s",
+						SEPARADOR_REINICIO, colectivo.getIdColectivo(), SEPARADOR_REINICIO);
+			case COLECTIVO_FINALIZADO:
+				return "  Colectivo " + colectivo.getIdColectivo() + " ha finalizado todos sus recorridos.";
+			default:
+				throw new IllegalStateException("Tipo de evento no soportado: " + buffer.tipo(posicion));
+		}
+	}
+
+	/**
+	 * Devuelve el ID del colectivo de un evento, para agrupar eventos sin formatearlos.
+	 */
+	public String idColectivo(BufferEventos buffer, int posicion) {
+		return this.registroColectivos.obtener(buffer.colectivo(posicion)).getIdColectivo();
+	}
+
+	private Parada paradaDelRecorrido(Colectivo colectivo, int indice) {
+		return (indice >= 0) ? colectivo.getLineaAsignada().getParadaPorIndice(indice) : null;
+	}
+}
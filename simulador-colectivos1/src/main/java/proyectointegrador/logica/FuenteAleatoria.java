@@ -0,0 +1,142 @@
+package proyectointegrador.logica;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fuente de números aleatorios con semilla explícita y derivación de flujos
+ * independientes.
+ * <p>
+ * Se apoya en {@link SplittableRandom}, que no comparte estado entre instancias
+ * (a diferencia de {@link java.util.Random}, que sincroniza cada llamada con un
+ * CAS). Cada hilo debe usar su propia fuente, obtenida con {@link #derivar}.
+ * <p>
+ * La derivación es <b>determinista y no depende del consumo</b>: la fuente
+ * derivada con una clave depende solo de la semilla de la fuente madre y de la
+ * clave, no de cuántos números se hayan pedido antes. Así, el flujo de una línea
+ * o de una réplica es siempre el mismo para una semilla dada, sin importar el
+ * orden en que se generen.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class FuenteAleatoria {
+
+	private static final long GAMMA = 0x9E3779B97F4A7C15L; // Constante de SplitMix64
+	private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+	private static final long FNV_PRIMO = 0x100000001B3L;
+
+	private final long semilla;
+	private final SplittableRandom generador;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	/**
+	 * @param semilla La semilla; la misma semilla produce siempre la misma secuencia.
+	 */
+	public FuenteAleatoria(long semilla) {
+		this.semilla = semilla;
+		this.generador = new SplittableRandom(semilla);
+	}
+
+	/**
+	 * Crea una fuente con una semilla elegida al azar. La semilla puede consultarse
+	 * con {@link #getSemilla()} para reproducir la ejecución.
+	 */
+	public static FuenteAleatoria sinSemilla() {
+		return new FuenteAleatoria(nuevaSemilla());
+	}
+
+	/** Devuelve una semilla nueva, distinta en cada llamada. */
+	public static long nuevaSemilla() {
+		return new SplittableRandom().nextLong();
+	}
+
+	// =================================================================================
+	// DERIVACIÓN DE FLUJOS
+	// =================================================================================
+
+	/**
+	 * Deriva una fuente independiente identificada por un número (por ejemplo, el
+	 * índice de una réplica).
+	 */
+	public FuenteAleatoria derivar(long clave) {
+		return new FuenteAleatoria(semillaDerivada(this.semilla, clave));
+	}
+
+	/**
+	 * Deriva una fuente independiente identificada por un texto (por ejemplo, la
+	 * clave de una línea).
+	 */
+	public FuenteAleatoria derivar(String clave) {
+		return derivar(hash64(clave));
+	}
+
+	/**
+	 * Calcula la semilla que {@link #derivar(long)} usaría para una semilla madre y
+	 * una clave dadas.
+	 */
+	public static long semillaDerivada(long semillaMadre, long clave) {
+		return mezclar(semillaMadre + GAMMA * (mezclar(clave) | 1L));
+	}
+
+	// =================================================================================
+	// GENERACIÓN
+	// =================================================================================
+
+	/** Devuelve un entero uniforme en [0, limite). */
+	public int siguienteEntero(int limite) {
+		return this.generador.nextInt(limite);
+	}
+
+	/** Devuelve un entero uniforme en [desde, hasta). */
+	public int siguienteEntero(int desde, int hasta) {
+		return this.generador.nextInt(desde, hasta);
+	}
+
+	/** Devuelve un double uniforme en [0, 1). */
+	public double siguienteDouble() {
+		return this.generador.nextDouble();
+	}
+
+	public long siguienteLong() {
+		return this.generador.nextLong();
+	}
+
+	/**
+	 * Expone el generador subyacente para APIs que reciben un {@link RandomGenerator}.
+	 * Comparte el estado con esta fuente.
+	 */
+	public RandomGenerator comoGenerador() {
+		return this.generador;
+	}
+
+	public long getSemilla() {
+		return this.semilla;
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	/** Finalizador de SplitMix64: dispersa bien semillas cercanas. */
+	private static long mezclar(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/** Hash FNV-1a de 64 bits del texto en UTF-8. */
+	private static long hash64(String texto) {
+		long hash = FNV_OFFSET;
+		for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xFF);
+			hash *= FNV_PRIMO;
+		}
+		return hash;
+	}
+}
@@ -1,26 +1,34 @@
 package proyectointegrador.logica;
 
 import proyectointegrador.interfaz.SimuladorConfig;
+import proyectointegrador.modelo.AlmacenPasajeros;
 import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.ListaPasajeros;
 import proyectointegrador.modelo.Parada;
 import proyectointegrador.modelo.Pasajero;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Properties;
+import java.util.stream.IntStream;
 
 /**
  * Responsable de crear las instancias de Pasajero para la simulación.
  * <p>
  * Genera una cantidad específica de pasajeros, asignándoles aleatoriamente
  * una línea, origen y destino, y los añade a la cola de espera de su parada.
+ * La aleatoriedad proviene de una {@link FuenteAleatoria} con semilla, por lo
+ * que cada generación puede reproducirse exactamente. El estado de los pasajeros
+ * generados vive en un {@link AlmacenPasajeros} compartido, y tanto la lista
+ * devuelta como las colas de las paradas y el registro de estadísticas guardan
+ * solo sus handles.
  *
  * @author Miyen
  * @author Enzo
  * 
- * @version 1.1
+ * @version 1.7
  */
 public class GeneradorPasajeros {
 
@@ -29,18 +37,24 @@ public class GeneradorPasajeros {
 	// =================================================================================
 
 	private static final int MIN_PARADAS_RECORRIDO = 2;
+	private static final String CLAVE_FLUJO_SELECCION = "seleccion-linea";
+	private static final String PREFIJO_FLUJO_LINEA = "linea:";
+	/** Por debajo de esta demanda, generar en paralelo cuesta más de lo que ahorra. */
+	private static final int UMBRAL_GENERACION_PARALELA = 50_000;
 
 	private final Map<String, Linea> lineasDisponibles;
-	private final Random random;
+	private final FuenteAleatoria fuenteAleatoria;
 	private final int cantidadPasajerosAGenerar;
 	private final GestorEstadisticas gestorEstadisticas;
+	private AlmacenPasajeros almacenPasajeros;
 
 	// =================================================================================
 	// CONSTRUCTOR
 	// =================================================================================
 
 	/**
-	 * Constructor principal para el generador de pasajeros.
+	 * Constructor principal para el generador de pasajeros. Usa la semilla de la
+	 * configuración (clave {@code semilla}) o, si no está definida, una al azar.
 	 *
 	 * @param lineas           Un mapa de líneas disponibles cargadas.
 	 * @param configProperties Las propiedades de configuración.
@@ -48,15 +62,47 @@ public class GeneradorPasajeros {
 	 * @throws IllegalArgumentException si los argumentos son nulos o inválidos.
 	 */
 	public GeneradorPasajeros(Map<String, Linea> lineas, Properties configProperties, GestorEstadisticas gestorEstadisticas) {
+		this(lineas, configProperties, gestorEstadisticas,
+				new FuenteAleatoria(configProperties != null ? SimuladorConfig.obtenerSemilla(configProperties) : 0L));
+	}
+
+	/**
+	 * Constructor con semilla, para obtener generaciones reproducibles (por ejemplo,
+	 * en réplicas de Monte Carlo). La misma semilla sobre las mismas líneas genera
+	 * los mismos pasajeros.
+	 *
+	 * @param lineas             Un mapa de líneas disponibles cargadas.
+	 * @param configProperties   Las propiedades de configuración.
+	 * @param gestorEstadisticas El gestor donde se registrarán los pasajeros.
+	 * @param semilla            La semilla del generador aleatorio.
+	 * @throws IllegalArgumentException si los argumentos son nulos o inválidos.
+	 */
+	public GeneradorPasajeros(Map<String, Linea> lineas, Properties configProperties, GestorEstadisticas gestorEstadisticas, long semilla) {
+		this(lineas, configProperties, gestorEstadisticas, new FuenteAleatoria(semilla));
+	}
+
+	/**
+	 * Constructor con una fuente aleatoria explícita.
+	 *
+	 * @param lineas             Un mapa de líneas disponibles cargadas.
+	 * @param configProperties   Las propiedades de configuración.
+	 * @param gestorEstadisticas El gestor donde se registrarán los pasajeros.
+	 * @param fuenteAleatoria    La fuente de la que se derivan los flujos aleatorios.
+	 * @throws IllegalArgumentException si los argumentos son nulos o inválidos.
+	 */
+	public GeneradorPasajeros(Map<String, Linea> lineas, Properties configProperties, GestorEstadisticas gestorEstadisticas,
+			FuenteAleatoria fuenteAleatoria) {
 		if (lineas == null || lineas.isEmpty())
 			throw new IllegalArgumentException("Las líneas disponibles no pueden ser nulas o vacías.");
 		if (configProperties == null)
 			throw new IllegalArgumentException("Las propiedades de configuración no pueden ser nulas.");
 		if (gestorEstadisticas == null)
 			throw new IllegalArgumentException("El gestor de estadísticas no puede ser nulo.");
+		if (fuenteAleatoria == null)
+			throw new IllegalArgumentException("La fuente aleatoria no puede ser nula.");
 		
 		this.lineasDisponibles = lineas;
-		this.random = new Random();
+		this.fuenteAleatoria = fuenteAleatoria;
 		this.gestorEstadisticas = gestorEstadisticas;
 		
 		// REFACTORIZACIÓN: Se delega la lectura de la config a la clase especializada.
@@ -69,81 +115,186 @@ public class GeneradorPasajeros {
 
 	/**
 	 * Genera la cantidad de pasajeros especificada en la configuración.
+	 * <p>
+	 * La generación se hace en tres fases:
+	 * <ol>
+	 * <li>Se elige la línea de cada pasajero con un flujo aleatorio propio.</li>
+	 * <li>Cada línea genera sus pasajeros con su propio flujo, derivado de su clave
+	 * en el mapa. Las líneas son independientes entre sí, por lo que con demandas
+	 * grandes se generan en paralelo.</li>
+	 * <li>Los pasajeros se agrupan por parada de origen y cada parada los encola
+	 * de una vez, en orden de número de pasajero (con demandas grandes, varias
+	 * paradas a la vez). Luego se registran en las estadísticas.</li>
+	 * </ol>
+	 * Para una misma semilla el resultado es siempre el mismo, con o sin paralelismo.
 	 *
-	 * @return Una lista con todas las instancias de Pasajero generadas.
+	 * @return Una {@link ListaPasajeros} con todos los pasajeros generados, en orden de handle.
 	 * @throws IllegalStateException si no hay líneas válidas para generar pasajeros.
 	 */
 	public List<Pasajero> generarPasajeros() {
-		List<Pasajero> pasajerosGenerados = new ArrayList<>();
-		List<Linea> lineasValidas = obtenerLineasValidasParaGeneracion();
+		List<String> clavesValidas = obtenerClavesLineasValidasParaGeneracion();
 
-		if (lineasValidas.isEmpty()) {
+		if (clavesValidas.isEmpty()) {
 			throw new IllegalStateException("No hay líneas con recorridos válidos (mínimo " + MIN_PARADAS_RECORRIDO + " paradas) para generar pasajeros.");
 		}
 
-		for (int i = 0; i < this.cantidadPasajerosAGenerar; i++) {
-			// 1. Seleccionar línea, origen y destino
-			Linea lineaSeleccionada = lineasValidas.get(random.nextInt(lineasValidas.size()));
-			Parada[] origenYDestino = seleccionarParadasOrigenDestino(lineaSeleccionada);
-			Parada paradaOrigen = origenYDestino[0];
-			Parada paradaDestino = origenYDestino[1];
-
-			// 2. Crear al pasajero
-			String idPasajero = "Pasajero-" + (i + 1);
-			Pasajero nuevoPasajero = new Pasajero(idPasajero, paradaOrigen, paradaDestino);
-			pasajerosGenerados.add(nuevoPasajero);
-
-			// 3. Registrar al pasajero en el sistema
-			paradaOrigen.agregarPasajero(nuevoPasajero);
-			this.gestorEstadisticas.registrarPasajero(nuevoPasajero);
+		// 1. Seleccionar la línea de cada pasajero
+		int cantidadLineas = clavesValidas.size();
+		int[] lineaDePasajero = new int[this.cantidadPasajerosAGenerar];
+		int[] pasajerosPorLinea = new int[cantidadLineas];
+		FuenteAleatoria fuenteSeleccion = this.fuenteAleatoria.derivar(CLAVE_FLUJO_SELECCION);
+		for (int i = 0; i < lineaDePasajero.length; i++) {
+			int indiceLinea = fuenteSeleccion.siguienteEntero(cantidadLineas);
+			lineaDePasajero[i] = indiceLinea;
+			pasajerosPorLinea[indiceLinea]++;
 		}
-		
+
+		// 2. Generar los pasajeros de cada línea (cada tarea completa solo sus handles).
+		// Las paradas se dan de alta en el almacén antes, porque la tabla no admite altas concurrentes.
+		AlmacenPasajeros almacen = new AlmacenPasajeros(this.cantidadPasajerosAGenerar);
+		int[][] recorridosPorLinea = new int[cantidadLineas][];
+		for (int l = 0; l < cantidadLineas; l++) {
+			recorridosPorLinea[l] = indicesDeRecorrido(this.lineasDisponibles.get(clavesValidas.get(l)), almacen);
+		}
+		almacen.reservar(this.cantidadPasajerosAGenerar); // El pasajero i tiene el handle i.
+		int[][] pasajerosDeLinea = agruparPorLinea(lineaDePasajero, pasajerosPorLinea);
+		IntStream tareas = IntStream.range(0, cantidadLineas);
+		if (this.cantidadPasajerosAGenerar >= UMBRAL_GENERACION_PARALELA) {
+			tareas = tareas.parallel();
+		}
+		tareas.forEach(l -> generarPasajerosDeLinea(clavesValidas.get(l), recorridosPorLinea[l], pasajerosDeLinea[l], almacen));
+
+		// 3. Encolar en bloque por parada de origen y registrar en orden (solo handles, sin crear vistas)
+		int cantidadParadas = almacen.cantidadParadas();
+		int[] inicioDeParada = new int[cantidadParadas + 1];
+		int[] handlesPorOrigen = agruparPorOrigen(almacen, inicioDeParada);
+		IntStream paradas = IntStream.range(0, cantidadParadas);
+		if (this.cantidadPasajerosAGenerar >= UMBRAL_GENERACION_PARALELA) {
+			paradas = paradas.parallel(); // Cada parada solo toca su propia cola
+		}
+		paradas.forEach(o -> almacen.paradaPorIndice(o)
+				.agregarPasajeros(almacen, handlesPorOrigen, inicioDeParada[o], inicioDeParada[o + 1]));
+		ListaPasajeros pasajerosGenerados = new ListaPasajeros(this.cantidadPasajerosAGenerar);
+		pasajerosGenerados.agregarRango(almacen, 0, this.cantidadPasajerosAGenerar);
+		this.gestorEstadisticas.registrarPasajeros(almacen, 0, this.cantidadPasajerosAGenerar);
+		this.almacenPasajeros = almacen;
+
 		return pasajerosGenerados;
 	}
 
+	/**
+	 * Devuelve el almacén columnar de la última generación, o null si todavía no se generó.
+	 */
+	public AlmacenPasajeros getAlmacenPasajeros() {
+		return this.almacenPasajeros;
+	}
+
+	/** Devuelve la semilla de la que se derivan todos los flujos aleatorios. */
+	public long getSemilla() {
+		return this.fuenteAleatoria.getSemilla();
+	}
+
 	// =================================================================================
 	// MÉTODOS PRIVADOS DE AYUDA (HELPERS)
 	// =================================================================================
 
 	/**
-	 * Filtra las líneas disponibles y devuelve solo aquellas que tienen un
+	 * Filtra las líneas disponibles y devuelve las claves de aquellas que tienen un
 	 * recorrido suficientemente largo para generar un origen y un destino.
 	 *
-	 * @return Lista de líneas válidas.
+	 * @return Lista de claves de líneas válidas, en el orden del mapa.
 	 */
-	private List<Linea> obtenerLineasValidasParaGeneracion() {
-		List<Linea> lineasValidas = new ArrayList<>();
-		for (Linea linea : this.lineasDisponibles.values()) {
+	private List<String> obtenerClavesLineasValidasParaGeneracion() {
+		List<String> clavesValidas = new ArrayList<>();
+		for (Map.Entry<String, Linea> entry : this.lineasDisponibles.entrySet()) {
 			// Comprobar si la línea tiene al menos 2 paradas para poder elegir origen y destino.
-			if (linea.getRecorrido().size() >= MIN_PARADAS_RECORRIDO) {
-				lineasValidas.add(linea);
+			if (entry.getValue().getCantidadParadas() >= MIN_PARADAS_RECORRIDO) {
+				clavesValidas.add(entry.getKey());
 			}
 		}
-		return lineasValidas;
+		return clavesValidas;
 	}
 
 	/**
-	 * Selecciona aleatoriamente una parada de origen y una de destino de una línea.
-	 * Se asegura de que el destino esté siempre después del origen en el recorrido.
+	 * Agrupa los handles por índice de parada de origen, en orden creciente dentro
+	 * de cada parada (ordenamiento por conteo, estable).
 	 *
-	 * @param linea la línea de la cual seleccionar las paradas.
-	 * @return un array de Parada de tamaño 2 (índice 0: origen, índice 1: destino).
+	 * @param inicioDeParada se completa con el comienzo de cada grupo; la posición
+	 *                       final tiene la cantidad total de pasajeros.
+	 * @return los handles agrupados.
 	 */
-	private Parada[] seleccionarParadasOrigenDestino(Linea linea) {
-		List<Parada> recorrido = linea.getRecorrido();
-		int totalParadas = recorrido.size();
+	private static int[] agruparPorOrigen(AlmacenPasajeros almacen, int[] inicioDeParada) {
+		int cantidad = almacen.cantidad();
+		for (int h = 0; h < cantidad; h++) {
+			inicioDeParada[almacen.indiceOrigen(h) + 1]++;
+		}
+		for (int o = 1; o < inicioDeParada.length; o++) {
+			inicioDeParada[o] += inicioDeParada[o - 1];
+		}
+		int[] ocupados = Arrays.copyOf(inicioDeParada, inicioDeParada.length - 1);
+		int[] agrupados = new int[cantidad];
+		for (int h = 0; h < cantidad; h++) {
+			agrupados[ocupados[almacen.indiceOrigen(h)]++] = h;
+		}
+		return agrupados;
+	}
 
-		// La parada de origen puede ser cualquiera excepto la última.
-		int indiceOrigen = random.nextInt(totalParadas - 1);
+	/**
+	 * Agrupa los números de pasajero por línea, en orden creciente dentro de cada línea.
+	 */
+	private static int[][] agruparPorLinea(int[] lineaDePasajero, int[] pasajerosPorLinea) {
+		int[][] indicesPorLinea = new int[pasajerosPorLinea.length][];
+		for (int l = 0; l < pasajerosPorLinea.length; l++) {
+			indicesPorLinea[l] = new int[pasajerosPorLinea[l]];
+		}
+		int[] ocupados = new int[pasajerosPorLinea.length];
+		for (int i = 0; i < lineaDePasajero.length; i++) {
+			int l = lineaDePasajero[i];
+			indicesPorLinea[l][ocupados[l]++] = i;
+		}
+		return indicesPorLinea;
+	}
 
-		// La parada de destino debe estar después del origen.
-		int rangoDestino = totalParadas - (indiceOrigen + 1);
-		int indiceDestino = indiceOrigen + 1 + random.nextInt(rangoDestino);
+	/**
+	 * Da de alta en el almacén las paradas del recorrido de una línea y devuelve
+	 * sus índices, en orden. El recorrido se recorre sin copiarlo.
+	 */
+	private static int[] indicesDeRecorrido(Linea linea, AlmacenPasajeros almacen) {
+		List<Parada> recorrido = linea.getRecorridoVista();
+		int[] indices = new int[recorrido.size()];
+		for (int k = 0; k < indices.length; k++) {
+			indices[k] = almacen.indiceDeParada(recorrido.get(k));
+		}
+		return indices;
+	}
 
-		Parada[] resultado = new Parada[2];
-		resultado[0] = recorrido.get(indiceOrigen);
-		resultado[1] = recorrido.get(indiceDestino);
+	/**
+	 * Genera los pasajeros de una línea, completando sus paradas en el almacén.
+	 * Si el recorrido repite una parada (por ejemplo, una línea circular), el
+	 * par origen-destino puede caer dos veces en la misma parada: en ese caso se
+	 * sortea de nuevo, con el mismo flujo, hasta que sean distintas. Siempre hay un
+	 * par distinto, porque {@link Linea} no admite la misma parada dos veces seguidas.
+	 *
+	 * @param claveLinea la clave de la línea en el mapa (identifica su flujo aleatorio).
+	 * @param recorrido  los índices en el almacén de las paradas del recorrido.
+	 * @param handles    los handles (números de pasajero) asignados a la línea, en orden creciente.
+	 * @param almacen    el almacén con los handles ya reservados.
+	 */
+	private void generarPasajerosDeLinea(String claveLinea, int[] recorrido, int[] handles, AlmacenPasajeros almacen) {
+		if (handles.length == 0) return;
+		FuenteAleatoria fuente = this.fuenteAleatoria.derivar(PREFIJO_FLUJO_LINEA + claveLinea);
+		int totalParadas = recorrido.length;
 
-		return resultado;
+		for (int h : handles) {
+			int indiceOrigen;
+			int indiceDestino;
+			do {
+				// La parada de origen puede ser cualquiera excepto la última.
+				indiceOrigen = fuente.siguienteEntero(totalParadas - 1);
+				// La parada de destino debe estar después del origen.
+				indiceDestino = indiceOrigen + 1 + fuente.siguienteEntero(totalParadas - (indiceOrigen + 1));
+			} while (recorrido[indiceOrigen] == recorrido[indiceDestino]);
+			almacen.asignarParadas(h, recorrido[indiceOrigen], recorrido[indiceDestino]);
+		}
 	}
-}
\ No newline at end of file
+}
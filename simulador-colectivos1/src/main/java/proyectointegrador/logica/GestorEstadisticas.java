@@ -1,21 +1,36 @@
 package proyectointegrador.logica;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
+import proyectointegrador.modelo.AlmacenPasajeros;
+import proyectointegrador.modelo.ListaPasajeros;
 import proyectointegrador.modelo.Pasajero;
 
 /**
  * GestorEstadisticas centraliza la recolección y cálculo de métricas de la simulación.
  * Permite registrar eventos relevantes y consultar estadísticas agregadas.
+ * <p>
+ * Los contadores se guardan en arreglos primitivos: las calificaciones en un
+ * {@code int[6]} indexado por calificación, y la capacidad y ocupación de cada
+ * colectivo en arreglos indexados por un handle denso que se asigna al registrar
+ * su capacidad. El registro por ID se mantiene y solo resuelve el handle. Los
+ * pasajeros registrados se guardan como handles de su almacén, en una
+ * {@link ListaPasajeros}.
+ * <p>
+ * Los tiempos de espera (por parada y por línea) y de viaje (por línea), en
+ * pasos de simulación, se registran en {@link HistogramaCuantiles} de memoria
+ * acotada, que permiten consultar p50, p95 y p99 sin guardar cada muestra.
  *
  * @author Miyen
  * @author Enzo
  * 
- * @version 2.0
+ * @version 2.8
  */
 public class GestorEstadisticas {
 
@@ -24,41 +39,60 @@ public class GestorEstadisticas {
 	// =================================================================================
 
 	// --- Estadísticas Generales ---
-	private final List<Pasajero> pasajerosRegistrados;
+	private final ListaPasajeros pasajerosRegistrados;
 	private int pasajerosTransportados;
 	private int pasajerosSatisfechos;
 	private int pasajerosInsatisfechos;
-	private final Map<String, Integer> ocupacionPorColectivo;
 
 	// --- Estadísticas de Satisfacción (Anexo I) ---
-	private final Map<Integer, Integer> conteoCalificaciones; // Calificación (1-5) -> Cantidad
+	private final int[] conteoCalificaciones; // Calificación (1-5) -> Cantidad; la posición 0 no se usa
 	private int sumaCalificaciones;
 	private int totalPasajerosCalificados;
 
-	// --- Estadísticas de Ocupación de Colectivos (Anexo II) ---
-	private final Map<String, List<Double>> ocupacionesPorColectivo; // idColectivo -> lista de % ocupación
-	private final Map<String, Integer> capacidadPorColectivo;
+	// --- Estadísticas de Ocupación de Colectivos (Anexo II), indexadas por handle ---
+	private final Map<String, Integer> handlesColectivos; // idColectivo -> handle
+	private String[] idsColectivos;
+	private int[] capacidades;
+	private AcumuladorOcupacion[] ocupaciones; // null hasta la primera ocupación registrada
+	private int cantidadColectivos;
+
+	// --- Tiempos de espera y de viaje, en pasos ---
+	private final Map<String, HistogramaCuantiles> esperaPorParada; // idParada -> esperas
+	private final Map<String, HistogramaCuantiles> esperaPorLinea;  // "id - nombre" de la línea -> esperas
+	private final Map<String, HistogramaCuantiles> viajePorLinea;   // "id - nombre" de la línea -> duración de viajes
 
 	// =================================================================================
 	// CONSTRUCTOR Y RESET
 	// =================================================================================
 
 	public GestorEstadisticas() {
-		this.pasajerosRegistrados = new ArrayList<>();
-		this.ocupacionPorColectivo = new HashMap<>();
-		this.conteoCalificaciones = new HashMap<>();
-		this.ocupacionesPorColectivo = new HashMap<>();
-		this.capacidadPorColectivo = new HashMap<>();
-		this.reset();
+		this.pasajerosRegistrados = new ListaPasajeros();
+		this.conteoCalificaciones = new int[6];
+		this.handlesColectivos = new HashMap<>();
+		this.idsColectivos = new String[16];
+		this.capacidades = new int[16];
+		this.ocupaciones = new AcumuladorOcupacion[16];
+		this.esperaPorParada = new HashMap<>();
+		this.esperaPorLinea = new HashMap<>();
+		this.viajePorLinea = new HashMap<>();
 	}
 
 	/** Resetear todas las estadísticas a su estado inicial. */
 	public void reset() {
 		this.pasajerosRegistrados.clear();
-		this.ocupacionPorColectivo.clear();
-		this.conteoCalificaciones.clear();
-		this.ocupacionesPorColectivo.clear();
-		this.capacidadPorColectivo.clear();
+		reiniciarAcumulados();
+	}
+
+	/** Vuelve a cero todo lo acumulado, salvo los pasajeros registrados. */
+	private void reiniciarAcumulados() {
+		Arrays.fill(this.conteoCalificaciones, 0);
+		this.handlesColectivos.clear();
+		Arrays.fill(this.idsColectivos, 0, this.cantidadColectivos, null);
+		Arrays.fill(this.ocupaciones, 0, this.cantidadColectivos, null);
+		this.cantidadColectivos = 0;
+		this.esperaPorParada.clear();
+		this.esperaPorLinea.clear();
+		this.viajePorLinea.clear();
 		this.pasajerosTransportados = 0;
 		this.pasajerosSatisfechos = 0;
 		this.pasajerosInsatisfechos = 0;
@@ -72,38 +106,114 @@ public class GestorEstadisticas {
 
 	/** Registra un nuevo pasajero al inicio de la simulación. */
 	public void registrarPasajero(Pasajero p) {
-		this.pasajerosRegistrados.add(p);
+		registrarPasajero(p.getAlmacen(), p.getHandle());
+	}
+
+	/** Igual que {@link #registrarPasajero(Pasajero)}, con el pasajero dado por su almacén y handle. */
+	public void registrarPasajero(AlmacenPasajeros almacen, int handle) {
+		this.pasajerosRegistrados.agregar(almacen, handle);
+	}
+
+	/**
+	 * Registra, en orden, los pasajeros con handles {@code desde} (incluido) a
+	 * {@code hasta} (excluido) de un almacén.
+	 */
+	public void registrarPasajeros(AlmacenPasajeros almacen, int desde, int hasta) {
+		this.pasajerosRegistrados.agregarRango(almacen, desde, hasta);
 	}
 
 	/** Registra que un pasajero fue transportado y procesa su satisfacción. */
 	public void registrarTransporte(Pasajero p) {
+		registrarTransporte(p.getAlmacen(), p.getHandle());
+	}
+
+	/**
+	 * Igual que {@link #registrarTransporte(Pasajero)}, pero leyendo el estado del
+	 * pasajero directamente de las columnas del almacén.
+	 *
+	 * @throws IllegalArgumentException si la satisfacción forzada está fuera de la escala 1-5.
+	 */
+	public void registrarTransporte(AlmacenPasajeros almacen, int handle) {
+		int satisfaccion = almacen.calcularSatisfaccion(handle); // Devuelve 1-5
+		if (satisfaccion < 1 || satisfaccion > 5) {
+			throw new IllegalArgumentException("Calificación fuera de la escala 1-5: " + satisfaccion);
+		}
 		this.pasajerosTransportados++;
 		
-		int satisfaccion = p.calcularSatisfaccion(); // Asumimos que devuelve 1-5
-		
 		if (satisfaccion >= 3) {
 			this.pasajerosSatisfechos++;
 		} else {
 			this.pasajerosInsatisfechos++;
 		}
 		
-		this.conteoCalificaciones.put(satisfaccion, this.conteoCalificaciones.getOrDefault(satisfaccion, 0) + 1);
+		this.conteoCalificaciones[satisfaccion]++;
 		this.sumaCalificaciones += satisfaccion;
 		this.totalPasajerosCalificados++;
 	}
 
-	/** Registrar la capacidad máxima de un colectivo para el cálculo de ocupación. */
-	public void registrarCapacidadColectivo(String idColectivo, int capacidadMaxima) {
-		this.capacidadPorColectivo.put(idColectivo, capacidadMaxima);
+	/**
+	 * Registrar la capacidad máxima de un colectivo para el cálculo de ocupación.
+	 * Si el colectivo ya estaba registrado, actualiza su capacidad.
+	 *
+	 * @return El handle del colectivo, para usar con {@link #registrarOcupacionTramo(int, int)}.
+	 */
+	public int registrarCapacidadColectivo(String idColectivo, int capacidadMaxima) {
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		if (handle == null) {
+			handle = this.cantidadColectivos;
+			if (handle == this.capacidades.length) {
+				int nueva = handle * 2;
+				this.idsColectivos = Arrays.copyOf(this.idsColectivos, nueva);
+				this.capacidades = Arrays.copyOf(this.capacidades, nueva);
+				this.ocupaciones = Arrays.copyOf(this.ocupaciones, nueva);
+			}
+			this.handlesColectivos.put(idColectivo, handle);
+			this.idsColectivos[handle] = idColectivo;
+			this.cantidadColectivos++;
+		}
+		this.capacidades[handle] = capacidadMaxima;
+		return handle;
 	}
 
 	/** Registrar la ocupación de un colectivo en un tramo del recorrido. */
 	public void registrarOcupacionTramo(String idColectivo, int pasajerosEnTramo) {
-		Integer capacidad = capacidadPorColectivo.get(idColectivo);
-		if (capacidad == null || capacidad == 0) return;
-		
-		double ocupacion = (double) pasajerosEnTramo / capacidad;
-		this.ocupacionesPorColectivo.computeIfAbsent(idColectivo, k -> new ArrayList<>()).add(ocupacion);
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		if (handle == null) return;
+		registrarOcupacionTramo(handle, pasajerosEnTramo);
+	}
+
+	/**
+	 * Igual que {@link #registrarOcupacionTramo(String, int)}, pero con el handle
+	 * devuelto por {@link #registrarCapacidadColectivo}, sin buscar por ID.
+	 */
+	public void registrarOcupacionTramo(int handleColectivo, int pasajerosEnTramo) {
+		if (handleColectivo < 0 || handleColectivo >= this.cantidadColectivos) {
+			throw new IndexOutOfBoundsException("Handle de colectivo inválido: " + handleColectivo);
+		}
+		int capacidad = this.capacidades[handleColectivo];
+		if (capacidad == 0) return;
+
+		AcumuladorOcupacion acumulador = this.ocupaciones[handleColectivo];
+		if (acumulador == null) {
+			acumulador = new AcumuladorOcupacion();
+			this.ocupaciones[handleColectivo] = acumulador;
+		}
+		acumulador.registrar((double) pasajerosEnTramo / capacidad);
+	}
+
+	/**
+	 * Registra cuántos pasos esperó un pasajero desde que llegó a la parada hasta
+	 * que subió a un colectivo de la línea. La línea se identifica por
+	 * {@code id + " - " + nombre}, porque la ida y el regreso comparten ID.
+	 */
+	public void registrarEspera(String idParada, String claveLinea, int pasos) {
+		this.esperaPorParada.computeIfAbsent(idParada, k -> new HistogramaCuantiles()).registrar(pasos);
+		this.esperaPorLinea.computeIfAbsent(claveLinea, k -> new HistogramaCuantiles()).registrar(pasos);
+	}
+
+	/** Registra cuántos pasos viajó un pasajero a bordo de un colectivo de la línea ({@code id + " - " + nombre}). */
+	public void registrarViaje(String claveLinea, int pasos) {
+		this.viajePorLinea.computeIfAbsent(claveLinea, k -> new HistogramaCuantiles()).registrar(pasos);
 	}
 
 	// =================================================================================
@@ -130,25 +240,61 @@ public class GestorEstadisticas {
 	/** Devuelve el promedio de ocupación por colectivo como un mapa. */
 	public Map<String, Double> getOcupacionPromedioPorColectivo() {
 		Map<String, Double> promedios = new HashMap<>();
-		for (Map.Entry<String, List<Double>> entry : ocupacionesPorColectivo.entrySet()) {
-			List<Double> lista = entry.getValue();
-			if (lista != null && !lista.isEmpty()) {
-				double suma = lista.stream().mapToDouble(Double::doubleValue).sum();
-				promedios.put(entry.getKey(), suma / lista.size());
+		for (int h = 0; h < this.cantidadColectivos; h++) {
+			AcumuladorOcupacion acumulador = this.ocupaciones[h];
+			if (acumulador != null && acumulador.getCantidad() > 0) {
+				promedios.put(this.idsColectivos[h], acumulador.getPromedio());
 			}
 		}
 		return promedios;
 	}
 
+	/**
+	 * Devuelve el acumulador de ocupación de un colectivo (cantidad, promedio,
+	 * mínimo, máximo y desvío), consultable en O(1) durante la simulación.
+	 *
+	 * @return El acumulador, o null si el colectivo no registró ocupaciones.
+	 */
+	public AcumuladorOcupacion getAcumuladorOcupacion(String idColectivo) {
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		return (handle != null) ? this.ocupaciones[handle] : null;
+	}
+
+	/** Devuelve las esperas de los pasajeros que subieron en cada parada (por ID de parada). */
+	public Map<String, HistogramaCuantiles> getEsperasPorParada() {
+		return Collections.unmodifiableMap(this.esperaPorParada);
+	}
+
+	/** Devuelve las esperas de los pasajeros de cada línea (por {@code id + " - " + nombre}). */
+	public Map<String, HistogramaCuantiles> getEsperasPorLinea() {
+		return Collections.unmodifiableMap(this.esperaPorLinea);
+	}
+
+	/** Devuelve la duración de los viajes de cada línea (por {@code id + " - " + nombre}). */
+	public Map<String, HistogramaCuantiles> getViajesPorLinea() {
+		return Collections.unmodifiableMap(this.viajePorLinea);
+	}
+
+	/** Devuelve el promedio de las ocupaciones promedio de cada colectivo. */
+	public double getOcupacionPromedioGeneral() {
+		Map<String, Double> promedios = getOcupacionPromedioPorColectivo();
+		if (promedios.isEmpty()) return 0.0;
+		double suma = 0;
+		for (double promedio : promedios.values()) suma += promedio;
+		return suma / promedios.size();
+	}
+
 	/** Devuelve un desglose de los pasajeros por su estado final. */
 	public Map<String, Integer> getDesglosePasajeros() {
 		int transportados = 0;
 		int bajadosForzosamente = 0;
 		int nuncaSubieron = 0;
-		for (Pasajero p : pasajerosRegistrados) {
-			if (p.isBajadaForzosa()) {
+		for (int i = 0; i < this.pasajerosRegistrados.size(); i++) {
+			AlmacenPasajeros almacen = this.pasajerosRegistrados.almacen(i);
+			int handle = this.pasajerosRegistrados.handle(i);
+			if (almacen.bajadaForzosa(handle)) {
 				bajadosForzosamente++;
-			} else if (!p.isPudoSubir()) {
+			} else if (!almacen.pudoSubir(handle)) {
 				nuncaSubieron++;
 			} else {
 				transportados++;
@@ -161,11 +307,121 @@ public class GestorEstadisticas {
 		return desglose;
 	}
 
+	// =================================================================================
+	// PERSISTENCIA (checkpoints)
+	// =================================================================================
+
+	/**
+	 * Escribe todas las estadísticas acumuladas para {@link #leerEstado}. De los
+	 * pasajeros registrados, que solo se agregan, escribe los que siguen a los
+	 * primeros {@code desdeRegistrado}, ya escritos en un checkpoint anterior.
+	 * @param indiceDe Traduce cada pasajero registrado a su índice en el checkpoint.
+	 */
+	void escribirEstado(SalidaBinaria salida, ToIntFunction<Pasajero> indiceDe, int desdeRegistrado) throws IOException {
+		int registrados = this.pasajerosRegistrados.size();
+		int desde = (desdeRegistrado <= registrados) ? desdeRegistrado : 0;
+		salida.escribirInt(registrados);
+		salida.escribirInt(desde);
+		for (int i = desde; i < registrados; i++) {
+			salida.escribirInt(indiceDe.applyAsInt(this.pasajerosRegistrados.get(i)));
+		}
+		salida.escribirInt(this.pasajerosTransportados);
+		salida.escribirInt(this.pasajerosSatisfechos);
+		salida.escribirInt(this.pasajerosInsatisfechos);
+		salida.escribirInt(this.sumaCalificaciones);
+		salida.escribirInt(this.totalPasajerosCalificados);
+		for (int conteo : this.conteoCalificaciones) {
+			salida.escribirInt(conteo);
+		}
+
+		salida.escribirInt(this.cantidadColectivos);
+		for (int h = 0; h < this.cantidadColectivos; h++) {
+			salida.escribirString(this.idsColectivos[h]);
+			salida.escribirInt(this.capacidades[h]);
+			salida.escribirBoolean(this.ocupaciones[h] != null);
+			if (this.ocupaciones[h] != null) {
+				this.ocupaciones[h].escribirEn(salida);
+			}
+		}
+
+		escribirHistogramas(salida, this.esperaPorParada);
+		escribirHistogramas(salida, this.esperaPorLinea);
+		escribirHistogramas(salida, this.viajePorLinea);
+	}
+
+	/**
+	 * Reemplaza las estadísticas por las leídas de un checkpoint. Los pasajeros
+	 * registrados que el checkpoint da por ya escritos se conservan. Los colectivos
+	 * conservan sus handles.
+	 * @param pasajero Devuelve el pasajero restaurado con cada índice del checkpoint.
+	 * @throws IllegalStateException si el checkpoint da por escritos más pasajeros de los registrados.
+	 */
+	void leerEstado(EntradaBinaria entrada, IntFunction<Pasajero> pasajero) throws IOException {
+		int registrados = entrada.leerInt();
+		int desde = entrada.leerInt();
+		if (desde > this.pasajerosRegistrados.size()) {
+			throw new IllegalStateException("El checkpoint no incluye a todos los pasajeros registrados.");
+		}
+		this.pasajerosRegistrados.recortar(desde);
+		reiniciarAcumulados();
+		for (int i = desde; i < registrados; i++) {
+			this.pasajerosRegistrados.add(pasajero.apply(entrada.leerInt()));
+		}
+		this.pasajerosTransportados = entrada.leerInt();
+		this.pasajerosSatisfechos = entrada.leerInt();
+		this.pasajerosInsatisfechos = entrada.leerInt();
+		this.sumaCalificaciones = entrada.leerInt();
+		this.totalPasajerosCalificados = entrada.leerInt();
+		for (int i = 0; i < this.conteoCalificaciones.length; i++) {
+			this.conteoCalificaciones[i] = entrada.leerInt();
+		}
+
+		int colectivos = entrada.leerInt();
+		for (int h = 0; h < colectivos; h++) {
+			registrarCapacidadColectivo(entrada.leerString(), entrada.leerInt());
+			if (entrada.leerBoolean()) {
+				this.ocupaciones[h] = AcumuladorOcupacion.leerDe(entrada);
+			}
+		}
+
+		leerHistogramas(entrada, this.esperaPorParada);
+		leerHistogramas(entrada, this.esperaPorLinea);
+		leerHistogramas(entrada, this.viajePorLinea);
+	}
+
+	private static void escribirHistogramas(SalidaBinaria salida, Map<String, HistogramaCuantiles> histogramas) throws IOException {
+		salida.escribirInt(histogramas.size());
+		for (Map.Entry<String, HistogramaCuantiles> entry : histogramas.entrySet()) {
+			salida.escribirString(entry.getKey());
+			entry.getValue().escribirEn(salida);
+		}
+	}
+
+	private static void leerHistogramas(EntradaBinaria entrada, Map<String, HistogramaCuantiles> histogramas) throws IOException {
+		int cantidad = entrada.leerInt();
+		for (int i = 0; i < cantidad; i++) {
+			histogramas.put(entrada.leerString(), HistogramaCuantiles.leerDe(entrada));
+		}
+	}
+
 	// =================================================================================
 	// GETTERS (Defensivos)
 	// =================================================================================
 
 	public int getPasajerosTransportados() { return this.pasajerosTransportados; }
 	public int getPasajerosTotales() { return this.pasajerosRegistrados.size(); }
-	public Map<Integer, Integer> getDesgloseCalificaciones() { return Collections.unmodifiableMap(this.conteoCalificaciones); }
+	public int getCantidadConCalificacion(int calificacion) {
+		return (calificacion >= 1 && calificacion <= 5) ? this.conteoCalificaciones[calificacion] : 0;
+	}
+
+	/** Devuelve las calificaciones obtenidas al menos una vez y su cantidad. */
+	public Map<Integer, Integer> getDesgloseCalificaciones() {
+		Map<Integer, Integer> desglose = new HashMap<>();
+		for (int calificacion = 1; calificacion <= 5; calificacion++) {
+			if (this.conteoCalificaciones[calificacion] > 0) {
+				desglose.put(calificacion, this.conteoCalificaciones[calificacion]);
+			}
+		}
+		return Collections.unmodifiableMap(desglose);
+	}
 }
\ No newline at end of file
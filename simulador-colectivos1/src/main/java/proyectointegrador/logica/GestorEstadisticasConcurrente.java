@@ -0,0 +1,361 @@
+package proyectointegrador.logica;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import proyectointegrador.modelo.AlmacenPasajeros;
+import proyectointegrador.modelo.Pasajero;
+
+/**
+ * Variante de {@link GestorEstadisticas} que puede compartirse entre hilos.
+ * <p>
+ * {@link #registrarTransporte} y {@link #registrarOcupacionTramo} no usan locks:
+ * los contadores de satisfacción son {@link LongAdder} (contadores repartidos en
+ * celdas, que no compiten por una sola variable) y cada hilo registra las
+ * ocupaciones en sus propios {@link AcumuladorOcupacion}, uno por colectivo. Las
+ * consultas combinan los acumuladores de todos los hilos al momento de leer.
+ * <p>
+ * Los conteos coinciden exactamente con los de un {@link GestorEstadisticas}
+ * que hubiera recibido los mismos registros en un solo hilo; los promedios de
+ * ocupación, salvo redondeo. Las consultas reflejan todos los registros de los
+ * hilos que ya terminaron (por ejemplo, luego de esperar sus tareas); hechas
+ * mientras otros hilos registran, devuelven un estado aproximado.
+ * <p>
+ * Las capacidades deben registrarse antes de registrar ocupaciones de ese
+ * colectivo. Los tiempos de espera y de viaje se registran con un lock, ya que
+ * ocurren una vez por pasajero y no por parada visitada. {@link #reset()} no
+ * debe llamarse con registros en curso. Esta variante no admite checkpoints.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.5
+ */
+public class GestorEstadisticasConcurrente extends GestorEstadisticas {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	// --- Estadísticas Generales y de Satisfacción ---
+	private final LongAdder pasajerosTransportados;
+	private final LongAdder pasajerosSatisfechos;
+	private final LongAdder pasajerosInsatisfechos;
+	private final LongAdder sumaCalificaciones;
+	private final LongAdder[] conteoCalificaciones; // Calificación (1-5) -> Cantidad; la posición 0 no se usa
+
+	// --- Colectivos: se escriben con lock (solo al registrarlos) y se leen sin él ---
+	private final Map<String, Integer> handlesColectivos;
+	private volatile String[] idsColectivos;
+	private volatile int[] capacidades;
+	private volatile int cantidadColectivos;
+
+	// --- Ocupaciones: un acumulador por colectivo y por hilo ---
+	private final Queue<AcumuladoresDeHilo> acumuladoresPorHilo;
+	private final ThreadLocal<AcumuladoresDeHilo> acumuladoresDelHilo;
+
+	// =================================================================================
+	// CONSTRUCTOR Y RESET
+	// =================================================================================
+
+	public GestorEstadisticasConcurrente() {
+		this.pasajerosTransportados = new LongAdder();
+		this.pasajerosSatisfechos = new LongAdder();
+		this.pasajerosInsatisfechos = new LongAdder();
+		this.sumaCalificaciones = new LongAdder();
+		this.conteoCalificaciones = new LongAdder[6];
+		for (int i = 0; i < this.conteoCalificaciones.length; i++) {
+			this.conteoCalificaciones[i] = new LongAdder();
+		}
+		this.handlesColectivos = new ConcurrentHashMap<>();
+		this.idsColectivos = new String[16];
+		this.capacidades = new int[16];
+		this.acumuladoresPorHilo = new ConcurrentLinkedQueue<>();
+		this.acumuladoresDelHilo = ThreadLocal.withInitial(() -> {
+			AcumuladoresDeHilo propios = new AcumuladoresDeHilo();
+			this.acumuladoresPorHilo.add(propios);
+			return propios;
+		});
+	}
+
+	@Override
+	public synchronized void reset() {
+		super.reset();
+		this.pasajerosTransportados.reset();
+		this.pasajerosSatisfechos.reset();
+		this.pasajerosInsatisfechos.reset();
+		this.sumaCalificaciones.reset();
+		for (LongAdder conteo : this.conteoCalificaciones) {
+			conteo.reset();
+		}
+		this.handlesColectivos.clear();
+		this.idsColectivos = new String[16];
+		this.capacidades = new int[16];
+		this.cantidadColectivos = 0;
+		for (AcumuladoresDeHilo propios : this.acumuladoresPorHilo) {
+			propios.limpiar();
+		}
+	}
+
+	// =================================================================================
+	// MÉTODOS DE REGISTRO
+	// =================================================================================
+
+	@Override
+	public synchronized void registrarPasajero(AlmacenPasajeros almacen, int handle) {
+		super.registrarPasajero(almacen, handle);
+	}
+
+	@Override
+	public synchronized void registrarPasajeros(AlmacenPasajeros almacen, int desde, int hasta) {
+		super.registrarPasajeros(almacen, desde, hasta);
+	}
+
+	@Override
+	public void registrarTransporte(AlmacenPasajeros almacen, int handle) {
+		int satisfaccion = almacen.calcularSatisfaccion(handle); // Devuelve 1-5
+		if (satisfaccion < 1 || satisfaccion > 5) {
+			throw new IllegalArgumentException("Calificación fuera de la escala 1-5: " + satisfaccion);
+		}
+		this.pasajerosTransportados.increment();
+		if (satisfaccion >= 3) {
+			this.pasajerosSatisfechos.increment();
+		} else {
+			this.pasajerosInsatisfechos.increment();
+		}
+		this.conteoCalificaciones[satisfaccion].increment();
+		this.sumaCalificaciones.add(satisfaccion);
+	}
+
+	@Override
+	public synchronized void registrarEspera(String idParada, String claveLinea, int pasos) {
+		super.registrarEspera(idParada, claveLinea, pasos);
+	}
+
+	@Override
+	public synchronized void registrarViaje(String claveLinea, int pasos) {
+		super.registrarViaje(claveLinea, pasos);
+	}
+
+	@Override
+	public synchronized int registrarCapacidadColectivo(String idColectivo, int capacidadMaxima) {
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		if (handle == null) {
+			handle = this.cantidadColectivos;
+			String[] ids = this.idsColectivos;
+			if (handle == ids.length) {
+				ids = Arrays.copyOf(ids, handle * 2);
+			}
+			ids[handle] = idColectivo;
+			int[] nuevasCapacidades = Arrays.copyOf(this.capacidades, ids.length);
+			nuevasCapacidades[handle] = capacidadMaxima;
+			this.idsColectivos = ids;
+			this.capacidades = nuevasCapacidades;
+			this.cantidadColectivos = handle + 1;
+			this.handlesColectivos.put(idColectivo, handle);
+		} else {
+			// Copia al escribir: los hilos que leen nunca ven un arreglo a medio modificar.
+			int[] nuevasCapacidades = this.capacidades.clone();
+			nuevasCapacidades[handle] = capacidadMaxima;
+			this.capacidades = nuevasCapacidades;
+		}
+		return handle;
+	}
+
+	@Override
+	public void registrarOcupacionTramo(String idColectivo, int pasajerosEnTramo) {
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		if (handle == null) return;
+		registrarOcupacionTramo(handle, pasajerosEnTramo);
+	}
+
+	@Override
+	public void registrarOcupacionTramo(int handleColectivo, int pasajerosEnTramo) {
+		if (handleColectivo < 0 || handleColectivo >= this.cantidadColectivos) {
+			throw new IndexOutOfBoundsException("Handle de colectivo inválido: " + handleColectivo);
+		}
+		int capacidad = this.capacidades[handleColectivo];
+		if (capacidad == 0) return;
+		this.acumuladoresDelHilo.get().obtener(handleColectivo).registrar((double) pasajerosEnTramo / capacidad);
+	}
+
+	// =================================================================================
+	// MÉTODOS DE CÁLCULO Y CONSULTA
+	// =================================================================================
+
+	@Override
+	public double getPorcentajeSatisfechos() {
+		long transportados = this.pasajerosTransportados.sum();
+		return transportados == 0 ? 0 : 100.0 * this.pasajerosSatisfechos.sum() / transportados;
+	}
+
+	@Override
+	public double getPorcentajeInsatisfechos() {
+		long transportados = this.pasajerosTransportados.sum();
+		return transportados == 0 ? 0 : 100.0 * this.pasajerosInsatisfechos.sum() / transportados;
+	}
+
+	@Override
+	public double getIndiceSatisfaccion() {
+		long calificados = this.pasajerosTransportados.sum();
+		if (calificados == 0) return 0.0;
+		return (double) this.sumaCalificaciones.sum() / (calificados * 5.0);
+	}
+
+	@Override
+	public Map<String, Double> getOcupacionPromedioPorColectivo() {
+		Map<String, Double> promedios = new HashMap<>();
+		String[] ids = this.idsColectivos;
+		for (int h = 0; h < this.cantidadColectivos; h++) {
+			AcumuladorOcupacion combinado = combinarOcupaciones(h);
+			if (combinado.getCantidad() > 0) {
+				promedios.put(ids[h], combinado.getPromedio());
+			}
+		}
+		return promedios;
+	}
+
+	/**
+	 * Devuelve un acumulador nuevo con las ocupaciones del colectivo registradas
+	 * por todos los hilos. No refleja registros posteriores a la llamada.
+	 */
+	@Override
+	public AcumuladorOcupacion getAcumuladorOcupacion(String idColectivo) {
+		Integer handle = this.handlesColectivos.get(idColectivo);
+		if (handle == null) return null;
+		AcumuladorOcupacion combinado = combinarOcupaciones(handle);
+		return (combinado.getCantidad() > 0) ? combinado : null;
+	}
+
+	// =================================================================================
+	// GETTERS
+	// =================================================================================
+
+	@Override
+	public synchronized Map<String, HistogramaCuantiles> getEsperasPorParada() {
+		return copiarHistogramas(super.getEsperasPorParada());
+	}
+
+	@Override
+	public synchronized Map<String, HistogramaCuantiles> getEsperasPorLinea() {
+		return copiarHistogramas(super.getEsperasPorLinea());
+	}
+
+	@Override
+	public synchronized Map<String, HistogramaCuantiles> getViajesPorLinea() {
+		return copiarHistogramas(super.getViajesPorLinea());
+	}
+
+	@Override
+	public synchronized Map<String, Integer> getDesglosePasajeros() {
+		return super.getDesglosePasajeros();
+	}
+
+	@Override
+	public int getPasajerosTransportados() {
+		return this.pasajerosTransportados.intValue();
+	}
+
+	@Override
+	public synchronized int getPasajerosTotales() {
+		return super.getPasajerosTotales();
+	}
+
+	@Override
+	public int getCantidadConCalificacion(int calificacion) {
+		return (calificacion >= 1 && calificacion <= 5) ? this.conteoCalificaciones[calificacion].intValue() : 0;
+	}
+
+	@Override
+	public Map<Integer, Integer> getDesgloseCalificaciones() {
+		Map<Integer, Integer> desglose = new HashMap<>();
+		for (int calificacion = 1; calificacion <= 5; calificacion++) {
+			int cantidad = this.conteoCalificaciones[calificacion].intValue();
+			if (cantidad > 0) {
+				desglose.put(calificacion, cantidad);
+			}
+		}
+		return Collections.unmodifiableMap(desglose);
+	}
+
+	// =================================================================================
+	// PERSISTENCIA (checkpoints)
+	// =================================================================================
+
+	@Override
+	void escribirEstado(SalidaBinaria salida, ToIntFunction<Pasajero> indiceDe, int desdeRegistrado) throws IOException {
+		throw new IllegalStateException("El gestor de estadísticas concurrente no admite checkpoints.");
+	}
+
+	@Override
+	void leerEstado(EntradaBinaria entrada, IntFunction<Pasajero> pasajero) throws IOException {
+		throw new IllegalStateException("El gestor de estadísticas concurrente no admite checkpoints.");
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private AcumuladorOcupacion combinarOcupaciones(int handleColectivo) {
+		AcumuladorOcupacion combinado = new AcumuladorOcupacion();
+		for (AcumuladoresDeHilo propios : this.acumuladoresPorHilo) {
+			AcumuladorOcupacion parcial = propios.consultar(handleColectivo);
+			if (parcial != null) {
+				combinado.combinar(parcial);
+			}
+		}
+		return combinado;
+	}
+
+	/**
+	 * Copia el mapa y cada histograma; se llama con el lock tomado. La vista del
+	 * gestor base es del mapa vivo, que otros hilos siguen modificando al registrar.
+	 */
+	private static Map<String, HistogramaCuantiles> copiarHistogramas(Map<String, HistogramaCuantiles> histogramas) {
+		Map<String, HistogramaCuantiles> copia = new HashMap<>(histogramas.size() * 2);
+		for (Map.Entry<String, HistogramaCuantiles> entrada : histogramas.entrySet()) {
+			HistogramaCuantiles original = entrada.getValue();
+			HistogramaCuantiles histograma = new HistogramaCuantiles(original.getBitsPrecision());
+			histograma.combinar(original);
+			copia.put(entrada.getKey(), histograma);
+		}
+		return Collections.unmodifiableMap(copia);
+	}
+
+	/** Acumuladores de ocupación de un hilo, indexados por handle de colectivo. */
+	private static final class AcumuladoresDeHilo {
+		private volatile AcumuladorOcupacion[] porColectivo = new AcumuladorOcupacion[16];
+
+		/** Solo lo llama el hilo dueño. */
+		AcumuladorOcupacion obtener(int handle) {
+			AcumuladorOcupacion[] actuales = this.porColectivo;
+			if (handle >= actuales.length) {
+				actuales = Arrays.copyOf(actuales, Math.max(handle + 1, actuales.length * 2));
+				this.porColectivo = actuales;
+			}
+			AcumuladorOcupacion acumulador = actuales[handle];
+			if (acumulador == null) {
+				acumulador = new AcumuladorOcupacion();
+				actuales[handle] = acumulador;
+			}
+			return acumulador;
+		}
+
+		AcumuladorOcupacion consultar(int handle) {
+			AcumuladorOcupacion[] actuales = this.porColectivo;
+			return (handle < actuales.length) ? actuales[handle] : null;
+		}
+
+		void limpiar() {
+			this.porColectivo = new AcumuladorOcupacion[16];
+		}
+	}
+}
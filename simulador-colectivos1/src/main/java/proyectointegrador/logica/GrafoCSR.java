@@ -0,0 +1,483 @@
+package proyectointegrador.logica;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.datastructures.AdjacencyMapGraph;
+import net.datastructures.Edge;
+import net.datastructures.Vertex;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Copia congelada de un grafo de rutas en arreglos de primitivos (formato CSR),
+ * sobre la que se calculan los caminos mínimos.
+ * <p>
+ * Las paradas se numeran de {@code 0} a {@code cantidadParadas() - 1} en el orden
+ * en que se agregaron al grafo original. Los tramos que salen de la parada
+ * {@code u} ocupan las posiciones {@code [inicio(u), fin(u))} de los arreglos de
+ * destinos y pesos, ordenados por destino. Recorrer los vecinos de una parada es
+ * leer un tramo contiguo de dos arreglos de {@code int}, sin tablas de hash ni
+ * objetos por arista.
+ * <p>
+ * También guarda la adyacencia invertida (los tramos que llegan a cada parada),
+ * para la búsqueda bidireccional, y las coordenadas de las paradas, para la cota
+ * geográfica de A*.
+ * <p>
+ * Es inmutable y puede consultarse desde varios hilos a la vez: cada hilo usa sus
+ * propios arreglos de trabajo (distancias, predecesores y dos
+ * {@link MonticuloIndexado}), que se crean una vez y se reutilizan en todas sus
+ * consultas. Las búsquedas entre dos paradas no limpian esos arreglos: cada
+ * entrada lleva la marca de la consulta que la escribió, así que el costo de una
+ * consulta depende solo de las paradas que explora.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.3
+ */
+final class GrafoCSR {
+
+	// =================================================================================
+	// CONSTANTES Y ATRIBUTOS
+	// =================================================================================
+
+	private static final double RADIO_TERRESTRE_METROS = 6_371_000.0;
+
+	private final Parada[] paradas;
+	private final Map<String, Integer> indicePorId;
+	private final int[] inicio;
+	private final int[] destinos;
+	private final int[] pesos;
+
+	// --- Adyacencia invertida: tramos que llegan a cada parada ---
+	private final int[] inicioInverso;
+	private final int[] origenesInversos;
+	private final int[] pesosInversos;
+
+	// --- Cota geográfica para A* ---
+	private final double[] latitudesRad;
+	private final double[] longitudesRad;
+	private final double[] cosenosLatitud;
+	/**
+	 * Costo mínimo por metro de los tramos (0 si no hay coordenadas): el costo
+	 * restante hasta el destino es al menos esta cantidad por la distancia.
+	 */
+	private final double costoPorMetro;
+
+	/** Arreglos de trabajo de cada hilo para Dijkstra. */
+	private final ThreadLocal<EspacioTrabajo> espacioDelHilo;
+
+	// =================================================================================
+	// CONSTRUCCIÓN
+	// =================================================================================
+
+	private GrafoCSR(Parada[] paradas, Map<String, Integer> indicePorId, int[] inicio, int[] destinos, int[] pesos) {
+		this.paradas = paradas;
+		this.indicePorId = indicePorId;
+		this.inicio = inicio;
+		this.destinos = destinos;
+		this.pesos = pesos;
+
+		int n = paradas.length;
+		this.inicioInverso = new int[n + 1];
+		for (int destino : destinos) this.inicioInverso[destino + 1]++;
+		for (int v = 0; v < n; v++) this.inicioInverso[v + 1] += this.inicioInverso[v];
+		this.origenesInversos = new int[destinos.length];
+		this.pesosInversos = new int[destinos.length];
+		int[] siguiente = Arrays.copyOf(this.inicioInverso, n);
+		for (int u = 0; u < n; u++) {
+			for (int k = inicio[u]; k < inicio[u + 1]; k++) {
+				int posicion = siguiente[destinos[k]]++;
+				this.origenesInversos[posicion] = u;
+				this.pesosInversos[posicion] = pesos[k];
+			}
+		}
+
+		this.latitudesRad = new double[n];
+		this.longitudesRad = new double[n];
+		this.cosenosLatitud = new double[n];
+		boolean conCoordenadas = true;
+		for (int v = 0; v < n; v++) {
+			double lat = paradas[v].getLatitud();
+			double lon = paradas[v].getLongitud();
+			conCoordenadas &= Double.isFinite(lat) && Double.isFinite(lon) && (lat != 0.0 || lon != 0.0);
+			this.latitudesRad[v] = Math.toRadians(lat);
+			this.longitudesRad[v] = Math.toRadians(lon);
+			this.cosenosLatitud[v] = Math.cos(this.latitudesRad[v]);
+		}
+		this.costoPorMetro = conCoordenadas ? calcularCostoPorMetro() : 0.0;
+		this.espacioDelHilo = ThreadLocal.withInitial(() -> new EspacioTrabajo(n));
+	}
+
+	/**
+	 * Menor cociente costo / distancia entre los tramos con largo positivo, con un
+	 * pequeño margen para que el redondeo no haga la cota mayor que el costo real.
+	 */
+	private double calcularCostoPorMetro() {
+		double minimo = Double.POSITIVE_INFINITY;
+		for (int u = 0; u < this.paradas.length; u++) {
+			for (int k = this.inicio[u]; k < this.inicio[u + 1]; k++) {
+				double metros = distanciaMetros(u, this.destinos[k]);
+				if (metros > 0) minimo = Math.min(minimo, this.pesos[k] / metros);
+			}
+		}
+		return Double.isInfinite(minimo) ? 0.0 : minimo * (1 - 1e-9);
+	}
+
+	/**
+	 * Congela el estado actual de un grafo dirigido. Los cambios posteriores en el
+	 * grafo original no se reflejan.
+	 */
+	static GrafoCSR desde(final AdjacencyMapGraph<Parada, Integer> grafo) {
+		final Parada[] paradas = new Parada[grafo.numVertices()];
+		final Map<Vertex<Parada>, Integer> indicePorVertice = new HashMap<>();
+		final Map<String, Integer> indicePorId = new HashMap<>();
+		for (Vertex<Parada> v : grafo.vertices()) {
+			int i = indicePorVertice.size();
+			paradas[i] = v.getElement();
+			indicePorVertice.put(v, i);
+			indicePorId.put(v.getElement().getId(), i);
+		}
+
+		final int[] inicio = new int[paradas.length + 1];
+		final long[] tramos = new long[grafo.numEdges()]; // Destino en la parte alta, peso en la baja
+		int cantidad = 0;
+		for (Vertex<Parada> u : grafo.vertices()) {
+			int desde = cantidad;
+			for (Edge<Integer> e : grafo.outgoingEdges(u)) {
+				tramos[cantidad++] = ((long) indicePorVertice.get(grafo.opposite(u, e)) << 32) | (e.getElement() & 0xFFFFFFFFL);
+			}
+			Arrays.sort(tramos, desde, cantidad);
+			inicio[indicePorVertice.get(u) + 1] = cantidad;
+		}
+		final int[] destinos = new int[cantidad];
+		final int[] pesos = new int[cantidad];
+		for (int k = 0; k < cantidad; k++) {
+			destinos[k] = (int) (tramos[k] >>> 32);
+			pesos[k] = (int) tramos[k];
+			if (pesos[k] < 0) {
+				throw new IllegalArgumentException("Dijkstra no admite tramos con peso negativo: " + pesos[k] + ".");
+			}
+		}
+		return new GrafoCSR(paradas, indicePorId, inicio, destinos, pesos);
+	}
+
+	/**
+	 * Arma el grafo directamente de una adyacencia ya en formato CSR, sin pasar por
+	 * un grafo de objetos. Los arreglos pasan a ser del grafo y no deben modificarse.
+	 *
+	 * @param paradas  Parada de cada índice.
+	 * @param inicio   Posición del primer tramo de cada parada, más el total al final.
+	 * @param destinos Índice del destino de cada tramo, ordenados por destino dentro de cada parada.
+	 * @param pesos    Peso de cada tramo.
+	 * @throws IllegalArgumentException si los arreglos no son consistentes, hay IDs
+	 *                                  repetidos o algún peso es negativo.
+	 */
+	static GrafoCSR desdeAdyacencia(final Parada[] paradas, final int[] inicio, final int[] destinos, final int[] pesos) {
+		final int n = paradas.length;
+		if (inicio.length != n + 1 || inicio[0] != 0 || inicio[n] != destinos.length || pesos.length != destinos.length) {
+			throw new IllegalArgumentException("La adyacencia no corresponde a las paradas dadas.");
+		}
+		final Map<String, Integer> indicePorId = new HashMap<>(n * 2);
+		for (int v = 0; v < n; v++) {
+			if (indicePorId.putIfAbsent(paradas[v].getId(), v) != null) {
+				throw new IllegalArgumentException("Parada repetida en la adyacencia: " + paradas[v].getId() + ".");
+			}
+			if (inicio[v] > inicio[v + 1]) {
+				throw new IllegalArgumentException("Arreglo de inicios no creciente.");
+			}
+			for (int k = inicio[v]; k < inicio[v + 1]; k++) {
+				if (destinos[k] < 0 || destinos[k] >= n || (k > inicio[v] && destinos[k] <= destinos[k - 1])) {
+					throw new IllegalArgumentException("Los destinos de cada parada deben ser válidos, crecientes y sin repetidos.");
+				}
+				if (pesos[k] < 0) {
+					throw new IllegalArgumentException("Dijkstra no admite tramos con peso negativo: " + pesos[k] + ".");
+				}
+			}
+		}
+		return new GrafoCSR(paradas, indicePorId, inicio, destinos, pesos);
+	}
+
+	// =================================================================================
+	// CONSULTAS DE ESTRUCTURA
+	// =================================================================================
+
+	int cantidadParadas() { return this.paradas.length; }
+	int cantidadTramos() { return this.destinos.length; }
+
+	/** Índice de la parada con ese ID, o -1 si no está en el grafo. */
+	int indiceDe(String idParada) {
+		Integer indice = this.indicePorId.get(idParada);
+		return (indice != null) ? indice : -1;
+	}
+
+	Parada parada(int indice) { return this.paradas[indice]; }
+
+	/** Posición del primer tramo saliente de la parada {@code u}. */
+	int inicio(int u) { return this.inicio[u]; }
+
+	/** Posición siguiente al último tramo saliente de la parada {@code u}. */
+	int fin(int u) { return this.inicio[u + 1]; }
+
+	int destino(int tramo) { return this.destinos[tramo]; }
+	int peso(int tramo) { return this.pesos[tramo]; }
+
+	/** Indica si A* tiene una cota geográfica útil (todas las paradas tienen coordenadas). */
+	boolean tieneCotaGeografica() { return this.costoPorMetro > 0; }
+
+	/** Cantidad de paradas asentadas (extraídas del montículo) en la última búsqueda de este hilo. */
+	int asentadosUltimaBusqueda() { return this.espacioDelHilo.get().asentados; }
+
+	/** Arreglos de trabajo del hilo actual, dimensionados para este grafo. */
+	EspacioTrabajo espacioTrabajo() { return this.espacioDelHilo.get(); }
+
+	// =================================================================================
+	// CAMINOS MÍNIMOS
+	// =================================================================================
+
+	/**
+	 * Dijkstra desde un origen hacia todas las paradas. Solo reserva el arreglo
+	 * que devuelve; las distancias y el montículo son los del hilo.
+	 *
+	 * @return El predecesor de cada parada en su camino mínimo (-1 si no es
+	 *         alcanzable o es el origen). A igual distancia, se prefiere pasar
+	 *         por la parada de menor índice.
+	 */
+	int[] caminosMinimosDesde(final int origen) {
+		final EspacioTrabajo espacio = this.espacioDelHilo.get();
+		final int[] dist = espacio.distancias;
+		final MonticuloIndexado pendientes = espacio.pendientes;
+		final int[] prev = new int[this.paradas.length];
+		Arrays.fill(dist, Integer.MAX_VALUE);
+		Arrays.fill(prev, -1);
+		espacio.nuevaConsulta(); // Invalida las marcas de las búsquedas entre dos paradas
+		espacio.asentados = 0;
+
+		dist[origen] = 0;
+		pendientes.insertarOReducir(origen, 0);
+		while (!pendientes.estaVacio()) {
+			final int u = pendientes.extraerMinimo();
+			espacio.asentados++;
+			final int distanciaU = dist[u];
+			for (int k = this.inicio[u], fin = this.inicio[u + 1]; k < fin; k++) {
+				final int v = this.destinos[k];
+				final int nuevaDistancia = distanciaU + this.pesos[k];
+				if (nuevaDistancia < dist[v]) {
+					dist[v] = nuevaDistancia;
+					prev[v] = u;
+					pendientes.insertarOReducir(v, nuevaDistancia);
+				}
+			}
+		}
+		return prev;
+	}
+
+	/**
+	 * Busca una ruta de costo mínimo entre dos paradas con la estrategia dada.
+	 * Solo reserva el arreglo que devuelve.
+	 *
+	 * @return Los índices de las paradas de la ruta, del origen al destino, o un
+	 *         arreglo vacío si el destino no es alcanzable.
+	 */
+	int[] rutaMinima(final int origen, final int destino, final EstrategiaRuteo estrategia) {
+		final EspacioTrabajo espacio = this.espacioDelHilo.get();
+		espacio.nuevaConsulta();
+		espacio.asentados = 0;
+		if (origen == destino) {
+			return new int[] { origen };
+		}
+		switch (estrategia) {
+			case BIDIRECCIONAL:
+				return bidireccional(espacio, origen, destino);
+			case A_ESTRELLA:
+				return dirigida(espacio, origen, destino, true);
+			default:
+				return dirigida(espacio, origen, destino, false);
+		}
+	}
+
+	/** Dijkstra desde el origen hasta asentar el destino; con {@code conCota}, A*. */
+	private int[] dirigida(final EspacioTrabajo espacio, final int origen, final int destino, final boolean conCota) {
+		final MonticuloIndexado pendientes = espacio.pendientes;
+		final int[] dist = espacio.distancias;
+		final int[] prev = espacio.predecesores;
+		final int[] marca = espacio.marcas;
+		final int consulta = espacio.consulta;
+
+		marca[origen] = consulta;
+		dist[origen] = 0;
+		prev[origen] = -1;
+		pendientes.insertarOReducir(origen, conCota ? cota(origen, destino) : 0);
+		boolean encontrado = false;
+		while (!pendientes.estaVacio()) {
+			final int u = pendientes.extraerMinimo();
+			espacio.asentados++;
+			if (u == destino) {
+				encontrado = true;
+				break;
+			}
+			final int distanciaU = dist[u];
+			for (int k = this.inicio[u], fin = this.inicio[u + 1]; k < fin; k++) {
+				final int v = this.destinos[k];
+				final int nuevaDistancia = distanciaU + this.pesos[k];
+				if (marca[v] != consulta || nuevaDistancia < dist[v]) {
+					marca[v] = consulta;
+					dist[v] = nuevaDistancia;
+					prev[v] = u;
+					pendientes.insertarOReducir(v, conCota ? nuevaDistancia + cota(v, destino) : nuevaDistancia);
+				}
+			}
+		}
+		pendientes.vaciar();
+		return encontrado ? reconstruir(prev, origen, destino) : new int[0];
+	}
+
+	/**
+	 * Dijkstra bidireccional. Avanza cada vez el lado con la frontera de menor
+	 * distancia y termina cuando la suma de ambas fronteras alcanza la mejor ruta
+	 * que pasa por una parada alcanzada desde los dos lados.
+	 */
+	private int[] bidireccional(final EspacioTrabajo espacio, final int origen, final int destino) {
+		final MonticuloIndexado adelante = espacio.pendientes;
+		final MonticuloIndexado atras = espacio.pendientesInversos;
+		final int[] distAdelante = espacio.distancias;
+		final int[] distAtras = espacio.distanciasInversas;
+		final int[] prev = espacio.predecesores;
+		final int[] sig = espacio.sucesores;
+		final int[] marcaAdelante = espacio.marcas;
+		final int[] marcaAtras = espacio.marcasInversas;
+		final int consulta = espacio.consulta;
+
+		marcaAdelante[origen] = consulta;
+		distAdelante[origen] = 0;
+		prev[origen] = -1;
+		adelante.insertarOReducir(origen, 0);
+		marcaAtras[destino] = consulta;
+		distAtras[destino] = 0;
+		sig[destino] = -1;
+		atras.insertarOReducir(destino, 0);
+
+		long mejor = Long.MAX_VALUE;
+		int encuentro = -1;
+		while (!adelante.estaVacio() && !atras.estaVacio()
+				&& (long) adelante.prioridadMinima() + atras.prioridadMinima() < mejor) {
+			espacio.asentados++;
+			if (adelante.prioridadMinima() <= atras.prioridadMinima()) {
+				final int u = adelante.extraerMinimo();
+				for (int k = this.inicio[u], fin = this.inicio[u + 1]; k < fin; k++) {
+					final int v = this.destinos[k];
+					final int nuevaDistancia = distAdelante[u] + this.pesos[k];
+					if (marcaAdelante[v] != consulta || nuevaDistancia < distAdelante[v]) {
+						marcaAdelante[v] = consulta;
+						distAdelante[v] = nuevaDistancia;
+						prev[v] = u;
+						adelante.insertarOReducir(v, nuevaDistancia);
+					}
+					if (marcaAtras[v] == consulta && (long) nuevaDistancia + distAtras[v] < mejor) {
+						mejor = (long) nuevaDistancia + distAtras[v];
+						encuentro = v;
+					}
+				}
+			} else {
+				final int u = atras.extraerMinimo();
+				for (int k = this.inicioInverso[u], fin = this.inicioInverso[u + 1]; k < fin; k++) {
+					final int v = this.origenesInversos[k];
+					final int nuevaDistancia = distAtras[u] + this.pesosInversos[k];
+					if (marcaAtras[v] != consulta || nuevaDistancia < distAtras[v]) {
+						marcaAtras[v] = consulta;
+						distAtras[v] = nuevaDistancia;
+						sig[v] = u;
+						atras.insertarOReducir(v, nuevaDistancia);
+					}
+					if (marcaAdelante[v] == consulta && (long) nuevaDistancia + distAdelante[v] < mejor) {
+						mejor = (long) nuevaDistancia + distAdelante[v];
+						encuentro = v;
+					}
+				}
+			}
+		}
+		adelante.vaciar();
+		atras.vaciar();
+		if (encuentro < 0) {
+			return new int[0];
+		}
+		// Del origen al encuentro por los predecesores, y de ahí al destino por los sucesores
+		int[] primeraMitad = reconstruir(prev, origen, encuentro);
+		int largo = primeraMitad.length;
+		for (int v = sig[encuentro]; v >= 0; v = sig[v]) largo++;
+		int[] ruta = Arrays.copyOf(primeraMitad, largo);
+		int i = primeraMitad.length;
+		for (int v = sig[encuentro]; v >= 0; v = sig[v]) ruta[i++] = v;
+		return ruta;
+	}
+
+	private static int[] reconstruir(final int[] prev, final int origen, final int destino) {
+		int largo = 1;
+		for (int v = destino; v != origen; v = prev[v]) largo++;
+		int[] ruta = new int[largo];
+		int v = destino;
+		for (int i = largo - 1; i > 0; i--) {
+			ruta[i] = v;
+			v = prev[v];
+		}
+		ruta[0] = origen;
+		return ruta;
+	}
+
+	/** Cota inferior del costo de ir de {@code v} a {@code destino}. */
+	private int cota(final int v, final int destino) {
+		if (this.costoPorMetro == 0) return 0;
+		return (int) Math.min(Integer.MAX_VALUE / 2, Math.floor(this.costoPorMetro * distanciaMetros(v, destino)));
+	}
+
+	/** Distancia sobre la superficie terrestre entre dos paradas (fórmula de haversine). */
+	private double distanciaMetros(final int a, final int b) {
+		double senoLat = Math.sin((this.latitudesRad[b] - this.latitudesRad[a]) / 2);
+		double senoLon = Math.sin((this.longitudesRad[b] - this.longitudesRad[a]) / 2);
+		double h = senoLat * senoLat + this.cosenosLatitud[a] * this.cosenosLatitud[b] * senoLon * senoLon;
+		return 2 * RADIO_TERRESTRE_METROS * Math.asin(Math.min(1.0, Math.sqrt(h)));
+	}
+
+	// =================================================================================
+	// CLASE INTERNA
+	// =================================================================================
+
+	/**
+	 * Arreglos de trabajo reutilizables de un hilo. En las búsquedas entre dos
+	 * paradas, una entrada de distancias, predecesores o sucesores solo vale si su
+	 * marca es la de la consulta actual. También los usa {@link JerarquiaContracciones},
+	 * que numera las paradas igual que este grafo.
+	 */
+	static final class EspacioTrabajo {
+		final int[] distancias;
+		final int[] distanciasInversas;
+		final int[] predecesores;
+		final int[] sucesores;
+		final int[] marcas;
+		final int[] marcasInversas;
+		final MonticuloIndexado pendientes;
+		final MonticuloIndexado pendientesInversos;
+		int consulta;
+		int asentados;
+
+		EspacioTrabajo(int cantidadParadas) {
+			this.distancias = new int[cantidadParadas];
+			this.distanciasInversas = new int[cantidadParadas];
+			this.predecesores = new int[cantidadParadas];
+			this.sucesores = new int[cantidadParadas];
+			this.marcas = new int[cantidadParadas];
+			this.marcasInversas = new int[cantidadParadas];
+			this.pendientes = new MonticuloIndexado(cantidadParadas);
+			this.pendientesInversos = new MonticuloIndexado(cantidadParadas);
+		}
+
+		void nuevaConsulta() {
+			if (++this.consulta == Integer.MAX_VALUE) {
+				// Al dar la vuelta, se limpian las marcas para que ninguna vieja coincida
+				Arrays.fill(this.marcas, 0);
+				Arrays.fill(this.marcasInversas, 0);
+				this.consulta = 1;
+			}
+		}
+	}
+}
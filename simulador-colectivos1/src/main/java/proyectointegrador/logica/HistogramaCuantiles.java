@@ -0,0 +1,222 @@
+package proyectointegrador.logica;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma logarítmico-lineal para estimar cuantiles (p50, p95, p99) de valores
+ * enteros no negativos, como tiempos medidos en pasos de simulación.
+ * <p>
+ * Sigue la idea de HdrHistogram: los valores menores que {@code 2^bits} se
+ * cuentan exactos, y los mayores se agrupan en intervalos cuyo ancho crece con
+ * la magnitud, de modo que el error relativo de un cuantil nunca supera
+ * {@code 2^-bits}. La memoria queda acotada por la precisión y el máximo
+ * registrado, no por la cantidad de observaciones, y dos histogramas con la
+ * misma precisión se pueden combinar sumando sus conteos.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+public final class HistogramaCuantiles {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	/** Precisión por defecto: error relativo menor a 1/64 (~1,6%). */
+	public static final int BITS_PRECISION_POR_DEFECTO = 6;
+
+	private static final int BITS_PRECISION_MAXIMO = 12;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final int bitsPrecision;
+	private final int subintervalos; // 2^bitsPrecision
+	private long[] conteos;          // Crece hasta el intervalo del máximo registrado
+	private long cantidad;
+	private long suma;
+	private long minimo;
+	private long maximo;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	public HistogramaCuantiles() {
+		this(BITS_PRECISION_POR_DEFECTO);
+	}
+
+	/**
+	 * @param bitsPrecision Bits de precisión (1-12). El error relativo de los
+	 *                      cuantiles es menor a {@code 2^-bitsPrecision}.
+	 */
+	public HistogramaCuantiles(int bitsPrecision) {
+		if (bitsPrecision < 1 || bitsPrecision > BITS_PRECISION_MAXIMO) {
+			throw new IllegalArgumentException("Los bits de precisión deben estar entre 1 y " + BITS_PRECISION_MAXIMO + ".");
+		}
+		this.bitsPrecision = bitsPrecision;
+		this.subintervalos = 1 << bitsPrecision;
+		this.conteos = new long[this.subintervalos];
+		this.minimo = Long.MAX_VALUE;
+		this.maximo = 0;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE REGISTRO
+	// =================================================================================
+
+	/**
+	 * Registra una observación.
+	 * @throws IllegalArgumentException si el valor es negativo.
+	 */
+	public void registrar(long valor) {
+		if (valor < 0) {
+			throw new IllegalArgumentException("El histograma solo admite valores no negativos: " + valor);
+		}
+		int indice = indice(valor);
+		if (indice >= this.conteos.length) {
+			this.conteos = Arrays.copyOf(this.conteos, Math.max(indice + 1, this.conteos.length * 2));
+		}
+		this.conteos[indice]++;
+		this.cantidad++;
+		this.suma += valor;
+		if (valor < this.minimo) this.minimo = valor;
+		if (valor > this.maximo) this.maximo = valor;
+	}
+
+	/**
+	 * Suma los conteos de otro histograma. El otro histograma no se modifica.
+	 * @throws IllegalArgumentException si la precisión de ambos no coincide.
+	 */
+	public void combinar(HistogramaCuantiles otro) {
+		if (otro == null || otro.bitsPrecision != this.bitsPrecision) {
+			throw new IllegalArgumentException("Solo se pueden combinar histogramas con la misma precisión.");
+		}
+		if (otro.cantidad == 0) return;
+		if (otro.conteos.length > this.conteos.length) {
+			this.conteos = Arrays.copyOf(this.conteos, otro.conteos.length);
+		}
+		for (int i = 0; i < otro.conteos.length; i++) {
+			this.conteos[i] += otro.conteos[i];
+		}
+		this.cantidad += otro.cantidad;
+		this.suma += otro.suma;
+		this.minimo = Math.min(this.minimo, otro.minimo);
+		this.maximo = Math.max(this.maximo, otro.maximo);
+	}
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	/**
+	 * Estima el cuantil pedido: el menor valor tal que al menos una fracción
+	 * {@code q} de las observaciones es menor o igual. Se devuelve el mayor valor
+	 * equivalente de su intervalo (como HdrHistogram), sin superar el máximo.
+	 *
+	 * @param q Fracción entre 0 y 1 (0,95 para el p95).
+	 * @return El cuantil estimado, o 0 si no hay observaciones.
+	 */
+	public long getCuantil(double q) {
+		if (q < 0 || q > 1 || Double.isNaN(q)) {
+			throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1: " + q);
+		}
+		if (this.cantidad == 0) return 0;
+		if (q == 0) return this.minimo;
+
+		long rango = Math.max(1, (long) Math.ceil(q * this.cantidad));
+		long acumulado = 0;
+		for (int i = 0; i < this.conteos.length; i++) {
+			acumulado += this.conteos[i];
+			if (acumulado >= rango) {
+				return Math.max(this.minimo, Math.min(this.maximo, mayorValorEquivalente(i)));
+			}
+		}
+		return this.maximo;
+	}
+
+	public long getP50() { return getCuantil(0.50); }
+	public long getP95() { return getCuantil(0.95); }
+	public long getP99() { return getCuantil(0.99); }
+
+	public long getCantidad() { return this.cantidad; }
+	public long getSuma() { return this.suma; }
+	public int getBitsPrecision() { return this.bitsPrecision; }
+
+	/** @return El promedio exacto de las observaciones, o 0 si no hay. */
+	public double getPromedio() {
+		return (this.cantidad == 0) ? 0.0 : (double) this.suma / this.cantidad;
+	}
+
+	/** @return El mínimo registrado, o 0 si no hay observaciones. */
+	public long getMinimo() {
+		return (this.cantidad == 0) ? 0 : this.minimo;
+	}
+
+	/** @return El máximo registrado, o 0 si no hay observaciones. */
+	public long getMaximo() {
+		return this.maximo;
+	}
+
+	// =================================================================================
+	// PERSISTENCIA (checkpoints)
+	// =================================================================================
+
+	/** Escribe el estado completo (solo hasta el último intervalo con conteo) para {@link #leerDe}. */
+	void escribirEn(SalidaBinaria salida) throws IOException {
+		int usados = this.conteos.length;
+		while (usados > 0 && this.conteos[usados - 1] == 0) usados--;
+		salida.escribirInt(this.bitsPrecision);
+		salida.escribirLong(this.cantidad);
+		salida.escribirLong(this.suma);
+		salida.escribirLong(this.minimo);
+		salida.escribirLong(this.maximo);
+		salida.escribirInt(usados);
+		for (int i = 0; i < usados; i++) {
+			salida.escribirLong(this.conteos[i]);
+		}
+	}
+
+	static HistogramaCuantiles leerDe(EntradaBinaria entrada) throws IOException {
+		HistogramaCuantiles histograma = new HistogramaCuantiles(entrada.leerInt());
+		histograma.cantidad = entrada.leerLong();
+		histograma.suma = entrada.leerLong();
+		histograma.minimo = entrada.leerLong();
+		histograma.maximo = entrada.leerLong();
+		int usados = entrada.leerInt();
+		if (usados > histograma.conteos.length) {
+			histograma.conteos = new long[usados];
+		}
+		for (int i = 0; i < usados; i++) {
+			histograma.conteos[i] = entrada.leerLong();
+		}
+		return histograma;
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	/** Índice del intervalo de un valor: exacto por debajo de 2^bits, logarítmico por encima. */
+	private int indice(long valor) {
+		if (valor < this.subintervalos) {
+			return (int) valor;
+		}
+		int exponente = 63 - Long.numberOfLeadingZeros(valor);
+		int desplazamiento = exponente - this.bitsPrecision;
+		return (desplazamiento + 1) * this.subintervalos + (int) ((valor >>> desplazamiento) - this.subintervalos);
+	}
+
+	private long mayorValorEquivalente(int indice) {
+		if (indice < this.subintervalos) {
+			return indice;
+		}
+		int desplazamiento = indice / this.subintervalos - 1;
+		long mantisa = (indice % this.subintervalos) + this.subintervalos;
+		long limite = (mantisa + 1) << desplazamiento;
+		return (limite > 0) ? limite - 1 : Long.MAX_VALUE; // El último intervalo desborda
+	}
+}
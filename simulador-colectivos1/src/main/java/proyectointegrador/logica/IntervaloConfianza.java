@@ -0,0 +1,72 @@
+package proyectointegrador.logica;
+
+/**
+ * Resumen estadístico de una muestra: media, desvío estándar e intervalo de
+ * confianza del 95% para la media.
+ * <p>
+ * El intervalo usa el valor crítico de la t de Student hasta 30 grados de
+ * libertad y el de la normal (1,96) para muestras mayores.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class IntervaloConfianza {
+
+	/** Valores críticos t(0,975; gl) para gl = 1..30. */
+	private static final double[] T_95 = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+			2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+			2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+	private static final double Z_95 = 1.96;
+
+	private final int tamanio;
+	private final double media;
+	private final double desvio;
+	private final double margen;
+
+	private IntervaloConfianza(int tamanio, double media, double desvio, double margen) {
+		this.tamanio = tamanio;
+		this.media = media;
+		this.desvio = desvio;
+		this.margen = margen;
+	}
+
+	/**
+	 * Calcula el resumen de una muestra.
+	 * @param muestra Los valores observados (al menos uno).
+	 * @return El intervalo de confianza del 95% para la media. Con una sola
+	 *         observación el margen es 0.
+	 * @throws IllegalArgumentException si la muestra es nula o vacía.
+	 */
+	public static IntervaloConfianza calcular(double[] muestra) {
+		if (muestra == null || muestra.length == 0) {
+			throw new IllegalArgumentException("La muestra no puede ser nula o vacía.");
+		}
+		int n = muestra.length;
+		double suma = 0;
+		for (double x : muestra) suma += x;
+		double media = suma / n;
+		if (n == 1) {
+			return new IntervaloConfianza(1, media, 0.0, 0.0);
+		}
+
+		double sumaCuadrados = 0;
+		for (double x : muestra) sumaCuadrados += (x - media) * (x - media);
+		double desvio = Math.sqrt(sumaCuadrados / (n - 1)); // Desvío muestral
+		double critico = (n - 1 <= T_95.length) ? T_95[n - 2] : Z_95;
+		return new IntervaloConfianza(n, media, desvio, critico * desvio / Math.sqrt(n));
+	}
+
+	public int getTamanio() { return this.tamanio; }
+	public double getMedia() { return this.media; }
+	public double getDesvio() { return this.desvio; }
+	/** Semiancho del intervalo. */
+	public double getMargen() { return this.margen; }
+	public double getInferior() { return this.media - this.margen; }
+	public double getSuperior() { return this.media + this.margen; }
+
+	@Override
+	public String toString() {
+		return String.format("%.4f ± %.4f (IC95%% [%.4f, %.4f], n=%d)", media, margen, getInferior(), getSuperior(), tamanio);
+	}
+}
@@ -0,0 +1,622 @@
+package proyectointegrador.logica;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Jerarquía de contracciones sobre un {@link GrafoCSR}, para responder rutas
+ * entre dos paradas explorando solo unas pocas paradas "importantes".
+ * <p>
+ * El preprocesamiento contrae las paradas de a una, de la menos importante a la
+ * más importante (según cuántos atajos agregaría quitarla y cuántos vecinos ya
+ * se contrajeron). Al contraer una parada {@code v}, por cada par de vecinos
+ * {@code u -> v -> w} se agrega un atajo {@code u -> w} con el costo de ese
+ * camino, salvo que una búsqueda local encuentre otro camino igual o más barato
+ * (un testigo) que no pase por {@code v}. Cada atajo recuerda la parada por la
+ * que pasa, para poder desarmarlo.
+ * <p>
+ * Cada tramo (original o atajo) se guarda en la parada de menor rango de sus dos
+ * extremos: los que suben desde una parada, en la adyacencia hacia adelante, y
+ * los que llegan a ella desde una parada de mayor rango, en la adyacencia hacia
+ * atrás. Una consulta es una búsqueda bidireccional que solo sube de rango en
+ * los dos sentidos; el mejor encuentro entre ambas es la ruta de costo mínimo, y
+ * sus atajos se desarman en tramos del grafo original.
+ * <p>
+ * La jerarquía se puede guardar en un archivo y volver a leer, con el mismo
+ * encabezado que {@link proyectointegrador.datos.ImagenRed} (marca, versión,
+ * largo y CRC32). El archivo guarda una huella del grafo del que salió, y se
+ * rechaza si no coincide con el grafo actual. Las consultas usan los arreglos de
+ * trabajo del grafo, así que pueden hacerse desde varios hilos a la vez.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+final class JerarquiaContracciones {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	private static final int MAGIA = 0x4A455243; // "JERC"
+	private static final int VERSION = 1;
+	/** Marca, versión, largo de los datos y CRC32. */
+	private static final int TAMANIO_ENCABEZADO = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+	/**
+	 * Máximo de paradas que asienta cada búsqueda de testigos. Cortarla antes solo
+	 * puede agregar atajos de más, nunca perder rutas.
+	 */
+	private static final int LIMITE_BUSQUEDA_TESTIGOS = 500;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final GrafoCSR grafo;
+	/** Orden de contracción de cada parada (0 = la primera contraída). */
+	private final int[] rangos;
+
+	// --- Tramos hacia paradas de mayor rango, ordenados por vecino ---
+	private final int[] inicioAdelante;
+	private final int[] destinosAdelante;
+	private final int[] pesosAdelante;
+	/** Parada por la que pasa cada atajo, o -1 si es un tramo original. */
+	private final int[] mediosAdelante;
+
+	// --- Tramos que llegan desde paradas de mayor rango, ordenados por vecino ---
+	private final int[] inicioAtras;
+	private final int[] origenesAtras;
+	private final int[] pesosAtras;
+	private final int[] mediosAtras;
+
+	// =================================================================================
+	// CONSTRUCCIÓN
+	// =================================================================================
+
+	private JerarquiaContracciones(GrafoCSR grafo, int[] rangos, int[][] adelante, int[][] atras) {
+		this.grafo = grafo;
+		this.rangos = rangos;
+		this.inicioAdelante = adelante[0];
+		this.destinosAdelante = adelante[1];
+		this.pesosAdelante = adelante[2];
+		this.mediosAdelante = adelante[3];
+		this.inicioAtras = atras[0];
+		this.origenesAtras = atras[1];
+		this.pesosAtras = atras[2];
+		this.mediosAtras = atras[3];
+	}
+
+	/** Preprocesa el grafo contrayendo todas sus paradas. */
+	static JerarquiaContracciones construir(final GrafoCSR grafo) {
+		return new Contraccion(grafo).ejecutar();
+	}
+
+	/** Grafo sobre el que se construyó la jerarquía. */
+	GrafoCSR grafo() { return this.grafo; }
+
+	/** Cantidad de tramos de la jerarquía (originales y atajos, sin repetidos). */
+	int cantidadTramos() { return this.destinosAdelante.length + this.origenesAtras.length; }
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	/**
+	 * Busca una ruta de costo mínimo entre dos paradas del grafo.
+	 *
+	 * @return Los índices de las paradas de la ruta en el grafo original, del
+	 *         origen al destino, o un arreglo vacío si el destino no es alcanzable.
+	 */
+	int[] rutaMinima(final int origen, final int destino) {
+		final GrafoCSR.EspacioTrabajo espacio = this.grafo.espacioTrabajo();
+		espacio.nuevaConsulta();
+		espacio.asentados = 0;
+		if (origen == destino) {
+			return new int[] { origen };
+		}
+		final MonticuloIndexado adelante = espacio.pendientes;
+		final MonticuloIndexado atras = espacio.pendientesInversos;
+		final int[] distAdelante = espacio.distancias;
+		final int[] distAtras = espacio.distanciasInversas;
+		final int[] prev = espacio.predecesores;
+		final int[] sig = espacio.sucesores;
+		final int[] marcaAdelante = espacio.marcas;
+		final int[] marcaAtras = espacio.marcasInversas;
+		final int consulta = espacio.consulta;
+
+		marcaAdelante[origen] = consulta;
+		distAdelante[origen] = 0;
+		prev[origen] = -1;
+		adelante.insertarOReducir(origen, 0);
+		marcaAtras[destino] = consulta;
+		distAtras[destino] = 0;
+		sig[destino] = -1;
+		atras.insertarOReducir(destino, 0);
+
+		long mejor = Long.MAX_VALUE;
+		int encuentro = -1;
+		while (true) {
+			// Cada búsqueda termina cuando su frontera ya no puede mejorar el encuentro
+			final boolean sigueAdelante = !adelante.estaVacio() && adelante.prioridadMinima() < mejor;
+			final boolean sigueAtras = !atras.estaVacio() && atras.prioridadMinima() < mejor;
+			if (!sigueAdelante && !sigueAtras) break;
+			espacio.asentados++;
+			if (sigueAdelante && (!sigueAtras || adelante.prioridadMinima() <= atras.prioridadMinima())) {
+				final int u = adelante.extraerMinimo();
+				if (marcaAtras[u] == consulta && (long) distAdelante[u] + distAtras[u] < mejor) {
+					mejor = (long) distAdelante[u] + distAtras[u];
+					encuentro = u;
+				}
+				for (int k = this.inicioAdelante[u], fin = this.inicioAdelante[u + 1]; k < fin; k++) {
+					final int v = this.destinosAdelante[k];
+					final int nuevaDistancia = distAdelante[u] + this.pesosAdelante[k];
+					if (marcaAdelante[v] != consulta || nuevaDistancia < distAdelante[v]) {
+						marcaAdelante[v] = consulta;
+						distAdelante[v] = nuevaDistancia;
+						prev[v] = u;
+						adelante.insertarOReducir(v, nuevaDistancia);
+					}
+				}
+			} else {
+				final int u = atras.extraerMinimo();
+				if (marcaAdelante[u] == consulta && (long) distAdelante[u] + distAtras[u] < mejor) {
+					mejor = (long) distAdelante[u] + distAtras[u];
+					encuentro = u;
+				}
+				for (int k = this.inicioAtras[u], fin = this.inicioAtras[u + 1]; k < fin; k++) {
+					final int v = this.origenesAtras[k];
+					final int nuevaDistancia = distAtras[u] + this.pesosAtras[k];
+					if (marcaAtras[v] != consulta || nuevaDistancia < distAtras[v]) {
+						marcaAtras[v] = consulta;
+						distAtras[v] = nuevaDistancia;
+						sig[v] = u;
+						atras.insertarOReducir(v, nuevaDistancia);
+					}
+				}
+			}
+		}
+		adelante.vaciar();
+		atras.vaciar();
+		if (encuentro < 0) {
+			return new int[0];
+		}
+
+		// Paradas de la jerarquía: del origen al encuentro y del encuentro al destino
+		int mitad = 1;
+		for (int v = encuentro; v != origen; v = prev[v]) mitad++;
+		int largo = mitad;
+		for (int v = encuentro; v != destino; v = sig[v]) largo++;
+		final int[] saltos = new int[largo];
+		int v = encuentro;
+		for (int i = mitad - 1; i >= 0; i--) {
+			saltos[i] = v;
+			v = prev[v];
+		}
+		int i = mitad;
+		for (v = sig[encuentro]; v >= 0; v = sig[v]) saltos[i++] = v;
+		return desarmar(saltos);
+	}
+
+	/** Reemplaza cada atajo entre paradas consecutivas por los tramos originales que resume. */
+	private int[] desarmar(final int[] saltos) {
+		int[] ruta = new int[Math.max(16, saltos.length)];
+		int largo = 0;
+		ruta[largo++] = saltos[0];
+		int[] pila = new int[32];
+		for (int s = 0; s + 1 < saltos.length; s++) {
+			int tope = 0;
+			pila[tope++] = saltos[s];
+			pila[tope++] = saltos[s + 1];
+			while (tope > 0) {
+				final int hasta = pila[--tope];
+				final int desde = pila[--tope];
+				final int medio = medio(desde, hasta);
+				if (medio < 0) {
+					if (largo == ruta.length) ruta = Arrays.copyOf(ruta, 2 * largo);
+					ruta[largo++] = hasta;
+				} else {
+					if (tope + 4 > pila.length) pila = Arrays.copyOf(pila, 2 * pila.length);
+					// Primero la segunda mitad, para desarmar antes la primera
+					pila[tope++] = medio;
+					pila[tope++] = hasta;
+					pila[tope++] = desde;
+					pila[tope++] = medio;
+				}
+			}
+		}
+		return Arrays.copyOf(ruta, largo);
+	}
+
+	/** Parada intermedia del tramo {@code desde -> hasta} de la jerarquía, o -1 si es original. */
+	private int medio(final int desde, final int hasta) {
+		if (this.rangos[desde] < this.rangos[hasta]) {
+			int k = Arrays.binarySearch(this.destinosAdelante, this.inicioAdelante[desde], this.inicioAdelante[desde + 1], hasta);
+			return this.mediosAdelante[k];
+		}
+		int k = Arrays.binarySearch(this.origenesAtras, this.inicioAtras[hasta], this.inicioAtras[hasta + 1], desde);
+		return this.mediosAtras[k];
+	}
+
+	// =================================================================================
+	// PERSISTENCIA
+	// =================================================================================
+
+	/**
+	 * Guarda la jerarquía. El archivo se escribe primero como temporal y luego
+	 * reemplaza al destino, así que un corte no deja un archivo a medias.
+	 */
+	void escribir(final Path archivo) throws IOException {
+		final int n = this.rangos.length;
+		final long tamanio = Long.BYTES + 3L * Integer.BYTES
+				+ (long) n * Integer.BYTES
+				+ 2L * (n + 1) * Integer.BYTES
+				+ 3L * (this.destinosAdelante.length + this.origenesAtras.length) * Integer.BYTES;
+		if (tamanio > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("La jerarquía es demasiado grande para un archivo (" + tamanio + " bytes).");
+		}
+		final ByteBuffer datos = ByteBuffer.allocate((int) tamanio);
+		datos.putLong(huella(this.grafo)).putInt(n).putInt(this.destinosAdelante.length).putInt(this.origenesAtras.length);
+		for (int[] columna : new int[][] { this.rangos, this.inicioAdelante, this.destinosAdelante, this.pesosAdelante,
+				this.mediosAdelante, this.inicioAtras, this.origenesAtras, this.pesosAtras, this.mediosAtras }) {
+			datos.asIntBuffer().put(columna);
+			datos.position(datos.position() + columna.length * Integer.BYTES);
+		}
+		datos.flip();
+		final CRC32 crc = new CRC32();
+		crc.update(datos.duplicate());
+
+		final ByteBuffer encabezado = ByteBuffer.allocate(TAMANIO_ENCABEZADO);
+		encabezado.putInt(MAGIA).putInt(VERSION).putLong(datos.remaining()).putInt((int) crc.getValue());
+		encabezado.flip();
+
+		final Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+		try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (encabezado.hasRemaining()) canal.write(encabezado);
+			while (datos.hasRemaining()) canal.write(datos);
+			canal.force(false);
+		}
+		Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Lee una jerarquía guardada para el grafo dado.
+	 *
+	 * @throws IllegalStateException si el archivo no es una jerarquía válida o se
+	 *                               construyó para otro grafo.
+	 */
+	static JerarquiaContracciones leer(final Path archivo, final GrafoCSR grafo) throws IOException {
+		final ByteBuffer contenido;
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			if (canal.size() < TAMANIO_ENCABEZADO || canal.size() > Integer.MAX_VALUE) {
+				throw new IllegalStateException("El archivo " + archivo + " no es una jerarquía de rutas válida.");
+			}
+			contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+		}
+		if (contenido.getInt() != MAGIA) {
+			throw new IllegalStateException("El archivo " + archivo + " no es una jerarquía de rutas.");
+		}
+		final int version = contenido.getInt();
+		if (version != VERSION) {
+			throw new IllegalStateException("Versión de jerarquía de rutas no soportada: " + version + ".");
+		}
+		final long longitud = contenido.getLong();
+		final int crcEsperado = contenido.getInt();
+		if (longitud != contenido.remaining()) {
+			throw new IllegalStateException("La jerarquía de rutas está truncada o tiene datos de más.");
+		}
+		final CRC32 crc = new CRC32();
+		crc.update(contenido.duplicate());
+		if ((int) crc.getValue() != crcEsperado) {
+			throw new IllegalStateException("La jerarquía de rutas está dañada (CRC incorrecto).");
+		}
+		final ByteBuffer datos = contenido.slice();
+		if (datos.getLong() != huella(grafo) || datos.getInt() != grafo.cantidadParadas()) {
+			throw new IllegalStateException("La jerarquía de rutas se construyó para otra red.");
+		}
+		try {
+			final int n = grafo.cantidadParadas();
+			final int tramosAdelante = datos.getInt();
+			final int tramosAtras = datos.getInt();
+			final int[] rangos = leerInts(datos, n);
+			final int[][] adelante = { leerInts(datos, n + 1), leerInts(datos, tramosAdelante),
+					leerInts(datos, tramosAdelante), leerInts(datos, tramosAdelante) };
+			final int[][] atras = { leerInts(datos, n + 1), leerInts(datos, tramosAtras),
+					leerInts(datos, tramosAtras), leerInts(datos, tramosAtras) };
+			if (datos.hasRemaining()) {
+				throw new IllegalStateException("Sobran " + datos.remaining() + " bytes al final de la jerarquía.");
+			}
+			validar(adelante, n);
+			validar(atras, n);
+			return new JerarquiaContracciones(grafo, rangos, adelante, atras);
+		} catch (RuntimeException e) {
+			throw new IllegalStateException("La jerarquía de rutas tiene un contenido inconsistente.", e);
+		}
+	}
+
+	private static int[] leerInts(final ByteBuffer datos, final int cantidad) {
+		final int[] valores = new int[cantidad];
+		datos.asIntBuffer().get(valores);
+		datos.position(datos.position() + cantidad * Integer.BYTES);
+		return valores;
+	}
+
+	private static void validar(final int[][] adyacencia, final int cantidadParadas) {
+		final int[] inicio = adyacencia[0];
+		if (inicio[0] != 0 || inicio[cantidadParadas] != adyacencia[1].length) {
+			throw new IllegalStateException("Arreglo de inicios inconsistente.");
+		}
+		for (int i = 0; i < cantidadParadas; i++) {
+			if (inicio[i] > inicio[i + 1]) throw new IllegalStateException("Arreglo de inicios no creciente.");
+		}
+		for (int k = 0; k < adyacencia[1].length; k++) {
+			if (adyacencia[1][k] < 0 || adyacencia[1][k] >= cantidadParadas || adyacencia[3][k] >= cantidadParadas) {
+				throw new IllegalStateException("Índice de parada fuera de rango en la jerarquía.");
+			}
+		}
+	}
+
+	/** Resumen de las paradas y tramos de un grafo, para reconocer la red de una jerarquía guardada. */
+	private static long huella(final GrafoCSR grafo) {
+		final CRC32 crc = new CRC32();
+		final ByteBuffer numeros = ByteBuffer.allocate(3 * Integer.BYTES);
+		for (int u = 0; u < grafo.cantidadParadas(); u++) {
+			crc.update(grafo.parada(u).getId().getBytes(StandardCharsets.UTF_8));
+			crc.update(0);
+			for (int k = grafo.inicio(u); k < grafo.fin(u); k++) {
+				numeros.clear();
+				numeros.putInt(u).putInt(grafo.destino(k)).putInt(grafo.peso(k)).flip();
+				crc.update(numeros);
+			}
+		}
+		return ((long) grafo.cantidadTramos() << 32) | crc.getValue();
+	}
+
+	// =================================================================================
+	// CLASES INTERNAS
+	// =================================================================================
+
+	/** Tramos de una parada hacia (o desde) sus vecinos, en arreglos que crecen. */
+	private static final class ListaTramos {
+		int[] vecinos = new int[4];
+		int[] pesos = new int[4];
+		int[] medios = new int[4];
+		int tamanio;
+
+		/** Agrega el tramo o, si ya existe con un peso mayor, lo reemplaza. */
+		void agregarOMejorar(int vecino, int peso, int medio) {
+			for (int i = 0; i < this.tamanio; i++) {
+				if (this.vecinos[i] == vecino) {
+					if (peso < this.pesos[i]) {
+						this.pesos[i] = peso;
+						this.medios[i] = medio;
+					}
+					return;
+				}
+			}
+			if (this.tamanio == this.vecinos.length) {
+				int capacidad = 2 * this.tamanio;
+				this.vecinos = Arrays.copyOf(this.vecinos, capacidad);
+				this.pesos = Arrays.copyOf(this.pesos, capacidad);
+				this.medios = Arrays.copyOf(this.medios, capacidad);
+			}
+			this.vecinos[this.tamanio] = vecino;
+			this.pesos[this.tamanio] = peso;
+			this.medios[this.tamanio] = medio;
+			this.tamanio++;
+		}
+
+		void quitar(int vecino) {
+			for (int i = 0; i < this.tamanio; i++) {
+				if (this.vecinos[i] == vecino) {
+					this.tamanio--;
+					this.vecinos[i] = this.vecinos[this.tamanio];
+					this.pesos[i] = this.pesos[this.tamanio];
+					this.medios[i] = this.medios[this.tamanio];
+					return;
+				}
+			}
+		}
+	}
+
+	/** Estado del preprocesamiento: el grafo que queda por contraer y el orden elegido. */
+	private static final class Contraccion {
+		private final GrafoCSR grafo;
+		private final int n;
+		private final ListaTramos[] salientes;
+		private final ListaTramos[] entrantes;
+		private final int[] vecinosContraidos;
+		private final int[] rangos;
+
+		// --- Búsqueda de testigos ---
+		private final MonticuloIndexado pendientes;
+		private final int[] distancias;
+		private final int[] marcas;
+		private int busqueda;
+
+		// --- Atajos de la contracción simulada o real en curso ---
+		private int[] atajosDesde = new int[16];
+		private int[] atajosHasta = new int[16];
+		private int[] atajosPeso = new int[16];
+		private int cantidadAtajos;
+
+		Contraccion(GrafoCSR grafo) {
+			this.grafo = grafo;
+			this.n = grafo.cantidadParadas();
+			this.salientes = new ListaTramos[this.n];
+			this.entrantes = new ListaTramos[this.n];
+			for (int v = 0; v < this.n; v++) {
+				this.salientes[v] = new ListaTramos();
+				this.entrantes[v] = new ListaTramos();
+			}
+			for (int u = 0; u < this.n; u++) {
+				for (int k = grafo.inicio(u); k < grafo.fin(u); k++) {
+					int v = grafo.destino(k);
+					if (u == v) continue; // Un lazo nunca es parte de una ruta mínima
+					this.salientes[u].agregarOMejorar(v, grafo.peso(k), -1);
+					this.entrantes[v].agregarOMejorar(u, grafo.peso(k), -1);
+				}
+			}
+			this.vecinosContraidos = new int[this.n];
+			this.rangos = new int[this.n];
+			this.pendientes = new MonticuloIndexado(this.n);
+			this.distancias = new int[this.n];
+			this.marcas = new int[this.n];
+		}
+
+		JerarquiaContracciones ejecutar() {
+			// Tramos de cada parada en el momento de contraerla: todos van a paradas de mayor rango
+			final ListaTramos[] subenDesde = new ListaTramos[this.n];
+			final ListaTramos[] lleganDesde = new ListaTramos[this.n];
+
+			final MonticuloIndexado orden = new MonticuloIndexado(this.n);
+			for (int v = 0; v < this.n; v++) orden.insertarOReducir(v, prioridad(v));
+			int rango = 0;
+			while (!orden.estaVacio()) {
+				final int v = orden.extraerMinimo();
+				// Actualización perezosa: si la prioridad empeoró, se vuelve a encolar
+				final int actual = prioridad(v);
+				if (!orden.estaVacio() && actual > orden.prioridadMinima()) {
+					orden.insertarOReducir(v, actual);
+					continue;
+				}
+				subenDesde[v] = copiar(this.salientes[v]);
+				lleganDesde[v] = copiar(this.entrantes[v]);
+				contraer(v);
+				this.rangos[v] = rango++;
+			}
+			return new JerarquiaContracciones(this.grafo, this.rangos, compactar(subenDesde), compactar(lleganDesde));
+		}
+
+		/** Atajos que agregaría contraer la parada, menos los tramos que quita, más sus vecinos ya contraídos. */
+		private int prioridad(int v) {
+			buscarAtajos(v);
+			return this.cantidadAtajos - this.salientes[v].tamanio - this.entrantes[v].tamanio + this.vecinosContraidos[v];
+		}
+
+		private void contraer(int v) {
+			buscarAtajos(v);
+			for (int i = 0; i < this.cantidadAtajos; i++) {
+				this.salientes[this.atajosDesde[i]].agregarOMejorar(this.atajosHasta[i], this.atajosPeso[i], v);
+				this.entrantes[this.atajosHasta[i]].agregarOMejorar(this.atajosDesde[i], this.atajosPeso[i], v);
+			}
+			final ListaTramos salida = this.salientes[v];
+			for (int i = 0; i < salida.tamanio; i++) {
+				this.entrantes[salida.vecinos[i]].quitar(v);
+				this.vecinosContraidos[salida.vecinos[i]]++;
+			}
+			final ListaTramos entrada = this.entrantes[v];
+			for (int i = 0; i < entrada.tamanio; i++) {
+				this.salientes[entrada.vecinos[i]].quitar(v);
+				this.vecinosContraidos[entrada.vecinos[i]]++;
+			}
+			this.salientes[v] = null;
+			this.entrantes[v] = null;
+		}
+
+		/** Calcula los atajos necesarios para contraer {@code v}, sin agregarlos. */
+		private void buscarAtajos(int v) {
+			this.cantidadAtajos = 0;
+			final ListaTramos entrada = this.entrantes[v];
+			final ListaTramos salida = this.salientes[v];
+			if (salida.tamanio == 0) return;
+			int maximaSalida = 0;
+			for (int j = 0; j < salida.tamanio; j++) maximaSalida = Math.max(maximaSalida, salida.pesos[j]);
+
+			for (int i = 0; i < entrada.tamanio; i++) {
+				final int u = entrada.vecinos[i];
+				final int pesoEntrada = entrada.pesos[i];
+				buscarTestigos(u, v, pesoEntrada + maximaSalida);
+				for (int j = 0; j < salida.tamanio; j++) {
+					final int w = salida.vecinos[j];
+					if (w == u) continue;
+					final int costo = pesoEntrada + salida.pesos[j];
+					if (this.marcas[w] == this.busqueda && this.distancias[w] <= costo) continue;
+					agregarAtajo(u, w, costo);
+				}
+			}
+		}
+
+		/** Dijkstra acotado desde {@code u} sin pasar por {@code evitada}. */
+		private void buscarTestigos(int u, int evitada, int costoMaximo) {
+			if (++this.busqueda == Integer.MAX_VALUE) {
+				Arrays.fill(this.marcas, 0);
+				this.busqueda = 1;
+			}
+			this.marcas[u] = this.busqueda;
+			this.distancias[u] = 0;
+			this.pendientes.insertarOReducir(u, 0);
+			int asentadas = 0;
+			while (!this.pendientes.estaVacio() && asentadas++ < LIMITE_BUSQUEDA_TESTIGOS) {
+				final int x = this.pendientes.extraerMinimo();
+				if (this.distancias[x] > costoMaximo) break;
+				final ListaTramos salida = this.salientes[x];
+				for (int k = 0; k < salida.tamanio; k++) {
+					final int y = salida.vecinos[k];
+					if (y == evitada) continue;
+					final int nuevaDistancia = this.distancias[x] + salida.pesos[k];
+					if (this.marcas[y] != this.busqueda || nuevaDistancia < this.distancias[y]) {
+						this.marcas[y] = this.busqueda;
+						this.distancias[y] = nuevaDistancia;
+						this.pendientes.insertarOReducir(y, nuevaDistancia);
+					}
+				}
+			}
+			this.pendientes.vaciar();
+		}
+
+		private void agregarAtajo(int desde, int hasta, int peso) {
+			if (this.cantidadAtajos == this.atajosDesde.length) {
+				int capacidad = 2 * this.cantidadAtajos;
+				this.atajosDesde = Arrays.copyOf(this.atajosDesde, capacidad);
+				this.atajosHasta = Arrays.copyOf(this.atajosHasta, capacidad);
+				this.atajosPeso = Arrays.copyOf(this.atajosPeso, capacidad);
+			}
+			this.atajosDesde[this.cantidadAtajos] = desde;
+			this.atajosHasta[this.cantidadAtajos] = hasta;
+			this.atajosPeso[this.cantidadAtajos] = peso;
+			this.cantidadAtajos++;
+		}
+
+		private static ListaTramos copiar(ListaTramos lista) {
+			ListaTramos copia = new ListaTramos();
+			copia.vecinos = Arrays.copyOf(lista.vecinos, lista.tamanio);
+			copia.pesos = Arrays.copyOf(lista.pesos, lista.tamanio);
+			copia.medios = Arrays.copyOf(lista.medios, lista.tamanio);
+			copia.tamanio = lista.tamanio;
+			return copia;
+		}
+
+		/** Pasa las listas por parada a formato CSR (inicios, vecinos, pesos, medios), ordenadas por vecino. */
+		private static int[][] compactar(ListaTramos[] listas) {
+			final int[] inicio = new int[listas.length + 1];
+			for (int v = 0; v < listas.length; v++) inicio[v + 1] = inicio[v] + listas[v].tamanio;
+			final int total = inicio[listas.length];
+			final int[] vecinos = new int[total];
+			final int[] pesos = new int[total];
+			final int[] medios = new int[total];
+			for (int v = 0; v < listas.length; v++) {
+				final ListaTramos lista = listas[v];
+				final long[] orden = new long[lista.tamanio];
+				for (int i = 0; i < lista.tamanio; i++) orden[i] = ((long) lista.vecinos[i] << 32) | i;
+				Arrays.sort(orden);
+				for (int i = 0; i < orden.length; i++) {
+					final int j = (int) orden[i];
+					vecinos[inicio[v] + i] = lista.vecinos[j];
+					pesos[inicio[v] + i] = lista.pesos[j];
+					medios[inicio[v] + i] = lista.medios[j];
+				}
+			}
+			return new int[][] { inicio, vecinos, pesos, medios };
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package proyectointegrador.logica;
+
+/**
+ * Define el motor con el que el {@link Simulador} hace avanzar el tiempo.
+ * <p>
+ * Ambos modos producen las mismas estadísticas finales para un mismo escenario;
+ * solo cambia el costo de cada paso.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.1
+ */
+public enum ModoMotor {
+
+	/**
+	 * Motor por pasos fijos: en cada paso se recorren todos los colectivos de la
+	 * simulación, tengan o no algo que hacer.
+	 */
+	PASOS,
+
+	/**
+	 * Motor de eventos discretos: un calendario ordenado por paso indica qué
+	 * colectivos y pasajeros actúan, y solo esas entidades se procesan. Los pasos
+	 * sin eventos se saltean.
+	 */
+	EVENTOS,
+
+	/**
+	 * Motor por pasos fijos que atiende en paralelo, sobre un {@code ForkJoinPool},
+	 * los colectivos de líneas que no comparten paradas. Las líneas con paradas en
+	 * común se atienden en la misma tarea, de forma secuencial.
+	 */
+	PARALELO
+}
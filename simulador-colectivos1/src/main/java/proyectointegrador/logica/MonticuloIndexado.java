@@ -0,0 +1,169 @@
+package proyectointegrador.logica;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre los enteros {@code 0..capacidad-1}, con la
+ * prioridad de cada elemento guardada aparte y acceso por elemento: permite
+ * reducir la prioridad de un elemento que ya está en el montículo, en lugar de
+ * insertarlo otra vez.
+ * <p>
+ * Todo se guarda en arreglos de {@code int} reservados al crearlo, así que
+ * usarlo no crea objetos ni convierte a {@code Integer}. Ante prioridades
+ * iguales sale primero el elemento menor, de modo que el orden de extracción es
+ * siempre el mismo. Está pensado para reutilizarse entre consultas: al terminar,
+ * {@link #vaciar()} lo deja listo en tiempo proporcional a lo que quedó adentro.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+final class MonticuloIndexado {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	/** Elementos en orden de montículo; {@code monticulo[0]} es el mínimo. */
+	private final int[] monticulo;
+	/** Posición de cada elemento en el montículo, o -1 si no está. */
+	private final int[] posiciones;
+	/** Prioridad de cada elemento (solo válida mientras está en el montículo). */
+	private final int[] prioridades;
+	private int tamanio;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	/**
+	 * @param capacidad Cantidad de elementos distintos ({@code 0..capacidad-1}).
+	 */
+	MonticuloIndexado(int capacidad) {
+		if (capacidad < 0) {
+			throw new IllegalArgumentException("La capacidad no puede ser negativa.");
+		}
+		this.monticulo = new int[capacidad];
+		this.posiciones = new int[capacidad];
+		this.prioridades = new int[capacidad];
+		Arrays.fill(this.posiciones, -1);
+	}
+
+	// =================================================================================
+	// OPERACIONES
+	// =================================================================================
+
+	boolean estaVacio() {
+		return this.tamanio == 0;
+	}
+
+	int tamanio() {
+		return this.tamanio;
+	}
+
+	boolean contiene(int elemento) {
+		return this.posiciones[elemento] >= 0;
+	}
+
+	int prioridad(int elemento) {
+		if (!contiene(elemento)) {
+			throw new IllegalStateException("El elemento " + elemento + " no está en el montículo.");
+		}
+		return this.prioridades[elemento];
+	}
+
+	/**
+	 * Inserta el elemento con la prioridad dada o, si ya está, le baja la
+	 * prioridad. Si ya está con una prioridad menor o igual, no hace nada.
+	 *
+	 * @return true si el elemento se insertó o cambió de prioridad.
+	 */
+	boolean insertarOReducir(int elemento, int prioridad) {
+		int posicion = this.posiciones[elemento];
+		if (posicion < 0) {
+			posicion = this.tamanio++;
+			this.monticulo[posicion] = elemento;
+			this.posiciones[elemento] = posicion;
+		} else if (prioridad >= this.prioridades[elemento]) {
+			return false;
+		}
+		this.prioridades[elemento] = prioridad;
+		subir(posicion);
+		return true;
+	}
+
+	/** Prioridad del mínimo, sin extraerlo. */
+	int prioridadMinima() {
+		if (this.tamanio == 0) {
+			throw new IllegalStateException("El montículo está vacío.");
+		}
+		return this.prioridades[this.monticulo[0]];
+	}
+
+	/**
+	 * Extrae el elemento de menor prioridad (a igual prioridad, el menor).
+	 * @throws IllegalStateException si el montículo está vacío.
+	 */
+	int extraerMinimo() {
+		if (this.tamanio == 0) {
+			throw new IllegalStateException("El montículo está vacío.");
+		}
+		int minimo = this.monticulo[0];
+		this.posiciones[minimo] = -1;
+		int ultimo = this.monticulo[--this.tamanio];
+		if (this.tamanio > 0) {
+			this.monticulo[0] = ultimo;
+			this.posiciones[ultimo] = 0;
+			bajar(0);
+		}
+		return minimo;
+	}
+
+	/** Saca todos los elementos que quedan, en tiempo proporcional a su cantidad. */
+	void vaciar() {
+		for (int i = 0; i < this.tamanio; i++) {
+			this.posiciones[this.monticulo[i]] = -1;
+		}
+		this.tamanio = 0;
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private boolean precede(int a, int b) {
+		int pa = this.prioridades[a];
+		int pb = this.prioridades[b];
+		return pa < pb || (pa == pb && a < b);
+	}
+
+	private void subir(int posicion) {
+		int elemento = this.monticulo[posicion];
+		while (posicion > 0) {
+			int padre = (posicion - 1) >>> 1;
+			int elementoPadre = this.monticulo[padre];
+			if (!precede(elemento, elementoPadre)) break;
+			this.monticulo[posicion] = elementoPadre;
+			this.posiciones[elementoPadre] = posicion;
+			posicion = padre;
+		}
+		this.monticulo[posicion] = elemento;
+		this.posiciones[elemento] = posicion;
+	}
+
+	private void bajar(int posicion) {
+		int elemento = this.monticulo[posicion];
+		while (true) {
+			int hijo = 2 * posicion + 1;
+			if (hijo >= this.tamanio) break;
+			if (hijo + 1 < this.tamanio && precede(this.monticulo[hijo + 1], this.monticulo[hijo])) hijo++;
+			int elementoHijo = this.monticulo[hijo];
+			if (!precede(elementoHijo, elemento)) break;
+			this.monticulo[posicion] = elementoHijo;
+			this.posiciones[elementoHijo] = posicion;
+			posicion = hijo;
+		}
+		this.monticulo[posicion] = elemento;
+		this.posiciones[elemento] = posicion;
+	}
+}
@@ -0,0 +1,113 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Agrupa los colectivos de una simulación en particiones que no comparten paradas.
+ * <p>
+ * Dos líneas quedan en la misma partición si tienen alguna parada en común, directa
+ * o transitivamente (union-find sobre las paradas). Como las líneas solo interactúan
+ * a través de las colas de las paradas, los colectivos de particiones distintas
+ * pueden atenderse en paralelo sin sincronización.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+final class ParticionesColectivos {
+
+	private final int[][] handlesPorParticion;
+	private final int[] particionPorHandle;
+
+	private ParticionesColectivos(int[][] handlesPorParticion, int[] particionPorHandle) {
+		this.handlesPorParticion = handlesPorParticion;
+		this.particionPorHandle = particionPorHandle;
+	}
+
+	/**
+	 * Calcula las particiones de la flota registrada. Las particiones se numeran
+	 * por el menor handle que contienen y cada una lista sus handles en orden creciente.
+	 */
+	static ParticionesColectivos calcular(RegistroColectivos registro) {
+		// 1. Union-find sobre las líneas, uniendo las que comparten alguna parada.
+		Map<Linea, Integer> indicePorLinea = new IdentityHashMap<>();
+		for (Colectivo c : registro.getColectivos()) {
+			indicePorLinea.putIfAbsent(c.getLineaAsignada(), indicePorLinea.size());
+		}
+		int[] padre = new int[indicePorLinea.size()];
+		for (int i = 0; i < padre.length; i++) padre[i] = i;
+
+		Map<Parada, Integer> lineaPorParada = new HashMap<>();
+		for (Map.Entry<Linea, Integer> entry : indicePorLinea.entrySet()) {
+			for (Parada parada : entry.getKey().getRecorridoVista()) {
+				Integer otra = lineaPorParada.putIfAbsent(parada, entry.getValue());
+				if (otra != null) {
+					unir(padre, otra, entry.getValue());
+				}
+			}
+		}
+
+		// 2. Asignar cada colectivo a la partición de su línea, en orden de handle.
+		int[] particionPorHandle = new int[registro.cantidad()];
+		Map<Integer, Integer> particionPorRaiz = new HashMap<>();
+		List<List<Integer>> handles = new ArrayList<>();
+		for (int h = 0; h < registro.cantidad(); h++) {
+			int raiz = raiz(padre, indicePorLinea.get(registro.obtener(h).getLineaAsignada()));
+			Integer particion = particionPorRaiz.get(raiz);
+			if (particion == null) {
+				particion = handles.size();
+				particionPorRaiz.put(raiz, particion);
+				handles.add(new ArrayList<>());
+			}
+			handles.get(particion).add(h);
+			particionPorHandle[h] = particion;
+		}
+
+		int[][] handlesPorParticion = new int[handles.size()][];
+		for (int p = 0; p < handlesPorParticion.length; p++) {
+			handlesPorParticion[p] = handles.get(p).stream().mapToInt(Integer::intValue).toArray();
+		}
+		return new ParticionesColectivos(handlesPorParticion, particionPorHandle);
+	}
+
+	int cantidad() {
+		return this.handlesPorParticion.length;
+	}
+
+	/** Handles de la partición, en orden creciente. */
+	int[] handles(int particion) {
+		return this.handlesPorParticion[particion];
+	}
+
+	int particionDe(int handle) {
+		return this.particionPorHandle[handle];
+	}
+
+	// =================================================================================
+	// UNION-FIND
+	// =================================================================================
+
+	private static int raiz(int[] padre, int i) {
+		while (padre[i] != i) {
+			padre[i] = padre[padre[i]]; // Compresión de caminos a la mitad.
+			i = padre[i];
+		}
+		return i;
+	}
+
+	private static void unir(int[] padre, int a, int b) {
+		int ra = raiz(padre, a);
+		int rb = raiz(padre, b);
+		if (ra != rb) {
+			padre[Math.max(ra, rb)] = Math.min(ra, rb);
+		}
+	}
+}
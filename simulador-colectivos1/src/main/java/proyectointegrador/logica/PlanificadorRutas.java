@@ -1,25 +1,50 @@
 package proyectointegrador.logica;
 
 import net.datastructures.AdjacencyMapGraph;
-import net.datastructures.Edge;
 import net.datastructures.Vertex;
+import proyectointegrador.datos.ImagenRed;
+import proyectointegrador.datos.TopologiaRed;
 import proyectointegrador.modelo.Linea;
 import proyectointegrador.modelo.Parada;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 
 /**
  * Modela la red de transporte como un grafo y calcula rutas óptimas entre paradas.
  * Utiliza un grafo dirigido y el algoritmo de Dijkstra para encontrar el camino más corto.
+ * <p>
+ * Las consultas no recorren el grafo de objetos: al terminar de construirlo se
+ * congela en un {@link GrafoCSR}, con las paradas numeradas y la adyacencia en
+ * arreglos de primitivos. Para cada
+ * parada de origen consultada se calcula una sola vez el árbol de caminos mínimos
+ * hacia todas las demás (un arreglo de predecesores), que se guarda en una caché
+ * LRU. La caché tiene un límite de memoria ({@link #MEMORIA_CACHE_RUTAS}); en
+ * redes chicas entran los árboles de todas las paradas, y la caché termina siendo
+ * una tabla completa de rutas entre todos los pares. Cualquier cambio en el grafo
+ * descarta la caché.
+ * <p>
+ * La estrategia de búsqueda se elige con {@link #setEstrategiaRuteo}. Con
+ * {@link EstrategiaRuteo#DIJKSTRA} y la caché habilitada se usan los árboles
+ * guardados; las demás estrategias (y Dijkstra sin caché) buscan cada ruta entre
+ * su origen y su destino, explorando solo una parte de la red.
+ * <p>
+ * {@link EstrategiaRuteo#CONTRACCIONES} consulta una {@link JerarquiaContracciones}
+ * de la red, que se arma una sola vez por grafo (en la primera consulta o con
+ * {@link #prepararJerarquia()}) y se puede guardar en un archivo para no volver a
+ * armarla en el próximo arranque.
+ * <p>
+ * Las consultas pueden hacerse desde varios hilos a la vez; la construcción del
+ * grafo no.
  *
  * @author Miyen
- * @version 2.2
+ * @version 2.8
  */
 public class PlanificadorRutas {
 
@@ -27,9 +52,31 @@ public class PlanificadorRutas {
 	// ATRIBUTOS
 	// =================================================================================
 
+	/** Memoria máxima para los árboles de caminos mínimos guardados. */
+	static final long MEMORIA_CACHE_RUTAS = 16L * 1024 * 1024;
+
 	private final AdjacencyMapGraph<Parada, Integer> grafo;
 	private final Map<String, Vertex<Parada>> verticesPorId;
 
+	// --- Copia congelada para las consultas (se rearma cuando cambia el grafo) ---
+	private volatile GrafoCSR grafoConsultas;
+	/** Árboles de caminos mínimos por índice de origen, en orden de uso (LRU). Se accede sincronizando sobre el mapa. */
+	private final LinkedHashMap<Integer, int[]> arbolesPorOrigen;
+	/** Evita armar dos veces la misma jerarquía de contracciones. */
+	private final Object lockJerarquia = new Object();
+	private int capacidadCache;
+	/**
+	 * Indica que el grafo de consultas se armó directamente de una imagen y sus
+	 * tramos todavía no están en el grafo de objetos.
+	 */
+	private boolean grafoSoloEnConsultas;
+
+	// --- Estrategia de búsqueda ---
+	private volatile EstrategiaRuteo estrategiaRuteo = EstrategiaRuteo.DIJKSTRA;
+	private volatile boolean cacheRutas = true;
+	/** Jerarquía del grafo de consultas actual, o null si todavía no se preparó. */
+	private volatile JerarquiaContracciones jerarquia;
+
 	// =================================================================================
 	// CONSTRUCTOR
 	// =================================================================================
@@ -37,6 +84,15 @@ public class PlanificadorRutas {
 	public PlanificadorRutas() {
 		this.grafo = new AdjacencyMapGraph<>(true);
 		this.verticesPorId = new HashMap<>();
+		this.arbolesPorOrigen = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, int[]> mayor) {
+				return size() > capacidadCache;
+			}
+		};
+		invalidarCache();
 	}
 
 	// =================================================================================
@@ -50,64 +106,216 @@ public class PlanificadorRutas {
 	public void construirGrafoDesdeLineas(final Map<String, Linea> lineasDisponibles) {
 		if (lineasDisponibles == null) return;
 		
+		volcarGrafoConsultas();
 		for (final Linea linea : lineasDisponibles.values()) {
-			final List<Parada> recorrido = linea.getRecorrido();
+			final List<Parada> recorrido = linea.getRecorridoVista();
 			for (int i = 0; i < recorrido.size() - 1; i++) {
 				final Parada origen = recorrido.get(i);
 				final Parada destino = recorrido.get(i + 1);
 				conectarParadas(origen, destino, 1);
 			}
 		}
+		invalidarCache();
 	}
 	
 	/**
-	 * Calcula la ruta óptima (menor peso) entre dos paradas usando el algoritmo de Dijkstra.
+	 * Construye el grafo a partir de la adyacencia precalculada de una
+	 * {@link ImagenRed}, sin recorrer las líneas ni buscar tramos repetidos. Si el
+	 * grafo está vacío, la copia para las consultas se arma directamente de los
+	 * arreglos de la imagen; si no, sus tramos se agregan a los que ya hay.
+	 * @param imagen La imagen de la que se cargó la red.
+	 * @param paradasPorId Las paradas cargadas de esa imagen, por ID.
+	 * @throws IllegalArgumentException si falta alguna parada de la imagen.
+	 */
+	public void construirGrafoDesdeImagen(final ImagenRed imagen, final Map<String, Parada> paradasPorId) {
+		if (imagen == null || paradasPorId == null) return;
+
+		final TopologiaRed topologia = imagen.getTopologia();
+		final Parada[] paradas = new Parada[topologia.getCantidadParadas()];
+		for (int i = 0; i < paradas.length; i++) {
+			paradas[i] = paradasPorId.get(topologia.getIdParada(i));
+			if (paradas[i] == null) {
+				throw new IllegalArgumentException("Falta la parada " + topologia.getIdParada(i) + " de la imagen de red.");
+			}
+		}
+		final int[] inicio = imagen.getInicioAdyacencia();
+		final int[] destinos = imagen.getDestinosAdyacencia();
+		final int[] pesos = imagen.getPesosAdyacencia();
+		if (grafo.numVertices() == 0 && !this.grafoSoloEnConsultas) {
+			instalarGrafoConsultas(GrafoCSR.desdeAdyacencia(paradas, inicio, destinos, pesos));
+			this.grafoSoloEnConsultas = true;
+			return;
+		}
+		volcarGrafoConsultas();
+		for (int origen = 0; origen < paradas.length; origen++) {
+			for (int k = inicio[origen]; k < inicio[origen + 1]; k++) {
+				conectarParadas(paradas[origen], paradas[destinos[k]], pesos[k]);
+			}
+		}
+		invalidarCache();
+	}
+
+	/**
+	 * Calcula la ruta óptima (menor peso) entre dos paradas con la estrategia configurada.
 	 * @param origen Parada de inicio del viaje.
 	 * @param destino Parada final del viaje.
 	 * @return Una lista ordenada de Paradas que representa la ruta óptima, o una lista vacía si no se encuentra ruta.
 	 */
 	public List<Parada> calcularRutaOptima(final Parada origen, final Parada destino) {
+		return calcularRutaOptima(origen, destino, this.estrategiaRuteo);
+	}
+
+	/**
+	 * Calcula la ruta óptima (menor peso) entre dos paradas con la estrategia indicada.
+	 * Todas las estrategias devuelven una ruta del mismo costo.
+	 * @param origen Parada de inicio del viaje.
+	 * @param destino Parada final del viaje.
+	 * @param estrategia El algoritmo de búsqueda a usar.
+	 * @return Una lista ordenada de Paradas que representa la ruta óptima, o una lista vacía si no se encuentra ruta.
+	 * @throws IllegalArgumentException si la estrategia es nula.
+	 */
+	public List<Parada> calcularRutaOptima(final Parada origen, final Parada destino, final EstrategiaRuteo estrategia) {
+		if (estrategia == null) {
+			throw new IllegalArgumentException("La estrategia de ruteo no puede ser nula.");
+		}
 		// Cláusula de guarda para manejar entradas nulas de forma segura.
 		if (origen == null || destino == null) {
 			return Collections.emptyList();
 		}
-		final Vertex<Parada> vOrigen = verticesPorId.get(origen.getId());
-		final Vertex<Parada> vDestino = verticesPorId.get(destino.getId());
+		final GrafoCSR grafoActual = this.grafoConsultas;
+		final int iOrigen = grafoActual.indiceDe(origen.getId());
+		final int iDestino = grafoActual.indiceDe(destino.getId());
 
-		if (vOrigen == null || vDestino == null) {
+		if (iOrigen < 0 || iDestino < 0) {
 			return Collections.emptyList();
 		}
+		if (estrategia == EstrategiaRuteo.DIJKSTRA && this.cacheRutas) {
+			return reconstruirRuta(grafoActual, iOrigen, iDestino, arbolDesde(grafoActual, iOrigen));
+		}
+		final int[] indices = (estrategia == EstrategiaRuteo.CONTRACCIONES)
+				? jerarquiaDe(grafoActual).rutaMinima(iOrigen, iDestino)
+				: grafoActual.rutaMinima(iOrigen, iDestino, estrategia);
+		final List<Parada> ruta = new ArrayList<>(indices.length);
+		for (int indice : indices) {
+			ruta.add(grafoActual.parada(indice));
+		}
+		return ruta;
+	}
 
-		final Map<Vertex<Parada>, Integer> dist = new HashMap<>();
-		final Map<Vertex<Parada>, Vertex<Parada>> prev = new HashMap<>();
-		final PriorityQueue<Vertex<Parada>> pq = new PriorityQueue<>(Comparator.comparingInt(dist::get));
+	public EstrategiaRuteo getEstrategiaRuteo() { return this.estrategiaRuteo; }
 
-		for (Vertex<Parada> v : grafo.vertices()) {
-			dist.put(v, Integer.MAX_VALUE);
-			prev.put(v, null);
+	/**
+	 * Cambia la estrategia que usa {@link #calcularRutaOptima(Parada, Parada)}.
+	 * @throws IllegalArgumentException si la estrategia es nula.
+	 */
+	public void setEstrategiaRuteo(final EstrategiaRuteo estrategia) {
+		if (estrategia == null) {
+			throw new IllegalArgumentException("La estrategia de ruteo no puede ser nula.");
 		}
-		dist.put(vOrigen, 0);
-		pq.add(vOrigen);
+		this.estrategiaRuteo = estrategia;
+	}
 
-		while (!pq.isEmpty()) {
-			Vertex<Parada> u = pq.poll();
-			if (u.equals(vDestino)) break;
+	public boolean isCacheRutas() { return this.cacheRutas; }
 
-			for (Edge<Integer> e : grafo.outgoingEdges(u)) {
-				Vertex<Parada> v = grafo.opposite(u, e);
-				int nuevoPeso = dist.get(u) + e.getElement();
-				
-				if (nuevoPeso < dist.get(v)) {
-					dist.put(v, nuevoPeso);
-					prev.put(v, u);
-					pq.add(v);
-				}
+	/**
+	 * Habilita o deshabilita la caché de árboles de caminos mínimos. Al
+	 * deshabilitarla se descartan los árboles guardados, y Dijkstra pasa a buscar
+	 * cada ruta solo hasta su destino.
+	 */
+	public void setCacheRutas(final boolean habilitada) {
+		this.cacheRutas = habilitada;
+		if (!habilitada) {
+			synchronized (this.arbolesPorOrigen) {
+				this.arbolesPorOrigen.clear();
 			}
 		}
+	}
 
-		return reconstruirRuta(vOrigen, vDestino, prev);
+	/**
+	 * Arma la jerarquía de contracciones del grafo actual, si todavía no está
+	 * armada. Conviene llamarlo después de construir el grafo, para no demorar la
+	 * primera consulta con {@link EstrategiaRuteo#CONTRACCIONES}.
+	 */
+	public void prepararJerarquia() {
+		jerarquiaDe(this.grafoConsultas);
 	}
-	
+
+	/**
+	 * Guarda la jerarquía de contracciones del grafo actual (armándola si hace falta).
+	 * @param archivo Archivo destino; si existe, se reemplaza.
+	 */
+	public void guardarJerarquia(final Path archivo) throws IOException {
+		if (archivo == null) {
+			throw new IllegalArgumentException("El archivo no puede ser nulo.");
+		}
+		jerarquiaDe(this.grafoConsultas).escribir(archivo);
+	}
+
+	/**
+	 * Carga una jerarquía guardada con {@link #guardarJerarquia(Path)}.
+	 * @throws IllegalStateException si el archivo no es una jerarquía válida o se
+	 *                               armó para una red distinta de la actual.
+	 */
+	public void cargarJerarquia(final Path archivo) throws IOException {
+		if (archivo == null) {
+			throw new IllegalArgumentException("El archivo no puede ser nulo.");
+		}
+		final GrafoCSR grafoActual = this.grafoConsultas;
+		final JerarquiaContracciones leida = JerarquiaContracciones.leer(archivo, grafoActual);
+		synchronized (this.arbolesPorOrigen) {
+			if (this.grafoConsultas == grafoActual) this.jerarquia = leida;
+		}
+	}
+
+	/** Indica si la jerarquía de contracciones del grafo actual ya está armada. */
+	public boolean isJerarquiaPreparada() {
+		final JerarquiaContracciones actual = this.jerarquia;
+		return actual != null && actual.grafo() == this.grafoConsultas;
+	}
+
+	/**
+	 * Cantidad de paradas que asentó la última búsqueda hecha por este hilo (para
+	 * comparar estrategias). Una consulta resuelta con un árbol ya guardado en la
+	 * caché no busca, y no cambia este valor.
+	 */
+	public int getParadasAsentadasUltimaConsulta() {
+		return this.grafoConsultas.asentadosUltimaBusqueda();
+	}
+
+	/**
+	 * Descarta los árboles de caminos mínimos guardados y la jerarquía, y vuelve a
+	 * congelar el grafo para las consultas. Se llama cada vez que se construye el grafo.
+	 */
+	private void invalidarCache() {
+		instalarGrafoConsultas(GrafoCSR.desde(grafo));
+	}
+
+	/** Reemplaza el grafo de consultas y descarta lo calculado sobre el anterior. */
+	private void instalarGrafoConsultas(final GrafoCSR nuevo) {
+		int cantidad = nuevo.cantidadParadas();
+		synchronized (this.arbolesPorOrigen) {
+			this.grafoConsultas = nuevo;
+			this.capacidadCache = (int) Math.max(1,
+					Math.min(cantidad, MEMORIA_CACHE_RUTAS / ((long) Integer.BYTES * Math.max(1, cantidad))));
+			this.arbolesPorOrigen.clear();
+			this.jerarquia = null;
+		}
+	}
+
+	/** Cantidad de árboles de caminos mínimos guardados en la caché. */
+	int getArbolesEnCache() {
+		synchronized (this.arbolesPorOrigen) {
+			return this.arbolesPorOrigen.size();
+		}
+	}
+
+	/** Máxima cantidad de árboles que entran en la caché con la red actual. */
+	int getCapacidadCache() {
+		synchronized (this.arbolesPorOrigen) {
+			return this.capacidadCache;
+		}
+	}
+
 	// =================================================================================
 	// MÉTODOS PRIVADOS DE AYUDA (HELPERS)
 	// =================================================================================
@@ -120,6 +328,22 @@ public class PlanificadorRutas {
 		}
 	}
 
+	/**
+	 * Si el grafo de consultas se armó directamente de una imagen, agrega sus
+	 * tramos al grafo de objetos, para no perderlos al modificarlo.
+	 */
+	private void volcarGrafoConsultas() {
+		if (!this.grafoSoloEnConsultas) return;
+		final GrafoCSR actual = this.grafoConsultas;
+		for (int u = 0; u < actual.cantidadParadas(); u++) {
+			agregarParada(actual.parada(u));
+			for (int k = actual.inicio(u); k < actual.fin(u); k++) {
+				conectarParadas(actual.parada(u), actual.parada(actual.destino(k)), actual.peso(k));
+			}
+		}
+		this.grafoSoloEnConsultas = false;
+	}
+
 	/** Conecta dos paradas con una arista dirigida y un peso. */
 	private void conectarParadas(final Parada origen, final Parada destino, final int peso) {
 		agregarParada(origen);
@@ -140,20 +364,63 @@ public class PlanificadorRutas {
 		// =====================================================================
 	}
 	
-	/** Reconstruye la lista de paradas de la ruta óptima a partir del mapa de predecesores. */
-	private List<Parada> reconstruirRuta(final Vertex<Parada> origen, final Vertex<Parada> destino, final Map<Vertex<Parada>, Vertex<Parada>> prev) {
-		final List<Parada> ruta = new LinkedList<>();
-		Vertex<Parada> actual = destino;
+	/**
+	 * Devuelve el árbol de caminos mínimos desde un origen, calculándolo si no está
+	 * en la caché. El cálculo se hace fuera del bloqueo: si dos hilos piden a la
+	 * vez el mismo origen, se queda el primero que termina.
+	 */
+	private int[] arbolDesde(final GrafoCSR grafoActual, final int origen) {
+		synchronized (this.arbolesPorOrigen) {
+			if (this.grafoConsultas == grafoActual) {
+				int[] guardado = this.arbolesPorOrigen.get(origen);
+				if (guardado != null) return guardado;
+			}
+		}
+		final int[] arbol = grafoActual.caminosMinimosDesde(origen);
+		synchronized (this.arbolesPorOrigen) {
+			// Si el grafo cambió o se deshabilitó la caché mientras tanto, el árbol no se guarda.
+			if (this.grafoConsultas == grafoActual && this.cacheRutas) {
+				int[] anterior = this.arbolesPorOrigen.putIfAbsent(origen, arbol);
+				if (anterior != null) return anterior;
+			}
+		}
+		return arbol;
+	}
 
-		if (prev.get(actual) == null && !actual.equals(origen)) {
-			return Collections.emptyList();
+	/**
+	 * Devuelve la jerarquía del grafo dado, armándola si hace falta. El armado se
+	 * hace una sola vez aunque la pidan varios hilos a la vez.
+	 */
+	private JerarquiaContracciones jerarquiaDe(final GrafoCSR grafoActual) {
+		JerarquiaContracciones actual = this.jerarquia;
+		if (actual != null && actual.grafo() == grafoActual) return actual;
+		synchronized (this.lockJerarquia) {
+			actual = this.jerarquia;
+			if (actual != null && actual.grafo() == grafoActual) return actual;
+			final JerarquiaContracciones nueva = JerarquiaContracciones.construir(grafoActual);
+			synchronized (this.arbolesPorOrigen) {
+				// Si el grafo cambió mientras tanto, la jerarquía sirve para esta consulta pero no se guarda.
+				if (this.grafoConsultas == grafoActual) this.jerarquia = nueva;
+			}
+			return nueva;
 		}
+	}
 
-		while (actual != null) {
-			ruta.add(0, actual.getElement());
-			actual = prev.get(actual);
+	/** Reconstruye la lista de paradas de la ruta óptima a partir del arreglo de predecesores. */
+	private static List<Parada> reconstruirRuta(final GrafoCSR grafoActual, final int origen, final int destino,
+			final int[] predecesores) {
+		if (origen == destino) {
+			return new ArrayList<>(List.of(grafoActual.parada(origen)));
 		}
-		
-		return (ruta.get(0).equals(origen.getElement())) ? ruta : Collections.emptyList();
+		if (predecesores[destino] < 0) {
+			return Collections.emptyList();
+		}
+		final List<Parada> ruta = new ArrayList<>();
+		for (int actual = destino; actual != origen; actual = predecesores[actual]) {
+			ruta.add(grafoActual.parada(actual));
+		}
+		ruta.add(grafoActual.parada(origen));
+		Collections.reverse(ruta);
+		return ruta;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,415 @@
+package proyectointegrador.logica;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import proyectointegrador.datos.TablaHorarios;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Planifica viajes en colectivo teniendo en cuenta las líneas y sus horarios,
+ * con el algoritmo por rondas RAPTOR: la ronda {@code k} encuentra la llegada más
+ * temprana a cada parada usando como mucho {@code k} colectivos. Devuelve los
+ * viajes Pareto-óptimos entre hora de llegada y cantidad de transbordos: cada
+ * viaje de la lista llega antes que todos los que tienen menos transbordos.
+ * <p>
+ * A diferencia del {@link PlanificadorRutas}, no arma un grafo: trabaja sobre los
+ * recorridos de las líneas y sobre sus viajes, todo en arreglos de {@code int}.
+ * Para cada línea se guarda el recorrido como índices de parada y la tabla de
+ * horarios de todos sus viajes, un viaje a continuación del otro; para cada
+ * parada, las líneas que pasan por ella y en qué posición. Una ronda recorre
+ * cada línea que pasa por una parada mejorada en la ronda anterior, una sola vez
+ * y desde la primera de esas paradas, y busca el primer viaje que se puede tomar
+ * con una búsqueda binaria sobre la columna de esa parada.
+ * <p>
+ * Los viajes de cada línea salen de la cabecera según la {@link TablaHorarios}
+ * (entre la primera y la última salida del día, con su frecuencia o, si no la
+ * indica, la de la configuración) y tardan lo mismo entre cada par de paradas
+ * consecutivas. Las líneas sin servicio ese día no tienen viajes. Los transbordos
+ * se hacen en la misma parada, sin tiempo mínimo.
+ * <p>
+ * Es inmutable y puede consultarse desde varios hilos a la vez: cada hilo usa sus
+ * propios arreglos de trabajo.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public class PlanificadorViajes {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	/** Transbordos que se consideran si no se indica otro límite. */
+	public static final int TRANSBORDOS_POR_DEFECTO = 4;
+
+	private static final int INFINITO = Integer.MAX_VALUE;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	// --- Paradas ---
+	private final Parada[] paradas;
+	private final Map<String, Integer> indicePorId;
+
+	// --- Líneas: recorrido y horarios (viaje por viaje) de cada una ---
+	private final Linea[] lineas;
+	private final int[] inicioRecorrido;
+	private final int[] paradasRecorrido;
+	private final int[] cantidadViajes;
+	private final int[] inicioHorarios;
+	/** Hora de paso del viaje {@code v} por la posición {@code i}: {@code horarios[inicioHorarios[l] + v * largo + i]}. */
+	private final int[] horarios;
+
+	// --- Líneas que pasan por cada parada, con la posición en su recorrido ---
+	private final int[] inicioLineasParada;
+	private final int[] lineasParada;
+	private final int[] posicionesParada;
+
+	private final ThreadLocal<EspacioRondas> espacioDelHilo;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	/**
+	 * Arma los recorridos y los viajes del día de todas las líneas.
+	 *
+	 * @param lineasDisponibles   Las líneas de la red.
+	 * @param horarios            Los horarios de servicio de las líneas.
+	 * @param dia                 El día de la semana a planificar.
+	 * @param frecuenciaMinutos   Minutos entre salidas para las líneas sin frecuencia propia.
+	 * @param minutosPorTramo     Minutos entre dos paradas consecutivas.
+	 * @throws IllegalArgumentException si algún parámetro es nulo o los minutos no son positivos.
+	 */
+	public PlanificadorViajes(final Map<String, Linea> lineasDisponibles, final TablaHorarios horarios,
+			final DayOfWeek dia, final int frecuenciaMinutos, final int minutosPorTramo) {
+		if (lineasDisponibles == null || horarios == null || dia == null) {
+			throw new IllegalArgumentException("Las líneas, los horarios y el día no pueden ser nulos.");
+		}
+		if (frecuenciaMinutos <= 0 || minutosPorTramo <= 0) {
+			throw new IllegalArgumentException("La frecuencia y los minutos por tramo deben ser positivos.");
+		}
+
+		// 1. Paradas y recorridos, en el orden del mapa de líneas
+		final List<Parada> listaParadas = new ArrayList<>();
+		this.indicePorId = new HashMap<>();
+		final List<Linea> listaLineas = new ArrayList<>();
+		final List<int[]> recorridos = new ArrayList<>();
+		final List<TablaHorarios.Servicio> servicios = new ArrayList<>();
+		for (final Linea linea : lineasDisponibles.values()) {
+			final List<Parada> recorrido = linea.getRecorridoVista();
+			if (recorrido.size() < 2) continue;
+			final int[] indices = new int[recorrido.size()];
+			for (int i = 0; i < indices.length; i++) {
+				final Parada parada = recorrido.get(i);
+				Integer indice = this.indicePorId.get(parada.getId());
+				if (indice == null) {
+					indice = listaParadas.size();
+					listaParadas.add(parada);
+					this.indicePorId.put(parada.getId(), indice);
+				}
+				indices[i] = indice;
+			}
+			listaLineas.add(linea);
+			recorridos.add(indices);
+			servicios.add(horarios.servicio(linea, dia));
+		}
+		this.paradas = listaParadas.toArray(new Parada[0]);
+		this.lineas = listaLineas.toArray(new Linea[0]);
+		final int cantidadLineas = this.lineas.length;
+
+		// 2. Recorridos y horarios en arreglos planos
+		this.inicioRecorrido = new int[cantidadLineas + 1];
+		this.cantidadViajes = new int[cantidadLineas];
+		this.inicioHorarios = new int[cantidadLineas + 1];
+		for (int l = 0; l < cantidadLineas; l++) {
+			final int largo = recorridos.get(l).length;
+			final TablaHorarios.Servicio servicio = servicios.get(l);
+			if (servicio != null) {
+				final int frecuencia = (servicio.getFrecuencia() > 0) ? servicio.getFrecuencia() : frecuenciaMinutos;
+				this.cantidadViajes[l] = (servicio.getUltimaSalida() - servicio.getPrimeraSalida()) / frecuencia + 1;
+			}
+			this.inicioRecorrido[l + 1] = this.inicioRecorrido[l] + largo;
+			this.inicioHorarios[l + 1] = this.inicioHorarios[l] + this.cantidadViajes[l] * largo;
+		}
+		this.paradasRecorrido = new int[this.inicioRecorrido[cantidadLineas]];
+		this.horarios = new int[this.inicioHorarios[cantidadLineas]];
+		for (int l = 0; l < cantidadLineas; l++) {
+			final int[] recorrido = recorridos.get(l);
+			System.arraycopy(recorrido, 0, this.paradasRecorrido, this.inicioRecorrido[l], recorrido.length);
+			final TablaHorarios.Servicio servicio = servicios.get(l);
+			if (servicio == null) continue;
+			final int frecuencia = (servicio.getFrecuencia() > 0) ? servicio.getFrecuencia() : frecuenciaMinutos;
+			int k = this.inicioHorarios[l];
+			for (int v = 0; v < this.cantidadViajes[l]; v++) {
+				final int salida = servicio.getPrimeraSalida() + v * frecuencia;
+				for (int i = 0; i < recorrido.length; i++) {
+					this.horarios[k++] = salida + i * minutosPorTramo;
+				}
+			}
+		}
+
+		// 3. Índice inverso: líneas (y posiciones) de cada parada
+		final int cantidadParadas = this.paradas.length;
+		this.inicioLineasParada = new int[cantidadParadas + 1];
+		for (int parada : this.paradasRecorrido) this.inicioLineasParada[parada + 1]++;
+		for (int p = 0; p < cantidadParadas; p++) this.inicioLineasParada[p + 1] += this.inicioLineasParada[p];
+		this.lineasParada = new int[this.paradasRecorrido.length];
+		this.posicionesParada = new int[this.paradasRecorrido.length];
+		final int[] siguiente = Arrays.copyOf(this.inicioLineasParada, cantidadParadas);
+		for (int l = 0; l < cantidadLineas; l++) {
+			for (int i = 0; i < recorridos.get(l).length; i++) {
+				final int posicion = siguiente[this.paradasRecorrido[this.inicioRecorrido[l] + i]]++;
+				this.lineasParada[posicion] = l;
+				this.posicionesParada[posicion] = i;
+			}
+		}
+		this.espacioDelHilo = ThreadLocal.withInitial(() -> new EspacioRondas(cantidadParadas, cantidadLineas));
+	}
+
+	// =================================================================================
+	// MÉTODOS PÚBLICOS
+	// =================================================================================
+
+	/** Igual que {@link #calcularViajes(Parada, Parada, int, int)} con {@link #TRANSBORDOS_POR_DEFECTO}. */
+	public List<Viaje> calcularViajes(final Parada origen, final Parada destino, final int horaSalida) {
+		return calcularViajes(origen, destino, horaSalida, TRANSBORDOS_POR_DEFECTO);
+	}
+
+	/**
+	 * Calcula los viajes Pareto-óptimos entre dos paradas saliendo a una hora dada.
+	 *
+	 * @param origen         Parada de inicio del viaje.
+	 * @param destino        Parada final del viaje.
+	 * @param horaSalida     Hora a partir de la cual se espera en el origen, en minutos desde la medianoche.
+	 * @param maxTransbordos Máxima cantidad de transbordos a considerar.
+	 * @return Los viajes ordenados por cantidad de transbordos; cada uno llega
+	 *         estrictamente antes que el anterior. La lista está vacía si no hay
+	 *         viaje posible o si origen y destino son la misma parada.
+	 * @throws IllegalArgumentException si la hora o el máximo de transbordos son negativos.
+	 */
+	public List<Viaje> calcularViajes(final Parada origen, final Parada destino, final int horaSalida,
+			final int maxTransbordos) {
+		if (horaSalida < 0 || maxTransbordos < 0) {
+			throw new IllegalArgumentException("La hora de salida y los transbordos no pueden ser negativos.");
+		}
+		if (origen == null || destino == null) {
+			return Collections.emptyList();
+		}
+		final Integer iOrigen = this.indicePorId.get(origen.getId());
+		final Integer iDestino = this.indicePorId.get(destino.getId());
+		if (iOrigen == null || iDestino == null || iOrigen.equals(iDestino)) {
+			return Collections.emptyList();
+		}
+		return rondas(iOrigen, iDestino, horaSalida, maxTransbordos + 1);
+	}
+
+	public int getCantidadParadas() { return this.paradas.length; }
+	public int getCantidadLineas() { return this.lineas.length; }
+
+	/** Cantidad total de viajes (salidas de colectivos) del día, en todas las líneas. */
+	public int getCantidadViajes() {
+		int total = 0;
+		for (int cantidad : this.cantidadViajes) total += cantidad;
+		return total;
+	}
+
+	// =================================================================================
+	// RAPTOR
+	// =================================================================================
+
+	private List<Viaje> rondas(final int origen, final int destino, final int horaSalida, final int rondas) {
+		final int n = this.paradas.length;
+		final EspacioRondas espacio = this.espacioDelHilo.get();
+		espacio.asegurarRondas(rondas);
+		final int[] llegadas = espacio.llegadas;
+		final int[] mejores = espacio.mejores;
+		final int[] etiquetaLinea = espacio.etiquetaLinea;
+		final int[] etiquetaViaje = espacio.etiquetaViaje;
+		final int[] etiquetaSubida = espacio.etiquetaSubida;
+		final int[] etiquetaBajada = espacio.etiquetaBajada;
+		final int[] primeraPosicion = espacio.primeraPosicion;
+
+		Arrays.fill(mejores, INFINITO);
+		Arrays.fill(llegadas, 0, n, INFINITO);
+		llegadas[origen] = horaSalida;
+		mejores[origen] = horaSalida;
+		espacio.marcar(origen);
+
+		final List<Viaje> viajes = new ArrayList<>();
+		for (int k = 1; k <= rondas && espacio.cantidadMarcadas > 0; k++) {
+			final int fila = k * n;
+			final int filaAnterior = fila - n;
+			System.arraycopy(llegadas, filaAnterior, llegadas, fila, n);
+			Arrays.fill(etiquetaLinea, fila, fila + n, -1);
+
+			// Líneas a recorrer: las que pasan por paradas mejoradas, desde la primera de ellas
+			int cantidadLineas = 0;
+			for (int m = 0; m < espacio.cantidadMarcadas; m++) {
+				final int parada = espacio.marcadas[m];
+				espacio.marcada[parada] = false;
+				for (int j = this.inicioLineasParada[parada]; j < this.inicioLineasParada[parada + 1]; j++) {
+					final int linea = this.lineasParada[j];
+					if (primeraPosicion[linea] == INFINITO) espacio.lineasEnCola[cantidadLineas++] = linea;
+					primeraPosicion[linea] = Math.min(primeraPosicion[linea], this.posicionesParada[j]);
+				}
+			}
+			espacio.cantidadMarcadas = 0;
+
+			for (int q = 0; q < cantidadLineas; q++) {
+				final int linea = espacio.lineasEnCola[q];
+				final int desde = primeraPosicion[linea];
+				primeraPosicion[linea] = INFINITO;
+				final int base = this.inicioRecorrido[linea];
+				final int largo = this.inicioRecorrido[linea + 1] - base;
+				final int baseHorarios = this.inicioHorarios[linea];
+				int viaje = -1;
+				int subida = -1;
+				for (int i = desde; i < largo; i++) {
+					final int parada = this.paradasRecorrido[base + i];
+					if (viaje >= 0) {
+						final int llegada = this.horarios[baseHorarios + viaje * largo + i];
+						if (llegada < Math.min(mejores[parada], mejores[destino])) {
+							llegadas[fila + parada] = llegada;
+							mejores[parada] = llegada;
+							etiquetaLinea[fila + parada] = linea;
+							etiquetaViaje[fila + parada] = viaje;
+							etiquetaSubida[fila + parada] = subida;
+							etiquetaBajada[fila + parada] = i;
+							espacio.marcar(parada);
+						}
+					}
+					// Con la llegada de la ronda anterior, ¿se alcanza un colectivo más temprano?
+					final int espera = llegadas[filaAnterior + parada];
+					if (espera != INFINITO && (viaje < 0 || espera <= this.horarios[baseHorarios + viaje * largo + i])) {
+						final int anterior = primerViaje(linea, i, espera, (viaje < 0) ? this.cantidadViajes[linea] : viaje);
+						if (anterior >= 0) {
+							viaje = anterior;
+							subida = i;
+						}
+					}
+				}
+			}
+
+			if (etiquetaLinea[fila + destino] >= 0) {
+				// La poda por la mejor llegada puede dar un viaje con menos tramos que rondas:
+				// reemplaza a los que no tengan menos transbordos
+				final Viaje viaje = reconstruir(espacio, origen, destino, k);
+				while (!viajes.isEmpty() && viajes.get(viajes.size() - 1).getTransbordos() >= viaje.getTransbordos()) {
+					viajes.remove(viajes.size() - 1);
+				}
+				viajes.add(viaje);
+			}
+		}
+		// Deja el espacio limpio para la próxima consulta
+		for (int m = 0; m < espacio.cantidadMarcadas; m++) espacio.marcada[espacio.marcadas[m]] = false;
+		espacio.cantidadMarcadas = 0;
+		return viajes;
+	}
+
+	/**
+	 * Primer viaje de la línea, entre los viajes {@code [0, hasta)}, que pasa por la
+	 * posición dada a la hora indicada o después; -1 si no hay ninguno.
+	 */
+	private int primerViaje(final int linea, final int posicion, final int hora, final int hasta) {
+		final int base = this.inicioHorarios[linea] + posicion;
+		final int largo = this.inicioRecorrido[linea + 1] - this.inicioRecorrido[linea];
+		int bajo = 0;
+		int alto = hasta;
+		while (bajo < alto) {
+			final int medio = (bajo + alto) >>> 1;
+			if (this.horarios[base + medio * largo] < hora) bajo = medio + 1;
+			else alto = medio;
+		}
+		return (bajo < hasta) ? bajo : -1;
+	}
+
+	/** Arma el viaje que llega al destino en la ronda {@code k}, siguiendo las etiquetas hacia atrás. */
+	private Viaje reconstruir(final EspacioRondas espacio, final int origen, final int destino, int k) {
+		final int n = this.paradas.length;
+		final List<Viaje.Tramo> tramos = new ArrayList<>();
+		int parada = destino;
+		while (parada != origen) {
+			// Si la parada no mejoró en esta ronda, su llegada viene de una ronda anterior
+			while (espacio.etiquetaLinea[k * n + parada] < 0) k--;
+			final int e = k * n + parada;
+			final int linea = espacio.etiquetaLinea[e];
+			final int viaje = espacio.etiquetaViaje[e];
+			final int subida = espacio.etiquetaSubida[e];
+			final int bajada = espacio.etiquetaBajada[e];
+			final int base = this.inicioRecorrido[linea];
+			final int largo = this.inicioRecorrido[linea + 1] - base;
+			final int baseViaje = this.inicioHorarios[linea] + viaje * largo;
+
+			final List<Parada> recorrido = new ArrayList<>(bajada - subida + 1);
+			for (int i = subida; i <= bajada; i++) recorrido.add(this.paradas[this.paradasRecorrido[base + i]]);
+			tramos.add(new Viaje.Tramo(this.lineas[linea], recorrido, this.horarios[baseViaje + subida],
+					this.horarios[baseViaje + bajada]));
+			parada = this.paradasRecorrido[base + subida];
+			k--;
+		}
+		Collections.reverse(tramos);
+		return new Viaje(tramos);
+	}
+
+	// =================================================================================
+	// CLASE INTERNA
+	// =================================================================================
+
+	/**
+	 * Arreglos de trabajo reutilizables de un hilo. Las llegadas y etiquetas son
+	 * una fila de {@code cantidadParadas} por ronda.
+	 */
+	private static final class EspacioRondas {
+		final int cantidadParadas;
+		int[] llegadas;
+		int[] etiquetaLinea;
+		int[] etiquetaViaje;
+		int[] etiquetaSubida;
+		int[] etiquetaBajada;
+		final int[] mejores;
+		final boolean[] marcada;
+		final int[] marcadas;
+		int cantidadMarcadas;
+		/** Primera posición a recorrer de cada línea en la ronda actual, o INFINITO si no está en cola. */
+		final int[] primeraPosicion;
+		final int[] lineasEnCola;
+
+		EspacioRondas(int cantidadParadas, int cantidadLineas) {
+			this.cantidadParadas = cantidadParadas;
+			this.mejores = new int[cantidadParadas];
+			this.marcada = new boolean[cantidadParadas];
+			this.marcadas = new int[cantidadParadas];
+			this.primeraPosicion = new int[cantidadLineas];
+			Arrays.fill(this.primeraPosicion, INFINITO);
+			this.lineasEnCola = new int[cantidadLineas];
+			asegurarRondas(TRANSBORDOS_POR_DEFECTO + 1);
+		}
+
+		void asegurarRondas(int rondas) {
+			int tamanio = (rondas + 1) * this.cantidadParadas;
+			if (this.llegadas != null && this.llegadas.length >= tamanio) return;
+			this.llegadas = new int[tamanio];
+			this.etiquetaLinea = new int[tamanio];
+			this.etiquetaViaje = new int[tamanio];
+			this.etiquetaSubida = new int[tamanio];
+			this.etiquetaBajada = new int[tamanio];
+		}
+
+		void marcar(int parada) {
+			if (!this.marcada[parada]) {
+				this.marcada[parada] = true;
+				this.marcadas[this.cantidadMarcadas++] = parada;
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import proyectointegrador.modelo.Colectivo;
+
+/**
+ * Registro de la flota de colectivos de una simulación.
+ * <p>
+ * Cada colectivo recibe al registrarse un <b>handle</b>: un entero denso que
+ * coincide con su posición en el orden de alta (0, 1, 2, ...). El registro permite
+ * obtener un colectivo por handle en O(1) y por ID en O(1) promedio, y mantiene el
+ * conjunto de colectivos pendientes de avanzar como un {@link BitSet} de handles,
+ * de modo que recorrer los pendientes es lineal en el tamaño de la flota.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.1
+ */
+public final class RegistroColectivos {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final List<Colectivo> colectivos;
+	private final List<Colectivo> colectivosVista;
+	private final Map<String, Integer> handlesPorId;
+	private final BitSet pendientes;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	public RegistroColectivos() {
+		this.colectivos = new ArrayList<>();
+		this.colectivosVista = Collections.unmodifiableList(this.colectivos);
+		this.handlesPorId = new HashMap<>();
+		this.pendientes = new BitSet();
+	}
+
+	// =================================================================================
+	// MÉTODOS DE REGISTRO Y CONSULTA
+	// =================================================================================
+
+	/**
+	 * Registra un colectivo y le asigna el próximo handle libre.
+	 * @param colectivo El colectivo a registrar.
+	 * @return El handle asignado.
+	 * @throws IllegalArgumentException si el colectivo es nulo o su ID ya está registrado.
+	 */
+	public int registrar(Colectivo colectivo) {
+		if (colectivo == null) {
+			throw new IllegalArgumentException("El colectivo no puede ser nulo.");
+		}
+		int handle = this.colectivos.size();
+		if (this.handlesPorId.putIfAbsent(colectivo.getIdColectivo(), handle) != null) {
+			throw new IllegalArgumentException("Ya existe un colectivo registrado con ID " + colectivo.getIdColectivo() + ".");
+		}
+		this.colectivos.add(colectivo);
+		return handle;
+	}
+
+	/**
+	 * Devuelve el colectivo asociado a un handle.
+	 * @throws IndexOutOfBoundsException si el handle no está registrado.
+	 */
+	public Colectivo obtener(int handle) {
+		return this.colectivos.get(handle);
+	}
+
+	/**
+	 * Busca un colectivo por su ID.
+	 * @return El colectivo, o null si no está registrado.
+	 */
+	public Colectivo buscarPorId(String idColectivo) {
+		Integer handle = this.handlesPorId.get(idColectivo);
+		return (handle != null) ? this.colectivos.get(handle) : null;
+	}
+
+	/**
+	 * Devuelve el handle de un colectivo a partir de su ID.
+	 * @return El handle, o -1 si el ID no está registrado.
+	 */
+	public int getHandle(String idColectivo) {
+		Integer handle = this.handlesPorId.get(idColectivo);
+		return (handle != null) ? handle : -1;
+	}
+
+	public int cantidad() {
+		return this.colectivos.size();
+	}
+
+	/**
+	 * Devuelve una vista de solo lectura de los colectivos, en orden de handle.
+	 * Es siempre la misma instancia y refleja las altas posteriores.
+	 */
+	public List<Colectivo> getColectivos() {
+		return this.colectivosVista;
+	}
+
+	/**
+	 * Elimina todos los colectivos y pendientes. Los handles vuelven a empezar en 0.
+	 */
+	public void limpiar() {
+		this.colectivos.clear();
+		this.handlesPorId.clear();
+		this.pendientes.clear();
+	}
+
+	// =================================================================================
+	// MÉTODOS DE COLECTIVOS PENDIENTES
+	// =================================================================================
+
+	/**
+	 * Marca un colectivo como pendiente de avanzar. Marcarlo más de una vez no tiene efecto.
+	 */
+	public void marcarPendiente(int handle) {
+		if (handle < 0 || handle >= this.colectivos.size()) {
+			throw new IndexOutOfBoundsException("Handle de colectivo inválido: " + handle);
+		}
+		this.pendientes.set(handle);
+	}
+
+	public boolean esPendiente(int handle) {
+		return this.pendientes.get(handle);
+	}
+
+	public boolean hayPendientes() {
+		return !this.pendientes.isEmpty();
+	}
+
+	public int cantidadPendientes() {
+		return this.pendientes.cardinality();
+	}
+
+	/**
+	 * Devuelve el primer handle pendiente mayor o igual a {@code desde}, o -1 si no hay más.
+	 * Permite recorrer los pendientes en orden de handle:
+	 * {@code for (int h = siguientePendiente(0); h >= 0; h = siguientePendiente(h + 1))}.
+	 */
+	public int siguientePendiente(int desde) {
+		return this.pendientes.nextSetBit(desde);
+	}
+
+	public void limpiarPendientes() {
+		this.pendientes.clear();
+	}
+}
@@ -0,0 +1,42 @@
+package proyectointegrador.logica;
+
+/**
+ * Resultados de un lote de réplicas de Monte Carlo ejecutado por
+ * {@link EjecutorReplicas}. Conserva las métricas de cada réplica, en orden de
+ * réplica, y calcula sus intervalos de confianza.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public final class ResultadoReplicas {
+
+	private final long[] semillas;
+	private final double[] satisfaccion;
+	private final double[] ocupacion;
+
+	ResultadoReplicas(long[] semillas, double[] satisfaccion, double[] ocupacion) {
+		this.semillas = semillas;
+		this.satisfaccion = satisfaccion;
+		this.ocupacion = ocupacion;
+	}
+
+	public int getCantidad() { return this.semillas.length; }
+
+	/** Semilla usada por la réplica indicada. */
+	public long getSemilla(int replica) { return this.semillas[replica]; }
+
+	/** Índice de satisfacción (0 a 1) de la réplica indicada. */
+	public double getSatisfaccion(int replica) { return this.satisfaccion[replica]; }
+
+	/** Ocupación promedio general (0 a 1) de la réplica indicada. */
+	public double getOcupacion(int replica) { return this.ocupacion[replica]; }
+
+	public IntervaloConfianza getIntervaloSatisfaccion() {
+		return IntervaloConfianza.calcular(this.satisfaccion);
+	}
+
+	public IntervaloConfianza getIntervaloOcupacion() {
+		return IntervaloConfianza.calcular(this.ocupacion);
+	}
+}
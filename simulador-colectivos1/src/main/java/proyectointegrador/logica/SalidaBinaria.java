@@ -0,0 +1,97 @@
+package proyectointegrador.logica;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escritura de datos primitivos en un canal NIO a través de un buffer directo de
+ * tamaño fijo. El buffer se vuelca al canal a medida que se llena, de modo que
+ * la memoria usada no depende del tamaño de lo que se escribe.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+final class SalidaBinaria implements Closeable {
+
+	private static final int TAMANIO_BUFFER = 1 << 20;
+
+	private final WritableByteChannel canal;
+	private final ByteBuffer buffer;
+	private long bytesEscritos;
+
+	SalidaBinaria(WritableByteChannel canal) {
+		this.canal = canal;
+		this.buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+	}
+
+	void escribirByte(int valor) throws IOException {
+		asegurarEspacio(Byte.BYTES);
+		this.buffer.put((byte) valor);
+	}
+
+	void escribirBoolean(boolean valor) throws IOException {
+		escribirByte(valor ? 1 : 0);
+	}
+
+	void escribirInt(int valor) throws IOException {
+		asegurarEspacio(Integer.BYTES);
+		this.buffer.putInt(valor);
+	}
+
+	void escribirLong(long valor) throws IOException {
+		asegurarEspacio(Long.BYTES);
+		this.buffer.putLong(valor);
+	}
+
+	/** Escribe el patrón de bits exacto del double, para restaurarlo sin pérdida. */
+	void escribirDouble(double valor) throws IOException {
+		asegurarEspacio(Double.BYTES);
+		this.buffer.putDouble(valor);
+	}
+
+	/** Escribe un String en UTF-8 precedido por su largo en bytes (-1 si es null). */
+	void escribirString(String valor) throws IOException {
+		if (valor == null) {
+			escribirInt(-1);
+			return;
+		}
+		byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+		escribirInt(bytes.length);
+		int escritos = 0;
+		while (escritos < bytes.length) {
+			asegurarEspacio(1);
+			int n = Math.min(this.buffer.remaining(), bytes.length - escritos);
+			this.buffer.put(bytes, escritos, n);
+			escritos += n;
+		}
+	}
+
+	/** Vuelca al canal lo que quede en el buffer. */
+	void vaciar() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.bytesEscritos += this.canal.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+	/** @return Los bytes escritos hasta ahora, incluidos los que siguen en el buffer. */
+	long getBytesEscritos() {
+		return this.bytesEscritos + this.buffer.position();
+	}
+
+	@Override
+	public void close() throws IOException {
+		vaciar();
+	}
+
+	private void asegurarEspacio(int bytes) throws IOException {
+		if (this.buffer.remaining() < bytes) {
+			vaciar();
+		}
+	}
+}
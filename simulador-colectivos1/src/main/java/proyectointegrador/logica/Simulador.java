@@ -1,17 +1,23 @@
 package proyectointegrador.logica;
 
 import proyectointegrador.interfaz.SimuladorConfig;
+import proyectointegrador.modelo.AlmacenPasajeros;
 import proyectointegrador.modelo.Colectivo;
 import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.ListaPasajeros;
 import proyectointegrador.modelo.Parada;
 import proyectointegrador.modelo.Pasajero;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Motor principal de la simulación. Gestiona el ciclo de vida de los
@@ -19,7 +25,7 @@ import java.util.Set;
  *
  * @author Miyo
  * @author Enzo
- * @version 1.2
+ * @version 1.8
  */
 public class Simulador {
 
@@ -27,17 +33,34 @@ public class Simulador {
 	// ATRIBUTOS
 	// =================================================================================
 
-	private final List<Colectivo> colectivosEnSimulacion;
-	private final Set<String> colectivosPendientesDeAvanzar;
+	private final RegistroColectivos registroColectivos;
 	private final Map<String, Linea> lineasDisponibles;
+	private final Map<String, Parada> paradasDisponibles;
 	private final List<Pasajero> pasajerosSimulados;
+	private final List<Pasajero> pasajerosSimuladosVista;
 	private final GestorEstadisticas gestorEstadisticas;
 	private final PlanificadorRutas planificadorRutas;
 	private final Properties configProperties;
+	private final ModoMotor modoMotor;
+	private final CalendarioEventos calendario;
+	private final BufferEventos bufferEventos;
+	private final FormateadorEventos formateadorEventos;
+	private final ContextoPaso contextoPrincipal;
+	/** Handle de cada colectivo en el gestor de estadísticas, indexado por su handle en el registro. */
+	private int[] handlesEstadisticos;
+
+	// --- Estado del modo paralelo (se recalcula al inicializar colectivos) ---
+	private ParticionesColectivos particiones;
+	private ContextoPaso[] contextosParticion;
 
 	private int pasoActual;
 	private boolean simulacionFinalizada;
 
+	// --- Checkpoints periódicos (deshabilitados si el escritor es null) ---
+	private CheckpointSimulacion.Incremental checkpointPeriodico;
+	private int checkpointCadaPasos;
+	private int pasoUltimoCheckpoint;
+
 	// =================================================================================
 	// CONSTRUCTOR
 	// =================================================================================
@@ -57,12 +80,19 @@ public class Simulador {
 			throw new IllegalArgumentException("Líneas, paradas y pasajeros no pueden ser nulos o vacíos.");
 		}
 		this.lineasDisponibles = lineas;
+		this.paradasDisponibles = paradas;
 		this.pasajerosSimulados = pasajeros;
+		this.pasajerosSimuladosVista = Collections.unmodifiableList(pasajeros);
 		this.configProperties = configProperties;
-		this.colectivosEnSimulacion = new ArrayList<>();
-		this.colectivosPendientesDeAvanzar = new HashSet<>();
+		this.registroColectivos = new RegistroColectivos();
 		this.gestorEstadisticas = (gestorEstadisticas != null) ? gestorEstadisticas : new GestorEstadisticas();
 		this.planificadorRutas = (planificadorRutas != null) ? planificadorRutas : new PlanificadorRutas();
+		this.modoMotor = SimuladorConfig.obtenerModoMotor(configProperties);
+		this.calendario = new CalendarioEventos();
+		this.bufferEventos = new BufferEventos();
+		this.formateadorEventos = new FormateadorEventos(this.registroColectivos);
+		this.contextoPrincipal = ContextoPaso.directo(this.gestorEstadisticas, this.bufferEventos);
+		this.handlesEstadisticos = new int[0];
 		this.pasoActual = 0;
 		this.simulacionFinalizada = false;
 	}
@@ -86,10 +116,12 @@ public class Simulador {
 			throw new IllegalArgumentException("Capacidades, recorridos y cantidad de colectivos deben ser positivos.");
 		}
 
-		this.colectivosEnSimulacion.clear();
-		this.colectivosPendientesDeAvanzar.clear();
+		this.registroColectivos.limpiar();
+		this.bufferEventos.limpiar();
+		this.calendario.limpiar();
 		int pasosPorFrecuencia = (int) Math.ceil(frecuenciaMin / 2.0);
 		int colectivoCounter = 1;
+		this.handlesEstadisticos = new int[lineasDisponibles.size() * cantidadPorLinea];
 
 		for (Linea linea : lineasDisponibles.values()) {
 			for (int i = 0; i < cantidadPorLinea; i++) {
@@ -99,35 +131,123 @@ public class Simulador {
 				Colectivo nuevoColectivo = new Colectivo(idColectivo, linea, capacidadTotal, capacidadSentados,
 						capacidadParados, recorridosPorColectivo, pasoDeSalida);
 				
-				this.colectivosEnSimulacion.add(nuevoColectivo);
-				this.gestorEstadisticas.registrarCapacidadColectivo(idColectivo, capacidadTotal);
+				int handle = this.registroColectivos.registrar(nuevoColectivo);
+				this.handlesEstadisticos[handle] = this.gestorEstadisticas.registrarCapacidadColectivo(idColectivo, capacidadTotal);
 				colectivoCounter++;
 			}
 		}
+
+		if (this.modoMotor == ModoMotor.PARALELO) {
+			prepararParticiones();
+		} else if (this.modoMotor == ModoMotor.EVENTOS) {
+			for (int h = 0; h < registroColectivos.cantidad(); h++) {
+				Colectivo colectivo = registroColectivos.obtener(h);
+				calendario.programarSalida(colectivo.getPasoDeSalida(), h);
+			}
+		}
+	}
+
+	/**
+	 * Programa la llegada diferida de un pasajero a su parada de origen. Solo está
+	 * disponible con el motor {@link ModoMotor#EVENTOS}. El pasajero debe formar
+	 * parte de los pasajeros simulados y no estar ya en la cola de su parada.
+	 *
+	 * @param pasajero El pasajero que llegará a la parada.
+	 * @param paso El paso en el que se suma a la cola de espera.
+	 * @throws IllegalStateException si el motor no es por eventos.
+	 */
+	public void programarLlegadaPasajero(Pasajero pasajero, int paso) {
+		if (this.modoMotor != ModoMotor.EVENTOS) {
+			throw new IllegalStateException("La llegada diferida de pasajeros solo está disponible con el motor por eventos.");
+		}
+		if (pasajero == null || paso < this.pasoActual) {
+			throw new IllegalArgumentException("El pasajero no puede ser nulo ni llegar en un paso ya ejecutado.");
+		}
+		this.calendario.programarLlegadaPasajero(paso, pasajero);
 	}
 
 	/**
-	 * Ejecuta un único paso o ciclo de la simulación.
+	 * Ejecuta un único paso o ciclo de la simulación y devuelve sus eventos como texto.
+	 * <p>
+	 * Con el motor por eventos, el paso ejecutado es el del próximo evento del
+	 * calendario, por lo que los pasos sin actividad se saltean.
+	 *
 	 * @return Una lista de eventos (en formato String) que ocurrieron durante este paso.
+	 * @see #avanzarPaso()
 	 */
 	public List<String> ejecutarPasoDeSimulacion() {
-		List<String> eventosDelPaso = new ArrayList<>();
-		
-		// 1. Avanzar colectivos que fueron marcados para moverse en el paso anterior.
-		avanzarColectivosPendientes(eventosDelPaso);
-
-		// 2. Procesar cada colectivo en su parada actual.
-		for (Colectivo colectivo : colectivosEnSimulacion) {
-			// Solo procesar si no está en una terminal (ya se procesó al llegar).
-			// Y si ya cumplió su paso de salida programado.
-			if (!colectivo.estaEnTerminal() && colectivo.getPasoDeSalida() <= pasoActual) {
-				gestorEstadisticas.registrarOcupacionTramo(colectivo.getIdColectivo(), colectivo.getCantidadPasajerosABordo());
-				procesarPasoParaColectivo(colectivo, eventosDelPaso);
+		return formateadorEventos.formatear(avanzarPaso());
+	}
+
+	/**
+	 * Ejecuta un único paso de la simulación sin generar texto.
+	 * <p>
+	 * Los eventos del paso quedan en un buffer tipado que se reutiliza: su contenido
+	 * es válido hasta la próxima llamada. Para obtener el texto de los eventos se usa
+	 * {@link #getFormateadorEventos()}.
+	 *
+	 * @return El buffer con los eventos del paso.
+	 */
+	public BufferEventos avanzarPaso() {
+		bufferEventos.limpiar();
+
+		if (this.modoMotor == ModoMotor.EVENTOS) {
+			procesarEventosDelProximoPaso();
+		} else {
+			// 1. Avanzar colectivos que fueron marcados para moverse en el paso anterior.
+			avanzarColectivosPendientes();
+
+			// 2. Procesar cada colectivo en su parada actual.
+			if (this.modoMotor == ModoMotor.PARALELO && particiones != null && particiones.cantidad() > 1) {
+				atenderParadasEnParalelo();
+			} else {
+				for (int h = 0; h < registroColectivos.cantidad(); h++) {
+					Colectivo colectivo = registroColectivos.obtener(h);
+					if (debeAtenderParada(colectivo) && atenderParada(h, colectivo, contextoPrincipal)) {
+						registroColectivos.marcarPendiente(h);
+					}
+				}
 			}
 		}
-		
+
 		pasoActual++;
-		return eventosDelPaso;
+		if (this.checkpointPeriodico != null && pasoActual - this.pasoUltimoCheckpoint >= this.checkpointCadaPasos) {
+			escribirCheckpointPeriodico();
+		}
+		return bufferEventos;
+	}
+
+	/**
+	 * Habilita la escritura de un checkpoint cada {@code cadaPasos} pasos en el
+	 * mismo archivo. El primero escribe el estado completo; los siguientes agregan
+	 * solo lo que cambió (ver {@link CheckpointSimulacion.Incremental}).
+	 *
+	 * @param archivo Archivo del checkpoint, o null para deshabilitarlos.
+	 * @param cadaPasos Pasos entre checkpoints (mayor que cero).
+	 * @param semilla Semilla con la que se generaron los pasajeros, que se guarda en el checkpoint.
+	 * @see CheckpointSimulacion
+	 */
+	public void setCheckpointPeriodico(Path archivo, int cadaPasos, long semilla) {
+		if (archivo != null && cadaPasos <= 0) {
+			throw new IllegalArgumentException("Los pasos entre checkpoints deben ser positivos.");
+		}
+		this.checkpointPeriodico = (archivo != null) ? new CheckpointSimulacion.Incremental(archivo, semilla) : null;
+		this.checkpointCadaPasos = cadaPasos;
+		this.pasoUltimoCheckpoint = this.pasoActual;
+	}
+
+	/**
+	 * Habilita o deshabilita el registro de eventos de cada paso. En corridas por
+	 * lotes donde nadie consulta los eventos conviene deshabilitarlo.
+	 * @param registrar true para registrar eventos (valor por defecto).
+	 */
+	public void setRegistrarEventos(boolean registrar) {
+		this.bufferEventos.setHabilitado(registrar);
+		if (this.contextosParticion != null) {
+			for (ContextoPaso contexto : this.contextosParticion) {
+				contexto.eventos().setHabilitado(registrar);
+			}
+		}
 	}
 
 	/**
@@ -136,9 +256,16 @@ public class Simulador {
 	 * @return true si la simulación ha terminado, false en caso contrario.
 	 */
 	public boolean isSimulacionTerminada() {
-		for (Colectivo colectivo : colectivosEnSimulacion) {
-			if (colectivo.getRecorridosRestantes() > 0) {
-				return false; // Si al menos un colectivo tiene recorridos pendientes, no ha terminado.
+		if (this.modoMotor == ModoMotor.EVENTOS) {
+			// Sin eventos pendientes ningún colectivo ni pasajero tiene algo por hacer.
+			if (!calendario.estaVacio()) {
+				return false;
+			}
+		} else {
+			for (Colectivo colectivo : registroColectivos.getColectivos()) {
+				if (colectivo.getRecorridosRestantes() > 0) {
+					return false; // Si al menos un colectivo tiene recorridos pendientes, no ha terminado.
+				}
 			}
 		}
 		
@@ -159,7 +286,7 @@ public class Simulador {
 		List<String> reporte = new ArrayList<>();
 		reporte.add("Verificación final de la simulación completada.");
 		
-		for (Colectivo colectivo : colectivosEnSimulacion) {
+		for (Colectivo colectivo : registroColectivos.getColectivos()) {
 			if (colectivo.getCantidadPasajerosABordo() > 0) {
 				reporte.add("ADVERTENCIA: El colectivo " + colectivo.getIdColectivo() + " terminó con pasajeros a bordo.");
 			}
@@ -172,164 +299,335 @@ public class Simulador {
 	// =================================================================================
 
 	/**
-	 * Avanza todos los colectivos que estaban esperando para moverse.
+	 * Avanza todos los colectivos que estaban esperando para moverse, en orden de handle.
 	 */
-	private void avanzarColectivosPendientes(List<String> eventosDelPaso) {
-		if (colectivosPendientesDeAvanzar.isEmpty()) return;
-
-		for (String id : colectivosPendientesDeAvanzar) {
-			Colectivo colectivo = buscaColectivoPorId(id);
-			if (colectivo != null && colectivo.getPasoDeSalida() <= pasoActual) {
-				colectivo.avanzarAProximaParada();
-				if (colectivo.estaEnTerminal()) {
-					eventosDelPaso.add("  Colectivo " + colectivo.getIdColectivo() + " ha llegado a la terminal.");
-					procesarLogicaTerminal(colectivo, eventosDelPaso);
-				} else {
-					eventosDelPaso.add("  Colectivo " + colectivo.getIdColectivo() + " avanza a la próxima parada.");
-				}
+	private void avanzarColectivosPendientes() {
+		if (!registroColectivos.hayPendientes()) return;
+
+		for (int h = registroColectivos.siguientePendiente(0); h >= 0; h = registroColectivos.siguientePendiente(h + 1)) {
+			Colectivo colectivo = registroColectivos.obtener(h);
+			if (colectivo.getPasoDeSalida() <= pasoActual) {
+				avanzarColectivo(h, colectivo, contextoPrincipal);
 			}
 		}
-		colectivosPendientesDeAvanzar.clear();
+		registroColectivos.limpiarPendientes();
 	}
-	
+
+	/**
+	 * Procesa todos los eventos del calendario correspondientes al próximo paso con
+	 * actividad. Cada evento puede programar el siguiente evento del mismo colectivo.
+	 */
+	private void procesarEventosDelProximoPaso() {
+		if (calendario.estaVacio()) return;
+
+		pasoActual = Math.max(pasoActual, calendario.proximoPaso());
+		while (!calendario.estaVacio() && calendario.proximoPaso() == pasoActual) {
+			CalendarioEventos.EventoProgramado evento = calendario.extraer();
+			int handle;
+			switch (evento.getTipo()) {
+				case LLEGADA_PASAJERO:
+					Pasajero pasajero = evento.getPasajero();
+					pasajero.setPasoLlegada(pasoActual);
+					pasajero.getParadaOrigen().agregarPasajero(pasajero);
+					break;
+				case LLEGADA_COLECTIVO:
+					// Si sigue en servicio, atiende su parada en este mismo paso.
+					handle = evento.getHandleColectivo();
+					if (avanzarColectivo(handle, registroColectivos.obtener(handle), contextoPrincipal)) {
+						calendario.programarSalida(pasoActual, handle);
+					}
+					break;
+				case SALIDA_COLECTIVO:
+					handle = evento.getHandleColectivo();
+					Colectivo colectivo = registroColectivos.obtener(handle);
+					if (!colectivo.estaEnTerminal() && atenderParada(handle, colectivo, contextoPrincipal)) {
+						calendario.programarLlegadaColectivo(pasoActual + 1, handle);
+					}
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Mueve un colectivo a su próxima parada y, si llega a la terminal, procesa el
+	 * fin del recorrido.
+	 * @return true si el colectivo queda en servicio en una parada que debe atender
+	 *         en este paso, false si terminó todos sus recorridos.
+	 */
+	private boolean avanzarColectivo(int handle, Colectivo colectivo, ContextoPaso contexto) {
+		colectivo.avanzarAProximaParada();
+		if (colectivo.estaEnTerminal()) {
+			contexto.eventos().agregar(TipoEvento.COLECTIVO_LLEGA_TERMINAL, handle, -1, 0, null);
+			return procesarLogicaTerminal(handle, colectivo, contexto);
+		}
+		contexto.eventos().agregar(TipoEvento.COLECTIVO_AVANZA, handle, -1, 0, null);
+		return true;
+	}
+
+	/**
+	 * Registra la ocupación del tramo y procesa la parada actual del colectivo.
+	 * @return true si el colectivo debe avanzar en el próximo paso.
+	 */
+	private boolean atenderParada(int handle, Colectivo colectivo, ContextoPaso contexto) {
+		contexto.registrarOcupacionTramo(this.handlesEstadisticos[handle], colectivo.getCantidadPasajerosABordo());
+		procesarPasoParaColectivo(handle, colectivo, contexto);
+		return !colectivo.estaEnTerminal();
+	}
+
 	/**
 	 * Procesa un paso para un colectivo: bajada y subida de pasajeros.
 	 */
-	private void procesarPasoParaColectivo(Colectivo colectivo, List<String> eventos) {
+	private void procesarPasoParaColectivo(int handle, Colectivo colectivo, ContextoPaso contexto) {
 		Parada paradaActual = colectivo.getParadaActual();
-		eventos.add("\nColectivo " + colectivo.getEtiqueta() + " en Parada: " + paradaActual.getDireccion() + " (ID: " + paradaActual.getId() + ")");
-		eventos.add("  Pasajeros a bordo: " + colectivo.getCantidadPasajerosABordo() + "/" + colectivo.getCapacidadMaxima());
-
-		procesarBajadaPasajeros(colectivo, paradaActual, eventos);
-		procesarSubidaPasajeros(colectivo, paradaActual, eventos);
-	    
-		if (!colectivo.estaEnTerminal()) {
-			colectivosPendientesDeAvanzar.add(colectivo.getIdColectivo());
-		}
+		int indiceParada = colectivo.getIndiceParadaActualEnRecorrido();
+		contexto.eventos().agregar(TipoEvento.COLECTIVO_EN_PARADA, handle, indiceParada, 0, null);
+		contexto.eventos().agregar(TipoEvento.OCUPACION_COLECTIVO, handle, indiceParada, colectivo.getCantidadPasajerosABordo(), null);
+
+		procesarBajadaPasajeros(handle, colectivo, paradaActual, contexto);
+		procesarSubidaPasajeros(handle, colectivo, paradaActual, contexto);
 	}
 
 	/**
 	 * Procesa la bajada de pasajeros en la parada actual del colectivo.
 	 */
-	private void procesarBajadaPasajeros(Colectivo colectivo, Parada paradaActual, List<String> eventos) {
-		// CORRECCIÓN DE BUG: Se crea una copia para iterar de forma segura mientras se modifica la lista original.
-		List<Pasajero> copiaPasajeros = new ArrayList<>(colectivo.getPasajerosABordo());
-		for (Pasajero p : copiaPasajeros) {
-			if (p.getParadaDestino().equals(paradaActual)) {
-				colectivo.bajarPasajero(p);
-				eventos.add("  - Bajó " + p + " en su destino.");
-				gestorEstadisticas.registrarTransporte(p);
-			}
+	private void procesarBajadaPasajeros(int handle, Colectivo colectivo, Parada paradaActual, ContextoPaso contexto) {
+		int indiceParada = colectivo.getIndiceParadaActualEnRecorrido();
+		Linea linea = colectivo.getLineaAsignada();
+		// El colectivo agrupa a sus pasajeros por destino: solo se recorren los que bajan acá.
+		for (Pasajero p : colectivo.bajarPasajerosEnParadaActual()) {
+			contexto.eventos().agregar(TipoEvento.PASAJERO_BAJA, handle, indiceParada, 0, p);
+			contexto.registrarTransporte(p);
+			contexto.registrarViaje(linea, pasoActual - p.getPasoSubida());
 		}
 	}
 	
 	/**
 	 * Procesa la subida de pasajeros en la parada actual del colectivo.
 	 */
-	private void procesarSubidaPasajeros(Colectivo colectivo, Parada paradaActual, List<String> eventos) {
-        eventos.add("  Pasajeros esperando en parada: " + paradaActual.cantidadPasajerosEsperando());
-        int pasajerosSubidos = 0;
-        List<Pasajero> pasajerosQueSubieron = new ArrayList<>();
-        List<Pasajero> pasajerosEnEspera = new ArrayList<>(paradaActual.getPasajerosEsperando()); // Copia para iterar
-
-        for (Pasajero pasajero : pasajerosEnEspera) {
-            int idxActual = colectivo.getLineaAsignada().getIndiceParada(paradaActual);
-            int idxDestino = colectivo.getLineaAsignada().getIndiceParada(pasajero.getParadaDestino());
-
-            if (idxDestino > idxActual) { // Solo subir si el destino está más adelante.
-                if (colectivo.subirPasajero(pasajero)) {
-                    pasajerosQueSubieron.add(pasajero);
-                    pasajerosSubidos++;
-                    pasajero.setPudoSubir(true);
-                    eventos.add("  + Subió " + pasajero);
-                } else {
-                    pasajero.incrementarColectivosEsperados();
-                    eventos.add("  - No pudo subir " + pasajero.getId() + " (colectivo lleno).");
-                }
-            }
-        }
-        
-        if (!pasajerosQueSubieron.isEmpty()) {
-        	// La lógica para remover de la cola de espera debe ser robusta.
-        	// Se asume que Parada usa una Queue y se remueven los que subieron.
-        	paradaActual.getPasajerosEsperando().removeAll(pasajerosQueSubieron);
-        }
-
-        eventos.add("  Pasajeros que subieron: " + pasajerosSubidos);
-        eventos.add("  Quedan esperando: " + paradaActual.cantidadPasajerosEsperando());
+	private void procesarSubidaPasajeros(int handle, Colectivo colectivo, Parada paradaActual, ContextoPaso contexto) {
+		int indiceParada = colectivo.getIndiceParadaActualEnRecorrido();
+		contexto.eventos().agregar(TipoEvento.PASAJEROS_ESPERANDO, handle, indiceParada, paradaActual.cantidadPasajerosEsperando(), null);
+		Linea linea = colectivo.getLineaAsignada();
+
+		// La parada ofrece el abordaje solo a los pasajeros que van más adelante en el
+		// recorrido, en orden de llegada (los destinos de cada posición los precalcula la línea).
+		int pasajerosSubidos = paradaActual.atenderPasajerosDeLinea(linea, indiceParada, pasajero -> {
+			if (colectivo.subirPasajero(pasajero)) {
+				pasajero.setPudoSubir(true);
+				pasajero.setPasoSubida(pasoActual);
+				int espera = pasoActual - pasajero.getPasoLlegada();
+				paradaActual.registrarTiempoEspera(espera);
+				contexto.registrarEspera(paradaActual, linea, espera);
+				contexto.eventos().agregar(TipoEvento.PASAJERO_SUBE, handle, indiceParada, 0, pasajero);
+				return true;
+			}
+			pasajero.incrementarColectivosEsperados();
+			contexto.eventos().agregar(TipoEvento.PASAJERO_NO_SUBE, handle, indiceParada, 0, pasajero);
+			return false;
+		});
+
+        contexto.eventos().agregar(TipoEvento.RESUMEN_SUBIDAS, handle, indiceParada, pasajerosSubidos, null);
+        contexto.eventos().agregar(TipoEvento.QUEDAN_ESPERANDO, handle, indiceParada, paradaActual.cantidadPasajerosEsperando(), null);
     }
 
 	/**
 	 * Procesa la lógica cuando un colectivo llega a su parada terminal.
+	 * @return true si el colectivo fue reiniciado para un nuevo recorrido.
 	 */
-	private void procesarLogicaTerminal(Colectivo colectivo, List<String> eventos) {
+	private boolean procesarLogicaTerminal(int handle, Colectivo colectivo, ContextoPaso contexto) {
 		Parada paradaFinal = colectivo.getParadaActual();
-		String paradaInfo = (paradaFinal != null) ? paradaFinal.getDireccion() + " (ID: " + paradaFinal.getId() + ")" : "N/A";
-		eventos.add("Colectivo " + colectivo.getEtiqueta() + " ha finalizado su recorrido " + colectivo.getRecorridoActual() + " en: " + paradaInfo);
+		int indiceFinal = (paradaFinal != null) ? colectivo.getIndiceParadaActualEnRecorrido() : -1;
+		contexto.eventos().agregar(TipoEvento.FIN_RECORRIDO, handle, indiceFinal, colectivo.getRecorridoActual(), null);
 		
 		colectivo.actualizarRecorridosRestantes();
 
 		if (colectivo.getCantidadPasajerosABordo() > 0) {
-			eventos.add("  Procesando pasajeros en la parada terminal...");
-			List<Pasajero> pasajerosCopia = new ArrayList<>(colectivo.getPasajerosABordo()); // Copia segura
-			for (Pasajero p : pasajerosCopia) {
-				colectivo.bajarPasajero(p);
+			contexto.eventos().agregar(TipoEvento.PROCESANDO_TERMINAL, handle, indiceFinal, 0, null);
+			for (Pasajero p : colectivo.bajarTodosLosPasajeros()) {
 				if (p.getParadaDestino().equals(paradaFinal)) {
-					eventos.add("  - Bajó " + p + " en su destino (terminal).");
+					contexto.eventos().agregar(TipoEvento.PASAJERO_BAJA_TERMINAL, handle, indiceFinal, 0, p);
 				} else {
 					p.setBajadaForzosa(true);
-					eventos.add("  - BAJADA FORZOSA: " + p + " no llegó a su destino (" + p.getParadaDestino().getId() + ").");
+					contexto.eventos().agregar(TipoEvento.BAJADA_FORZOSA, handle, indiceFinal, 0, p);
 				}
-				gestorEstadisticas.registrarTransporte(p);
+				contexto.registrarTransporte(p);
+				contexto.registrarViaje(colectivo.getLineaAsignada(), pasoActual - p.getPasoSubida());
 			}
 		}
 		
 		// Reiniciar el colectivo para un nuevo recorrido si tiene recorridos restantes.
-		// Separador para claridad en los eventos/debug.
 		if (colectivo.getRecorridosRestantes() > 0) {
 			colectivo.reiniciarParaNuevoRecorrido();
-			String separador = "\n\n--##--->\n\n";
-			String eventoReinicio = String.format("%sEVENTO: Colectivo %s reiniciado para un nuevo recorrido %s",
-					separador, colectivo.getIdColectivo(), separador);
-			eventos.add(eventoReinicio);
-			colectivosPendientesDeAvanzar.add(colectivo.getIdColectivo());
-		} else {
-			eventos.add("  Colectivo " + colectivo.getIdColectivo() + " ha finalizado todos sus recorridos.");
+			contexto.eventos().agregar(TipoEvento.COLECTIVO_REINICIADO, handle, 0, 0, null);
+			return true;
 		}
+		contexto.eventos().agregar(TipoEvento.COLECTIVO_FINALIZADO, handle, -1, 0, null);
+		return false;
 	}
 	
+	/**
+	 * Indica si el colectivo debe atender su parada en la fase 2 del paso: no está en
+	 * una terminal (ya se procesó al llegar) y ya cumplió su paso de salida programado.
+	 */
+	private boolean debeAtenderParada(Colectivo colectivo) {
+		return !colectivo.estaEnTerminal() && colectivo.getPasoDeSalida() <= pasoActual;
+	}
+
+	/**
+	 * Calcula las particiones de la flota y prepara un contexto diferido por partición.
+	 */
+	private void prepararParticiones() {
+		this.particiones = ParticionesColectivos.calcular(this.registroColectivos);
+		this.contextosParticion = new ContextoPaso[this.particiones.cantidad()];
+		for (int i = 0; i < this.contextosParticion.length; i++) {
+			this.contextosParticion[i] = ContextoPaso.diferido();
+			this.contextosParticion[i].eventos().setHabilitado(this.bufferEventos.isHabilitado());
+		}
+	}
+
+	/**
+	 * Atiende las paradas de cada partición en el {@link ForkJoinPool} común y luego
+	 * combina los resultados en orden de handle, de modo que estadísticas y eventos
+	 * quedan idénticos a los de la ejecución secuencial.
+	 */
+	private void atenderParadasEnParalelo() {
+		ForkJoinPool.commonPool().invoke(new TareaParticiones(0, particiones.cantidad()));
+
+		for (ContextoPaso contexto : contextosParticion) {
+			contexto.combinarEn(gestorEstadisticas, registroColectivos);
+		}
+		if (bufferEventos.isHabilitado()) {
+			for (int h = 0; h < registroColectivos.cantidad(); h++) {
+				contextosParticion[particiones.particionDe(h)].copiarEventosDe(h, bufferEventos);
+			}
+		}
+	}
+
+	/**
+	 * Atiende las paradas de todos los colectivos de una partición, en orden de handle.
+	 */
+	private void atenderParticion(int particion) {
+		ContextoPaso contexto = contextosParticion[particion];
+		contexto.limpiar();
+		for (int h : particiones.handles(particion)) {
+			Colectivo colectivo = registroColectivos.obtener(h);
+			if (debeAtenderParada(colectivo)) {
+				if (atenderParada(h, colectivo, contexto)) {
+					contexto.marcarPendiente(h);
+				}
+				contexto.cerrarSegmento(h);
+			}
+		}
+	}
+
+	/**
+	 * Tarea fork-join que divide el rango de particiones hasta atender una por tarea.
+	 */
+	private final class TareaParticiones extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int desde;
+		private final int hasta;
+
+		TareaParticiones(int desde, int hasta) {
+			this.desde = desde;
+			this.hasta = hasta;
+		}
+
+		@Override
+		protected void compute() {
+			if (hasta - desde == 1) {
+				atenderParticion(desde);
+				return;
+			}
+			int medio = (desde + hasta) >>> 1;
+			invokeAll(new TareaParticiones(desde, medio), new TareaParticiones(medio, hasta));
+		}
+	}
+
+	private void escribirCheckpointPeriodico() {
+		try {
+			this.checkpointPeriodico.escribir(this);
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo escribir el checkpoint " + this.checkpointPeriodico.getArchivo() + ".", e);
+		}
+		this.pasoUltimoCheckpoint = this.pasoActual;
+	}
+
 	/**
 	 * Realiza los cómputos finales una única vez cuando la simulación termina.
 	 */
 	private void finalizarSimulacion() {
 		// Registrar a todos los pasajeros que nunca pudieron subir para las estadísticas.
-		for (Pasajero p : this.pasajerosSimulados) {
-			if (!p.isPudoSubir()) {
-				gestorEstadisticas.registrarTransporte(p);
+		if (this.pasajerosSimulados instanceof ListaPasajeros) {
+			// Lista de handles (la del generador): se leen las columnas sin crear vistas.
+			ListaPasajeros lista = (ListaPasajeros) this.pasajerosSimulados;
+			for (int i = 0; i < lista.size(); i++) {
+				AlmacenPasajeros almacen = lista.almacen(i);
+				int h = lista.handle(i);
+				if (!almacen.pudoSubir(h)) {
+					gestorEstadisticas.registrarTransporte(almacen, h);
+				}
+			}
+		} else {
+			for (Pasajero p : this.pasajerosSimulados) {
+				if (!p.isPudoSubir()) {
+					gestorEstadisticas.registrarTransporte(p);
+				}
 			}
 		}
 		this.simulacionFinalizada = true;
 	}
 	
+	
+	// =================================================================================
+	// ESTADO INTERNO (para CheckpointSimulacion)
+	// =================================================================================
+
+	CalendarioEventos getCalendario() { return this.calendario; }
+
 	/**
-	 * Busca un colectivo por su identificador.
+	 * Devuelve los pasajeros como lista de handles: la propia lista si ya lo es
+	 * (la del generador) o, si no, una copia.
 	 */
-	private Colectivo buscaColectivoPorId(String id) {
-		for (Colectivo c : colectivosEnSimulacion) {
-			if (c.getIdColectivo().equals(id)) {
-				return c;
-			}
+	ListaPasajeros getPasajerosComoHandles() {
+		if (this.pasajerosSimulados instanceof ListaPasajeros) {
+			return (ListaPasajeros) this.pasajerosSimulados;
 		}
-		return null; // Devuelve null si no se encuentra
+		ListaPasajeros lista = new ListaPasajeros(this.pasajerosSimulados.size());
+		lista.addAll(this.pasajerosSimulados);
+		return lista;
 	}
-	
-	
+	boolean isSimulacionFinalizada() { return this.simulacionFinalizada; }
+
+	void restaurarProgreso(int paso, boolean finalizada) {
+		this.pasoActual = paso;
+		this.simulacionFinalizada = finalizada;
+		this.pasoUltimoCheckpoint = paso;
+	}
+
+	/** Vuelve a resolver el handle estadístico de cada colectivo (tras restaurar el gestor). */
+	void recalcularHandlesEstadisticos() {
+		for (int h = 0; h < registroColectivos.cantidad(); h++) {
+			Colectivo colectivo = registroColectivos.obtener(h);
+			this.handlesEstadisticos[h] = this.gestorEstadisticas.registrarCapacidadColectivo(
+					colectivo.getIdColectivo(), colectivo.getCapacidadMaxima());
+		}
+	}
+
 	// =================================================================================
 	// GETTERS
 	// =================================================================================
 	
-	public List<Colectivo> getColectivosEnSimulacion() { return new ArrayList<>(this.colectivosEnSimulacion); }
+	public List<Colectivo> getColectivosEnSimulacion() { return new ArrayList<>(this.registroColectivos.getColectivos()); }
+	/** Vista de solo lectura (sin copia) de los colectivos, en orden de handle. */
+	public List<Colectivo> getColectivosVista() { return this.registroColectivos.getColectivos(); }
+	public RegistroColectivos getRegistroColectivos() { return this.registroColectivos; }
+	public ModoMotor getModoMotor() { return this.modoMotor; }
+	public FormateadorEventos getFormateadorEventos() { return this.formateadorEventos; }
 	public Map<String, Linea> getLineasDisponibles() { return this.lineasDisponibles; }
+	public Map<String, Parada> getParadasDisponibles() { return this.paradasDisponibles; }
+	/** Paso actual: la cantidad de pasos ejecutados (con el motor por eventos, el próximo paso posible). */
+	public int getPasoActual() { return this.pasoActual; }
     public GestorEstadisticas getGestorEstadisticas() { return this.gestorEstadisticas; }
     public PlanificadorRutas getPlanificadorRutas() { return this.planificadorRutas; }
 
@@ -341,4 +639,12 @@ public class Simulador {
  		return new ArrayList<>(this.pasajerosSimulados);
  	}
 
+ 	/**
+ 	 * Devuelve una vista de solo lectura (sin copia) de los pasajeros de la simulación.
+ 	 * @return Una lista no modificable con todos los pasajeros.
+ 	 */
+ 	public List<Pasajero> getPasajerosSimuladosVista() {
+ 		return this.pasajerosSimuladosVista;
+ 	}
+
 }
\ No newline at end of file
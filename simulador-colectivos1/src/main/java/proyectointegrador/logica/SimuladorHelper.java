@@ -1,10 +1,8 @@
 package proyectointegrador.logica;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import proyectointegrador.modelo.Colectivo;
-import proyectointegrador.modelo.Pasajero;
 
 /**
  * Clase de utilidad (helper) con métodos estáticos para asistir en tareas
@@ -21,8 +19,8 @@ public final class SimuladorHelper {
 	/**
 	 * Fuerza la bajada de todos los pasajeros actualmente a bordo de un colectivo.
 	 * <p>
-	 * Crea una copia de la lista de pasajeros para evitar errores de modificación
-	 * concurrente mientras se itera.
+	 * Delega en {@link Colectivo#bajarTodosLosPasajeros()}, que vacía el
+	 * colectivo sin quitar a los pasajeros de a uno.
 	 *
 	 * @param colectivo El colectivo a vaciar. No puede ser nulo.
 	 * @return El número de pasajeros que fueron bajados.
@@ -32,16 +30,7 @@ public final class SimuladorHelper {
 			return 0;
 		}
 
-		int pasajerosBajados = 0;
-		// Se crea una copia para poder modificar la lista original mientras se itera.
-		final List<Pasajero> pasajerosABordo = new ArrayList<>(colectivo.getPasajerosABordo());
-		
-		for (final Pasajero p : pasajerosABordo) {
-			if (colectivo.bajarPasajero(p)) {
-				pasajerosBajados++;
-			}
-		}
-		return pasajerosBajados;
+		return colectivo.bajarTodosLosPasajeros().size();
 	}
 
 	/**
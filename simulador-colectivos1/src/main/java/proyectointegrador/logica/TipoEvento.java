@@ -0,0 +1,65 @@
+package proyectointegrador.logica;
+
+/**
+ * Tipos de evento que el {@link Simulador} registra en su {@link BufferEventos}
+ * durante cada paso.
+ * <p>
+ * Cada evento guarda solo datos primitivos (handle del colectivo, índice de la
+ * parada en el recorrido, un valor entero) y, si corresponde, el pasajero
+ * involucrado. El texto se arma recién cuando alguien lo pide, con un
+ * {@link FormateadorEventos}.
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public enum TipoEvento {
+
+	/** El colectivo avanzó a la próxima parada de su recorrido. */
+	COLECTIVO_AVANZA(true),
+	/** El colectivo llegó a la parada terminal. */
+	COLECTIVO_LLEGA_TERMINAL(true),
+	/** El colectivo comienza a atender la parada indicada. */
+	COLECTIVO_EN_PARADA(true),
+	/** Ocupación del colectivo al llegar a la parada. El valor es la cantidad a bordo. */
+	OCUPACION_COLECTIVO(false),
+	/** Un pasajero bajó en su parada de destino. */
+	PASAJERO_BAJA(false),
+	/** Cantidad de pasajeros esperando en la parada antes de la subida. */
+	PASAJEROS_ESPERANDO(false),
+	/** Un pasajero subió al colectivo. */
+	PASAJERO_SUBE(false),
+	/** Un pasajero no pudo subir porque el colectivo estaba lleno. */
+	PASAJERO_NO_SUBE(false),
+	/** Cantidad de pasajeros que subieron en la parada. */
+	RESUMEN_SUBIDAS(false),
+	/** Cantidad de pasajeros que quedan esperando tras la subida. */
+	QUEDAN_ESPERANDO(false),
+	/** El colectivo terminó un recorrido. El valor es el número de recorrido. */
+	FIN_RECORRIDO(true),
+	/** El colectivo llegó a la terminal con pasajeros a bordo. */
+	PROCESANDO_TERMINAL(false),
+	/** Un pasajero bajó en la terminal, que era su destino. */
+	PASAJERO_BAJA_TERMINAL(false),
+	/** Un pasajero tuvo que bajar en la terminal sin llegar a su destino. */
+	BAJADA_FORZOSA(false),
+	/** El colectivo vuelve a la primera parada para un nuevo recorrido. */
+	COLECTIVO_REINICIADO(true),
+	/** El colectivo completó todos sus recorridos. */
+	COLECTIVO_FINALIZADO(true);
+
+	private final boolean nombraColectivo;
+
+	TipoEvento(boolean nombraColectivo) {
+		this.nombraColectivo = nombraColectivo;
+	}
+
+	/**
+	 * Indica si el texto del evento menciona al colectivo por su ID. Estos eventos
+	 * abren un bloque al agrupar los eventos por colectivo; el resto se muestra
+	 * indentado debajo.
+	 */
+	public boolean nombraColectivo() {
+		return this.nombraColectivo;
+	}
+}
@@ -0,0 +1,116 @@
+package proyectointegrador.logica;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Un viaje en colectivo entre dos paradas, tal como lo arma el
+ * {@link PlanificadorViajes}: una secuencia de tramos, cada uno sobre una sola
+ * línea, con transbordos en las paradas donde termina un tramo y empieza el
+ * siguiente.
+ * <p>
+ * Las horas son minutos desde la medianoche del día de servicio (pueden pasar de
+ * {@code 24 * 60} en los servicios nocturnos). Es inmutable.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public final class Viaje {
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	private final List<Tramo> tramos;
+
+	// =================================================================================
+	// CONSTRUCTOR
+	// =================================================================================
+
+	Viaje(List<Tramo> tramos) {
+		if (tramos == null || tramos.isEmpty()) {
+			throw new IllegalArgumentException("Un viaje tiene al menos un tramo.");
+		}
+		this.tramos = Collections.unmodifiableList(new ArrayList<>(tramos));
+	}
+
+	// =================================================================================
+	// GETTERS
+	// =================================================================================
+
+	public List<Tramo> getTramos() { return this.tramos; }
+
+	/** Hora en que sale el primer colectivo. */
+	public int getHoraSalida() { return this.tramos.get(0).getHoraSubida(); }
+
+	/** Hora de llegada a la parada de destino. */
+	public int getHoraLlegada() { return this.tramos.get(this.tramos.size() - 1).getHoraBajada(); }
+
+	/** Cantidad de transbordos (un tramo menos). */
+	public int getTransbordos() { return this.tramos.size() - 1; }
+
+	/** Todas las paradas del viaje, del origen al destino, sin repetir las de transbordo. */
+	public List<Parada> getParadas() {
+		List<Parada> paradas = new ArrayList<>();
+		for (Tramo tramo : this.tramos) {
+			List<Parada> delTramo = tramo.getParadas();
+			paradas.addAll(paradas.isEmpty() ? delTramo : delTramo.subList(1, delTramo.size()));
+		}
+		return paradas;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Tramo tramo : this.tramos) {
+			if (sb.length() > 0) sb.append(" | ");
+			sb.append(tramo);
+		}
+		return sb.toString();
+	}
+
+	/** Formatea minutos desde la medianoche como {@code HH:MM}. */
+	static String formatearHora(int minutos) {
+		return String.format("%02d:%02d", minutos / 60, minutos % 60);
+	}
+
+	// =================================================================================
+	// CLASE ANIDADA
+	// =================================================================================
+
+	/** Parte de un viaje hecha en un mismo colectivo. */
+	public static final class Tramo {
+		private final Linea linea;
+		private final List<Parada> paradas;
+		private final int horaSubida;
+		private final int horaBajada;
+
+		Tramo(Linea linea, List<Parada> paradas, int horaSubida, int horaBajada) {
+			this.linea = linea;
+			this.paradas = Collections.unmodifiableList(new ArrayList<>(paradas));
+			this.horaSubida = horaSubida;
+			this.horaBajada = horaBajada;
+		}
+
+		public Linea getLinea() { return this.linea; }
+
+		/** Paradas recorridas en el tramo, de la de subida a la de bajada. */
+		public List<Parada> getParadas() { return this.paradas; }
+
+		public Parada getParadaSubida() { return this.paradas.get(0); }
+		public Parada getParadaBajada() { return this.paradas.get(this.paradas.size() - 1); }
+		public int getHoraSubida() { return this.horaSubida; }
+		public int getHoraBajada() { return this.horaBajada; }
+
+		@Override
+		public String toString() {
+			return this.linea.getNombre() + ": " + getParadaSubida().getId() + " (" + formatearHora(this.horaSubida)
+					+ ") -> " + getParadaBajada().getId() + " (" + formatearHora(this.horaBajada) + ")";
+		}
+	}
+}
@@ -0,0 +1,409 @@
+package proyectointegrador.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacén columnar de pasajeros.
+ * <p>
+ * En lugar de un objeto con varios campos por pasajero, el almacén guarda el
+ * estado de todos los pasajeros en arreglos primitivos paralelos, indexados por
+ * un <b>handle</b> denso (0, 1, 2, ...): índice de parada de origen y de destino,
+ * colectivos esperados, banderas de estado, satisfacción y los pasos de llegada a
+ * la parada y de subida al colectivo. Las paradas se guardan
+ * una sola vez en una tabla y los pasajeros las referencian por índice; la tabla
+ * distingue las paradas por identidad, así que cada pasajero devuelve el mismo
+ * objeto con el que se lo agregó.
+ * <p>
+ * Los IDs no se guardan: el pasajero con handle {@code h} se llama
+ * {@code "Pasajero-" + (h + 1)}, salvo que se le haya dado un ID explícito al
+ * agregarlo. Un {@link Pasajero} es solo una vista (almacén + handle) sobre estos
+ * datos.
+ * <p>
+ * Agregar pasajeros no es seguro entre hilos. Modificar el estado de handles
+ * distintos desde hilos distintos sí lo es.
+ * <p>
+ * Cada pasajero suelto (creado con los constructores públicos de {@link Pasajero})
+ * tiene su propio almacén <i>individual</i> de un solo lugar; no hay estado
+ * compartido entre pasajeros sueltos.
+ * <p>
+ * Opcionalmente, el almacén anota qué handles cambiaron (ver {@link #seguirCambios()}),
+ * para que un checkpoint incremental escriba solo esos pasajeros.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.6
+ */
+public final class AlmacenPasajeros {
+
+	// =================================================================================
+	// CONSTANTES
+	// =================================================================================
+
+	public static final String PREFIJO_ID = "Pasajero-";
+
+	/** Marca de cambio: cambió alguna columna de estado de viaje. */
+	public static final int CAMBIO_ESTADO = 1;
+	/** Marca de cambio: cambió el paso de llegada a la parada. */
+	public static final int CAMBIO_LLEGADA = 1 << 1;
+
+	private static final int CAPACIDAD_INICIAL = 16;
+
+	private static final byte VIAJO_SENTADO = 1;
+	private static final byte PUDO_SUBIR = 1 << 1;
+	private static final byte BAJADA_FORZOSA = 1 << 2;
+
+	// =================================================================================
+	// ATRIBUTOS
+	// =================================================================================
+
+	// --- Tabla de paradas ---
+	private final List<Parada> paradas;
+	private final Map<Parada, Integer> indicesParada;
+
+	// --- Columnas (una posición por handle) ---
+	private int cantidad;
+	private int[] origenes;
+	private int[] destinos;
+	private int[] colectivosEsperados;
+	private byte[] banderas;
+	private byte[] satisfacciones;
+	private int[] pasosLlegada; // Paso en que llegó a su parada de origen (0 si estaba desde el inicio)
+	private int[] pasosSubida;  // Paso en que subió al colectivo (válido si pudo subir)
+	/** IDs explícitos; se crea solo si algún pasajero no usa el ID por defecto. */
+	private String[] ids;
+	/** Marcas de cambio por handle; se crea solo al seguir los cambios. Un byte por handle, para que hilos distintos no se pisen. */
+	private byte[] cambios;
+	/** Indica si el almacén guarda un único pasajero suelto (ver {@link #individual()}). */
+	private boolean individual;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	public AlmacenPasajeros() {
+		this(CAPACIDAD_INICIAL);
+	}
+
+	/**
+	 * @param capacidadInicial Cantidad de pasajeros para la que se reserva lugar.
+	 */
+	public AlmacenPasajeros(int capacidadInicial) {
+		if (capacidadInicial < 0) {
+			throw new IllegalArgumentException("La capacidad inicial no puede ser negativa.");
+		}
+		this.paradas = new ArrayList<>();
+		this.indicesParada = new IdentityHashMap<>();
+		this.origenes = new int[capacidadInicial];
+		this.destinos = new int[capacidadInicial];
+		this.colectivosEsperados = new int[capacidadInicial];
+		this.banderas = new byte[capacidadInicial];
+		this.satisfacciones = new byte[capacidadInicial];
+		this.pasosLlegada = new int[capacidadInicial];
+		this.pasosSubida = new int[capacidadInicial];
+	}
+
+	/**
+	 * Crea el almacén de un pasajero suelto. Sus vistas se comparan por ID con las
+	 * de otros almacenes individuales.
+	 */
+	static AlmacenPasajeros individual() {
+		AlmacenPasajeros almacen = new AlmacenPasajeros(1);
+		almacen.individual = true;
+		return almacen;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE ALTA
+	// =================================================================================
+
+	/**
+	 * Registra una parada en la tabla del almacén (si no estaba) y devuelve su índice.
+	 */
+	public int indiceDeParada(Parada parada) {
+		if (parada == null) {
+			throw new IllegalArgumentException("La parada no puede ser nula.");
+		}
+		Integer indice = this.indicesParada.get(parada);
+		if (indice == null) {
+			indice = this.paradas.size();
+			this.paradas.add(parada);
+			this.indicesParada.put(parada, indice);
+		}
+		return indice;
+	}
+
+	/**
+	 * Agrega un pasajero con el ID por defecto ({@code "Pasajero-" + (handle + 1)}).
+	 * @return El handle del pasajero.
+	 * @throws IllegalArgumentException si alguna parada es nula o son la misma.
+	 */
+	public int agregar(Parada origen, Parada destino) {
+		validarParadas(origen, destino);
+		return agregarPorIndice(indiceDeParada(origen), indiceDeParada(destino));
+	}
+
+	/**
+	 * Agrega un pasajero con un ID explícito.
+	 * @return El handle del pasajero.
+	 * @throws IllegalArgumentException si el ID es vacío, alguna parada es nula o son la misma.
+	 */
+	public int agregar(String id, Parada origen, Parada destino) {
+		if (id == null || id.trim().isEmpty())
+			throw new IllegalArgumentException("El ID del pasajero no puede ser nulo o vacío.");
+		int handle = agregar(origen, destino);
+		if (!id.equals(PREFIJO_ID + (handle + 1))) {
+			if (this.ids == null) {
+				this.ids = new String[this.origenes.length];
+			}
+			this.ids[handle] = id;
+		}
+		return handle;
+	}
+
+	/**
+	 * Reserva {@code cantidadNueva} handles consecutivos con paradas sin asignar,
+	 * para completarlos luego con {@link #asignarParadas}. Permite que varios hilos
+	 * completen handles distintos a la vez.
+	 *
+	 * @return El primer handle reservado.
+	 */
+	public int reservar(int cantidadNueva) {
+		if (cantidadNueva < 0) {
+			throw new IllegalArgumentException("La cantidad a reservar no puede ser negativa.");
+		}
+		asegurarCapacidad(this.cantidad + cantidadNueva);
+		int primero = this.cantidad;
+		this.cantidad += cantidadNueva;
+		return primero;
+	}
+
+	/**
+	 * Asigna un ID explícito a un handle reservado (por ejemplo, al restaurar un
+	 * checkpoint). Si coincide con el ID por defecto no se guarda nada.
+	 */
+	public void asignarId(int handle, String id) {
+		verificarHandle(handle);
+		if (id == null || id.trim().isEmpty())
+			throw new IllegalArgumentException("El ID del pasajero no puede ser nulo o vacío.");
+		if (id.equals(PREFIJO_ID + (handle + 1))) {
+			if (this.ids != null) this.ids[handle] = null;
+			return;
+		}
+		if (this.ids == null) {
+			this.ids = new String[this.origenes.length];
+		}
+		this.ids[handle] = id;
+	}
+
+	/**
+	 * Asigna las paradas (por índice en la tabla) de un handle reservado.
+	 * @throws IllegalArgumentException si el origen y el destino son la misma parada.
+	 */
+	public void asignarParadas(int handle, int indiceOrigen, int indiceDestino) {
+		verificarHandle(handle);
+		if (indiceOrigen == indiceDestino)
+			throw new IllegalArgumentException("La parada de origen y destino no pueden ser la misma.");
+		this.origenes[handle] = indiceOrigen;
+		this.destinos[handle] = indiceDestino;
+	}
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	/** Indica si el almacén es el de un pasajero suelto. */
+	public boolean isIndividual() {
+		return this.individual;
+	}
+
+	public int cantidad() {
+		return this.cantidad;
+	}
+
+	public int cantidadParadas() {
+		return this.paradas.size();
+	}
+
+	public Parada paradaPorIndice(int indice) {
+		return this.paradas.get(indice);
+	}
+
+	/**
+	 * Devuelve una vista del pasajero. Dos vistas del mismo handle son iguales.
+	 */
+	public Pasajero vista(int handle) {
+		verificarHandle(handle);
+		return new Pasajero(this, handle);
+	}
+
+	public String id(int handle) {
+		String explicito = (this.ids != null) ? this.ids[handle] : null;
+		return (explicito != null) ? explicito : PREFIJO_ID + (handle + 1);
+	}
+
+	/** Indica si el pasajero tiene un ID distinto del ID por defecto. */
+	public boolean tieneIdExplicito(int handle) {
+		return this.ids != null && this.ids[handle] != null;
+	}
+
+	public int indiceOrigen(int handle) { return this.origenes[handle]; }
+	public int indiceDestino(int handle) { return this.destinos[handle]; }
+	public Parada origen(int handle) { return this.paradas.get(this.origenes[handle]); }
+	public Parada destino(int handle) { return this.paradas.get(this.destinos[handle]); }
+
+	// =================================================================================
+	// ESTADO DE VIAJE
+	// =================================================================================
+
+	public int colectivosEsperados(int handle) { return this.colectivosEsperados[handle]; }
+	public void incrementarColectivosEsperados(int handle) { this.colectivosEsperados[handle]++; marcar(handle, CAMBIO_ESTADO); }
+	public void setColectivosEsperados(int handle, int valor) { this.colectivosEsperados[handle] = valor; marcar(handle, CAMBIO_ESTADO); }
+
+	public boolean viajoSentado(int handle) { return tieneBandera(handle, VIAJO_SENTADO); }
+	public void setViajoSentado(int handle, boolean valor) { cambiarBandera(handle, VIAJO_SENTADO, valor); }
+	public boolean pudoSubir(int handle) { return tieneBandera(handle, PUDO_SUBIR); }
+	public void setPudoSubir(int handle, boolean valor) { cambiarBandera(handle, PUDO_SUBIR, valor); }
+	public boolean bajadaForzosa(int handle) { return tieneBandera(handle, BAJADA_FORZOSA); }
+	public void setBajadaForzosa(int handle, boolean valor) { cambiarBandera(handle, BAJADA_FORZOSA, valor); }
+
+	public int pasoLlegada(int handle) { return this.pasosLlegada[handle]; }
+	public void setPasoLlegada(int handle, int paso) { this.pasosLlegada[handle] = paso; marcar(handle, CAMBIO_LLEGADA); }
+	public int pasoSubida(int handle) { return this.pasosSubida[handle]; }
+	public void setPasoSubida(int handle, int paso) { this.pasosSubida[handle] = paso; marcar(handle, CAMBIO_ESTADO); }
+
+	public int satisfaccion(int handle) { return this.satisfacciones[handle]; }
+	public void setSatisfaccion(int handle, int valor) { this.satisfacciones[handle] = (byte) valor; marcar(handle, CAMBIO_ESTADO); }
+
+	/**
+	 * Calcula la satisfacción (escala 1-5) de un pasajero según su viaje.
+	 * Ver {@link Pasajero#calcularSatisfaccion()}.
+	 */
+	public int calcularSatisfaccion(int handle) {
+		int forzada = this.satisfacciones[handle];
+		if (forzada != 0) {
+			// Si la satisfacción fue forzada (ej. bajada en terminal), devuelve ese valor.
+			return forzada;
+		}
+		if (!pudoSubir(handle)) {
+			return 1; // La peor calificación si nunca pudo subir.
+		}
+		switch (this.colectivosEsperados[handle]) {
+			case 0: // No esperó ningún colectivo extra
+				return viajoSentado(handle) ? 5 : 4; // 5 si fue sentado, 4 si fue de pie.
+			case 1: // Esperó 1 colectivo
+				return 3;
+			default: // Esperó 2 o más colectivos
+				return 2;
+		}
+	}
+
+	/**
+	 * Reinicia el estado de viaje de un pasajero a sus valores iniciales. El paso
+	 * de llegada a la parada se conserva, porque es un dato de entrada.
+	 */
+	public void resetearEstadoViaje(int handle) {
+		this.colectivosEsperados[handle] = 0;
+		this.pasosSubida[handle] = 0;
+		this.banderas[handle] = 0;
+		this.satisfacciones[handle] = 0;
+		marcar(handle, CAMBIO_ESTADO);
+	}
+
+	// =================================================================================
+	// SEGUIMIENTO DE CAMBIOS
+	// =================================================================================
+
+	/**
+	 * Empieza a anotar qué handles cambian. Desde ahí, cada cambio de estado o del
+	 * paso de llegada deja una marca en el handle hasta que se la toma con
+	 * {@link #tomarCambios(int)}. Sin seguimiento, los cambios no cuestan nada extra.
+	 */
+	public void seguirCambios() {
+		if (this.cambios == null) {
+			this.cambios = new byte[this.origenes.length];
+		}
+	}
+
+	public boolean isSiguiendoCambios() {
+		return this.cambios != null;
+	}
+
+	/**
+	 * Devuelve las marcas de cambio del handle ({@link #CAMBIO_ESTADO},
+	 * {@link #CAMBIO_LLEGADA}) desde la última vez que se tomaron, y las borra.
+	 * @throws IllegalStateException si no se están siguiendo los cambios.
+	 */
+	public int tomarCambios(int handle) {
+		if (this.cambios == null) {
+			throw new IllegalStateException("El almacén no está siguiendo los cambios.");
+		}
+		int marcas = this.cambios[handle];
+		if (marcas != 0) {
+			this.cambios[handle] = 0;
+		}
+		return marcas;
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	private int agregarPorIndice(int indiceOrigen, int indiceDestino) {
+		int handle = reservar(1);
+		this.origenes[handle] = indiceOrigen;
+		this.destinos[handle] = indiceDestino;
+		return handle;
+	}
+
+	private boolean tieneBandera(int handle, byte bandera) {
+		return (this.banderas[handle] & bandera) != 0;
+	}
+
+	private void cambiarBandera(int handle, byte bandera, boolean valor) {
+		this.banderas[handle] = (byte) (valor ? this.banderas[handle] | bandera : this.banderas[handle] & ~bandera);
+		marcar(handle, CAMBIO_ESTADO);
+	}
+
+	private void marcar(int handle, int marca) {
+		if (this.cambios != null) {
+			this.cambios[handle] |= marca;
+		}
+	}
+
+	private void asegurarCapacidad(int minima) {
+		if (minima <= this.origenes.length) return;
+		int nueva = Math.max(minima, Math.max(CAPACIDAD_INICIAL, this.origenes.length + (this.origenes.length >> 1)));
+		this.origenes = Arrays.copyOf(this.origenes, nueva);
+		this.destinos = Arrays.copyOf(this.destinos, nueva);
+		this.colectivosEsperados = Arrays.copyOf(this.colectivosEsperados, nueva);
+		this.banderas = Arrays.copyOf(this.banderas, nueva);
+		this.satisfacciones = Arrays.copyOf(this.satisfacciones, nueva);
+		this.pasosLlegada = Arrays.copyOf(this.pasosLlegada, nueva);
+		this.pasosSubida = Arrays.copyOf(this.pasosSubida, nueva);
+		if (this.ids != null) {
+			this.ids = Arrays.copyOf(this.ids, nueva);
+		}
+		if (this.cambios != null) {
+			this.cambios = Arrays.copyOf(this.cambios, nueva);
+		}
+	}
+
+	private void verificarHandle(int handle) {
+		if (handle < 0 || handle >= this.cantidad) {
+			throw new IndexOutOfBoundsException("Handle de pasajero inválido: " + handle);
+		}
+	}
+
+	private static void validarParadas(Parada origen, Parada destino) {
+		if (origen == null)
+			throw new IllegalArgumentException("La parada de origen no puede ser nula.");
+		if (destino == null)
+			throw new IllegalArgumentException("La parada de destino no puede ser nula.");
+		if (origen.equals(destino))
+			throw new IllegalArgumentException("La parada de origen y destino no pueden ser la misma.");
+	}
+}
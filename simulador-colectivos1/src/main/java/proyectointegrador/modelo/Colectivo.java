@@ -1,7 +1,13 @@
 package proyectointegrador.modelo;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
@@ -9,10 +15,23 @@ import java.util.Objects;
  * <p>
  * Mantiene su estado interno, incluyendo los pasajeros a bordo, su capacidad,
  * su posición actual en el recorrido y su estado dentro de la simulación.
+ * Los pasajeros a bordo se agrupan además por parada de destino, de modo que al
+ * llegar a una parada se baja exactamente a los que terminan su viaje ahí.
+ * <p>
+ * El manifiesto guarda, por lugar, el {@link AlmacenPasajeros} y el handle de
+ * cada pasajero, así que a bordo pueden convivir pasajeros de almacenes
+ * distintos (por ejemplo, generados y sueltos). Las vistas {@link Pasajero} se
+ * crean solo al devolver pasajeros.
+ * <p>
+ * Cada lugar ocupado está enlazado en dos listas dobles: la del orden de subida y
+ * la de su grupo de destino. Un índice por (almacén, handle) dice en O(1) si un
+ * pasajero ya va a bordo y en qué lugar. Así, subir o bajar a un pasajero cuesta
+ * O(1), y bajar a un grupo cuesta lo que la cantidad de pasajeros que bajan, sin
+ * recorrer ni compactar al resto del manifiesto.
  *
  * @author Miyo
  * @author Enzo
- * @version 2.7
+ * @version 3.3
  */
 public class Colectivo {
 
@@ -28,7 +47,32 @@ public class Colectivo {
 	private final int capacidadParados;
 
 	// --- Atributos de Estado (Cambian durante la simulación) ---
-	private final List<Pasajero> pasajerosABordo;
+	// Manifiesto: cada pasajero a bordo ocupa un lugar de estos arreglos paralelos.
+	private int[] handlesLugar;
+	private AlmacenPasajeros[] almacenesLugar;
+	/** Grupo de destino de cada lugar: índice del destino en el recorrido + 1 (0 si no está en el recorrido). */
+	private int[] grupoLugar;
+	/** Enlaces del orden de subida; en los lugares libres, {@code siguienteABordo} enlaza la lista de libres. */
+	private int[] siguienteABordo;
+	private int[] anteriorABordo;
+	/** Enlaces dentro del grupo de destino, también en orden de subida. */
+	private int[] siguienteEnGrupo;
+	private int[] anteriorEnGrupo;
+	/** Primer y último lugar de cada grupo de destino (-1 si está vacío). Crecen a demanda. */
+	private int[] primeroDeGrupo;
+	private int[] ultimoDeGrupo;
+	private int primeroABordo;
+	private int ultimoABordo;
+	/** Primer lugar libre (-1 si no hay) y cantidad de lugares usados alguna vez. */
+	private int lugarLibre;
+	private int lugaresUsados;
+	/** Índice con direccionamiento abierto por (almacén, handle): lugar + 1, o 0 si la celda está vacía. */
+	private int[] indiceLugares;
+	private int cantidadABordo;
+	/** Vista de solo lectura de los pasajeros a bordo. */
+	private final Collection<Pasajero> pasajerosABordoVista;
+	/** Cuenta los cambios del manifiesto (ver {@link #getVersionManifiesto()}). */
+	private int versionManifiesto;
 	private Parada paradaActual;
 	private int indiceParadaActualEnRecorrido;
 	private int cantidadPasajerosSentados;
@@ -66,11 +110,16 @@ public class Colectivo {
 		this.recorridosRestantes = recorridosRestantes;
 
 		// Inicialización de atributos de estado
-		this.pasajerosABordo = new ArrayList<>();
+		this.primeroABordo = -1;
+		crearLugares(Math.min(capacidadMaxima, 8));
+		this.primeroDeGrupo = new int[0];
+		this.ultimoDeGrupo = new int[0];
+		vaciarManifiesto();
+		this.pasajerosABordoVista = new PasajerosABordo();
 		this.cantidadPasajerosSentados = 0;
 		this.recorridoActual = 1;
 
-		List<Parada> recorridoLinea = this.lineaAsignada.getRecorrido();
+		List<Parada> recorridoLinea = this.lineaAsignada.getRecorridoVista();
 		if (recorridoLinea != null && !recorridoLinea.isEmpty()) {
 			this.paradaActual = recorridoLinea.get(0);
 			this.indiceParadaActualEnRecorrido = 0;
@@ -100,7 +149,11 @@ public class Colectivo {
 	 * @return true si el pasajero subió con éxito, false en caso contrario.
 	 */
 	public boolean subirPasajero(Pasajero pasajero) {
-		if (pasajero == null || getCapacidadDisponible() <= 0 || this.pasajerosABordo.contains(pasajero)) {
+		if (pasajero == null || getCapacidadDisponible() <= 0) {
+			return false;
+		}
+		int destino = this.lineaAsignada.getIndiceParada(pasajero.getParadaDestino());
+		if (!agregarABordo(pasajero, destino)) {
 			return false;
 		}
 
@@ -110,8 +163,6 @@ public class Colectivo {
 		} else {
 			pasajero.setViajoSentado(false);
 		}
-		
-		this.pasajerosABordo.add(pasajero);
 		return true;
 	}
 
@@ -123,11 +174,60 @@ public class Colectivo {
 	public boolean bajarPasajero(Pasajero pasajero) {
 		if (pasajero == null) return false;
 
-		boolean removido = this.pasajerosABordo.remove(pasajero);
-		if (removido && pasajero.isViajoSentado()) {
+		int lugar = buscarLugar(pasajero.getAlmacen(), pasajero.getHandle());
+		if (lugar < 0) return false;
+
+		desenlazarDelGrupo(lugar);
+		desenlazarDelOrden(lugar);
+		if (this.almacenesLugar[lugar].viajoSentado(this.handlesLugar[lugar])) {
 			this.cantidadPasajerosSentados--;
 		}
-		return removido;
+		liberarLugar(lugar);
+		this.versionManifiesto++;
+		return true;
+	}
+
+	/**
+	 * Baja a los pasajeros cuyo destino es la parada actual. Solo recorre a esos
+	 * pasajeros, no a todos los que van a bordo.
+	 * @return Los pasajeros bajados, en orden de subida.
+	 */
+	public List<Pasajero> bajarPasajerosEnParadaActual() {
+		int grupo = this.lineaAsignada.getIndiceParada(this.paradaActual) + 1;
+		if (grupo <= 0 || grupo >= this.primeroDeGrupo.length || this.primeroDeGrupo[grupo] < 0) {
+			return new ArrayList<>();
+		}
+		List<Pasajero> bajados = new ArrayList<>();
+		int lugar = this.primeroDeGrupo[grupo];
+		while (lugar >= 0) {
+			int siguiente = this.siguienteEnGrupo[lugar];
+			AlmacenPasajeros almacen = this.almacenesLugar[lugar];
+			int handle = this.handlesLugar[lugar];
+			bajados.add(almacen.vista(handle));
+			if (almacen.viajoSentado(handle)) {
+				this.cantidadPasajerosSentados--;
+			}
+			desenlazarDelOrden(lugar);
+			liberarLugar(lugar);
+			lugar = siguiente;
+		}
+		// Solo se tocan los lugares del grupo; el resto del manifiesto queda igual.
+		this.primeroDeGrupo[grupo] = -1;
+		this.ultimoDeGrupo[grupo] = -1;
+		this.versionManifiesto++;
+		return bajados;
+	}
+
+	/**
+	 * Baja a todos los pasajeros a bordo.
+	 * @return Los pasajeros bajados, en orden de subida.
+	 */
+	public List<Pasajero> bajarTodosLosPasajeros() {
+		List<Pasajero> bajados = getPasajerosABordo();
+		vaciarManifiesto();
+		this.cantidadPasajerosSentados = 0;
+		this.versionManifiesto++;
+		return bajados;
 	}
 
 	/**
@@ -137,7 +237,7 @@ public class Colectivo {
 		if (estaEnTerminal()) return;
 		
 		this.indiceParadaActualEnRecorrido++;
-		this.paradaActual = this.lineaAsignada.getRecorrido().get(this.indiceParadaActualEnRecorrido);
+		this.paradaActual = this.lineaAsignada.getParadaPorIndice(this.indiceParadaActualEnRecorrido);
 	}
 
 	/**
@@ -145,8 +245,8 @@ public class Colectivo {
 	 */
 	public void reiniciarParaNuevoRecorrido() {
 		this.indiceParadaActualEnRecorrido = 0;
-		if (this.lineaAsignada.getRecorrido() != null && !this.lineaAsignada.getRecorrido().isEmpty()) {
-			this.paradaActual = this.lineaAsignada.getRecorrido().get(0);
+		if (this.lineaAsignada.getCantidadParadas() > 0) {
+			this.paradaActual = this.lineaAsignada.getPrimeraParada();
 		}
 	}
 	
@@ -158,6 +258,36 @@ public class Colectivo {
 		this.recorridosRestantes--;
 	}
 
+	/**
+	 * Restaura el estado de viaje del colectivo, por ejemplo desde un checkpoint.
+	 * Los pasajeros se vuelven a subir en el orden dado, conservando si viajaban
+	 * sentados.
+	 *
+	 * @param indiceParada Índice de la parada actual en el recorrido (-1 si la línea no tiene paradas).
+	 * @param aBordo Pasajeros a bordo, en orden de subida.
+	 * @throws IllegalArgumentException si los pasajeros superan la capacidad.
+	 */
+	public void restaurarEstado(int indiceParada, int recorridoActual, int recorridosRestantes, int pasoDeSalida,
+			String estado, Collection<Pasajero> aBordo) {
+		if (aBordo.size() > this.capacidadMaxima) {
+			throw new IllegalArgumentException("Los pasajeros a bordo superan la capacidad del colectivo " + this.idColectivo + ".");
+		}
+		this.indiceParadaActualEnRecorrido = indiceParada;
+		this.paradaActual = (indiceParada >= 0) ? this.lineaAsignada.getParadaPorIndice(indiceParada) : null;
+		this.recorridoActual = recorridoActual;
+		this.recorridosRestantes = recorridosRestantes;
+		this.pasoDeSalida = pasoDeSalida;
+		this.estado = estado;
+
+		bajarTodosLosPasajeros();
+		for (Pasajero pasajero : aBordo) {
+			int destino = this.lineaAsignada.getIndiceParada(pasajero.getParadaDestino());
+			if (agregarABordo(pasajero, destino) && pasajero.isViajoSentado()) {
+				this.cantidadPasajerosSentados++;
+			}
+		}
+	}
+
 	// ... (El resto de la clase, getters, setters, etc., permanece igual que en la versión anterior) ...
 
 	// =================================================================================
@@ -165,10 +295,11 @@ public class Colectivo {
 	// =================================================================================
 
 	public boolean estaEnTerminal() {
-		if (this.paradaActual == null || this.lineaAsignada.getRecorrido().isEmpty()) {
+		int cantidadParadas = this.lineaAsignada.getCantidadParadas();
+		if (this.paradaActual == null || cantidadParadas == 0) {
 			return true;
 		}
-		return this.indiceParadaActualEnRecorrido >= this.lineaAsignada.getRecorrido().size() - 1;
+		return this.indiceParadaActualEnRecorrido >= cantidadParadas - 1;
 	}
 
 	public int getAsientosDisponibles() {
@@ -204,6 +335,187 @@ public class Colectivo {
 		return sb.toString();
 	}
 
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	/**
+	 * Anota al pasajero en el manifiesto, sin tocar los asientos.
+	 * @param destino Índice del destino del pasajero en el recorrido (-1 si no está).
+	 * @return false si ya estaba a bordo.
+	 */
+	private boolean agregarABordo(Pasajero pasajero, int destino) {
+		AlmacenPasajeros almacen = pasajero.getAlmacen();
+		int handle = pasajero.getHandle();
+		if (buscarLugar(almacen, handle) >= 0) {
+			return false;
+		}
+
+		int lugar = ocuparLugar();
+		this.handlesLugar[lugar] = handle;
+		this.almacenesLugar[lugar] = almacen;
+		int grupo = destino + 1;
+		this.grupoLugar[lugar] = grupo;
+
+		// Al final del orden de subida...
+		this.anteriorABordo[lugar] = this.ultimoABordo;
+		this.siguienteABordo[lugar] = -1;
+		if (this.ultimoABordo >= 0) this.siguienteABordo[this.ultimoABordo] = lugar;
+		else this.primeroABordo = lugar;
+		this.ultimoABordo = lugar;
+
+		// ...y al final de su grupo de destino.
+		asegurarGrupo(grupo);
+		this.anteriorEnGrupo[lugar] = this.ultimoDeGrupo[grupo];
+		this.siguienteEnGrupo[lugar] = -1;
+		if (this.ultimoDeGrupo[grupo] >= 0) this.siguienteEnGrupo[this.ultimoDeGrupo[grupo]] = lugar;
+		else this.primeroDeGrupo[grupo] = lugar;
+		this.ultimoDeGrupo[grupo] = lugar;
+
+		indexar(lugar);
+		this.cantidadABordo++;
+		this.versionManifiesto++;
+		return true;
+	}
+
+	private void desenlazarDelOrden(int lugar) {
+		int anterior = this.anteriorABordo[lugar];
+		int siguiente = this.siguienteABordo[lugar];
+		if (anterior >= 0) this.siguienteABordo[anterior] = siguiente;
+		else this.primeroABordo = siguiente;
+		if (siguiente >= 0) this.anteriorABordo[siguiente] = anterior;
+		else this.ultimoABordo = anterior;
+	}
+
+	private void desenlazarDelGrupo(int lugar) {
+		int grupo = this.grupoLugar[lugar];
+		int anterior = this.anteriorEnGrupo[lugar];
+		int siguiente = this.siguienteEnGrupo[lugar];
+		if (anterior >= 0) this.siguienteEnGrupo[anterior] = siguiente;
+		else this.primeroDeGrupo[grupo] = siguiente;
+		if (siguiente >= 0) this.anteriorEnGrupo[siguiente] = anterior;
+		else this.ultimoDeGrupo[grupo] = anterior;
+	}
+
+	/** Devuelve un lugar libre del manifiesto, creando más si hace falta. */
+	private int ocuparLugar() {
+		if (this.lugarLibre >= 0) {
+			int lugar = this.lugarLibre;
+			this.lugarLibre = this.siguienteABordo[lugar];
+			return lugar;
+		}
+		if (this.lugaresUsados == this.handlesLugar.length) {
+			crearLugares(Math.max(4, this.lugaresUsados * 2));
+		}
+		return this.lugaresUsados++;
+	}
+
+	/** Saca al lugar del índice y lo devuelve a la lista de libres (ya debe estar fuera de las listas). */
+	private void liberarLugar(int lugar) {
+		desindexar(lugar);
+		this.almacenesLugar[lugar] = null;
+		this.siguienteABordo[lugar] = this.lugarLibre;
+		this.lugarLibre = lugar;
+		this.cantidadABordo--;
+	}
+
+	/** Deja el manifiesto vacío, sin retener almacenes. */
+	private void vaciarManifiesto() {
+		Arrays.fill(this.almacenesLugar, 0, this.lugaresUsados, null);
+		Arrays.fill(this.indiceLugares, 0);
+		Arrays.fill(this.primeroDeGrupo, -1);
+		Arrays.fill(this.ultimoDeGrupo, -1);
+		this.primeroABordo = -1;
+		this.ultimoABordo = -1;
+		this.lugarLibre = -1;
+		this.lugaresUsados = 0;
+		this.cantidadABordo = 0;
+	}
+
+	/** Agranda los arreglos de lugares (conservando los ocupados) y rearma el índice. */
+	private void crearLugares(int capacidad) {
+		if (this.handlesLugar == null) {
+			this.handlesLugar = new int[capacidad];
+			this.almacenesLugar = new AlmacenPasajeros[capacidad];
+			this.grupoLugar = new int[capacidad];
+			this.siguienteABordo = new int[capacidad];
+			this.anteriorABordo = new int[capacidad];
+			this.siguienteEnGrupo = new int[capacidad];
+			this.anteriorEnGrupo = new int[capacidad];
+		} else {
+			this.handlesLugar = Arrays.copyOf(this.handlesLugar, capacidad);
+			this.almacenesLugar = Arrays.copyOf(this.almacenesLugar, capacidad);
+			this.grupoLugar = Arrays.copyOf(this.grupoLugar, capacidad);
+			this.siguienteABordo = Arrays.copyOf(this.siguienteABordo, capacidad);
+			this.anteriorABordo = Arrays.copyOf(this.anteriorABordo, capacidad);
+			this.siguienteEnGrupo = Arrays.copyOf(this.siguienteEnGrupo, capacidad);
+			this.anteriorEnGrupo = Arrays.copyOf(this.anteriorEnGrupo, capacidad);
+		}
+		// El índice tiene al menos el doble de celdas que lugares, en potencia de 2.
+		this.indiceLugares = new int[Integer.highestOneBit(Math.max(2, capacidad)) << 2];
+		for (int lugar = this.primeroABordo; lugar >= 0; lugar = this.siguienteABordo[lugar]) {
+			indexar(lugar);
+		}
+	}
+
+	/** Asegura que exista el grupo de destino dado. */
+	private void asegurarGrupo(int grupo) {
+		if (grupo < this.primeroDeGrupo.length) return;
+		int anterior = this.primeroDeGrupo.length;
+		int capacidad = Math.max(grupo + 1, Math.max(4, anterior * 2));
+		this.primeroDeGrupo = Arrays.copyOf(this.primeroDeGrupo, capacidad);
+		this.ultimoDeGrupo = Arrays.copyOf(this.ultimoDeGrupo, capacidad);
+		Arrays.fill(this.primeroDeGrupo, anterior, capacidad, -1);
+		Arrays.fill(this.ultimoDeGrupo, anterior, capacidad, -1);
+	}
+
+	// --- Índice por (almacén, handle), con sondeo lineal ---
+
+	private int celdaInicial(AlmacenPasajeros almacen, int handle) {
+		int h = (System.identityHashCode(almacen) * 31 + handle) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (this.indiceLugares.length - 1);
+	}
+
+	/** Lugar del pasajero en el manifiesto, o -1 si no va a bordo. */
+	private int buscarLugar(AlmacenPasajeros almacen, int handle) {
+		int mascara = this.indiceLugares.length - 1;
+		for (int celda = celdaInicial(almacen, handle); ; celda = (celda + 1) & mascara) {
+			int entrada = this.indiceLugares[celda];
+			if (entrada == 0) return -1;
+			int lugar = entrada - 1;
+			if (this.handlesLugar[lugar] == handle && this.almacenesLugar[lugar] == almacen) return lugar;
+		}
+	}
+
+	private void indexar(int lugar) {
+		int mascara = this.indiceLugares.length - 1;
+		int celda = celdaInicial(this.almacenesLugar[lugar], this.handlesLugar[lugar]);
+		while (this.indiceLugares[celda] != 0) {
+			celda = (celda + 1) & mascara;
+		}
+		this.indiceLugares[celda] = lugar + 1;
+	}
+
+	/** Quita el lugar del índice, corriendo hacia atrás las entradas que le siguen para no dejar huecos. */
+	private void desindexar(int lugar) {
+		int mascara = this.indiceLugares.length - 1;
+		int hueco = celdaInicial(this.almacenesLugar[lugar], this.handlesLugar[lugar]);
+		while (this.indiceLugares[hueco] != lugar + 1) {
+			hueco = (hueco + 1) & mascara;
+		}
+		for (int celda = (hueco + 1) & mascara; this.indiceLugares[celda] != 0; celda = (celda + 1) & mascara) {
+			int otro = this.indiceLugares[celda] - 1;
+			int inicial = celdaInicial(this.almacenesLugar[otro], this.handlesLugar[otro]);
+			// La entrada puede pasar al hueco si su celda inicial no está en (hueco, celda].
+			boolean enTramo = (hueco <= celda) ? (inicial > hueco && inicial <= celda) : (inicial > hueco || inicial <= celda);
+			if (!enTramo) {
+				this.indiceLugares[hueco] = this.indiceLugares[celda];
+				hueco = celda;
+			}
+		}
+		this.indiceLugares[hueco] = 0;
+	}
+
 	// =================================================================================
 	// GETTERS Y SETTERS
 	// =================================================================================
@@ -215,9 +527,16 @@ public class Colectivo {
 	public int getCapacidadParados() { return this.capacidadParados; }
 	public Parada getParadaActual() { return this.paradaActual; }
 	public int getIndiceParadaActualEnRecorrido() { return this.indiceParadaActualEnRecorrido; }
-	public int getCantidadPasajerosABordo() { return this.pasajerosABordo.size(); }
+	public int getCantidadPasajerosABordo() { return this.cantidadABordo; }
 	public int getCapacidadDisponible() { return this.capacidadMaxima - getCantidadPasajerosABordo(); }
-	public List<Pasajero> getPasajerosABordo() { return new ArrayList<>(this.pasajerosABordo); }
+	public List<Pasajero> getPasajerosABordo() { return new ArrayList<>(this.pasajerosABordoVista); }
+	/** Vista de solo lectura (sin copia) de los pasajeros a bordo, en orden de subida. */
+	public Collection<Pasajero> getPasajerosABordoVista() { return this.pasajerosABordoVista; }
+	/**
+	 * Contador que cambia cada vez que sube o baja alguien. Sirve para saber si el
+	 * manifiesto cambió desde la última vez que se lo guardó.
+	 */
+	public int getVersionManifiesto() { return this.versionManifiesto; }
 	public int getRecorridoActual() { return this.recorridoActual; }
 	public int getRecorridosRestantes() { return this.recorridosRestantes; }
 	public String getEstado() { return this.estado; }
@@ -225,6 +544,40 @@ public class Colectivo {
 	public int getPasoDeSalida() { return this.pasoDeSalida; }
 	public void setPasoDeSalida(int pasoDeSalida) { this.pasoDeSalida = pasoDeSalida; }
 	
+	// =================================================================================
+	// CLASES INTERNAS
+	// =================================================================================
+
+	/** Vista de solo lectura del manifiesto; crea las vistas de los pasajeros al recorrerla. */
+	private final class PasajerosABordo extends AbstractCollection<Pasajero> {
+		@Override
+		public int size() {
+			return Colectivo.this.cantidadABordo;
+		}
+
+		@Override
+		public Iterator<Pasajero> iterator() {
+			return new Iterator<Pasajero>() {
+				private int lugar = Colectivo.this.primeroABordo;
+				private final int version = Colectivo.this.versionManifiesto;
+
+				@Override
+				public boolean hasNext() {
+					return this.lugar >= 0;
+				}
+
+				@Override
+				public Pasajero next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					if (this.version != Colectivo.this.versionManifiesto) throw new ConcurrentModificationException();
+					int actual = this.lugar;
+					this.lugar = Colectivo.this.siguienteABordo[actual];
+					return Colectivo.this.almacenesLugar[actual].vista(Colectivo.this.handlesLugar[actual]);
+				}
+			};
+		}
+	}
+
 	// =================================================================================
 	// MÉTODOS SOBREESCRITOS (Object)
 	// =================================================================================
@@ -1,7 +1,10 @@
 package proyectointegrador.modelo;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -12,7 +15,7 @@ import java.util.stream.Collectors;
  * @author Miyo
  * @author Enzo
  * 
- * @version 1.2
+ * @version 1.4
  */
 public class Linea {
 
@@ -26,6 +29,18 @@ public class Linea {
 	private final String nombre;
 	/** Secuencia ordenada de paradas que componen el recorrido de la línea. */
 	private final List<Parada> recorrido;
+	/** Vista de solo lectura del recorrido, para consultas sin copia. */
+	private final List<Parada> recorridoVista;
+	/**
+	 * Posición de cada parada en el recorrido (la primera, si aparece más de una
+	 * vez). Se mantiene al agregar paradas, para responder posiciones en O(1).
+	 */
+	private final Map<Parada, Integer> indicesPorParada;
+	/**
+	 * Destinos servidos desde cada posición del recorrido, calculados la primera
+	 * vez que se piden (null mientras no se pidan o si el recorrido cambió).
+	 */
+	private volatile DestinosPosteriores destinosPosteriores;
 
 	// =================================================================================
 	// CONSTRUCTOR
@@ -48,6 +63,8 @@ public class Linea {
 		this.id = id;
 		this.nombre = nombre;
 		this.recorrido = new ArrayList<>();
+		this.recorridoVista = Collections.unmodifiableList(this.recorrido);
+		this.indicesPorParada = new HashMap<>();
 	}
 
 	// =================================================================================
@@ -68,7 +85,9 @@ public class Linea {
 		if (!this.recorrido.isEmpty() && this.recorrido.get(this.recorrido.size() - 1).equals(parada)) {
 			return;
 		}
+		this.indicesPorParada.putIfAbsent(parada, this.recorrido.size());
 		this.recorrido.add(parada);
+		this.destinosPosteriores = null;
 	}
 
 	// =================================================================================
@@ -83,7 +102,7 @@ public class Linea {
 	 *         contrario.
 	 */
 	public boolean tieneParadaEnRecorrido(Parada parada) {
-		return parada != null && this.recorrido.contains(parada);
+		return parada != null && this.indicesPorParada.containsKey(parada);
 	}
 
 	/**
@@ -134,8 +153,27 @@ public class Linea {
 		return new ArrayList<>(this.recorrido);
 	}
 
+	/**
+	 * Devuelve una vista de solo lectura del recorrido, sin copiarlo. Refleja las
+	 * paradas que se agreguen después. Pensada para el código que consulta el
+	 * recorrido en cada paso; para una copia modificable, usar {@link #getRecorrido()}.
+	 */
+	public List<Parada> getRecorridoVista() {
+		return this.recorridoVista;
+	}
+
+	public int getCantidadParadas() {
+		return this.recorrido.size();
+	}
+
+	/**
+	 * Devuelve la posición de una parada en el recorrido en O(1).
+	 * @return La posición (la primera, si la parada aparece más de una vez), o -1 si no está.
+	 */
 	public int getIndiceParada(Parada parada) {
-		return parada == null ? -1 : this.recorrido.indexOf(parada);
+		if (parada == null) return -1;
+		Integer indice = this.indicesPorParada.get(parada);
+		return (indice != null) ? indice : -1;
 	}
 
 	/**
@@ -154,6 +192,23 @@ public class Linea {
 		return this.recorrido.get(indice);
 	}
 
+	/**
+	 * Destinos a los que se puede viajar desde cada posición del recorrido: las
+	 * paradas posteriores a la primera aparición de la parada de esa posición,
+	 * tomando cada parada en su primera aparición (como {@link #getIndiceParada}).
+	 * Se calcula una sola vez para todo el recorrido; solo lo usa la parada al
+	 * atender a un colectivo.
+	 */
+	DestinosPosteriores destinosPosteriores() {
+		DestinosPosteriores destinos = this.destinosPosteriores;
+		if (destinos == null) {
+			// Si dos hilos lo calculan a la vez, ambos obtienen lo mismo
+			destinos = new DestinosPosteriores(this.recorrido, this.indicesPorParada);
+			this.destinosPosteriores = destinos;
+		}
+		return destinos;
+	}
+
 	public Parada getPrimeraParada() {
 		return this.recorrido.isEmpty() ? null : this.recorrido.get(0);
 	}
@@ -162,6 +217,44 @@ public class Linea {
 		return this.recorrido.isEmpty() ? null : this.recorrido.get(this.recorrido.size() - 1);
 	}
 
+	// =================================================================================
+	// CLASE ANIDADA
+	// =================================================================================
+
+	/**
+	 * Las paradas del recorrido en su primera aparición, en orden. Los destinos
+	 * servidos desde una posición son siempre un sufijo de ese arreglo, así que
+	 * alcanza con guardar dónde empieza el sufijo de cada posición.
+	 */
+	static final class DestinosPosteriores {
+		private final Parada[] destinos;
+		private final int[] desde;
+
+		private DestinosPosteriores(List<Parada> recorrido, Map<Parada, Integer> indicesPorParada) {
+			int n = recorrido.size();
+			// primerasHasta[k]: paradas en primera aparición en las posiciones 0..k
+			int[] primerasHasta = new int[n];
+			List<Parada> primeras = new ArrayList<>(n);
+			for (int k = 0; k < n; k++) {
+				if (indicesPorParada.get(recorrido.get(k)) == k) {
+					primeras.add(recorrido.get(k));
+				}
+				primerasHasta[k] = primeras.size();
+			}
+			this.destinos = primeras.toArray(new Parada[0]);
+			this.desde = new int[n];
+			for (int i = 0; i < n; i++) {
+				this.desde[i] = primerasHasta[indicesPorParada.get(recorrido.get(i))];
+			}
+		}
+
+		/** Paradas en primera aparición, en orden de recorrido. */
+		Parada[] destinos() { return this.destinos; }
+
+		/** Primer índice de {@link #destinos()} servido desde la posición dada. */
+		int desde(int posicion) { return this.desde[posicion]; }
+	}
+
 	// =================================================================================
 	// MÉTODOS SOBREESCRITOS (Object)
 	// =================================================================================
@@ -0,0 +1,194 @@
+package proyectointegrador.modelo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Lista compacta de pasajeros: guarda, por posición, solo el handle del pasajero
+ * en su {@link AlmacenPasajeros}, y no una vista por pasajero.
+ * <p>
+ * Mientras todos los pasajeros vienen del mismo almacén (el caso del generador),
+ * la lista ocupa un {@code int} por pasajero. Si se agrega un pasajero de otro
+ * almacén, desde ahí se guarda además el almacén de cada posición. Las vistas
+ * {@link Pasajero} se crean solo al pedirlas con {@link #get(int)}; quien recorre
+ * muchos pasajeros puede leer las columnas del almacén con {@link #almacen(int)}
+ * y {@link #handle(int)}.
+ * <p>
+ * Solo admite agregar al final y vaciar. No es segura entre hilos.
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public final class ListaPasajeros extends AbstractList<Pasajero> implements RandomAccess {
+
+	// =================================================================================
+	// CONSTANTES Y ATRIBUTOS
+	// =================================================================================
+
+	private static final int CAPACIDAD_INICIAL = 16;
+
+	private int[] handles;
+	/** Almacén común de los pasajeros (null mientras la lista está vacía). */
+	private AlmacenPasajeros almacen;
+	/** Almacén de cada posición; se crea solo si la lista mezcla almacenes. */
+	private AlmacenPasajeros[] almacenes;
+	private int tamanio;
+
+	// =================================================================================
+	// CONSTRUCTORES
+	// =================================================================================
+
+	public ListaPasajeros() {
+		this(CAPACIDAD_INICIAL);
+	}
+
+	/**
+	 * @param capacidadInicial Cantidad de pasajeros para la que se reserva lugar.
+	 */
+	public ListaPasajeros(int capacidadInicial) {
+		if (capacidadInicial < 0) {
+			throw new IllegalArgumentException("La capacidad inicial no puede ser negativa.");
+		}
+		this.handles = new int[capacidadInicial];
+	}
+
+	// =================================================================================
+	// MÉTODOS DE ALTA
+	// =================================================================================
+
+	/**
+	 * Agrega un pasajero al final de la lista.
+	 * @throws IllegalArgumentException si el almacén es nulo.
+	 */
+	public void agregar(AlmacenPasajeros almacenPasajero, int handle) {
+		if (almacenPasajero == null) {
+			throw new IllegalArgumentException("El almacén no puede ser nulo.");
+		}
+		asegurarCapacidad(this.tamanio + 1);
+		anotarAlmacen(almacenPasajero, this.tamanio, 1);
+		this.handles[this.tamanio++] = handle;
+	}
+
+	/**
+	 * Agrega al final los handles {@code desde} (incluido) a {@code hasta} (excluido)
+	 * de un almacén, en orden.
+	 * @throws IllegalArgumentException si el almacén es nulo o el rango es inválido.
+	 */
+	public void agregarRango(AlmacenPasajeros almacenPasajeros, int desde, int hasta) {
+		if (almacenPasajeros == null) {
+			throw new IllegalArgumentException("El almacén no puede ser nulo.");
+		}
+		if (desde < 0 || hasta < desde) {
+			throw new IllegalArgumentException("Rango de handles inválido: [" + desde + ", " + hasta + ").");
+		}
+		int cantidad = hasta - desde;
+		asegurarCapacidad(this.tamanio + cantidad);
+		anotarAlmacen(almacenPasajeros, this.tamanio, cantidad);
+		for (int h = desde; h < hasta; h++) {
+			this.handles[this.tamanio++] = h;
+		}
+	}
+
+	/** Deja en la lista solo sus primeros {@code tamanioNuevo} pasajeros. */
+	public void recortar(int tamanioNuevo) {
+		if (tamanioNuevo < 0 || tamanioNuevo > this.tamanio) {
+			throw new IndexOutOfBoundsException("Tamaño inválido: " + tamanioNuevo);
+		}
+		if (this.almacenes != null) {
+			Arrays.fill(this.almacenes, tamanioNuevo, this.tamanio, null);
+		}
+		this.tamanio = tamanioNuevo;
+		this.modCount++;
+		if (tamanioNuevo == 0) {
+			this.almacen = null;
+			this.almacenes = null;
+		}
+	}
+
+	// =================================================================================
+	// CONSULTAS
+	// =================================================================================
+
+	public int handle(int indice) {
+		verificarIndice(indice);
+		return this.handles[indice];
+	}
+
+	public AlmacenPasajeros almacen(int indice) {
+		verificarIndice(indice);
+		return (this.almacenes != null) ? this.almacenes[indice] : this.almacen;
+	}
+
+	/**
+	 * Devuelve el almacén de todos los pasajeros de la lista, o null si la lista
+	 * está vacía o mezcla almacenes.
+	 */
+	public AlmacenPasajeros getAlmacenUnico() {
+		return (this.almacenes == null) ? this.almacen : null;
+	}
+
+	// =================================================================================
+	// MÉTODOS SOBREESCRITOS (List)
+	// =================================================================================
+
+	/** Devuelve una vista nueva del pasajero de esa posición. */
+	@Override
+	public Pasajero get(int indice) {
+		return almacen(indice).vista(this.handles[indice]);
+	}
+
+	@Override
+	public int size() {
+		return this.tamanio;
+	}
+
+	@Override
+	public boolean add(Pasajero pasajero) {
+		if (pasajero == null) {
+			throw new IllegalArgumentException("El pasajero no puede ser nulo.");
+		}
+		agregar(pasajero.getAlmacen(), pasajero.getHandle());
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		recortar(0);
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS
+	// =================================================================================
+
+	/** Anota el almacén de las posiciones [desde, desde + cantidad), pasando a guardar uno por posición si hace falta. */
+	private void anotarAlmacen(AlmacenPasajeros almacenNuevo, int desde, int cantidad) {
+		this.modCount++;
+		if (this.almacen == null) {
+			this.almacen = almacenNuevo;
+		}
+		if (this.almacenes == null && almacenNuevo != this.almacen) {
+			this.almacenes = new AlmacenPasajeros[this.handles.length];
+			Arrays.fill(this.almacenes, 0, desde, this.almacen);
+		}
+		if (this.almacenes != null) {
+			Arrays.fill(this.almacenes, desde, desde + cantidad, almacenNuevo);
+		}
+	}
+
+	private void asegurarCapacidad(int minima) {
+		if (minima <= this.handles.length) return;
+		int nueva = Math.max(minima, Math.max(CAPACIDAD_INICIAL, this.handles.length + (this.handles.length >> 1)));
+		this.handles = Arrays.copyOf(this.handles, nueva);
+		if (this.almacenes != null) {
+			this.almacenes = Arrays.copyOf(this.almacenes, nueva);
+		}
+	}
+
+	private void verificarIndice(int indice) {
+		if (indice < 0 || indice >= this.tamanio) {
+			throw new IndexOutOfBoundsException("Índice: " + indice + ", tamaño: " + this.tamanio);
+		}
+	}
+}
@@ -1,18 +1,29 @@
 package proyectointegrador.modelo;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.function.Predicate;
 
 /**
  * Representa una parada de colectivo. Cada parada tiene un identificador único,
  * una dirección, coordenadas geográficas y gestiona una cola de pasajeros en
  * espera y sus propias estadísticas básicas.
+ * <p>
+ * Los pasajeros en espera se agrupan por parada de destino, manteniendo el orden
+ * de llegada, para que un colectivo atienda solo a los que le sirven sin recorrer
+ * ni copiar toda la cola. Las colas guardan el handle de cada pasajero en su
+ * {@link AlmacenPasajeros}; las vistas {@link Pasajero} se crean solo al
+ * ofrecer el abordaje o al devolver pasajeros.
  *
  * @author Miyo
  * @author Enzo
  * 
- * @version 1.1
+ * @version 1.8
  */
 public class Parada {
 
@@ -28,12 +39,31 @@ public class Parada {
 	private final double latitud;
 	/** Coordenada geográfica de longitud. */
 	private final double longitud;
-	/** Cola de pasajeros que se encuentran esperando en esta parada. */
-	private final Queue<Pasajero> pasajerosEsperando;
+	/**
+	 * Pasajeros esperando, agrupados por parada de destino. Cada grupo mantiene el
+	 * orden de llegada; el orden entre grupos se reconstruye con el número de llegada.
+	 */
+	private final Map<Parada, ColaDestino> esperaPorDestino;
+	/** Número de llegada del próximo pasajero que se agregue. */
+	private long proximaLlegada;
+	/** Cantidad total de pasajeros esperando. */
+	private int cantidadEsperando;
+	/** Cuenta los cambios de la cola y de las estadísticas (ver {@link #getVersionEstado()}). */
+	private int versionEstado;
+
+	// --- Buffers reutilizables para mezclar las colas al atender un colectivo ---
+	/** Colas de los destinos que sirven al colectivo que se está atendiendo. */
+	private ColaDestino[] colasAtendidas;
+	/** Próximo pasajero a ofrecer de cada cola atendida. */
+	private int[] cursores;
+	/** Heap de índices de cola, ordenado por el número de llegada de su próximo pasajero. */
+	private int[] monticulo;
 
 	// --- Atributos de Estadísticas ---
-	/** Tiempo promedio de espera de los pasajeros que abordaron en esta parada. */
+	/** Tiempo promedio de espera (en pasos) de los pasajeros que abordaron en esta parada. */
 	private double tiempoEsperaPromedio;
+	/** Cantidad de esperas incluidas en el promedio. */
+	private long esperasRegistradas;
 	/** Cantidad total de pasajeros que han abordado en esta parada. */
 	private int pasajerosAbordados;
 	/** Cantidad total de colectivos que han pasado por esta parada. */
@@ -62,8 +92,11 @@ public class Parada {
 		this.direccion = direccion;
 		this.latitud = latitud;
 		this.longitud = longitud;
-		this.pasajerosEsperando = new LinkedList<>();
+		this.esperaPorDestino = new HashMap<>();
+		this.proximaLlegada = 0;
+		this.cantidadEsperando = 0;
 		this.tiempoEsperaPromedio = 0.0;
+		this.esperasRegistradas = 0;
 		this.pasajerosAbordados = 0;
 		this.colectivosPasados = 0;
 	}
@@ -90,7 +123,53 @@ public class Parada {
 		if (pasajero == null) {
 			throw new IllegalArgumentException("No se puede agregar un pasajero nulo a la parada.");
 		}
-		this.pasajerosEsperando.offer(pasajero);
+		agregarPasajero(pasajero.getAlmacen(), pasajero.getHandle());
+	}
+
+	/**
+	 * Añade a la cola de espera el pasajero guardado en un almacén, sin crear su vista.
+	 * @param almacen El almacén del pasajero (no puede ser nulo).
+	 * @param handle  El handle del pasajero en el almacén.
+	 */
+	public void agregarPasajero(AlmacenPasajeros almacen, int handle) {
+		if (almacen == null) {
+			throw new IllegalArgumentException("No se puede agregar un pasajero sin almacén a la parada.");
+		}
+		this.esperaPorDestino.computeIfAbsent(almacen.destino(handle), k -> new ColaDestino())
+				.agregar(almacen, handle, this.proximaLlegada++);
+		this.cantidadEsperando++;
+		this.versionEstado++;
+	}
+
+	/**
+	 * Añade a la cola de espera, en orden, los pasajeros de un almacén con los
+	 * handles {@code handles[desde]} a {@code handles[hasta - 1]}. Equivale a
+	 * agregarlos uno por uno, pero resuelve la cola de cada destino una vez por
+	 * tramo de pasajeros con el mismo destino y cuenta el cambio una sola vez.
+	 *
+	 * @param almacen El almacén de los pasajeros (no puede ser nulo).
+	 * @throws IllegalArgumentException si el almacén es nulo o el rango es inválido.
+	 */
+	public void agregarPasajeros(AlmacenPasajeros almacen, int[] handles, int desde, int hasta) {
+		if (almacen == null) {
+			throw new IllegalArgumentException("No se pueden agregar pasajeros sin almacén a la parada.");
+		}
+		if (desde < 0 || hasta > handles.length || hasta < desde) {
+			throw new IllegalArgumentException("Rango de pasajeros inválido: [" + desde + ", " + hasta + ").");
+		}
+		if (desde == hasta) return;
+		int indiceDestino = -1;
+		ColaDestino cola = null;
+		for (int i = desde; i < hasta; i++) {
+			int handle = handles[i];
+			if (almacen.indiceDestino(handle) != indiceDestino) {
+				indiceDestino = almacen.indiceDestino(handle);
+				cola = this.esperaPorDestino.computeIfAbsent(almacen.paradaPorIndice(indiceDestino), k -> new ColaDestino());
+			}
+			cola.agregar(almacen, handle, this.proximaLlegada++);
+		}
+		this.cantidadEsperando += hasta - desde;
+		this.versionEstado++;
 	}
 
 	/**
@@ -98,7 +177,11 @@ public class Parada {
 	 * @return El siguiente pasajero, o null si la cola está vacía.
 	 */
 	public Pasajero removerSiguientePasajero() {
-		return this.pasajerosEsperando.poll();
+		ColaDestino cola = colaConPrimerPasajero();
+		if (cola == null) return null;
+		this.cantidadEsperando--;
+		this.versionEstado++;
+		return cola.removerPrimero();
 	}
 
 	/**
@@ -106,7 +189,8 @@ public class Parada {
 	 * @return El siguiente pasajero, o null si la cola está vacía.
 	 */
 	public Pasajero peekSiguientePasajero() {
-		return this.pasajerosEsperando.peek();
+		ColaDestino cola = colaConPrimerPasajero();
+		return (cola == null) ? null : cola.primero();
 	}
 	
 	/**
@@ -114,7 +198,7 @@ public class Parada {
 	 * @return true si hay pasajeros esperando, false en caso contrario.
 	 */
 	public boolean hayPasajerosEsperando() {
-		return !this.pasajerosEsperando.isEmpty();
+		return this.cantidadEsperando > 0;
 	}
 
 	/**
@@ -122,7 +206,50 @@ public class Parada {
 	 * @return El número de pasajeros en la cola.
 	 */
 	public int cantidadPasajerosEsperando() {
-		return this.pasajerosEsperando.size();
+		return this.cantidadEsperando;
+	}
+
+	/**
+	 * Ofrece el abordaje a los pasajeros que viajan a alguno de los destinos dados,
+	 * en orden de llegada a la parada. Solo se recorren los pasajeros de esos
+	 * destinos; el resto de la cola no se toca.
+	 *
+	 * @param destinos Las paradas de destino que le sirven al colectivo.
+	 * @param abordaje Se invoca con cada pasajero; si devuelve true, el pasajero
+	 *                 subió y se quita de la cola.
+	 * @return La cantidad de pasajeros que subieron.
+	 */
+	public int atenderPasajerosHacia(Collection<Parada> destinos, Predicate<Pasajero> abordaje) {
+		if (this.cantidadEsperando == 0) return 0;
+		int cantidad = 0;
+		for (Parada destino : destinos) {
+			cantidad = agregarColaAtendida(destino, cantidad);
+		}
+		return atenderColas(cantidad, abordaje);
+	}
+
+	/**
+	 * Ofrece el abordaje a los pasajeros que viajan a una parada posterior del
+	 * recorrido de la línea, en orden de llegada a la parada. Equivale a
+	 * {@link #atenderPasajerosHacia(Collection, Predicate)} con las paradas que
+	 * siguen a la primera aparición de esta en el recorrido, pero usa los destinos
+	 * ya calculados por la línea, sin armar colecciones.
+	 *
+	 * @param linea    La línea del colectivo.
+	 * @param posicion La posición de esta parada en el recorrido de la línea.
+	 * @param abordaje Se invoca con cada pasajero; si devuelve true, el pasajero
+	 *                 subió y se quita de la cola.
+	 * @return La cantidad de pasajeros que subieron.
+	 */
+	public int atenderPasajerosDeLinea(Linea linea, int posicion, Predicate<Pasajero> abordaje) {
+		if (this.cantidadEsperando == 0) return 0;
+		Linea.DestinosPosteriores destinosPosteriores = linea.destinosPosteriores();
+		Parada[] destinos = destinosPosteriores.destinos();
+		int cantidad = 0;
+		for (int i = destinosPosteriores.desde(posicion); i < destinos.length; i++) {
+			cantidad = agregarColaAtendida(destinos[i], cantidad);
+		}
+		return atenderColas(cantidad, abordaje);
 	}
 
 	// =================================================================================
@@ -134,6 +261,23 @@ public class Parada {
 	 */
 	public void incrementarPasajerosAbordados() {
 		this.pasajerosAbordados++;
+		this.versionEstado++;
+	}
+
+	/**
+	 * Incorpora al promedio la espera de un pasajero que abordó en esta parada.
+	 * El promedio se actualiza en línea, sin guardar las esperas individuales.
+	 *
+	 * @param pasos Pasos de simulación que esperó el pasajero.
+	 * @throws IllegalArgumentException si la espera es negativa.
+	 */
+	public void registrarTiempoEspera(int pasos) {
+		if (pasos < 0) {
+			throw new IllegalArgumentException("El tiempo de espera no puede ser negativo.");
+		}
+		this.esperasRegistradas++;
+		this.tiempoEsperaPromedio += (pasos - this.tiempoEsperaPromedio) / this.esperasRegistradas;
+		this.versionEstado++;
 	}
 
 	/**
@@ -141,6 +285,28 @@ public class Parada {
 	 */
 	public void incrementarColectivosPasados() {
 		this.colectivosPasados++;
+		this.versionEstado++;
+	}
+
+	/**
+	 * Restaura las estadísticas y la cola de espera, por ejemplo desde un
+	 * checkpoint. La cola anterior se descarta.
+	 *
+	 * @param esperando Pasajeros en espera, en orden de llegada.
+	 */
+	public void restaurarEstado(double tiempoEsperaPromedio, long esperasRegistradas, int pasajerosAbordados,
+			int colectivosPasados, Collection<Pasajero> esperando) {
+		this.tiempoEsperaPromedio = tiempoEsperaPromedio;
+		this.esperasRegistradas = esperasRegistradas;
+		this.pasajerosAbordados = pasajerosAbordados;
+		this.colectivosPasados = colectivosPasados;
+		this.esperaPorDestino.clear();
+		this.proximaLlegada = 0;
+		this.cantidadEsperando = 0;
+		this.versionEstado++;
+		for (Pasajero pasajero : esperando) {
+			agregarPasajero(pasajero);
+		}
 	}
 
 
@@ -155,15 +321,281 @@ public class Parada {
 	public int getPasajerosAbordados() { return this.pasajerosAbordados; }
 	public int getColectivosPasados() { return this.colectivosPasados; }
 	public double getTiempoEsperaPromedio() { return this.tiempoEsperaPromedio; }
+	public long getEsperasRegistradas() { return this.esperasRegistradas; }
+	/**
+	 * Contador que cambia con cada cambio de la cola o de las estadísticas. Sirve
+	 * para saber si la parada cambió desde la última vez que se la guardó.
+	 */
+	public int getVersionEstado() { return this.versionEstado; }
 	
 	/**
-	 * Devuelve la cola de pasajeros esperando en la parada.
-	 * ADVERTENCIA: Devuelve la referencia original. Modificarla externamente afectará
-	 * el estado de la parada. Para una versión segura, ver getCopiaPasajerosEsperando().
+	 * Devuelve una copia de la cola de pasajeros esperando, en orden de llegada.
+	 * Modificarla no afecta a la parada; para eso, usar agregarPasajero(),
+	 * removerSiguientePasajero() o atenderPasajerosHacia().
 	 * @return la cola de pasajeros.
 	 */
 	public Queue<Pasajero> getPasajerosEsperando() {
-		return this.pasajerosEsperando;
+		Pasajero[] enOrden = new Pasajero[this.cantidadEsperando];
+		copiarEnOrdenDeLlegada(enOrden);
+		return new ArrayDeque<>(Arrays.asList(enOrden));
+	}
+
+	/**
+	 * Copia los pasajeros en espera al comienzo de {@code destino}, en orden de
+	 * llegada, sin armar una cola intermedia.
+	 *
+	 * @param destino Arreglo con lugar para {@link #cantidadPasajerosEsperando()} pasajeros.
+	 * @return La cantidad de pasajeros copiados.
+	 * @throws IllegalArgumentException si el arreglo no alcanza.
+	 */
+	public int copiarPasajerosEsperando(Pasajero[] destino) {
+		if (destino.length < this.cantidadEsperando) {
+			throw new IllegalArgumentException("El arreglo no alcanza para los " + this.cantidadEsperando + " pasajeros en espera.");
+		}
+		copiarEnOrdenDeLlegada(destino);
+		return this.cantidadEsperando;
+	}
+
+	// =================================================================================
+	// MÉTODOS PRIVADOS Y COLA POR DESTINO
+	// =================================================================================
+
+	/**
+	 * Suma a las colas atendidas la del destino dado, si tiene pasajeros.
+	 * @return La nueva cantidad de colas atendidas.
+	 */
+	private int agregarColaAtendida(Parada destino, int cantidad) {
+		return agregarColaAtendida(this.esperaPorDestino.get(destino), cantidad);
+	}
+
+	private int agregarColaAtendida(ColaDestino cola, int cantidad) {
+		if (cola == null || cola.tamanio() == 0) return cantidad;
+		if (this.colasAtendidas == null || cantidad == this.colasAtendidas.length) {
+			int capacidad = Math.max(4, cantidad * 2);
+			this.colasAtendidas = (this.colasAtendidas == null) ? new ColaDestino[capacidad] : Arrays.copyOf(this.colasAtendidas, capacidad);
+			this.cursores = new int[capacidad];
+			this.monticulo = new int[capacidad];
+		}
+		this.colasAtendidas[cantidad] = cola;
+		return cantidad + 1;
+	}
+
+	/**
+	 * Mezcla las colas atendidas por número de llegada y ofrece cada pasajero al
+	 * abordaje. Al terminar quita de las colas a los que subieron.
+	 */
+	private int atenderColas(int cantidad, Predicate<Pasajero> abordaje) {
+		if (cantidad == 0) return 0;
+		ColaDestino[] colas = this.colasAtendidas;
+		int[] cursor = this.cursores;
+		int[] heap = this.monticulo;
+		for (int c = 0; c < cantidad; c++) {
+			cursor[c] = 0;
+			heap[c] = c;
+		}
+		for (int i = cantidad / 2 - 1; i >= 0; i--) {
+			hundir(heap, i, cantidad);
+		}
+
+		int subidos = 0;
+		int enMonticulo = cantidad;
+		while (enMonticulo > 0) {
+			int c = heap[0];
+			ColaDestino cola = colas[c];
+			if (abordaje.test(cola.pasajero(cursor[c]))) {
+				cola.marcarSubido(cursor[c]);
+				subidos++;
+			}
+			if (++cursor[c] >= cola.tamanio()) {
+				heap[0] = heap[--enMonticulo]; // Cola agotada: sale del heap
+			}
+			if (enMonticulo > 0) hundir(heap, 0, enMonticulo);
+		}
+
+		for (int c = 0; c < cantidad; c++) {
+			if (subidos > 0) colas[c].quitarSubidos();
+			colas[c] = null; // No retener colas entre colectivos
+		}
+		if (subidos > 0) {
+			this.cantidadEsperando -= subidos;
+			this.versionEstado++;
+		}
+		return subidos;
+	}
+
+	/**
+	 * Copia toda la cola a {@code destino} en orden de llegada. Cada cola por
+	 * destino ya está en orden; para mezclarlas se ordena un único arreglo de long
+	 * con el número de llegada en los bits altos y la cola en los bajos.
+	 */
+	private void copiarEnOrdenDeLlegada(Pasajero[] destino) {
+		int cantidad = 0;
+		for (ColaDestino cola : this.esperaPorDestino.values()) {
+			cantidad = agregarColaAtendida(cola, cantidad);
+		}
+		if (cantidad == 0) return;
+		int bits = 32 - Integer.numberOfLeadingZeros(cantidad);
+		if (this.proximaLlegada >= 1L << (63 - bits)) {
+			throw new IllegalStateException("Demasiadas llegadas a la parada " + this.id + " para ordenar su cola.");
+		}
+		long[] claves = new long[this.cantidadEsperando];
+		int n = 0;
+		for (int c = 0; c < cantidad; c++) {
+			ColaDestino cola = this.colasAtendidas[c];
+			this.cursores[c] = 0;
+			for (int i = 0; i < cola.tamanio(); i++) {
+				claves[n++] = (cola.llegada(i) << bits) | c;
+			}
+		}
+		Arrays.sort(claves);
+		long mascara = (1L << bits) - 1;
+		for (int i = 0; i < n; i++) {
+			int c = (int) (claves[i] & mascara);
+			destino[i] = this.colasAtendidas[c].pasajero(this.cursores[c]++);
+		}
+		Arrays.fill(this.colasAtendidas, 0, cantidad, null);
+	}
+
+	/** Baja el elemento en {@code i} del heap de colas hasta su lugar. */
+	private void hundir(int[] heap, int i, int tamanio) {
+		int elemento = heap[i];
+		long llegada = llegadaSiguiente(elemento);
+		while (true) {
+			int hijo = 2 * i + 1;
+			if (hijo >= tamanio) break;
+			long llegadaHijo = llegadaSiguiente(heap[hijo]);
+			if (hijo + 1 < tamanio) {
+				long llegadaDerecho = llegadaSiguiente(heap[hijo + 1]);
+				if (llegadaDerecho < llegadaHijo) {
+					hijo++;
+					llegadaHijo = llegadaDerecho;
+				}
+			}
+			if (llegada <= llegadaHijo) break;
+			heap[i] = heap[hijo];
+			i = hijo;
+		}
+		heap[i] = elemento;
+	}
+
+	/** Número de llegada del próximo pasajero a ofrecer de la cola atendida {@code c}. */
+	private long llegadaSiguiente(int c) {
+		return this.colasAtendidas[c].llegada(this.cursores[c]);
+	}
+
+	/** Devuelve la cola cuyo primer pasajero llegó antes, o null si no hay nadie esperando. */
+	private ColaDestino colaConPrimerPasajero() {
+		ColaDestino mejor = null;
+		for (ColaDestino cola : this.esperaPorDestino.values()) {
+			if (cola.tamanio() > 0 && (mejor == null || cola.llegada(0) < mejor.llegada(0))) {
+				mejor = cola;
+			}
+		}
+		return mejor;
+	}
+
+	/**
+	 * Cola FIFO de los pasajeros que esperan para un mismo destino, con el número de
+	 * llegada de cada uno. Los elementos viven en {@code [inicio, fin)} de arreglos
+	 * paralelos: el handle de cada pasajero y su número de llegada. El almacén es
+	 * uno solo para toda la cola mientras no se mezclen almacenes; recién entonces
+	 * se guarda uno por posición.
+	 */
+	private static final class ColaDestino {
+		private int[] handles = new int[4];
+		private long[] llegadas = new long[4];
+		private boolean[] subidos = new boolean[4];
+		/** Almacén común de los pasajeros de la cola. */
+		private AlmacenPasajeros almacen;
+		/** Almacén de cada posición; se crea solo si la cola mezcla almacenes. */
+		private AlmacenPasajeros[] almacenes;
+		private int inicio;
+		private int fin;
+
+		int tamanio() { return this.fin - this.inicio; }
+		long llegada(int i) { return this.llegadas[this.inicio + i]; }
+		Pasajero primero() { return pasajero(0); }
+
+		/** Crea la vista del pasajero en la posición {@code i} de la cola. */
+		Pasajero pasajero(int i) {
+			int posicion = this.inicio + i;
+			AlmacenPasajeros almacenPasajero = (this.almacenes != null) ? this.almacenes[posicion] : this.almacen;
+			return almacenPasajero.vista(this.handles[posicion]);
+		}
+
+		void agregar(AlmacenPasajeros almacenPasajero, int handle, long llegada) {
+			if (this.fin == this.handles.length) {
+				int tamanio = tamanio();
+				int capacidad = Math.max(4, tamanio * 2);
+				this.handles = Arrays.copyOfRange(this.handles, this.inicio, this.inicio + capacidad);
+				this.llegadas = Arrays.copyOfRange(this.llegadas, this.inicio, this.inicio + capacidad);
+				if (this.almacenes != null) {
+					this.almacenes = Arrays.copyOfRange(this.almacenes, this.inicio, this.inicio + capacidad);
+				}
+				this.subidos = new boolean[capacidad];
+				this.inicio = 0;
+				this.fin = tamanio;
+			}
+			if (this.fin == this.inicio && this.almacenes == null) {
+				this.almacen = almacenPasajero; // Cola vacía: el almacén común puede cambiar
+			} else if (this.almacenes == null && almacenPasajero != this.almacen) {
+				this.almacenes = new AlmacenPasajeros[this.handles.length];
+				Arrays.fill(this.almacenes, this.inicio, this.fin, this.almacen);
+			}
+			if (this.almacenes != null) {
+				this.almacenes[this.fin] = almacenPasajero;
+			}
+			this.handles[this.fin] = handle;
+			this.llegadas[this.fin] = llegada;
+			this.fin++;
+		}
+
+		Pasajero removerPrimero() {
+			Pasajero primero = pasajero(0);
+			if (this.almacenes != null) {
+				this.almacenes[this.inicio] = null;
+			}
+			this.inicio++;
+			if (this.inicio == this.fin) {
+				vaciar();
+			}
+			return primero;
+		}
+
+		void marcarSubido(int i) {
+			this.subidos[this.inicio + i] = true;
+		}
+
+		/** Compacta la cola quitando los pasajeros marcados como subidos, sin alterar el orden. */
+		void quitarSubidos() {
+			int destino = this.inicio;
+			for (int i = this.inicio; i < this.fin; i++) {
+				if (this.subidos[i]) {
+					this.subidos[i] = false;
+				} else {
+					this.handles[destino] = this.handles[i];
+					this.llegadas[destino] = this.llegadas[i];
+					if (this.almacenes != null) {
+						this.almacenes[destino] = this.almacenes[i];
+					}
+					destino++;
+				}
+			}
+			if (this.almacenes != null) {
+				Arrays.fill(this.almacenes, destino, this.fin, null);
+			}
+			this.fin = destino;
+			if (this.inicio == this.fin) {
+				vaciar();
+			}
+		}
+
+		/** Deja la cola vacía, sin retener almacenes. */
+		private void vaciar() {
+			this.inicio = this.fin = 0;
+			this.almacen = null;
+			this.almacenes = null;
+		}
 	}
 
 	// =================================================================================
@@ -172,7 +604,7 @@ public class Parada {
 
 	@Override
 	public String toString() {
-		return "Parada{" + "id='" + id + '\'' + ", direccion='" + direccion + '\'' + ", esperando=" + pasajerosEsperando.size() + '}';
+		return "Parada{" + "id='" + id + '\'' + ", direccion='" + direccion + '\'' + ", esperando=" + cantidadEsperando + '}';
 	}
 
 	@Override
@@ -1,17 +1,22 @@
 package proyectointegrador.modelo;
 
-import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Representa a un usuario del sistema de transporte que desea viajar desde una
  * parada de origen a una de destino. Contiene atributos para gestionar su
  * estado durante la simulación y calcular su satisfacción.
+ * <p>
+ * El pasajero es una vista liviana (almacén + handle): su estado se guarda en
+ * columnas de un {@link AlmacenPasajeros}. Dos vistas son iguales si apuntan al
+ * mismo handle del mismo almacén. Cada pasajero suelto, creado con los
+ * constructores públicos, tiene su propio almacén de un solo lugar, y los
+ * pasajeros sueltos se comparan por ID.
  *
  * @author Miyen
  * @author Enzo
  * 
- * @version 1.1
+ * @version 2.3
  */
 public class Pasajero {
 
@@ -19,57 +24,29 @@ public class Pasajero {
 	// ATRIBUTOS
 	// =================================================================================
 
-	// --- Atributos de Identidad (Inmutables) ---
-	/** Identificador único del pasajero. */
-	private final String id;
-	/** Parada donde el pasajero inicia su viaje. */
-	private final Parada paradaOrigen;
-	/** Parada donde el pasajero desea finalizar su viaje. */
-	private final Parada paradaDestino;
-
-	// --- Atributos de Estado de la Simulación ---
-	/** Cuántos colectivos llenos pasaron antes de que pudiera subir. */
-	private int colectivosEsperados;
-	/** Indica si el pasajero consiguió un asiento durante su viaje. */
-	private boolean viajoSentado;
-	/** Indica si el pasajero logró abordar algún colectivo. */
-	private boolean pudoSubir;
-	/** Indica si fue bajado en una terminal sin haber llegado a su destino. */
-	private boolean bajadaForzosa;
-	/** Almacena la calificación de satisfacción final del pasajero (1-5). */
-	private int satisfaccion;
-	
+	/** Almacén columnar donde vive el estado del pasajero. */
+	private final AlmacenPasajeros almacen;
+	/** Posición del pasajero en el almacén. */
+	private final int handle;
+	/** Hash del ID de un pasajero suelto, calculado la primera vez que se pide (0 = sin calcular). */
+	private int hash;
 
 	// =================================================================================
 	// CONSTRUCTORES
 	// =================================================================================
 
 	/**
-	 * Constructor principal para crear un pasajero con un ID específico.
+	 * Constructor principal para crear un pasajero suelto con un ID específico.
+	 * Para grandes cantidades de pasajeros conviene agregarlos a un
+	 * {@link AlmacenPasajeros} propio y usar sus vistas.
 	 *
 	 * @param id            El identificador único del pasajero.
 	 * @param paradaOrigen  La parada de origen del pasajero.
 	 * @param paradaDestino La parada de destino del pasajero.
 	 */
 	public Pasajero(String id, Parada paradaOrigen, Parada paradaDestino) {
-		if (id == null || id.trim().isEmpty())
-			throw new IllegalArgumentException("El ID del pasajero no puede ser nulo o vacío.");
-		if (paradaOrigen == null)
-			throw new IllegalArgumentException("La parada de origen no puede ser nula.");
-		if (paradaDestino == null)
-			throw new IllegalArgumentException("La parada de destino no puede ser nula.");
-		if (paradaOrigen.equals(paradaDestino))
-			throw new IllegalArgumentException("La parada de origen y destino no pueden ser la misma.");
-
-		this.id = id;
-		this.paradaOrigen = paradaOrigen;
-		this.paradaDestino = paradaDestino;
-		
-		this.colectivosEsperados = 0;
-		this.viajoSentado = false;
-		this.pudoSubir = false;
-		this.bajadaForzosa = false;
-		this.satisfaccion = 0;
+		this.almacen = AlmacenPasajeros.individual();
+		this.handle = this.almacen.agregar(id, paradaOrigen, paradaDestino);
 	}
 
 	/**
@@ -82,6 +59,15 @@ public class Pasajero {
 		this(UUID.randomUUID().toString(), paradaOrigen, paradaDestino);
 	}
 
+	/**
+	 * Crea una vista sobre un pasajero ya guardado en un almacén.
+	 * Ver {@link AlmacenPasajeros#vista(int)}.
+	 */
+	Pasajero(AlmacenPasajeros almacen, int handle) {
+		this.almacen = almacen;
+		this.handle = handle;
+	}
+
 	// =================================================================================
 	// MÉTODOS PÚBLICOS
 	// =================================================================================
@@ -90,7 +76,7 @@ public class Pasajero {
 	 * Incrementa el contador de colectivos que el pasajero tuvo que esperar.
 	 */
 	public void incrementarColectivosEsperados() {
-		this.colectivosEsperados++;
+		this.almacen.incrementarColectivosEsperados(this.handle);
 	}
 
 	/**
@@ -98,53 +84,40 @@ public class Pasajero {
 	 * @return Un valor de satisfacción entre 1 y 5.
 	 */
 	public int calcularSatisfaccion() {
-		if (this.satisfaccion != 0) {
-			// Si la satisfacción fue forzada (ej. bajada en terminal), devuelve ese valor.
-			return this.satisfaccion;
-		}
-		
-		if (!pudoSubir) {
-			return 1; // La peor calificación si nunca pudo subir.
-		}
-
-		switch (colectivosEsperados) {
-			case 0: // No esperó ningún colectivo extra
-				return viajoSentado ? 5 : 4; // 5 si fue sentado, 4 si fue de pie.
-			case 1: // Esperó 1 colectivo
-				return 3;
-			default: // Esperó 2 o más colectivos
-				return 2;
-		}
+		return this.almacen.calcularSatisfaccion(this.handle);
 	}
 
 	/**
 	 * Reinicia el estado de viaje del pasajero a sus valores iniciales.
 	 */
 	public void resetearEstadoViaje() {
-		this.colectivosEsperados = 0;
-		// this.subioAlPrimerColectivoQuePaso = false;
-		this.viajoSentado = false;
-		this.pudoSubir = false;
-		this.bajadaForzosa = false;
-		this.satisfaccion = 0;
+		this.almacen.resetearEstadoViaje(this.handle);
 	}
 
 	// =================================================================================
 	// GETTERS Y SETTERS
 	// =================================================================================
 
-	public String getId() { return this.id; }
-	public Parada getParadaOrigen() { return this.paradaOrigen; }
-	public Parada getParadaDestino() { return this.paradaDestino; }
-	public int getColectivosEsperados() { return this.colectivosEsperados; }
-	public boolean isViajoSentado() { return this.viajoSentado; }
-	public void setViajoSentado(boolean viajoSentado) { this.viajoSentado = viajoSentado; }
-	public boolean isPudoSubir() { return this.pudoSubir; }
-	public void setPudoSubir(boolean pudoSubir) { this.pudoSubir = pudoSubir; }
-	public boolean isBajadaForzosa() { return this.bajadaForzosa; }
-	public void setBajadaForzosa(boolean valor) { this.bajadaForzosa = valor; }
-	public int getSatisfaccion() { return this.satisfaccion; }
-	public void setSatisfaccion(int valor) { this.satisfaccion = valor; }
+	public AlmacenPasajeros getAlmacen() { return this.almacen; }
+	public int getHandle() { return this.handle; }
+	public String getId() { return this.almacen.id(this.handle); }
+	public Parada getParadaOrigen() { return this.almacen.origen(this.handle); }
+	public Parada getParadaDestino() { return this.almacen.destino(this.handle); }
+	public int getColectivosEsperados() { return this.almacen.colectivosEsperados(this.handle); }
+	public boolean isViajoSentado() { return this.almacen.viajoSentado(this.handle); }
+	public void setViajoSentado(boolean viajoSentado) { this.almacen.setViajoSentado(this.handle, viajoSentado); }
+	public boolean isPudoSubir() { return this.almacen.pudoSubir(this.handle); }
+	public void setPudoSubir(boolean pudoSubir) { this.almacen.setPudoSubir(this.handle, pudoSubir); }
+	public boolean isBajadaForzosa() { return this.almacen.bajadaForzosa(this.handle); }
+	public void setBajadaForzosa(boolean valor) { this.almacen.setBajadaForzosa(this.handle, valor); }
+	/** Paso de simulación en que el pasajero llegó a su parada de origen. */
+	public int getPasoLlegada() { return this.almacen.pasoLlegada(this.handle); }
+	public void setPasoLlegada(int paso) { this.almacen.setPasoLlegada(this.handle, paso); }
+	/** Paso de simulación en que el pasajero subió al colectivo (válido si pudo subir). */
+	public int getPasoSubida() { return this.almacen.pasoSubida(this.handle); }
+	public void setPasoSubida(int paso) { this.almacen.setPasoSubida(this.handle, paso); }
+	public int getSatisfaccion() { return this.almacen.satisfaccion(this.handle); }
+	public void setSatisfaccion(int valor) { this.almacen.setSatisfaccion(this.handle, valor); }
 
 	// =================================================================================
 	// MÉTODOS SOBREESCRITOS (Object)
@@ -152,19 +125,33 @@ public class Pasajero {
 	
 	@Override
 	public String toString() {
-		return "Pasajero '" + id + "' [Origen: " + paradaOrigen.getId() + ", Destino: " + paradaDestino.getId() + "]";
+		return "Pasajero '" + getId() + "' [Origen: " + getParadaOrigen().getId() + ", Destino: " + getParadaDestino().getId() + "]";
 	}
 
+	/**
+	 * Dos vistas son iguales si apuntan al mismo handle del mismo almacén. Los
+	 * pasajeros sueltos, además, son iguales si tienen el mismo ID.
+	 */
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
 		if (o == null || getClass() != o.getClass()) return false;
 		Pasajero pasajero = (Pasajero) o;
-		return Objects.equals(id, pasajero.id);
+		if (this.almacen == pasajero.almacen) return this.handle == pasajero.handle;
+		return this.almacen.isIndividual() && pasajero.almacen.isIndividual()
+				&& getId().equals(pasajero.getId());
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(id);
+		if (!this.almacen.isIndividual()) {
+			return 31 * System.identityHashCode(this.almacen) + this.handle;
+		}
+		int h = this.hash;
+		if (h == 0) {
+			h = getId().hashCode();
+			this.hash = h;
+		}
+		return h;
 	}
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package proyectointegrador.reporte;
 
 import proyectointegrador.logica.GestorEstadisticas;
+import proyectointegrador.logica.HistogramaCuantiles;
+import proyectointegrador.logica.IntervaloConfianza;
+import proyectointegrador.logica.ResultadoReplicas;
 import proyectointegrador.logica.Simulador;
 import proyectointegrador.modelo.Colectivo;
 import proyectointegrador.modelo.Pasajero;
 
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Clase de utilidad para generar y mostrar reportes de la simulación.
@@ -16,7 +19,7 @@ import java.util.Map;
  *
  * @author Miyo
  * @author Enzo
- * @version 1.1
+ * @version 1.4
  */
 public final class ReporteSimulacion {
 
@@ -78,7 +81,7 @@ public final class ReporteSimulacion {
 		}
 
 		// Ordena los colectivos por ID para una presentación consistente
-		ArrayList<Colectivo> colectivosOrdenados = new ArrayList<>(simulador.getColectivosEnSimulacion());
+		List<Colectivo> colectivosOrdenados = simulador.getColectivosEnSimulacion(); // Ya es una copia
 		colectivosOrdenados.sort(COMPARATOR_POR_NUMERO_ID_COLECTIVO);
 
 		for (Colectivo colectivo : colectivosOrdenados) {
@@ -92,6 +95,38 @@ public final class ReporteSimulacion {
 		System.out.println(); // Salto de línea
 		imprimirLineaDato("Ocupación promedio general", String.format("%.2f%%", promedioGeneral * 100), "");
 	}
+
+	/**
+	 * Imprime los percentiles (p50, p95, p99) de espera y de viaje por línea, en
+	 * pasos de simulación, y las paradas con mayor espera p95 (posibles cuellos de botella).
+	 * @param simulador El simulador del cual se obtienen los datos.
+	 */
+	public static void imprimirTiemposDeEsperaYViaje(Simulador simulador) {
+		GestorEstadisticas gestor = simulador.getGestorEstadisticas();
+		Map<String, HistogramaCuantiles> esperasPorLinea = new TreeMap<>(gestor.getEsperasPorLinea());
+		Map<String, HistogramaCuantiles> viajesPorLinea = gestor.getViajesPorLinea();
+
+		imprimirTitulo("Tiempos de Espera y Viaje (en pasos)");
+		if (esperasPorLinea.isEmpty()) {
+			System.out.println("  No hay tiempos de espera registrados.");
+			return;
+		}
+		for (Map.Entry<String, HistogramaCuantiles> entry : esperasPorLinea.entrySet()) {
+			imprimirLineaDato(entry.getKey() + " - espera", formatearPercentiles(entry.getValue()), "");
+			HistogramaCuantiles viajes = viajesPorLinea.get(entry.getKey());
+			if (viajes != null) {
+				imprimirLineaDato(entry.getKey() + " - viaje", formatearPercentiles(viajes), "");
+			}
+		}
+
+		System.out.println("  - Paradas con mayor espera (p95):");
+		gestor.getEsperasPorParada().entrySet().stream()
+			.sorted(Comparator.comparingLong((Map.Entry<String, HistogramaCuantiles> e) -> e.getValue().getP95()).reversed()
+					.thenComparing(Map.Entry::getKey))
+			.limit(PARADAS_CON_MAYOR_ESPERA)
+			.forEach(entry -> imprimirLineaDato("    Parada " + entry.getKey(), formatearPercentiles(entry.getValue()), ""));
+	}
+
 	/**
 	 * Imprime un listado detallado de los pasajeros que nunca pudieron abordar un colectivo.
 	 * Este método es útil para depuración y análisis de escenarios de alta demanda.
@@ -109,7 +144,7 @@ public final class ReporteSimulacion {
 		imprimirTitulo("Detalle: Pasajeros que Nunca Subieron (" + nuncaSubieron + ")");
 		
 		// Usamos el nuevo getter de la clase Simulador para obtener la lista
-		List<Pasajero> todosLosPasajeros = simulador.getPasajerosSimulados();
+		List<Pasajero> todosLosPasajeros = simulador.getPasajerosSimuladosVista();
 		
 		int contadorImpresos = 0;
 		for (Pasajero p : todosLosPasajeros) {
@@ -130,6 +165,19 @@ public final class ReporteSimulacion {
 		}
 	}
 	
+	/**
+	 * Imprime el resumen de un lote de réplicas: media e intervalo de confianza del
+	 * 95% para la satisfacción y la ocupación.
+	 * @param resultado Los resultados de las réplicas.
+	 */
+	public static void imprimirResumenReplicas(ResultadoReplicas resultado) {
+		imprimirTitulo("Resumen de Réplicas (Monte Carlo)");
+		imprimirLineaDato("Réplicas ejecutadas", resultado.getCantidad(), "");
+		imprimirLineaDato("Semilla de la primera réplica", resultado.getSemilla(0), "");
+		imprimirIntervalo("Índice de satisfacción", resultado.getIntervaloSatisfaccion());
+		imprimirIntervalo("Ocupación promedio general", resultado.getIntervaloOcupacion());
+	}
+
 	// =================================================================================
 	// MÉTODOS PÚBLICOS DE VERIFICACIÓN
 	// =================================================================================
@@ -161,6 +209,12 @@ public final class ReporteSimulacion {
 	// MÉTODOS PRIVADOS DE AYUDA (HELPERS)
 	// =================================================================================
 
+	/** Formatea los percentiles y la cantidad de muestras de un histograma. */
+	private static String formatearPercentiles(HistogramaCuantiles histograma) {
+		return String.format("p50 %d | p95 %d | p99 %d | máx %d (%d pasajeros)", histograma.getP50(),
+				histograma.getP95(), histograma.getP99(), histograma.getMaximo(), histograma.getCantidad());
+	}
+
 	/** Imprime un título de sección formateado. */
 	private static void imprimirTitulo(String titulo) {
 		System.out.printf("\n--- %S ---\n", titulo); // %S para mayúsculas
@@ -171,6 +225,13 @@ public final class ReporteSimulacion {
 		System.out.printf("  - %-40s %s %s\n", etiqueta + ":", valor, sufijo).flush();
 	}
 
+	/** Imprime la media y el intervalo de confianza de una métrica, en porcentaje. */
+	private static void imprimirIntervalo(String etiqueta, IntervaloConfianza intervalo) {
+		imprimirLineaDato(etiqueta, String.format("%.2f%% ± %.2f%% (IC 95%%: %.2f%% - %.2f%%, desvío %.2f%%)",
+				intervalo.getMedia() * 100, intervalo.getMargen() * 100, intervalo.getInferior() * 100,
+				intervalo.getSuperior() * 100, intervalo.getDesvio() * 100), "");
+	}
+
 	/** Calcula el promedio general de ocupación a partir de un mapa de promedios individuales. */
 	private static double calcularOcupacionPromedioGeneral(Map<String, Double> ocupaciones) {
 		if (ocupaciones == null || ocupaciones.isEmpty()) {
@@ -195,6 +256,9 @@ public final class ReporteSimulacion {
 	// COMPARATOR
 	// =================================================================================
 
+	/** Cantidad de paradas que se listan en el ranking de mayor espera. */
+	private static final int PARADAS_CON_MAYOR_ESPERA = 5;
+
 	/**
 	 * Compara dos colectivos basándose en el número numérico de su ID (ej: C<num>-linea).
 	 */
@@ -6,6 +6,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern; // Se importa Pattern
 
+import proyectointegrador.logica.BufferEventos;
+import proyectointegrador.logica.FormateadorEventos;
+
 /**
  * Clase de utilidades para manejar eventos del simulador. Proporciona métodos
  * para agrupar eventos por colectivo y detectar colectivos en líneas de
@@ -13,7 +16,7 @@ import java.util.regex.Pattern; // Se importa Pattern
  *
  * @author Miyo
  * @author Enzo
- * @version 1.1 // Versión actualizada para reflejar las mejoras
+ * @version 1.2 // Agrupación de eventos tipados sin expresiones regulares
  */
 public final class EventoUtils { // La clase ahora es FINAL
 
@@ -52,6 +55,25 @@ public final class EventoUtils { // La clase ahora es FINAL
 		return eventosPorColectivo;
 	}
 
+	// Método para agrupar por colectivo los eventos tipados de un paso.
+	// Produce el mismo resultado que formatear los eventos y agruparlos con
+	// mostrarEventosAgrupadosPorColectivo, pero sin re-parsear el texto: cada evento ya
+	// conoce el handle de su colectivo.
+	public static Map<String, List<String>> agruparEventosPorColectivo(BufferEventos eventos, FormateadorEventos formateador) {
+		// DECLARACIÓN DE VARIABLES
+		LinkedHashMap<String, List<String>> eventosPorColectivo = new LinkedHashMap<>(); // Mapa para almacenar eventos agrupados por colectivo
+		String texto = null; // Texto formateado del evento
+
+		// LÓGICA DEL MÉTODO
+		for (int i = 0; i < eventos.tamanio(); i++) {
+			texto = formateador.formatear(eventos, i).trim();
+			List<String> grupo = eventosPorColectivo.computeIfAbsent(formateador.idColectivo(eventos, i), k -> new ArrayList<>());
+			grupo.add(eventos.tipo(i).nombraColectivo() ? texto : "  " + texto);
+		}
+
+		return eventosPorColectivo;
+	}
+
 	// Método para detectar el ID del colectivo en una línea de evento
 	public static String detectarColectivoEnLinea(String linea) {
 		// Se utiliza la constante pre-compilada para mayor eficiencia.
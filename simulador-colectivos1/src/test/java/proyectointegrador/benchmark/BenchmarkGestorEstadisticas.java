@@ -0,0 +1,158 @@
+package proyectointegrador.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import proyectointegrador.logica.AcumuladorOcupacion;
+import proyectointegrador.logica.GestorEstadisticas;
+import proyectointegrador.modelo.AlmacenPasajeros;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Benchmark manual del registro de estadísticas.
+ * <p>
+ * Compara el esquema anterior del {@link GestorEstadisticas} (calificaciones en un
+ * {@code HashMap<Integer, Integer>} y capacidad y ocupación buscadas por ID de
+ * colectivo en mapas) con el actual (un {@code int[6]} para las calificaciones y
+ * arreglos indexados por handle de colectivo). Cada ronda registra una ocupación
+ * por colectivo y un transporte por pasajero; se imprime el tiempo promedio por
+ * ronda de cada variante.
+ * <p>
+ * No forma parte de la suite de tests; se ejecuta a mano luego de {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes proyectointegrador.benchmark.BenchmarkGestorEstadisticas}
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public class BenchmarkGestorEstadisticas {
+
+	private static final int[] TAMANIOS_FLOTA = { 100, 1000, 10000 };
+	private static final int PASAJEROS = 50_000;
+	private static final int RONDAS_CALENTAMIENTO = 20;
+	private static final int RONDAS_MEDIDAS = 50;
+	private static final int CAPACIDAD = 30;
+
+	/** Evita que el JIT descarte los resultados de las variantes medidas. */
+	private static double sumidero;
+
+	public static void main(String[] args) {
+		AlmacenPasajeros almacen = crearPasajeros(PASAJEROS);
+		System.out.printf("%8s %18s %18s %10s%n", "flota", "mapas (us/ronda)", "arreglos (us/ronda)", "mejora");
+		for (int tamanio : TAMANIOS_FLOTA) {
+			String[] ids = crearIds(tamanio);
+			double mapas = medirEsquemaMapas(ids, almacen);
+			double arreglos = medirGestor(ids, almacen);
+			System.out.printf("%8d %18.1f %18.1f %9.1fx%n", tamanio, mapas, arreglos, mapas / arreglos);
+		}
+		if (sumidero == 42) System.out.println();
+	}
+
+	// =================================================================================
+	// VARIANTES MEDIDAS
+	// =================================================================================
+
+	/** Esquema anterior: calificaciones, capacidades y ocupaciones en mapas. */
+	private static double medirEsquemaMapas(String[] ids, AlmacenPasajeros almacen) {
+		long total = 0;
+		for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO + RONDAS_MEDIDAS; ronda++) {
+			RegistradorConMapas registrador = new RegistradorConMapas();
+			for (String id : ids) {
+				registrador.registrarCapacidadColectivo(id, CAPACIDAD);
+			}
+			long inicio = System.nanoTime();
+			for (int i = 0; i < ids.length; i++) {
+				registrador.registrarOcupacionTramo(ids[i], (i + ronda) % (CAPACIDAD + 1));
+			}
+			for (int h = 0; h < almacen.cantidad(); h++) {
+				registrador.registrarTransporte(almacen, h);
+			}
+			if (ronda >= RONDAS_CALENTAMIENTO) {
+				total += System.nanoTime() - inicio;
+			}
+			sumidero += registrador.sumaCalificaciones;
+		}
+		return total / 1_000.0 / RONDAS_MEDIDAS;
+	}
+
+	/** Esquema actual: arreglos primitivos indexados por handle. */
+	private static double medirGestor(String[] ids, AlmacenPasajeros almacen) {
+		long total = 0;
+		int[] handles = new int[ids.length];
+		for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO + RONDAS_MEDIDAS; ronda++) {
+			GestorEstadisticas gestor = new GestorEstadisticas();
+			for (int i = 0; i < ids.length; i++) {
+				handles[i] = gestor.registrarCapacidadColectivo(ids[i], CAPACIDAD);
+			}
+			long inicio = System.nanoTime();
+			for (int i = 0; i < ids.length; i++) {
+				gestor.registrarOcupacionTramo(handles[i], (i + ronda) % (CAPACIDAD + 1));
+			}
+			for (int h = 0; h < almacen.cantidad(); h++) {
+				gestor.registrarTransporte(almacen, h);
+			}
+			if (ronda >= RONDAS_CALENTAMIENTO) {
+				total += System.nanoTime() - inicio;
+			}
+			sumidero += gestor.getIndiceSatisfaccion();
+		}
+		return total / 1_000.0 / RONDAS_MEDIDAS;
+	}
+
+	// =================================================================================
+	// ESQUEMA ANTERIOR
+	// =================================================================================
+
+	/** Copia del registro por mapas que usaba el gestor antes de los arreglos primitivos. */
+	private static final class RegistradorConMapas {
+		private final Map<Integer, Integer> conteoCalificaciones = new HashMap<>();
+		private final Map<String, Integer> capacidadPorColectivo = new HashMap<>();
+		private final Map<String, AcumuladorOcupacion> ocupacionesPorColectivo = new HashMap<>();
+		private int sumaCalificaciones;
+
+		void registrarCapacidadColectivo(String idColectivo, int capacidadMaxima) {
+			this.capacidadPorColectivo.put(idColectivo, capacidadMaxima);
+		}
+
+		void registrarOcupacionTramo(String idColectivo, int pasajerosEnTramo) {
+			Integer capacidad = this.capacidadPorColectivo.get(idColectivo);
+			if (capacidad == null || capacidad == 0) return;
+			double ocupacion = (double) pasajerosEnTramo / capacidad;
+			this.ocupacionesPorColectivo.computeIfAbsent(idColectivo, k -> new AcumuladorOcupacion()).registrar(ocupacion);
+		}
+
+		void registrarTransporte(AlmacenPasajeros almacen, int handle) {
+			int satisfaccion = almacen.calcularSatisfaccion(handle);
+			this.conteoCalificaciones.put(satisfaccion, this.conteoCalificaciones.getOrDefault(satisfaccion, 0) + 1);
+			this.sumaCalificaciones += satisfaccion;
+		}
+	}
+
+	// =================================================================================
+	// MÉTODOS DE AYUDA
+	// =================================================================================
+
+	private static String[] crearIds(int tamanio) {
+		String[] ids = new String[tamanio];
+		for (int i = 0; i < tamanio; i++) {
+			ids[i] = "C" + (i + 1) + "-B" + (i % 20);
+		}
+		return ids;
+	}
+
+	/** Pasajeros con estados variados, para recorrer todas las calificaciones. */
+	private static AlmacenPasajeros crearPasajeros(int cantidad) {
+		AlmacenPasajeros almacen = new AlmacenPasajeros(cantidad);
+		Parada origen = new Parada("BO", "Origen");
+		Parada destino = new Parada("BD", "Destino");
+		for (int i = 0; i < cantidad; i++) {
+			int h = almacen.agregar(origen, destino);
+			almacen.setPudoSubir(h, i % 5 != 0);
+			almacen.setViajoSentado(h, i % 2 == 0);
+			for (int e = 0; e < i % 3; e++) {
+				almacen.incrementarColectivosEsperados(h);
+			}
+		}
+		return almacen;
+	}
+}
@@ -0,0 +1,154 @@
+package proyectointegrador.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+
+import proyectointegrador.datos.LectorArchivos;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Benchmark manual de la carga de paradas.
+ * <p>
+ * Genera un archivo de paradas de un millón de registros (con un 0,1% de
+ * registros inválidos) y compara la lectura anterior con {@link Scanner} y
+ * {@code String.split} contra el {@link LectorArchivos} actual, que tokeniza los
+ * bytes sin crear cadenas intermedias, leyendo en un solo bloque y en bloques
+ * paralelos (cuatro por procesador). La ganancia de los bloques depende de los
+ * núcleos disponibles. Durante las mediciones se descarta la
+ * salida de error, para comparar solo el costo de la lectura.
+ * <p>
+ * No forma parte de la suite de tests; se ejecuta a mano luego de {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes proyectointegrador.benchmark.BenchmarkLectorArchivos [registros]}
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+public class BenchmarkLectorArchivos {
+
+	private static final int REGISTROS_POR_DEFECTO = 1_000_000;
+	private static final int RONDAS_CALENTAMIENTO = 3;
+	private static final int RONDAS_MEDIDAS = 5;
+
+	/** Evita que el JIT descarte los resultados de las variantes medidas. */
+	private static long sumidero;
+
+	public static void main(String[] args) throws IOException {
+		int registros = (args.length > 0) ? Integer.parseInt(args[0]) : REGISTROS_POR_DEFECTO;
+		Path archivo = Files.createTempFile("paradas-benchmark", ".txt");
+		try {
+			generarArchivo(archivo, registros);
+			System.out.printf("Archivo de %,d registros (%,d bytes)%n", registros, Files.size(archivo));
+
+			PrintStream errOriginal = System.err;
+			System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+			double scanner;
+			double tokenizador;
+			double paralelo;
+			int bloques = 4 * Runtime.getRuntime().availableProcessors();
+			try {
+				scanner = medir(() -> cargarConScanner(archivo).size());
+				tokenizador = medir(() -> cargarConLector(archivo, 1).size());
+				paralelo = medir(() -> cargarConLector(archivo, bloques).size());
+			} finally {
+				System.setErr(errOriginal);
+			}
+			System.out.printf("%-24s %10.1f ms%n", "Scanner + split", scanner);
+			System.out.printf("%-24s %10.1f ms%n", "LectorArchivos (bytes)", tokenizador);
+			System.out.printf("%-24s %10.1f ms%n", "LectorArchivos (" + bloques + " bl.)", paralelo);
+			System.out.printf("%-24s %10.1fx%n", "mejora (bytes)", scanner / tokenizador);
+			System.out.printf("%-24s %10.1fx%n", "mejora (bloques)", scanner / paralelo);
+		} finally {
+			Files.deleteIfExists(archivo);
+		}
+		if (sumidero == 42) System.out.println();
+	}
+
+	// =================================================================================
+	// VARIANTES MEDIDAS
+	// =================================================================================
+
+	/** Lectura anterior: una línea por vez con Scanner, separada con split(";"). */
+	private static Map<String, Parada> cargarConScanner(Path archivo) throws IOException {
+		Map<String, Parada> paradas = new TreeMap<>();
+		try (InputStream input = Files.newInputStream(archivo);
+				Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name())) {
+			while (scanner.hasNextLine()) {
+				String linea = scanner.nextLine();
+				if (linea.trim().isEmpty()) continue;
+				String[] partes = linea.split(";", -1);
+				if (partes.length != 4) {
+					System.err.println("Advertencia: Línea de parada con formato incorrecto omitida -> " + linea);
+					continue;
+				}
+				try {
+					String id = partes[0].trim();
+					String direccion = partes[1].trim();
+					if (id.isEmpty() || direccion.isEmpty() || paradas.containsKey(id)) continue;
+					double latitud = Double.parseDouble(partes[2].trim());
+					double longitud = Double.parseDouble(partes[3].trim());
+					paradas.put(id, new Parada(id, direccion, latitud, longitud));
+				} catch (NumberFormatException e) {
+					System.err.println("Advertencia: Coordenadas inválidas en línea de parada omitida -> " + linea);
+				}
+			}
+		}
+		return paradas;
+	}
+
+	private static Map<String, Parada> cargarConLector(Path archivo, int bloques) throws IOException {
+		Properties props = new Properties();
+		props.setProperty("parada", archivo.toString());
+		props.setProperty("bloques_carga", String.valueOf(bloques));
+		LectorArchivos lector = new LectorArchivos(props);
+		lector.cargarParadas();
+		return lector.getParadasVista();
+	}
+
+	// =================================================================================
+	// MÉTODOS DE AYUDA
+	// =================================================================================
+
+	private interface Carga {
+		int ejecutar() throws IOException;
+	}
+
+	/** Devuelve el tiempo promedio en milisegundos de las rondas medidas. */
+	private static double medir(Carga carga) throws IOException {
+		long total = 0;
+		for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO + RONDAS_MEDIDAS; ronda++) {
+			long inicio = System.nanoTime();
+			sumidero += carga.ejecutar();
+			long duracion = System.nanoTime() - inicio;
+			if (ronda >= RONDAS_CALENTAMIENTO) total += duracion;
+		}
+		return total / 1e6 / RONDAS_MEDIDAS;
+	}
+
+	private static void generarArchivo(Path archivo, int registros) throws IOException {
+		Random random = new Random(42);
+		try (BufferedWriter writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < registros; i++) {
+				if (i % 1000 == 999) {
+					writer.write("S" + i + ";Registro inválido\n");
+					continue;
+				}
+				double latitud = -38.6 - random.nextInt(100_000) / 1e6;
+				double longitud = -62.2 - random.nextInt(100_000) / 1e6;
+				writer.write("S" + i + ";Calle " + (i % 5000) + ", " + random.nextInt(3000) + ";"
+						+ latitud + ";" + longitud + "\n");
+			}
+		}
+	}
+}
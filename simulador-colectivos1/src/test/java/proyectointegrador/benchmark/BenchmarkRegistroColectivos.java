@@ -0,0 +1,129 @@
+package proyectointegrador.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import proyectointegrador.logica.RegistroColectivos;
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Benchmark manual del avance de colectivos pendientes.
+ * <p>
+ * Compara, para distintos tamaños de flota, el esquema anterior del simulador
+ * (un {@code Set<String>} de IDs resuelto con una búsqueda lineal por cada ID)
+ * con el {@link RegistroColectivos} (bitset de handles). Imprime el tiempo
+ * promedio por paso de cada variante, lo que permite ver la curva cuadrática
+ * contra la lineal.
+ * <p>
+ * No forma parte de la suite de tests; se ejecuta a mano luego de {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes proyectointegrador.benchmark.BenchmarkRegistroColectivos}
+ *
+ * @author Miyo
+ * @author Enzo
+ * @version 1.0
+ */
+public class BenchmarkRegistroColectivos {
+
+	private static final int[] TAMANIOS_FLOTA = { 250, 500, 1000, 2000, 4000 };
+	private static final int PASOS_CALENTAMIENTO = 20;
+	private static final int PASOS_MEDIDOS = 50;
+
+	public static void main(String[] args) {
+		Linea linea = crearLinea(40);
+		System.out.printf("%8s %18s %18s %10s%n", "flota", "lineal (us/paso)", "registro (us/paso)", "mejora");
+		for (int tamanio : TAMANIOS_FLOTA) {
+			List<Colectivo> flota = crearFlota(linea, tamanio);
+			double lineal = medirEsquemaLineal(flota);
+			double registro = medirRegistro(flota);
+			System.out.printf("%8d %18.1f %18.1f %9.1fx%n", tamanio, lineal, registro, lineal / registro);
+		}
+	}
+
+	// =================================================================================
+	// VARIANTES MEDIDAS
+	// =================================================================================
+
+	/** Esquema anterior: IDs pendientes en un HashSet, cada uno resuelto recorriendo la flota. */
+	private static double medirEsquemaLineal(List<Colectivo> flota) {
+		Set<String> pendientes = new HashSet<>();
+		long total = 0;
+		for (int paso = 0; paso < PASOS_CALENTAMIENTO + PASOS_MEDIDOS; paso++) {
+			for (Colectivo c : flota) {
+				pendientes.add(c.getIdColectivo());
+			}
+			long inicio = System.nanoTime();
+			for (String id : pendientes) {
+				Colectivo colectivo = buscarLineal(flota, id);
+				avanzar(colectivo);
+			}
+			pendientes.clear();
+			if (paso >= PASOS_CALENTAMIENTO) {
+				total += System.nanoTime() - inicio;
+			}
+		}
+		return total / 1_000.0 / PASOS_MEDIDOS;
+	}
+
+	/** Esquema actual: handles pendientes en el bitset del registro. */
+	private static double medirRegistro(List<Colectivo> flota) {
+		RegistroColectivos registro = new RegistroColectivos();
+		for (Colectivo c : flota) {
+			registro.registrar(c);
+		}
+		long total = 0;
+		for (int paso = 0; paso < PASOS_CALENTAMIENTO + PASOS_MEDIDOS; paso++) {
+			for (int h = 0; h < registro.cantidad(); h++) {
+				registro.marcarPendiente(h);
+			}
+			long inicio = System.nanoTime();
+			for (int h = registro.siguientePendiente(0); h >= 0; h = registro.siguientePendiente(h + 1)) {
+				avanzar(registro.obtener(h));
+			}
+			registro.limpiarPendientes();
+			if (paso >= PASOS_CALENTAMIENTO) {
+				total += System.nanoTime() - inicio;
+			}
+		}
+		return total / 1_000.0 / PASOS_MEDIDOS;
+	}
+
+	// =================================================================================
+	// MÉTODOS DE AYUDA
+	// =================================================================================
+
+	private static Colectivo buscarLineal(List<Colectivo> flota, String id) {
+		for (Colectivo c : flota) {
+			if (c.getIdColectivo().equals(id)) {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	private static void avanzar(Colectivo colectivo) {
+		colectivo.avanzarAProximaParada();
+		if (colectivo.estaEnTerminal()) {
+			colectivo.reiniciarParaNuevoRecorrido();
+		}
+	}
+
+	private static Linea crearLinea(int cantidadParadas) {
+		Linea linea = new Linea("B1", "Benchmark");
+		for (int i = 0; i < cantidadParadas; i++) {
+			linea.agregarParadaAlRecorrido(new Parada("BP" + i, "Parada " + i));
+		}
+		return linea;
+	}
+
+	private static List<Colectivo> crearFlota(Linea linea, int tamanio) {
+		List<Colectivo> flota = new ArrayList<>(tamanio);
+		for (int i = 1; i <= tamanio; i++) {
+			flota.add(new Colectivo("C" + i + "-" + linea.getId(), linea, 30, 20, 10, Integer.MAX_VALUE, 0));
+		}
+		return flota;
+	}
+}
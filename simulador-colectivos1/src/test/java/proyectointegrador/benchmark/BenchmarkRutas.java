@@ -0,0 +1,115 @@
+package proyectointegrador.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import proyectointegrador.logica.EstrategiaRuteo;
+import proyectointegrador.logica.PlanificadorRutas;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Benchmark manual de las estrategias de ruteo del {@link PlanificadorRutas}.
+ * <p>
+ * Arma una ciudad sintética en grilla (por defecto 150 x 150 esquinas separadas
+ * unos 300 m, con una línea de ida y otra de vuelta por cada calle y avenida) y
+ * resuelve los mismos pares aleatorios de paradas con cada estrategia, con la
+ * caché de árboles deshabilitada para que cada consulta busque de verdad. Informa
+ * el tiempo y la cantidad de paradas asentadas por consulta, y verifica que
+ * todas las estrategias encuentren rutas del mismo largo. La jerarquía de
+ * contracciones se arma antes de medir, y su tiempo se informa aparte.
+ * <p>
+ * No forma parte de la suite de tests; se ejecuta a mano luego de {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes:<datastructures.jar> proyectointegrador.benchmark.BenchmarkRutas [lado] [consultas]}
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.1
+ */
+public class BenchmarkRutas {
+
+	private static final int LADO_POR_DEFECTO = 150;
+	private static final int CONSULTAS_POR_DEFECTO = 2_000;
+	private static final int RONDAS_CALENTAMIENTO = 2;
+
+	public static void main(String[] args) {
+		int lado = (args.length > 0) ? Integer.parseInt(args[0]) : LADO_POR_DEFECTO;
+		int consultas = (args.length > 1) ? Integer.parseInt(args[1]) : CONSULTAS_POR_DEFECTO;
+
+		List<Parada> paradas = new ArrayList<>();
+		PlanificadorRutas planificador = new PlanificadorRutas();
+		planificador.construirGrafoDesdeLineas(ciudadEnGrilla(lado, paradas));
+		planificador.setCacheRutas(false);
+		System.out.printf("Grilla de %,d paradas, %,d consultas aleatorias%n", paradas.size(), consultas);
+		long inicioJerarquia = System.nanoTime();
+		planificador.prepararJerarquia();
+		System.out.printf("Jerarquía de contracciones armada en %.0f ms%n", (System.nanoTime() - inicioJerarquia) / 1e6);
+
+		Random random = new Random(42);
+		Parada[][] pares = new Parada[consultas][];
+		for (int i = 0; i < consultas; i++) {
+			pares[i] = new Parada[] { paradas.get(random.nextInt(paradas.size())), paradas.get(random.nextInt(paradas.size())) };
+		}
+
+		long[] largos = null;
+		System.out.printf("%-14s %12s %16s%n", "estrategia", "us/consulta", "asentadas/cons.");
+		for (EstrategiaRuteo estrategia : EstrategiaRuteo.values()) {
+			for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+				resolver(planificador, pares, estrategia, new long[consultas]);
+			}
+			long[] largosEstrategia = new long[consultas];
+			long inicio = System.nanoTime();
+			long asentadas = resolver(planificador, pares, estrategia, largosEstrategia);
+			double microsegundos = (System.nanoTime() - inicio) / 1e3 / consultas;
+			System.out.printf("%-14s %12.1f %16.1f%n", estrategia, microsegundos, (double) asentadas / consultas);
+
+			if (largos == null) {
+				largos = largosEstrategia;
+			} else if (!Arrays.equals(largos, largosEstrategia)) {
+				throw new IllegalStateException("La estrategia " + estrategia + " encontró rutas de otro largo.");
+			}
+		}
+	}
+
+	/** Resuelve todos los pares y devuelve el total de paradas asentadas. */
+	private static long resolver(PlanificadorRutas planificador, Parada[][] pares, EstrategiaRuteo estrategia,
+			long[] largos) {
+		long asentadas = 0;
+		for (int i = 0; i < pares.length; i++) {
+			largos[i] = planificador.calcularRutaOptima(pares[i][0], pares[i][1], estrategia).size();
+			asentadas += planificador.getParadasAsentadasUltimaConsulta();
+		}
+		return asentadas;
+	}
+
+	/** Una línea de ida y otra de vuelta por cada fila y cada columna de la grilla. */
+	private static Map<String, Linea> ciudadEnGrilla(int lado, List<Parada> paradas) {
+		for (int f = 0; f < lado; f++) {
+			for (int c = 0; c < lado; c++) {
+				paradas.add(new Parada("G" + f + "_" + c, "Esquina " + f + " y " + c,
+						-38.75 + f * 0.0027, -62.35 + c * 0.0035));
+			}
+		}
+		Map<String, Linea> lineas = new HashMap<>();
+		for (int i = 0; i < lado; i++) {
+			Linea filaIda = new Linea("F" + i + "I", "Fila " + i + " ida");
+			Linea filaVuelta = new Linea("F" + i + "V", "Fila " + i + " vuelta");
+			Linea columnaIda = new Linea("C" + i + "I", "Columna " + i + " ida");
+			Linea columnaVuelta = new Linea("C" + i + "V", "Columna " + i + " vuelta");
+			for (int j = 0; j < lado; j++) {
+				filaIda.agregarParadaAlRecorrido(paradas.get(i * lado + j));
+				filaVuelta.agregarParadaAlRecorrido(paradas.get(i * lado + (lado - 1 - j)));
+				columnaIda.agregarParadaAlRecorrido(paradas.get(j * lado + i));
+				columnaVuelta.agregarParadaAlRecorrido(paradas.get((lado - 1 - j) * lado + i));
+			}
+			for (Linea linea : List.of(filaIda, filaVuelta, columnaIda, columnaVuelta)) {
+				lineas.put(linea.getId(), linea);
+			}
+		}
+		return lineas;
+	}
+}
@@ -0,0 +1,122 @@
+package proyectointegrador.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import proyectointegrador.datos.TablaHorarios;
+import proyectointegrador.logica.PlanificadorViajes;
+import proyectointegrador.logica.Viaje;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+/**
+ * Benchmark manual del {@link PlanificadorViajes}.
+ * <p>
+ * Arma una ciudad sintética en grilla (por defecto 100 x 100 esquinas, con una
+ * línea de ida y otra de regreso por cada calle y avenida) y un archivo de
+ * horarios con salidas entre las 5 y las 23 cada 6 a 15 minutos según la línea.
+ * Resuelve pares aleatorios de paradas a horas aleatorias e informa las consultas
+ * por segundo y la cantidad media de viajes Pareto-óptimos por consulta.
+ * <p>
+ * No forma parte de la suite de tests; se ejecuta a mano luego de {@code mvn test-compile}:
+ * {@code java -cp target/classes:target/test-classes:<datastructures.jar> proyectointegrador.benchmark.BenchmarkViajes [lado] [consultas]}
+ *
+ * @author Miyen
+ * @author Enzo
+ * @version 1.0
+ */
+public class BenchmarkViajes {
+
+	private static final int LADO_POR_DEFECTO = 100;
+	private static final int CONSULTAS_POR_DEFECTO = 20_000;
+	private static final int RONDAS_CALENTAMIENTO = 2;
+
+	public static void main(String[] args) throws IOException {
+		int lado = (args.length > 0) ? Integer.parseInt(args[0]) : LADO_POR_DEFECTO;
+		int consultas = (args.length > 1) ? Integer.parseInt(args[1]) : CONSULTAS_POR_DEFECTO;
+
+		List<Parada> paradas = new ArrayList<>();
+		StringBuilder horarios = new StringBuilder();
+		Map<String, Linea> lineas = ciudadEnGrilla(lado, paradas, horarios, new Random(7));
+		Path archivo = Files.createTempFile("horarios", ".txt");
+		TablaHorarios tabla;
+		try {
+			Files.write(archivo, horarios.toString().getBytes(StandardCharsets.UTF_8));
+			tabla = TablaHorarios.leer(archivo);
+		} finally {
+			Files.deleteIfExists(archivo);
+		}
+
+		long inicioArmado = System.nanoTime();
+		PlanificadorViajes planificador = new PlanificadorViajes(lineas, tabla, DayOfWeek.MONDAY, 10, 2);
+		System.out.printf("Grilla de %,d paradas, %,d líneas y %,d viajes; armado en %.0f ms%n",
+				planificador.getCantidadParadas(), planificador.getCantidadLineas(), planificador.getCantidadViajes(),
+				(System.nanoTime() - inicioArmado) / 1e6);
+
+		Random random = new Random(42);
+		Parada[][] pares = new Parada[consultas][];
+		int[] horas = new int[consultas];
+		for (int i = 0; i < consultas; i++) {
+			pares[i] = new Parada[] { paradas.get(random.nextInt(paradas.size())), paradas.get(random.nextInt(paradas.size())) };
+			horas[i] = 5 * 60 + random.nextInt(16 * 60);
+		}
+
+		for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+			resolver(planificador, pares, horas);
+		}
+		long inicio = System.nanoTime();
+		long viajes = resolver(planificador, pares, horas);
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		System.out.printf("%,.0f consultas/s (%.1f us/consulta), %.2f viajes por consulta%n", consultas / segundos,
+				segundos * 1e6 / consultas, (double) viajes / consultas);
+	}
+
+	/** Resuelve todos los pares y devuelve el total de viajes encontrados. */
+	private static long resolver(PlanificadorViajes planificador, Parada[][] pares, int[] horas) {
+		long total = 0;
+		for (int i = 0; i < pares.length; i++) {
+			List<Viaje> viajes = planificador.calcularViajes(pares[i][0], pares[i][1], horas[i]);
+			total += viajes.size();
+		}
+		return total;
+	}
+
+	/** Una línea de ida y otra de regreso por cada fila y cada columna de la grilla, con sus horarios. */
+	private static Map<String, Linea> ciudadEnGrilla(int lado, List<Parada> paradas, StringBuilder horarios,
+			Random random) {
+		for (int f = 0; f < lado; f++) {
+			for (int c = 0; c < lado; c++) {
+				paradas.add(new Parada("G" + f + "_" + c, "Esquina " + f + " y " + c));
+			}
+		}
+		Map<String, Linea> lineas = new LinkedHashMap<>();
+		for (int i = 0; i < lado; i++) {
+			Linea filaIda = new Linea("F" + i, "Fila " + i + " - Ida");
+			Linea filaRegreso = new Linea("F" + i, "Fila " + i + " - Regreso");
+			Linea columnaIda = new Linea("C" + i, "Columna " + i + " - Ida");
+			Linea columnaRegreso = new Linea("C" + i, "Columna " + i + " - Regreso");
+			for (int j = 0; j < lado; j++) {
+				filaIda.agregarParadaAlRecorrido(paradas.get(i * lado + j));
+				filaRegreso.agregarParadaAlRecorrido(paradas.get(i * lado + (lado - 1 - j)));
+				columnaIda.agregarParadaAlRecorrido(paradas.get(j * lado + i));
+				columnaRegreso.agregarParadaAlRecorrido(paradas.get((lado - 1 - j) * lado + i));
+			}
+			for (Linea linea : List.of(filaIda, filaRegreso, columnaIda, columnaRegreso)) {
+				lineas.put(linea.getId() + " - " + linea.getNombre(), linea);
+				String sentido = linea.getNombre().endsWith("Ida") ? "Ida" : "Regreso";
+				horarios.append(linea.getId()).append(';').append(sentido).append(";L-D;05:")
+						.append(String.format("%02d", random.nextInt(15))).append(";23:00;")
+						.append(6 + random.nextInt(10)).append('\n');
+			}
+		}
+		return lineas;
+	}
+}
@@ -0,0 +1,174 @@
+package proyectointegrador.datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+@DisplayName("Pruebas de ImagenRed")
+class ImagenRedTest {
+
+    @TempDir
+    Path directorio;
+
+    private TopologiaRed topologia;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Parada> paradas = new TreeMap<>();
+        for (String id : new String[] {"A", "B", "C", "D", "Ñ"}) {
+            paradas.put(id, new Parada(id, "Calle " + id + " ñandú", -38.7 - id.charAt(0) / 1000.0, -62.2));
+        }
+        Map<String, Linea> lineas = new TreeMap<>();
+        String[][] recorridos = { {"A", "B", "C"}, {"C", "B", "A"}, {"A", "B", "D"}, {"Ñ"} };
+        for (int l = 0; l < recorridos.length; l++) {
+            Linea linea = new Linea(String.valueOf(l), "Linea " + l);
+            for (String id : recorridos[l]) linea.agregarParadaAlRecorrido(paradas.get(id));
+            lineas.put(linea.getId() + " - " + linea.getNombre(), linea);
+        }
+        topologia = TopologiaRed.desde(paradas, lineas);
+    }
+
+    private Path escribirImagen() throws IOException {
+        Path archivo = directorio.resolve("red.bin");
+        ImagenRed.escribir(topologia, archivo);
+        return archivo;
+    }
+
+    @Nested
+    @DisplayName("Escritura y lectura")
+    class EscrituraYLectura {
+
+        @Test
+        @DisplayName("La red leída reproduce paradas, claves y recorridos")
+        void reproduceLaRed() throws IOException {
+            ImagenRed imagen = ImagenRed.leer(escribirImagen());
+            TopologiaRed.Instancia original = topologia.instanciar();
+            TopologiaRed.Instancia leida = imagen.getTopologia().instanciar();
+
+            assertEquals(original.getParadas().keySet(), leida.getParadas().keySet());
+            for (Parada p : original.getParadas().values()) {
+                Parada q = leida.getParadas().get(p.getId());
+                assertEquals(p.getDireccion(), q.getDireccion());
+                assertEquals(p.getLatitud(), q.getLatitud());
+                assertEquals(p.getLongitud(), q.getLongitud());
+            }
+            assertEquals(original.getLineas().keySet(), leida.getLineas().keySet());
+            for (Map.Entry<String, Linea> e : original.getLineas().entrySet()) {
+                Linea l = leida.getLineas().get(e.getKey());
+                assertEquals(e.getValue().getId(), l.getId());
+                assertEquals(e.getValue().getNombre(), l.getNombre());
+                assertEquals(e.getValue().getRecorrido().toString(), l.getRecorrido().toString());
+            }
+        }
+
+        @Test
+        @DisplayName("La adyacencia tiene un tramo por par de paradas consecutivas, sin repetidos")
+        void adyacenciaSinRepetidos() throws IOException {
+            ImagenRed imagen = ImagenRed.leer(escribirImagen());
+            // Índices en orden de ID: A=0, B=1, C=2, D=3, Ñ=4. Tramos: A>B, B>C, B>D, B>A, C>B
+            assertArrayEquals(new int[] {0, 1, 4, 5, 5, 5}, imagen.getInicioAdyacencia());
+            assertArrayEquals(new int[] {1, 0, 2, 3, 1}, imagen.getDestinosAdyacencia());
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1}, imagen.getPesosAdyacencia());
+            assertEquals(5, imagen.getCantidadTramos());
+        }
+
+        @Test
+        @DisplayName("Una red vacía también se puede guardar")
+        void redVacia() throws IOException {
+            Path archivo = directorio.resolve("vacia.bin");
+            ImagenRed.escribir(TopologiaRed.desde(new TreeMap<>(), new TreeMap<>()), archivo);
+            ImagenRed imagen = ImagenRed.leer(archivo);
+            assertEquals(0, imagen.getTopologia().getCantidadParadas());
+            assertEquals(0, imagen.getCantidadTramos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Validaciones")
+    class Validaciones {
+
+        @Test
+        @DisplayName("Rechaza una imagen con un byte alterado (CRC)")
+        void rechazaImagenAlterada() throws IOException {
+            byte[] bytes = Files.readAllBytes(escribirImagen());
+            bytes[bytes.length - 3] ^= 0x20;
+            assertThrows(IllegalStateException.class, () -> ImagenRed.leer(ByteBuffer.wrap(bytes)));
+        }
+
+        @Test
+        @DisplayName("Rechaza una imagen truncada")
+        void rechazaImagenTruncada() throws IOException {
+            Path archivo = escribirImagen();
+            byte[] bytes = Files.readAllBytes(archivo);
+            Files.write(archivo, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+            assertThrows(IllegalStateException.class, () -> ImagenRed.leer(archivo));
+        }
+
+        @Test
+        @DisplayName("Rechaza otra versión y archivos que no son imágenes")
+        void rechazaOtraVersion() throws IOException {
+            byte[] bytes = Files.readAllBytes(escribirImagen());
+            bytes[7] = 99; // Versión
+            assertThrows(IllegalStateException.class, () -> ImagenRed.leer(ByteBuffer.wrap(bytes)));
+            assertThrows(IllegalStateException.class, () -> ImagenRed.leer(ByteBuffer.wrap(new byte[] {1, 2, 3})));
+        }
+    }
+
+    @Nested
+    @DisplayName("Uso desde LectorArchivos")
+    class UsoDesdeLector {
+
+        private LectorArchivos lectorCon(String imagen) {
+            Properties props = new Properties();
+            props.setProperty("parada", "datos_test/paradas_test.txt");
+            props.setProperty("linea", "datos_test/lineas_test.txt");
+            props.setProperty("imagen_red", imagen);
+            return new LectorArchivos(props);
+        }
+
+        @Test
+        @DisplayName("Prefiere la imagen cuando está configurada y es válida")
+        void prefiereLaImagen() throws IOException {
+            Path archivo = escribirImagen();
+            LectorArchivos lector = lectorCon(archivo.toString());
+            lector.cargarDatosCompletos();
+
+            assertNotNull(lector.getImagenRed());
+            assertEquals(topologia.instanciar().getParadas().keySet(), lector.getParadasCargadas().keySet());
+            assertEquals(4, lector.getLineasCargadas().size());
+            assertTrue(lector.getLineasCargadas().containsKey("3 - Linea 3"));
+        }
+
+        @Test
+        @DisplayName("Si la imagen no existe o está dañada, lee los archivos de texto")
+        void vuelveALosTextos() throws IOException {
+            LectorArchivos sinImagen = lectorCon(directorio.resolve("no-existe.bin").toString());
+            sinImagen.cargarDatosCompletos();
+            assertNull(sinImagen.getImagenRed());
+            assertTrue(sinImagen.getParadasCargadas().containsKey("P01"));
+
+            Path archivo = escribirImagen();
+            byte[] bytes = Files.readAllBytes(archivo);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(archivo, bytes);
+            LectorArchivos danada = lectorCon(archivo.toString());
+            danada.cargarDatosCompletos();
+            assertNull(danada.getImagenRed());
+            assertEquals(4, danada.getParadasCargadas().size());
+        }
+    }
+}
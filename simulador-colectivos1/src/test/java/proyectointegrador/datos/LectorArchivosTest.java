@@ -4,9 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Properties;
 
@@ -151,5 +155,171 @@ class LectorArchivosTest {
 			assertEquals(4, lectorSUT.getParadasCargadas().size(), "La recarga debería limpiar los datos antiguos.");
 			assertFalse(lectorSUT.getParadasCargadas().containsKey("P99"), "La parada falsa no debería existir después de recargar.");
 		}
+
+		@Test
+		@DisplayName("Las vistas deberían reflejar la carga sin copiar y no permitir modificaciones")
+		void vistasDeSoloLectura() throws IOException {
+			lectorSUT = createLectorWithTestProperties(PARADAS_VALIDAS, LINEAS_VALIDAS);
+			Map<String, Parada> vista = lectorSUT.getParadasVista();
+			lectorSUT.cargarDatosCompletos();
+
+			assertSame(vista, lectorSUT.getParadasVista());
+			assertEquals(4, vista.size(), "La vista debe reflejar la carga posterior.");
+			assertEquals(4, lectorSUT.getLineasVista().size());
+			assertThrows(UnsupportedOperationException.class, () -> vista.put("P99", new Parada("P99", "Parada Falsa")));
+		}
+	}
+
+	@Nested
+	@DisplayName("Pruebas de Formato y Registros Omitidos")
+	class PruebasFormato {
+
+		@TempDir
+		Path directorio;
+
+		@Test
+		@DisplayName("Debería contar los registros omitidos de cada archivo")
+		void cuentaRegistrosOmitidos() throws IOException {
+			lectorSUT = createLectorWithTestProperties(PARADAS_VALIDAS, LINEAS_VALIDAS);
+			lectorSUT.cargarDatosCompletos();
+
+			// P05, P06, ID vacío, P08, P10 y P11 (el P01 duplicado se ignora sin contarse)
+			assertEquals(6, lectorSUT.getParadasOmitidas());
+			// L03, L04, ID vacío y L07
+			assertEquals(4, lectorSUT.getLineasOmitidas());
+		}
+
+		@Test
+		@DisplayName("Debería leer archivos del disco con finales de línea CRLF y comas finales")
+		void leeArchivoDelDiscoConCrlf() throws IOException {
+			Path paradas = directorio.resolve("paradas.txt");
+			Path lineas = directorio.resolve("lineas.txt");
+			Files.write(paradas, "A; Parada A ;-38.5;-62.25\r\nB;Parada B;-38.75;-62.5\r\n\r\nC;Parada C;1e-3;+2\r".getBytes(StandardCharsets.UTF_8));
+			Files.write(lineas, "X;Linea X;A,B,C,,\r\nY;Linea Y; B , A \r\n".getBytes(StandardCharsets.UTF_8));
+
+			lectorSUT = createLectorWithTestProperties(paradas.toString(), lineas.toString());
+			lectorSUT.cargarDatosCompletos();
+
+			Map<String, Parada> cargadas = lectorSUT.getParadasCargadas();
+			assertEquals(3, cargadas.size());
+			assertEquals("Parada A", cargadas.get("A").getDireccion());
+			assertEquals(-38.5, cargadas.get("A").getLatitud());
+			assertEquals(-62.25, cargadas.get("A").getLongitud());
+			assertEquals(0.001, cargadas.get("C").getLatitud());
+			assertEquals(2.0, cargadas.get("C").getLongitud());
+			assertEquals(0, lectorSUT.getParadasOmitidas());
+
+			Map<String, Linea> lineasCargadas = lectorSUT.getLineasCargadas();
+			assertEquals(2, lineasCargadas.size());
+			assertEquals(3, lineasCargadas.get("X - Linea X").getRecorrido().size());
+			assertEquals("B", lineasCargadas.get("Y - Linea Y").getRecorrido().get(0).getId());
+			assertEquals(0, lectorSUT.getLineasOmitidas());
+		}
+
+		@Test
+		@DisplayName("Las paradas cargadas deberían quedar ordenadas por ID")
+		void paradasOrdenadasPorId() throws IOException {
+			Path paradas = directorio.resolve("desordenadas.txt");
+			Files.write(paradas, "C;c;0;0\nA;a;0;0\nB;b;0;0\nA;otra;1;1\n".getBytes(StandardCharsets.UTF_8));
+
+			lectorSUT = createLectorWithTestProperties(paradas.toString(), null);
+			lectorSUT.cargarParadas();
+
+			assertEquals("[A, B, C]", lectorSUT.getParadasCargadas().keySet().toString());
+			assertEquals("a", lectorSUT.getParadasCargadas().get("A").getDireccion(), "Debe conservarse la primera parada.");
+		}
+	}
+
+	@Nested
+	@DisplayName("Pruebas de Carga en Bloques Paralelos")
+	class PruebasCargaEnBloques {
+
+		@TempDir
+		Path directorio;
+
+		private LectorArchivos lectorConBloques(String paradas, String lineas, String bloques) {
+			Properties props = new Properties();
+			props.setProperty("parada", paradas);
+			props.setProperty("linea", lineas);
+			props.setProperty("bloques_carga", bloques);
+			return new LectorArchivos(props);
+		}
+
+		@Test
+		@DisplayName("Los cortes de bloque caen siempre al comienzo de un registro")
+		void cortesAlineadosAFinDeLinea() {
+			byte[] datos = "aa\r\nbbbb\ncc\rdddddd\r\ne".getBytes(StandardCharsets.UTF_8);
+			for (int bloques = 1; bloques <= datos.length + 2; bloques++) {
+				int[] cortes = LectorArchivos.partirEnBloques(datos, bloques);
+				assertEquals(0, cortes[0]);
+				assertEquals(datos.length, cortes[cortes.length - 1]);
+				assertTrue(cortes.length - 1 <= bloques);
+				for (int c = 1; c < cortes.length - 1; c++) {
+					assertTrue(cortes[c] > cortes[c - 1]);
+					byte anterior = datos[cortes[c] - 1];
+					assertTrue(anterior == '\n' || (anterior == '\r' && datos[cortes[c]] != '\n'),
+							"Corte en medio de un registro con " + bloques + " bloques: " + cortes[c]);
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("Con cualquier cantidad de bloques el resultado es igual al de la lectura secuencial")
+		void mismoResultadoQueLecturaSecuencial() throws IOException {
+			// Duplicados (válidos e inválidos) repartidos por todo el archivo
+			StringBuilder paradas = new StringBuilder();
+			StringBuilder lineas = new StringBuilder();
+			for (int i = 0; i < 400; i++) {
+				String id = "P" + (i % 150);
+				if (i % 7 == 3) {
+					paradas.append(id).append(";Inválida ").append(i).append(";ERROR;1\r\n");
+				} else if (i % 11 == 5) {
+					paradas.append(id).append(";Sin campos\n");
+				} else {
+					paradas.append(id).append(";Parada ").append(i).append(';').append(i / 10.0).append(";-").append(i).append('\n');
+				}
+				String linea = "L" + (i % 60) + ";Linea " + (i % 60) + ";";
+				lineas.append(linea).append(i % 13 == 0 ? "P1,NO_EXISTE" : "P" + (i % 140) + ",P" + ((i + 1) % 140) + ",")
+						.append(i % 2 == 0 ? "\n" : "\r\n");
+			}
+			Path archivoParadas = directorio.resolve("paradas.txt");
+			Path archivoLineas = directorio.resolve("lineas.txt");
+			Files.write(archivoParadas, paradas.toString().getBytes(StandardCharsets.UTF_8));
+			Files.write(archivoLineas, lineas.toString().getBytes(StandardCharsets.UTF_8));
+
+			LectorArchivos secuencial = lectorConBloques(archivoParadas.toString(), archivoLineas.toString(), "1");
+			secuencial.cargarDatosCompletos();
+			for (String bloques : new String[] {"2", "3", "8", "64", "5000", "auto"}) {
+				LectorArchivos paralelo = lectorConBloques(archivoParadas.toString(), archivoLineas.toString(), bloques);
+				paralelo.cargarDatosCompletos();
+
+				assertEquals(secuencial.getParadasOmitidas(), paralelo.getParadasOmitidas(), bloques + " bloques");
+				assertEquals(secuencial.getLineasOmitidas(), paralelo.getLineasOmitidas(), bloques + " bloques");
+				assertEquals(secuencial.getParadasCargadas().keySet(), paralelo.getParadasCargadas().keySet());
+				for (Parada parada : secuencial.getParadasCargadas().values()) {
+					Parada otra = paralelo.getParadasCargadas().get(parada.getId());
+					assertEquals(parada.getDireccion(), otra.getDireccion(), "Debe ganar la primera aparición.");
+					assertEquals(parada.getLatitud(), otra.getLatitud());
+				}
+				assertEquals(secuencial.getLineasCargadas().keySet(), paralelo.getLineasCargadas().keySet());
+				for (Map.Entry<String, Linea> linea : secuencial.getLineasCargadas().entrySet()) {
+					assertEquals(linea.getValue().getRecorrido().toString(),
+							paralelo.getLineasCargadas().get(linea.getKey()).getRecorrido().toString());
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("Los archivos de prueba se cargan igual con bloques paralelos")
+		void archivosDePruebaEnBloques() throws IOException {
+			lectorSUT = lectorConBloques(PARADAS_VALIDAS, LINEAS_VALIDAS, "4");
+			lectorSUT.cargarDatosCompletos();
+
+			assertEquals(4, lectorSUT.getParadasCargadas().size());
+			assertEquals(4, lectorSUT.getLineasCargadas().size());
+			assertEquals(6, lectorSUT.getParadasOmitidas());
+			assertEquals(4, lectorSUT.getLineasOmitidas());
+			assertEquals("Parada Valida 1", lectorSUT.getParadasCargadas().get("P01").getDireccion());
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package proyectointegrador.datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import proyectointegrador.modelo.Linea;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+
+@DisplayName("Pruebas de TablaHorarios")
+class TablaHorariosTest {
+
+    private static TablaHorarios leer(String contenido) {
+        return TablaHorarios.leer(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("Archivo de horarios del proyecto")
+    class ArchivoProyecto {
+
+        @Test
+        @DisplayName("Lee todos los servicios de horarios_pm.txt")
+        void leeArchivoCompleto() throws IOException {
+            TablaHorarios tabla;
+            try (InputStream input = getClass().getClassLoader()
+                    .getResourceAsStream("datos_pm_no_utilizados/horarios_pm.txt")) {
+                assertNotNull(input);
+                tabla = TablaHorarios.leer(input.readAllBytes());
+            }
+            assertEquals(36, tabla.getCantidadServicios());
+            assertEquals(0, tabla.getRegistrosOmitidos());
+
+            TablaHorarios.Servicio servicio = tabla.servicio(new Linea("1", "Línea 1 - Regreso"), DayOfWeek.WEDNESDAY);
+            assertEquals(4 * 60 + 9, servicio.getPrimeraSalida());
+            assertEquals(22 * 60 + 9, servicio.getUltimaSalida());
+            assertEquals(0, servicio.getFrecuencia());
+        }
+    }
+
+    @Nested
+    @DisplayName("Interpretación de registros")
+    class Interpretacion {
+
+        @Test
+        @DisplayName("Los rangos de días incluyen ambos extremos")
+        void rangosDeDias() {
+            TablaHorarios tabla = leer("3;Regreso;L-J;06:00;22:00;0\n3;Regreso;VIE;06:30;21:00;0\n3;Regreso;VIE-L;08:00;20:00;15\n");
+            assertEquals(6 * 60, tabla.servicio("3", "Regreso", DayOfWeek.THURSDAY).getPrimeraSalida());
+            assertEquals(6 * 60 + 30, tabla.servicio("3", "regreso", DayOfWeek.FRIDAY).getPrimeraSalida());
+            TablaHorarios.Servicio finDeSemana = tabla.servicio("3", "Regreso", DayOfWeek.SUNDAY);
+            assertEquals(15, finDeSemana.getFrecuencia());
+            assertTrue(finDeSemana.incluye(DayOfWeek.MONDAY));
+            assertFalse(finDeSemana.incluye(DayOfWeek.TUESDAY));
+            assertNull(tabla.servicio("3", "Ida", DayOfWeek.MONDAY));
+        }
+
+        @Test
+        @DisplayName("Un servicio que termina a la medianoche o después sigue al día siguiente")
+        void pasaLaMedianoche() {
+            TablaHorarios tabla = leer("4;Ida;L-J;03:00;02:00;0\n3;Regreso;DOM;07:00;00:00;0\n");
+            assertEquals(26 * 60, tabla.servicio("4", "Ida", DayOfWeek.MONDAY).getUltimaSalida());
+            assertEquals(24 * 60, tabla.servicio("3", "Regreso", DayOfWeek.SUNDAY).getUltimaSalida());
+        }
+
+        @Test
+        @DisplayName("Omite y cuenta los registros inválidos")
+        void omiteRegistrosInvalidos() {
+            TablaHorarios tabla = leer("1;Ida;L-V;06:00;21:30;0\n"
+                    + "1;Ida;L-V;06:00;21:30\n"      // faltan campos
+                    + "1;Ida;LUNES;06:00;21:30;0\n"  // día desconocido
+                    + "1;Ida;L-V;25:00;21:30;0\n"    // hora inválida
+                    + "1;Ida;L-V;06:00;21:30;-5\n"   // frecuencia negativa
+                    + "\n"
+                    + ";Ida;L-V;06:00;21:30;0\n");   // sin línea
+            assertEquals(1, tabla.getCantidadServicios());
+            assertEquals(5, tabla.getRegistrosOmitidos());
+        }
+    }
+}
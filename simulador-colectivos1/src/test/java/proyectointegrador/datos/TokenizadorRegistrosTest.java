@@ -0,0 +1,102 @@
+package proyectointegrador.datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Pruebas de TokenizadorRegistros")
+class TokenizadorRegistrosTest {
+
+    private static TokenizadorRegistros tokenizador(String texto) {
+        return new TokenizadorRegistros(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> registros(String texto) {
+        TokenizadorRegistros t = tokenizador(texto);
+        List<String> resultado = new ArrayList<>();
+        while (t.siguienteRegistro()) {
+            resultado.add(t.registro());
+        }
+        return resultado;
+    }
+
+    @Nested
+    @DisplayName("Registros y campos")
+    class RegistrosYCampos {
+
+        @Test
+        @DisplayName("Reconoce los finales de línea \\n, \\r\\n y \\r")
+        void finalesDeLinea() {
+            assertEquals(List.of("a", "b", "", "c", "d"), registros("a\nb\r\n\r\nc\rd"));
+            assertEquals(List.of("a"), registros("a\n"));
+            assertTrue(registros("").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Separa y recorta los campos como split(delimitador, -1) y trim()")
+        void separaCampos() {
+            TokenizadorRegistros t = tokenizador(" P1 ; Calle ñandú ;;x");
+            assertTrue(t.siguienteRegistro());
+            int[] limites = new int[8];
+            assertEquals(4, t.separarCampos((byte) ';', limites));
+            assertEquals("P1", t.texto(limites[0], limites[1]));
+            assertEquals("Calle ñandú", t.texto(limites[2], limites[3]));
+            assertEquals(limites[4], limites[5], "El campo vacío debe tener largo cero.");
+            assertEquals("x", t.texto(limites[6], limites[7]));
+        }
+
+        @Test
+        @DisplayName("Cuenta todos los campos aunque no entren en el arreglo de límites")
+        void cuentaCamposExcedentes() {
+            TokenizadorRegistros t = tokenizador("a;b;c;d;e");
+            assertTrue(t.siguienteRegistro());
+            assertEquals(5, t.separarCampos((byte) ';', new int[4]));
+        }
+
+        @Test
+        @DisplayName("Detecta registros en blanco")
+        void registroEnBlanco() {
+            TokenizadorRegistros t = tokenizador(" \t \nx");
+            assertTrue(t.siguienteRegistro());
+            assertTrue(t.registroEnBlanco());
+            assertTrue(t.siguienteRegistro());
+            assertFalse(t.registroEnBlanco());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conversión de decimales")
+    class ConversionDecimales {
+
+        private double decimal(String texto) {
+            TokenizadorRegistros t = tokenizador(texto);
+            return t.decimal(0, texto.length());
+        }
+
+        @Test
+        @DisplayName("Da el mismo resultado que Double.parseDouble")
+        void mismoResultadoQueParseDouble() {
+            String[] casos = { "0", "-0", "10.0", "-38.7184", "+62.271234", ".5", "5.", "0.1", "0.30000000000000004",
+                    "123456789012345", "1234567890123456789", "-38.71841234567890123", "0.0000000000000000000001",
+                    "1e-3", "2.5E10", "00012.50" };
+            for (String caso : casos) {
+                assertEquals(Double.doubleToRawLongBits(Double.parseDouble(caso)),
+                        Double.doubleToRawLongBits(decimal(caso)), caso);
+            }
+        }
+
+        @Test
+        @DisplayName("Rechaza los campos que no son números")
+        void rechazaTextoNoNumerico() {
+            assertThrows(NumberFormatException.class, () -> decimal("ERROR"));
+            assertThrows(NumberFormatException.class, () -> decimal(""));
+            assertThrows(NumberFormatException.class, () -> decimal("-"));
+            assertThrows(NumberFormatException.class, () -> decimal("1.2.3"));
+        }
+    }
+}
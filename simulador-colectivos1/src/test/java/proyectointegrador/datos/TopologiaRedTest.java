@@ -0,0 +1,83 @@
+package proyectointegrador.datos;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase TopologiaRed")
+public class TopologiaRedTest {
+    private Map<String, Parada> paradas;
+    private Map<String, Linea> lineas;
+
+    @BeforeEach
+    void setUp() {
+        Parada p1 = new Parada("P1", "Calle 1", -42.1, -65.1);
+        Parada p2 = new Parada("P2", "Calle 2", -42.2, -65.2);
+        Parada p3 = new Parada("P3", "Calle 3", -42.3, -65.3);
+        paradas = new TreeMap<>(Map.of("P1", p1, "P2", p2, "P3", p3));
+
+        Linea ida = new Linea("1", "Ida");
+        ida.agregarParadaAlRecorrido(p1);
+        ida.agregarParadaAlRecorrido(p2);
+        ida.agregarParadaAlRecorrido(p3);
+        Linea vuelta = new Linea("1", "Vuelta");
+        vuelta.agregarParadaAlRecorrido(p3);
+        vuelta.agregarParadaAlRecorrido(p1);
+        lineas = new TreeMap<>(Map.of("1 - Ida", ida, "1 - Vuelta", vuelta));
+    }
+
+    @Test
+    @DisplayName("Una instancia debería reproducir paradas, claves y recorridos de la red original")
+    void instanciaReproduceLaRed() {
+        TopologiaRed.Instancia instancia = TopologiaRed.desde(paradas, lineas).instanciar();
+
+        assertEquals(paradas.keySet(), instancia.getParadas().keySet());
+        assertEquals(lineas.keySet(), instancia.getLineas().keySet());
+        Parada copia = instancia.getParadas().get("P2");
+        assertEquals("Calle 2", copia.getDireccion());
+        assertEquals(-42.2, copia.getLatitud());
+        assertEquals(-65.2, copia.getLongitud());
+
+        Linea vuelta = instancia.getLineas().get("1 - Vuelta");
+        assertEquals("Vuelta", vuelta.getNombre());
+        assertEquals(List.of("P3", "P1"), vuelta.getRecorrido().stream().map(Parada::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Las instancias deberían ser independientes entre sí y de la red original")
+    void instanciasIndependientes() {
+        TopologiaRed topologia = TopologiaRed.desde(paradas, lineas);
+        TopologiaRed.Instancia a = topologia.instanciar();
+        TopologiaRed.Instancia b = topologia.instanciar();
+
+        Parada origenA = a.getParadas().get("P1");
+        origenA.agregarPasajero(new Pasajero(origenA, a.getParadas().get("P2")));
+
+        assertNotSame(origenA, b.getParadas().get("P1"));
+        assertNotSame(paradas.get("P1"), origenA);
+        assertFalse(b.getParadas().get("P1").hayPasajerosEsperando());
+        assertFalse(paradas.get("P1").hayPasajerosEsperando());
+        // Las líneas de una instancia usan las paradas de esa misma instancia.
+        assertSame(origenA, a.getLineas().get("1 - Ida").getRecorrido().get(0));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar líneas con paradas que no están en el mapa")
+    void paradaDesconocida() {
+        Linea huerfana = new Linea("9", "Huérfana");
+        huerfana.agregarParadaAlRecorrido(new Parada("PX", "Fuera del mapa"));
+        lineas.put("9 - Huérfana", huerfana);
+        assertThrows(IllegalArgumentException.class, () -> TopologiaRed.desde(paradas, lineas));
+        assertThrows(IllegalArgumentException.class, () -> TopologiaRed.desde(null, lineas));
+    }
+}
@@ -3,6 +3,9 @@ package proyectointegrador.interfaz;
 import org.junit.jupiter.api.*;
 
 import java.util.Properties;
+
+import proyectointegrador.logica.EstrategiaRuteo;
+import proyectointegrador.logica.ModoMotor;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -118,6 +121,121 @@ class SimuladorConfigTest {
         }
     }
 
+    @Nested
+    @DisplayName("Para Modo de Motor")
+    class PruebasModoMotor {
+        @Test
+        @DisplayName("Debería usar el motor por pasos por defecto")
+        void valorPorDefecto() {
+            assertEquals(ModoMotor.PASOS, SimuladorConfig.obtenerModoMotor(props));
+            assertEquals(ModoMotor.PASOS, SimuladorConfig.obtenerModoMotor(null));
+        }
+
+        @Test
+        @DisplayName("Debería usar el valor configurado sin distinguir mayúsculas")
+        void valorConfigurado() {
+            props.setProperty("modo_motor", "Eventos");
+            assertEquals(ModoMotor.EVENTOS, SimuladorConfig.obtenerModoMotor(props));
+        }
+
+        @Test
+        @DisplayName("Debería usar el valor por defecto para una entrada inválida")
+        void valorInvalido() {
+            props.setProperty("modo_motor", "turbo");
+            assertEquals(ModoMotor.PASOS, SimuladorConfig.obtenerModoMotor(props));
+        }
+    }
+
+    @Nested
+    @DisplayName("Para Estrategia de Ruteo")
+    class PruebasEstrategiaRuteo {
+        @Test
+        @DisplayName("Debería usar Dijkstra por defecto")
+        void valorPorDefecto() {
+            assertEquals(EstrategiaRuteo.DIJKSTRA, SimuladorConfig.obtenerEstrategiaRuteo(props));
+            assertEquals(EstrategiaRuteo.DIJKSTRA, SimuladorConfig.obtenerEstrategiaRuteo(null));
+        }
+
+        @Test
+        @DisplayName("Debería usar el valor configurado sin distinguir mayúsculas")
+        void valorConfigurado() {
+            props.setProperty("estrategia_ruteo", "a_Estrella");
+            assertEquals(EstrategiaRuteo.A_ESTRELLA, SimuladorConfig.obtenerEstrategiaRuteo(props));
+        }
+
+        @Test
+        @DisplayName("Debería usar el valor por defecto para una entrada inválida")
+        void valorInvalido() {
+            props.setProperty("estrategia_ruteo", "voraz");
+            assertEquals(EstrategiaRuteo.DIJKSTRA, SimuladorConfig.obtenerEstrategiaRuteo(props));
+        }
+
+        @Test
+        @DisplayName("Debería devolver el archivo de la jerarquía solo si está configurado")
+        void archivoJerarquia() {
+            assertNull(SimuladorConfig.obtenerArchivoJerarquiaRutas(props));
+            props.setProperty("estrategia_ruteo", "contracciones");
+            props.setProperty("jerarquia_rutas", " red_pm.jer ");
+            assertEquals(EstrategiaRuteo.CONTRACCIONES, SimuladorConfig.obtenerEstrategiaRuteo(props));
+            assertEquals("red_pm.jer", SimuladorConfig.obtenerArchivoJerarquiaRutas(props));
+        }
+    }
+
+    @Nested
+    @DisplayName("Para Planificador de Viajes")
+    class PruebasPlanificadorViajes {
+        @Test
+        @DisplayName("Debería habilitarse solo si hay archivo de horarios")
+        void horarios() {
+            assertFalse(SimuladorConfig.tieneHorarios(props));
+            props.setProperty("horarios", "  ");
+            assertFalse(SimuladorConfig.tieneHorarios(props));
+            props.setProperty("horarios", "horarios_pm.txt");
+            assertTrue(SimuladorConfig.tieneHorarios(props));
+        }
+
+        @Test
+        @DisplayName("Debería usar 2 minutos por tramo por defecto o si el valor es inválido")
+        void minutosPorTramo() {
+            assertEquals(2, SimuladorConfig.obtenerMinutosPorTramo(props));
+            props.setProperty("minutos_por_tramo", "0");
+            assertEquals(2, SimuladorConfig.obtenerMinutosPorTramo(props));
+            props.setProperty("minutos_por_tramo", "3");
+            assertEquals(3, SimuladorConfig.obtenerMinutosPorTramo(props));
+        }
+    }
+
+    @Nested
+    @DisplayName("Para Hilos de Réplicas")
+    class PruebasHilosReplicas {
+        @Test
+        @DisplayName("Debería usar un hilo por procesador por defecto, incluso sin configuración")
+        void valorPorDefecto() {
+            int procesadores = Runtime.getRuntime().availableProcessors();
+            assertEquals(procesadores, SimuladorConfig.obtenerHilosReplicas(props));
+            assertEquals(procesadores, SimuladorConfig.obtenerHilosReplicas(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Para Semilla")
+    class PruebasSemilla {
+        @Test
+        @DisplayName("Debería leer la semilla configurada, incluso negativa")
+        void valorConfigurado() {
+            props.setProperty("semilla", " -42 ");
+            assertEquals(-42L, SimuladorConfig.obtenerSemilla(props));
+        }
+
+        @Test
+        @DisplayName("Debería elegir una semilla al azar si no está configurada o es inválida")
+        void valorAlAzar() {
+            assertDoesNotThrow(() -> SimuladorConfig.obtenerSemilla(props));
+            props.setProperty("semilla", "texto");
+            assertDoesNotThrow(() -> SimuladorConfig.obtenerSemilla(props));
+        }
+    }
+
     // Se podrían añadir @Nested classes para el resto de propiedades
     // (obtenerCantidadColectivosSimultaneosPorLinea, etc.) siguiendo el mismo patrón.
 }
\ No newline at end of file
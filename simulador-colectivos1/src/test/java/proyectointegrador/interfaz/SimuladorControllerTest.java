@@ -38,6 +38,12 @@ class SimuladorControllerTest {
             assertThrows(NullPointerException.class, () -> controller.getSimulador().getColectivosEnSimulacion());
         }
 
+        @Test
+        @DisplayName("Debería lanzar una excepción si se piden réplicas antes de inicializar")
+        void replicasAntesDeInicializarLanzaExcepcion() {
+            assertThrows(IllegalStateException.class, () -> controller.ejecutarReplicas(2, 1L));
+        }
+
         @Test
         @DisplayName("Debería permitir múltiples inicializaciones sin error (ser idempotente)")
         void inicializarMultiplesVeces() {
@@ -69,6 +75,20 @@ class SimuladorControllerTest {
             assertFalse(controller.getPasajerosGenerados().isEmpty(), "Debe haber pasajeros generados.");
         }
 
+        @Test
+        @DisplayName("Debería ejecutar réplicas sobre la red cargada sin modificarla")
+        void ejecutarReplicas() {
+            int pasajerosEnParadas = controller.getParadasCargadas().values().stream()
+                    .mapToInt(p -> p.cantidadPasajerosEsperando()).sum();
+
+            var resultado = controller.ejecutarReplicas(2, 99L);
+
+            assertEquals(2, resultado.getCantidad());
+            assertTrue(resultado.getIntervaloSatisfaccion().getMedia() > 0);
+            assertEquals(pasajerosEnParadas, controller.getParadasCargadas().values().stream()
+                    .mapToInt(p -> p.cantidadPasajerosEsperando()).sum(), "Las réplicas no deben tocar las paradas cargadas.");
+        }
+
         @Test
         @DisplayName("Debería devolver siempre la misma instancia de sus componentes")
         void gettersSonConsistentes() {
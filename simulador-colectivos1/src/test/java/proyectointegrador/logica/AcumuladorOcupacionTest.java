@@ -0,0 +1,85 @@
+package proyectointegrador.logica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase AcumuladorOcupacion")
+public class AcumuladorOcupacionTest {
+
+    @Test
+    @DisplayName("Sin observaciones debería devolver ceros")
+    void vacio() {
+        AcumuladorOcupacion acumulador = new AcumuladorOcupacion();
+        assertEquals(0, acumulador.getCantidad());
+        assertEquals(0.0, acumulador.getPromedio());
+        assertEquals(0.0, acumulador.getMinimo());
+        assertEquals(0.0, acumulador.getMaximo());
+        assertEquals(0.0, acumulador.getVarianza());
+        assertFalse(acumulador.tieneHistograma());
+        assertThrows(IllegalStateException.class, acumulador::getHistograma);
+    }
+
+    @Test
+    @DisplayName("Debería calcular las mismas medidas que la muestra completa")
+    void medidasIgualesALaMuestra() {
+        double[] muestra = {0.5, 1.0, 0.0, 0.25, 0.75, 0.3};
+        AcumuladorOcupacion acumulador = new AcumuladorOcupacion();
+        double suma = 0;
+        for (double x : muestra) {
+            acumulador.registrar(x);
+            suma += x;
+        }
+        double media = suma / muestra.length;
+        double cuadrados = 0;
+        for (double x : muestra) cuadrados += (x - media) * (x - media);
+
+        assertEquals(muestra.length, acumulador.getCantidad());
+        assertEquals(media, acumulador.getPromedio(), 1e-12);
+        assertEquals(0.0, acumulador.getMinimo());
+        assertEquals(1.0, acumulador.getMaximo());
+        assertEquals(cuadrados / (muestra.length - 1), acumulador.getVarianza(), 1e-12);
+        assertEquals(Math.sqrt(acumulador.getVarianza()), acumulador.getDesvio(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Combinar dos acumuladores debería igualar a registrar todo en uno")
+    void combinar() {
+        AcumuladorOcupacion todo = new AcumuladorOcupacion(5);
+        AcumuladorOcupacion primera = new AcumuladorOcupacion(5);
+        AcumuladorOcupacion segunda = new AcumuladorOcupacion(5);
+        for (int i = 0; i < 100; i++) {
+            double x = (i * 37 % 101) / 100.0;
+            todo.registrar(x);
+            (i < 30 ? primera : segunda).registrar(x);
+        }
+        primera.combinar(segunda);
+        primera.combinar(new AcumuladorOcupacion(5));
+
+        assertEquals(todo.getCantidad(), primera.getCantidad());
+        assertEquals(todo.getPromedio(), primera.getPromedio(), 1e-12);
+        assertEquals(todo.getVarianza(), primera.getVarianza(), 1e-12);
+        assertEquals(todo.getMinimo(), primera.getMinimo());
+        assertEquals(todo.getMaximo(), primera.getMaximo());
+        assertArrayEquals(todo.getHistograma(), primera.getHistograma());
+        assertThrows(IllegalArgumentException.class, () -> primera.combinar(new AcumuladorOcupacion()));
+    }
+
+    @Test
+    @DisplayName("El histograma debería contar cada valor en su intervalo")
+    void histograma() {
+        AcumuladorOcupacion acumulador = new AcumuladorOcupacion(4);
+        acumulador.registrar(0.0);
+        acumulador.registrar(0.3);
+        acumulador.registrar(0.49);
+        acumulador.registrar(1.0);  // El máximo va al último intervalo
+        acumulador.registrar(1.2);  // Sobrecarga: también al último
+        assertArrayEquals(new long[] {1, 2, 0, 2}, acumulador.getHistograma());
+
+        acumulador.reiniciar();
+        assertEquals(0, acumulador.getCantidad());
+        assertArrayEquals(new long[4], acumulador.getHistograma());
+        assertThrows(IllegalArgumentException.class, () -> new AcumuladorOcupacion(-1));
+    }
+}
@@ -0,0 +1,93 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase BufferEventos")
+public class BufferEventosTest {
+    private BufferEventos buffer;
+    private Pasajero pasajero;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new BufferEventos(4);
+        pasajero = new Pasajero("PAX1", new Parada("P1", "Origen"), new Parada("P2", "Destino"));
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Escritura y Lectura")
+    class PruebasDeEscritura {
+        @Test
+        @DisplayName("Debería guardar todas las columnas de un evento")
+        void guardaColumnas() {
+            buffer.agregar(TipoEvento.PASAJERO_SUBE, 3, 7, 11, pasajero);
+
+            assertEquals(1, buffer.tamanio());
+            assertEquals(TipoEvento.PASAJERO_SUBE, buffer.tipo(0));
+            assertEquals(3, buffer.colectivo(0));
+            assertEquals(7, buffer.parada(0));
+            assertEquals(11, buffer.valor(0));
+            assertSame(pasajero, buffer.pasajero(0));
+        }
+
+        @Test
+        @DisplayName("Debería crecer conservando el orden aunque los datos den la vuelta")
+        void creceConservandoOrden() {
+            for (int i = 0; i < 3; i++) buffer.agregar(TipoEvento.COLECTIVO_AVANZA, i, -1, i, null);
+            buffer.descartar(2); // El inicio queda en la posición 2 del arreglo interno.
+            for (int i = 3; i < 10; i++) buffer.agregar(TipoEvento.COLECTIVO_AVANZA, i, -1, i, null);
+
+            assertEquals(8, buffer.tamanio());
+            for (int i = 0; i < buffer.tamanio(); i++) {
+                assertEquals(i + 2, buffer.valor(i));
+            }
+        }
+
+        @Test
+        @DisplayName("No debería leer posiciones fuera del buffer")
+        void posicionInvalida() {
+            buffer.agregar(TipoEvento.COLECTIVO_AVANZA, 0, -1, 0, null);
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.tipo(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.valor(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Limpieza y Deshabilitación")
+    class PruebasDeLimpieza {
+        @Test
+        @DisplayName("limpiar() debería vaciar el buffer y permitir reutilizarlo")
+        void limpiar() {
+            buffer.agregar(TipoEvento.PASAJERO_SUBE, 0, 0, 0, pasajero);
+            buffer.limpiar();
+            assertTrue(buffer.estaVacio());
+
+            buffer.agregar(TipoEvento.RESUMEN_SUBIDAS, 1, 0, 5, null);
+            assertEquals(TipoEvento.RESUMEN_SUBIDAS, buffer.tipo(0));
+            assertNull(buffer.pasajero(0));
+        }
+
+        @Test
+        @DisplayName("No debería descartar más eventos de los que tiene")
+        void descartarDeMas() {
+            buffer.agregar(TipoEvento.COLECTIVO_AVANZA, 0, -1, 0, null);
+            assertThrows(IllegalArgumentException.class, () -> buffer.descartar(2));
+        }
+
+        @Test
+        @DisplayName("Deshabilitado no debería registrar eventos")
+        void deshabilitado() {
+            buffer.setHabilitado(false);
+            buffer.agregar(TipoEvento.COLECTIVO_AVANZA, 0, -1, 0, null);
+            assertTrue(buffer.estaVacio());
+            assertFalse(buffer.isHabilitado());
+        }
+    }
+}
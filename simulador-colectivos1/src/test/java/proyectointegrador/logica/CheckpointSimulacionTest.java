@@ -0,0 +1,269 @@
+package proyectointegrador.logica;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+import proyectointegrador.modelo.Pasajero;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+@DisplayName("Pruebas de CheckpointSimulacion")
+class CheckpointSimulacionTest {
+
+    private static final long SEMILLA = 20240607L;
+    private static final int PASOS_ANTES_DEL_CHECKPOINT = 7;
+
+    @TempDir
+    Path directorio;
+
+    /** Red y configuración recién creadas, como si se volvieran a cargar de los archivos. */
+    private static final class Red {
+        final Map<String, Parada> paradas = new HashMap<>();
+        final Map<String, Linea> lineas = new LinkedHashMap<>();
+        final Properties props = new Properties();
+
+        Red(ModoMotor modo) {
+            String[][] recorridos = { {"A", "B", "C", "D", "E"}, {"F", "B", "C", "A"}, {"G", "H", "I"} };
+            for (int l = 0; l < recorridos.length; l++) {
+                Linea linea = new Linea(String.valueOf(l + 1), "Linea " + (l + 1));
+                for (String id : recorridos[l]) {
+                    linea.agregarParadaAlRecorrido(paradas.computeIfAbsent(id, k -> new Parada(k, "Parada " + k)));
+                }
+                lineas.put(linea.getId(), linea);
+            }
+            props.setProperty("cantidadPasajeros", "300");
+            props.setProperty("recorridos_por_colectivo", "3");
+            props.setProperty("cantidad_de_colectivos_simultaneos_por_linea", "3");
+            props.setProperty("frecuencia_salida_colectivos_minutos", "4");
+            props.setProperty("modo_motor", modo.name().toLowerCase());
+        }
+    }
+
+    private static Simulador crearSimulacion(Red red, GestorEstadisticas gestor) {
+        List<Pasajero> pasajeros = new GeneradorPasajeros(red.lineas, red.props, gestor, SEMILLA).generarPasajeros();
+        Simulador simulador = new Simulador(red.lineas, red.paradas, pasajeros, gestor, null, red.props);
+        simulador.inicializarColectivos(8, 4);
+        return simulador;
+    }
+
+    private static List<String> ejecutarHastaTerminar(Simulador simulador) {
+        List<String> eventos = new ArrayList<>();
+        while (!simulador.isSimulacionTerminada()) {
+            eventos.addAll(simulador.ejecutarPasoDeSimulacion());
+        }
+        return eventos;
+    }
+
+    private static void assertMismasEstadisticas(GestorEstadisticas esperado, GestorEstadisticas actual) {
+        assertEquals(esperado.getPasajerosTotales(), actual.getPasajerosTotales());
+        assertEquals(esperado.getPasajerosTransportados(), actual.getPasajerosTransportados());
+        assertEquals(esperado.getDesglosePasajeros(), actual.getDesglosePasajeros());
+        assertEquals(esperado.getDesgloseCalificaciones(), actual.getDesgloseCalificaciones());
+        assertEquals(esperado.getIndiceSatisfaccion(), actual.getIndiceSatisfaccion());
+        assertEquals(esperado.getOcupacionPromedioPorColectivo(), actual.getOcupacionPromedioPorColectivo());
+        assertEquals(esperado.getEsperasPorParada().keySet(), actual.getEsperasPorParada().keySet());
+        for (String linea : esperado.getViajesPorLinea().keySet()) {
+            HistogramaCuantiles h1 = esperado.getViajesPorLinea().get(linea);
+            HistogramaCuantiles h2 = actual.getViajesPorLinea().get(linea);
+            assertEquals(h1.getCantidad(), h2.getCantidad());
+            assertEquals(h1.getSuma(), h2.getSuma());
+            assertEquals(h1.getP95(), h2.getP95());
+        }
+    }
+
+    /**
+     * Ejecuta una simulación completa escribiendo un checkpoint a mitad de camino,
+     * la restaura sobre una red nueva y verifica que el resto sea idéntico.
+     */
+    private void verificarReanudacionExacta(ModoMotor modo) throws IOException {
+        Path archivo = directorio.resolve("checkpoint-" + modo + ".bin");
+
+        Red red = new Red(modo);
+        GestorEstadisticas gestor = new GestorEstadisticas();
+        Simulador original = crearSimulacion(red, gestor);
+        for (int i = 0; i < PASOS_ANTES_DEL_CHECKPOINT; i++) {
+            original.ejecutarPasoDeSimulacion();
+        }
+        CheckpointSimulacion.escribir(original, SEMILLA, archivo);
+        List<String> eventosOriginal = ejecutarHastaTerminar(original);
+
+        Red redNueva = new Red(modo);
+        GestorEstadisticas gestorNuevo = new GestorEstadisticas();
+        Simulador restaurado = CheckpointSimulacion.restaurar(archivo, redNueva.lineas, redNueva.paradas, gestorNuevo,
+                null, redNueva.props);
+        List<String> eventosRestaurado = ejecutarHastaTerminar(restaurado);
+
+        assertFalse(eventosOriginal.isEmpty());
+        assertEquals(eventosOriginal, eventosRestaurado);
+        assertEquals(original.getPasoActual(), restaurado.getPasoActual());
+        assertMismasEstadisticas(gestor, gestorNuevo);
+        for (String id : red.paradas.keySet()) {
+            assertEquals(red.paradas.get(id).getTiempoEsperaPromedio(), redNueva.paradas.get(id).getTiempoEsperaPromedio());
+            assertEquals(red.paradas.get(id).cantidadPasajerosEsperando(), redNueva.paradas.get(id).cantidadPasajerosEsperando());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reanudación exacta")
+    class ReanudacionExacta {
+
+        @Test
+        @DisplayName("Motor por pasos: el resto de la simulación es idéntico")
+        void motorPorPasos() throws IOException {
+            verificarReanudacionExacta(ModoMotor.PASOS);
+        }
+
+        @Test
+        @DisplayName("Motor por eventos: el resto de la simulación es idéntico")
+        void motorPorEventos() throws IOException {
+            verificarReanudacionExacta(ModoMotor.EVENTOS);
+        }
+
+        @Test
+        @DisplayName("Motor paralelo: el resto de la simulación es idéntico")
+        void motorParalelo() throws IOException {
+            verificarReanudacionExacta(ModoMotor.PARALELO);
+        }
+
+        @Test
+        @DisplayName("Conserva los IDs explícitos y las llegadas de pasajeros programadas")
+        void conservaIdsYLlegadasProgramadas() throws IOException {
+            Path archivo = directorio.resolve("llegadas.bin");
+            Red red = new Red(ModoMotor.EVENTOS);
+            List<Pasajero> pasajeros = new ArrayList<>();
+            Simulador original = simuladorConLlegadas(red, new GestorEstadisticas(), pasajeros);
+            original.ejecutarPasoDeSimulacion();
+            CheckpointSimulacion.escribir(original, SEMILLA, archivo);
+            List<String> eventosOriginal = ejecutarHastaTerminar(original);
+
+            Red redNueva = new Red(ModoMotor.EVENTOS);
+            Simulador restaurado = CheckpointSimulacion.restaurar(archivo, redNueva.lineas, redNueva.paradas,
+                    new GestorEstadisticas(), null, redNueva.props);
+            assertEquals("Viajero-0", restaurado.getPasajerosSimuladosVista().get(0).getId());
+            assertEquals(eventosOriginal, ejecutarHastaTerminar(restaurado));
+        }
+
+        private Simulador simuladorConLlegadas(Red red, GestorEstadisticas gestor, List<Pasajero> pasajeros) {
+            String[][] viajes = { {"A", "E"}, {"B", "D"}, {"F", "A"}, {"G", "I"}, {"A", "C"}, {"B", "C"} };
+            for (int i = 0; i < viajes.length; i++) {
+                Pasajero p = new Pasajero("Viajero-" + i, red.paradas.get(viajes[i][0]), red.paradas.get(viajes[i][1]));
+                gestor.registrarPasajero(p);
+                pasajeros.add(p);
+            }
+            Simulador simulador = new Simulador(red.lineas, red.paradas, pasajeros, gestor, null, red.props);
+            simulador.inicializarColectivos(8, 4);
+            for (int i = 0; i < pasajeros.size(); i++) {
+                simulador.programarLlegadaPasajero(pasajeros.get(i), 2 * i + 1);
+            }
+            return simulador;
+        }
+    }
+
+    @Nested
+    @DisplayName("Checkpoints periódicos y validaciones")
+    class PeriodicosYValidaciones {
+
+        @Test
+        @DisplayName("El simulador escribe el checkpoint cada N pasos y la semilla se puede leer")
+        void escribeCheckpointPeriodico() throws IOException {
+            Path archivo = directorio.resolve("periodico.bin");
+            Simulador simulador = crearSimulacion(new Red(ModoMotor.PASOS), new GestorEstadisticas());
+            simulador.setCheckpointPeriodico(archivo, 5, SEMILLA);
+
+            for (int i = 0; i < 4; i++) simulador.ejecutarPasoDeSimulacion();
+            assertFalse(Files.exists(archivo));
+            simulador.ejecutarPasoDeSimulacion();
+            assertTrue(Files.exists(archivo));
+            assertFalse(Files.exists(directorio.resolve("periodico.bin.tmp")));
+            assertEquals(SEMILLA, CheckpointSimulacion.leerSemilla(archivo));
+        }
+
+        @Test
+        @DisplayName("Los checkpoints periódicos agregan segmentos y restauran el último estado")
+        void checkpointsIncrementales() throws IOException {
+            Path archivo = directorio.resolve("incremental.bin");
+            Red red = new Red(ModoMotor.EVENTOS);
+            GestorEstadisticas gestor = new GestorEstadisticas();
+            Simulador original = crearSimulacion(red, gestor);
+            original.setCheckpointPeriodico(archivo, 2, SEMILLA);
+
+            for (int i = 0; i < 2; i++) original.ejecutarPasoDeSimulacion();
+            long tamanioBase = Files.size(archivo);
+            for (int i = 0; i < 2; i++) original.ejecutarPasoDeSimulacion();
+            assertTrue(Files.size(archivo) - tamanioBase < tamanioBase, "Un segmento trae solo lo que cambió.");
+            for (int i = 0; i < 4; i++) original.ejecutarPasoDeSimulacion();
+            assertTrue(Files.size(archivo) > tamanioBase, "Los checkpoints siguientes se agregan al archivo.");
+            original.setCheckpointPeriodico(null, 0, SEMILLA);
+            List<String> eventosOriginal = ejecutarHastaTerminar(original);
+
+            Red redNueva = new Red(ModoMotor.EVENTOS);
+            GestorEstadisticas gestorNuevo = new GestorEstadisticas();
+            Simulador restaurado = CheckpointSimulacion.restaurar(archivo, redNueva.lineas, redNueva.paradas,
+                    gestorNuevo, null, redNueva.props);
+            assertEquals(8, restaurado.getPasoActual());
+            assertEquals(eventosOriginal, ejecutarHastaTerminar(restaurado));
+            assertMismasEstadisticas(gestor, gestorNuevo);
+        }
+
+        @Test
+        @DisplayName("Un segmento incompleto al final se ignora")
+        void ignoraSegmentoIncompleto() throws IOException {
+            Path archivo = directorio.resolve("cortado.bin");
+            Simulador simulador = crearSimulacion(new Red(ModoMotor.PASOS), new GestorEstadisticas());
+            simulador.setCheckpointPeriodico(archivo, 3, SEMILLA);
+            for (int i = 0; i < 6; i++) simulador.ejecutarPasoDeSimulacion();
+            long tamanio = Files.size(archivo);
+            for (int i = 0; i < 3; i++) simulador.ejecutarPasoDeSimulacion();
+            byte[] contenido = Files.readAllBytes(archivo);
+            assertTrue(contenido.length > tamanio + 16);
+            Files.write(archivo, Arrays.copyOf(contenido, (int) tamanio + 16));
+
+            Red red = new Red(ModoMotor.PASOS);
+            Simulador restaurado = CheckpointSimulacion.restaurar(archivo, red.lineas, red.paradas,
+                    new GestorEstadisticas(), null, red.props);
+            assertEquals(6, restaurado.getPasoActual());
+        }
+
+        @Test
+        @DisplayName("Rechaza un archivo que no es un checkpoint")
+        void rechazaArchivoInvalido() throws IOException {
+            Path archivo = directorio.resolve("invalido.bin");
+            Files.write(archivo, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+            Red red = new Red(ModoMotor.PASOS);
+            assertThrows(IllegalStateException.class,
+                    () -> CheckpointSimulacion.restaurar(archivo, red.lineas, red.paradas, null, null, red.props));
+        }
+
+        @Test
+        @DisplayName("Rechaza restaurar con un motor distinto del original")
+        void rechazaMotorDistinto() throws IOException {
+            Path archivo = directorio.resolve("motor.bin");
+            CheckpointSimulacion.escribir(crearSimulacion(new Red(ModoMotor.PASOS), new GestorEstadisticas()), SEMILLA, archivo);
+            Red red = new Red(ModoMotor.EVENTOS);
+            assertThrows(IllegalStateException.class,
+                    () -> CheckpointSimulacion.restaurar(archivo, red.lineas, red.paradas, null, null, red.props));
+        }
+
+        @Test
+        @DisplayName("El gestor concurrente no admite checkpoints")
+        void gestorConcurrenteNoAdmiteCheckpoints() {
+            Simulador simulador = crearSimulacion(new Red(ModoMotor.PASOS), new GestorEstadisticasConcurrente());
+            assertThrows(IllegalStateException.class,
+                    () -> CheckpointSimulacion.escribir(simulador, SEMILLA, directorio.resolve("concurrente.bin")));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.datos.TopologiaRed;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase EjecutorReplicas")
+public class EjecutorReplicasTest {
+    private TopologiaRed topologia;
+    private Properties props;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Parada> paradas = new HashMap<>();
+        for (int i = 1; i <= 6; i++) paradas.put("P" + i, new Parada("P" + i, "Parada " + i));
+        Linea l1 = new Linea("1", "Uno");
+        for (int i = 1; i <= 4; i++) l1.agregarParadaAlRecorrido(paradas.get("P" + i));
+        Linea l2 = new Linea("2", "Dos");
+        for (int i = 3; i <= 6; i++) l2.agregarParadaAlRecorrido(paradas.get("P" + i));
+        Map<String, Linea> lineas = new HashMap<>();
+        lineas.put("1 - Uno", l1);
+        lineas.put("2 - Dos", l2);
+        topologia = TopologiaRed.desde(paradas, lineas);
+
+        props = new Properties();
+        props.setProperty("cantidadPasajeros", "60");
+        props.setProperty("capacidadColectivo", "8");
+        props.setProperty("capacidadSentadosColectivo", "4");
+        props.setProperty("recorridos_por_colectivo", "2");
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Reproducibilidad")
+    class PruebasDeReproducibilidad {
+        @Test
+        @DisplayName("El resultado debería depender solo de las semillas, no de la cantidad de hilos")
+        void mismoResultadoConDistintosHilos() {
+            ResultadoReplicas secuencial = new EjecutorReplicas(topologia, props, 1).ejecutar(8, 42L);
+            ResultadoReplicas concurrente = new EjecutorReplicas(topologia, props, 4).ejecutar(8, 42L);
+
+            assertEquals(8, concurrente.getCantidad());
+            for (int i = 0; i < 8; i++) {
+                assertEquals(secuencial.getSemilla(i), concurrente.getSemilla(i));
+                assertEquals(secuencial.getSatisfaccion(i), concurrente.getSatisfaccion(i));
+                assertEquals(secuencial.getOcupacion(i), concurrente.getOcupacion(i));
+            }
+        }
+
+        @Test
+        @DisplayName("Una réplica debería coincidir con la misma réplica ejecutada dentro de un lote")
+        void replicaIndividualIgualALote() {
+            EjecutorReplicas ejecutor = new EjecutorReplicas(topologia, props, 2);
+            ResultadoReplicas lote = ejecutor.ejecutar(3, 7L);
+            GestorEstadisticas individual = ejecutor.ejecutarReplica(lote.getSemilla(2));
+
+            assertEquals(lote.getSatisfaccion(2), individual.getIndiceSatisfaccion());
+            assertEquals(lote.getOcupacion(2), individual.getOcupacionPromedioGeneral());
+            assertEquals(60, individual.getPasajerosTotales());
+        }
+
+        @Test
+        @DisplayName("El intervalo de confianza debería contener la media de las réplicas")
+        void intervaloContieneMedia() {
+            ResultadoReplicas resultado = new EjecutorReplicas(topologia, props, 2).ejecutar(10, 1L);
+            IntervaloConfianza satisfaccion = resultado.getIntervaloSatisfaccion();
+
+            assertEquals(10, satisfaccion.getTamanio());
+            assertTrue(satisfaccion.getInferior() <= satisfaccion.getMedia());
+            assertTrue(satisfaccion.getMedia() <= satisfaccion.getSuperior());
+            assertTrue(satisfaccion.getMedia() > 0 && satisfaccion.getMedia() <= 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Validación")
+    class PruebasDeValidacion {
+        @Test
+        @DisplayName("Debería rechazar argumentos inválidos")
+        void argumentosInvalidos() {
+            assertThrows(IllegalArgumentException.class, () -> new EjecutorReplicas(null, props, 1));
+            assertThrows(IllegalArgumentException.class, () -> new EjecutorReplicas(topologia, props, 0));
+            assertThrows(IllegalArgumentException.class, () -> new EjecutorReplicas(topologia, props, 1).ejecutar(0, 1L));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package proyectointegrador.logica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase FuenteAleatoria")
+public class FuenteAleatoriaTest {
+
+    @Test
+    @DisplayName("La misma semilla debería producir la misma secuencia")
+    void mismaSemillaMismaSecuencia() {
+        FuenteAleatoria a = new FuenteAleatoria(7L);
+        FuenteAleatoria b = new FuenteAleatoria(7L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.siguienteLong(), b.siguienteLong());
+        }
+    }
+
+    @Test
+    @DisplayName("La derivación no debería depender de cuántos números se consumieron")
+    void derivacionIndependienteDelConsumo() {
+        FuenteAleatoria madre = new FuenteAleatoria(7L);
+        long esperado = madre.derivar("linea:1").siguienteLong();
+        for (int i = 0; i < 10; i++) madre.siguienteLong();
+        assertEquals(esperado, madre.derivar("linea:1").siguienteLong());
+        assertEquals(FuenteAleatoria.semillaDerivada(7L, 3), madre.derivar(3).getSemilla());
+    }
+
+    @Test
+    @DisplayName("Claves distintas deberían dar flujos distintos")
+    void clavesDistintasFlujosDistintos() {
+        FuenteAleatoria madre = new FuenteAleatoria(7L);
+        assertNotEquals(madre.derivar("linea:1").siguienteLong(), madre.derivar("linea:2").siguienteLong());
+        assertNotEquals(madre.derivar(0).getSemilla(), madre.derivar(1).getSemilla());
+        assertNotEquals(FuenteAleatoria.semillaDerivada(1L, 0), FuenteAleatoria.semillaDerivada(0L, 1));
+    }
+
+    @Test
+    @DisplayName("Los enteros deberían respetar el rango pedido")
+    void enterosEnRango() {
+        FuenteAleatoria fuente = new FuenteAleatoria(1L);
+        for (int i = 0; i < 1000; i++) {
+            int valor = fuente.siguienteEntero(3, 8);
+            assertTrue(valor >= 3 && valor < 8);
+        }
+    }
+}
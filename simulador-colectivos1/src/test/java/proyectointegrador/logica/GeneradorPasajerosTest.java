@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 
+import proyectointegrador.modelo.AlmacenPasajeros;
 import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.ListaPasajeros;
 import proyectointegrador.modelo.Parada;
 import proyectointegrador.modelo.Pasajero;
 
@@ -105,6 +107,19 @@ class GeneradorPasajerosTest {
             assertEquals(10, gestorEstadisticasStub.getPasajerosRegistrados(), "Todos los pasajeros deben registrarse en estadísticas.");
         }
 
+        @Test
+        @DisplayName("Debería devolver los pasajeros como handles del almacén, en orden")
+        void generarPasajerosComoHandles() {
+            configDePrueba.setProperty("cantidadPasajeros", "10");
+            GeneradorPasajeros generador = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub);
+
+            ListaPasajeros lista = assertInstanceOf(ListaPasajeros.class, generador.generarPasajeros());
+            assertSame(generador.getAlmacenPasajeros(), lista.getAlmacenUnico());
+            for (int i = 0; i < lista.size(); i++) {
+                assertEquals(i, lista.handle(i));
+            }
+        }
+
         @Test
         @DisplayName("Debería lanzar excepción si no hay líneas válidas para generar viajes")
         void generarPasajerosSinLineasValidas() {
@@ -139,6 +154,25 @@ class GeneradorPasajerosTest {
             }
         }
 
+        @Test
+        @DisplayName("Con una línea circular, nunca debería generar origen igual a destino")
+        void lineaCircularSinOrigenIgualADestino() {
+            Linea circular = new Linea("CI", "Circular");
+            circular.agregarParadaAlRecorrido(p1);
+            circular.agregarParadaAlRecorrido(p2);
+            circular.agregarParadaAlRecorrido(p1);
+            Map<String, Linea> soloCircular = new HashMap<>();
+            soloCircular.put("CI", circular);
+            configDePrueba.setProperty("cantidadPasajeros", "300");
+
+            List<Pasajero> pasajeros = new GeneradorPasajeros(soloCircular, configDePrueba, gestorEstadisticasStub, 3L).generarPasajeros();
+
+            assertEquals(300, pasajeros.size());
+            for (Pasajero p : pasajeros) {
+                assertNotSame(p.getParadaOrigen(), p.getParadaDestino());
+            }
+        }
+
         @Test
         @DisplayName("Debería añadir a cada pasajero generado a la cola de su parada de origen")
         void generarPasajerosLosEncolaEnSuOrigen() {
@@ -160,6 +194,65 @@ class GeneradorPasajerosTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pruebas de Reproducibilidad")
+    class PruebasDeReproducibilidad {
+
+        @Test
+        @DisplayName("Debería generar los mismos pasajeros con la misma semilla")
+        void mismaSemillaMismosPasajeros() {
+            configDePrueba.setProperty("cantidadPasajeros", "40");
+            List<Pasajero> primera = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub, 99L).generarPasajeros();
+            List<Pasajero> segunda = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub, 99L).generarPasajeros();
+
+            assertEquals(primera.size(), segunda.size());
+            for (int i = 0; i < primera.size(); i++) {
+                assertEquals(primera.get(i).getId(), segunda.get(i).getId());
+                assertSame(primera.get(i).getParadaOrigen(), segunda.get(i).getParadaOrigen());
+                assertSame(primera.get(i).getParadaDestino(), segunda.get(i).getParadaDestino());
+            }
+        }
+
+        @Test
+        @DisplayName("Con demanda grande (generación en paralelo) debería ser determinista y ordenado")
+        void demandaGrandeDeterministaYOrdenada() {
+            Linea otra = new Linea("LO", "Linea Otra");
+            otra.agregarParadaAlRecorrido(p3);
+            otra.agregarParadaAlRecorrido(p4);
+            otra.agregarParadaAlRecorrido(p5);
+            lineasDePrueba.put("LO", otra);
+            configDePrueba.setProperty("cantidadPasajeros", "60000");
+
+            List<Pasajero> primera = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub, 5L).generarPasajeros();
+            List<Pasajero> segunda = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub, 5L).generarPasajeros();
+
+            assertEquals(120000, gestorEstadisticasStub.getPasajerosRegistrados());
+            for (int i = 0; i < primera.size(); i++) {
+                assertEquals("Pasajero-" + (i + 1), primera.get(i).getId());
+                assertSame(primera.get(i).getParadaOrigen(), segunda.get(i).getParadaOrigen());
+                assertSame(primera.get(i).getParadaDestino(), segunda.get(i).getParadaDestino());
+            }
+            // Cada parada encola a sus pasajeros en orden de número de pasajero.
+            assertEquals(primera.stream().filter(p -> p.getParadaOrigen() == p3).findFirst().orElseThrow(), p3.peekSiguientePasajero());
+        }
+
+        @Test
+        @DisplayName("Debería usar la semilla de la configuración si está definida")
+        void semillaDesdeConfiguracion() {
+            configDePrueba.setProperty("cantidadPasajeros", "5");
+            configDePrueba.setProperty("semilla", "1234");
+            GeneradorPasajeros generador = new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub);
+            assertEquals(1234L, generador.getSemilla());
+        }
+
+        @Test
+        @DisplayName("Debería lanzar excepción si la fuente aleatoria es nula")
+        void fuenteNula() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new GeneradorPasajeros(lineasDePrueba, configDePrueba, gestorEstadisticasStub, (FuenteAleatoria) null));
+        }
+    }
+
     /**
      * Stub de GestorEstadisticas para verificar interacciones sin depender de la clase real.
      */
@@ -170,6 +263,11 @@ class GeneradorPasajerosTest {
         public void registrarPasajero(Pasajero pasajero) {
             pasajerosRegistrados++;
         }
+
+        @Override
+        public void registrarPasajeros(AlmacenPasajeros almacen, int desde, int hasta) {
+            pasajerosRegistrados += hasta - desde;
+        }
         
         public int getPasajerosRegistrados() {
             return pasajerosRegistrados;
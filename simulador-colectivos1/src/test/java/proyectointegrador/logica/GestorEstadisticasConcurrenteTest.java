@@ -0,0 +1,136 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.modelo.AlmacenPasajeros;
+import proyectointegrador.modelo.Parada;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase GestorEstadisticasConcurrente")
+public class GestorEstadisticasConcurrenteTest {
+
+    private static final int HILOS = 8;
+    private static final int PASAJEROS = 40_000;
+    private static final int COLECTIVOS = 25;
+    private static final int CAPACIDAD = 30;
+
+    private AlmacenPasajeros almacen;
+
+    @BeforeEach
+    void setUp() {
+        almacen = new AlmacenPasajeros(PASAJEROS);
+        Parada origen = new Parada("P1", "Origen");
+        Parada destino = new Parada("P2", "Destino");
+        for (int i = 0; i < PASAJEROS; i++) {
+            int h = almacen.agregar(origen, destino);
+            almacen.setPudoSubir(h, i % 7 != 0);
+            almacen.setViajoSentado(h, i % 2 == 0);
+            for (int e = 0; e < i % 3; e++) {
+                almacen.incrementarColectivosEsperados(h);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El resultado combinado de varios hilos debería igualar al de un solo hilo")
+    void resultadoIgualAlDeUnSoloHilo() throws Exception {
+        GestorEstadisticas secuencial = new GestorEstadisticas();
+        GestorEstadisticasConcurrente concurrente = new GestorEstadisticasConcurrente();
+        for (int c = 0; c < COLECTIVOS; c++) {
+            secuencial.registrarCapacidadColectivo("C" + c, CAPACIDAD);
+            concurrente.registrarCapacidadColectivo("C" + c, CAPACIDAD);
+        }
+        for (int h = 0; h < PASAJEROS; h++) {
+            secuencial.registrarTransporte(almacen, h);
+            secuencial.registrarOcupacionTramo(h % COLECTIVOS, h % (CAPACIDAD + 1));
+        }
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int t = 0; t < HILOS; t++) {
+                final int hilo = t;
+                tareas.add(ejecutor.submit(() -> {
+                    for (int h = hilo; h < PASAJEROS; h += HILOS) {
+                        concurrente.registrarTransporte(almacen, h);
+                        concurrente.registrarOcupacionTramo(h % COLECTIVOS, h % (CAPACIDAD + 1));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            ejecutor.shutdown();
+        }
+
+        assertEquals(secuencial.getPasajerosTransportados(), concurrente.getPasajerosTransportados());
+        assertEquals(secuencial.getDesgloseCalificaciones(), concurrente.getDesgloseCalificaciones());
+        assertEquals(secuencial.getIndiceSatisfaccion(), concurrente.getIndiceSatisfaccion());
+        assertEquals(secuencial.getPorcentajeSatisfechos(), concurrente.getPorcentajeSatisfechos());
+        assertEquals(secuencial.getPorcentajeInsatisfechos(), concurrente.getPorcentajeInsatisfechos());
+
+        Map<String, Double> esperados = secuencial.getOcupacionPromedioPorColectivo();
+        Map<String, Double> obtenidos = concurrente.getOcupacionPromedioPorColectivo();
+        assertEquals(esperados.keySet(), obtenidos.keySet());
+        for (String id : esperados.keySet()) {
+            assertEquals(esperados.get(id), obtenidos.get(id), 1e-12);
+            AcumuladorOcupacion a = secuencial.getAcumuladorOcupacion(id);
+            AcumuladorOcupacion b = concurrente.getAcumuladorOcupacion(id);
+            assertEquals(a.getCantidad(), b.getCantidad());
+            assertEquals(a.getMinimo(), b.getMinimo());
+            assertEquals(a.getMaximo(), b.getMaximo());
+            assertEquals(a.getVarianza(), b.getVarianza(), 1e-12);
+        }
+        assertEquals(secuencial.getOcupacionPromedioGeneral(), concurrente.getOcupacionPromedioGeneral(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("reset() debería descartar los registros de todos los hilos")
+    void resetLimpiaTodo() throws Exception {
+        GestorEstadisticasConcurrente gestor = new GestorEstadisticasConcurrente();
+        int c1 = gestor.registrarCapacidadColectivo("C1", 10);
+        Thread otroHilo = new Thread(() -> gestor.registrarOcupacionTramo(c1, 5));
+        otroHilo.start();
+        otroHilo.join();
+        gestor.registrarTransporte(almacen, 0);
+        assertEquals(0.5, gestor.getOcupacionPromedioPorColectivo().get("C1"), 0.0001);
+
+        gestor.reset();
+
+        assertEquals(0, gestor.getPasajerosTransportados());
+        assertTrue(gestor.getDesgloseCalificaciones().isEmpty());
+        assertTrue(gestor.getOcupacionPromedioPorColectivo().isEmpty());
+        assertNull(gestor.getAcumuladorOcupacion("C1"));
+    }
+
+    @Test
+    @DisplayName("Los histogramas devueltos son copias que no cambian con registros posteriores")
+    void histogramasSonCopias() {
+        GestorEstadisticasConcurrente gestor = new GestorEstadisticasConcurrente();
+        gestor.registrarEspera("P1", "1 - Ida", 4);
+        gestor.registrarViaje("1 - Ida", 10);
+        Map<String, HistogramaCuantiles> esperas = gestor.getEsperasPorParada();
+        Map<String, HistogramaCuantiles> viajes = gestor.getViajesPorLinea();
+
+        gestor.registrarEspera("P1", "1 - Ida", 6);
+        gestor.registrarEspera("P2", "1 - Ida", 6);
+        gestor.registrarViaje("1 - Ida", 12);
+
+        assertEquals(1, esperas.size());
+        assertEquals(1, esperas.get("P1").getCantidad());
+        assertEquals(1, viajes.get("1 - Ida").getCantidad());
+        assertEquals(2, gestor.getEsperasPorParada().get("P1").getCantidad());
+        assertEquals(3, gestor.getEsperasPorLinea().get("1 - Ida").getCantidad());
+    }
+}
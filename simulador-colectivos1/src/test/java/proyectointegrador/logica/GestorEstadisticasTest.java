@@ -69,6 +69,21 @@ public class GestorEstadisticasTest {
     @Nested
     @DisplayName("Pruebas de Estadísticas de Satisfacción")
     class PruebasDeSatisfaccion {
+        @Test
+        @DisplayName("Debería contar por calificación y rechazar las que están fuera de escala")
+        void conteoPorCalificacion() {
+            gestor.registrarTransporte(pasajeroSatisfecho);
+            gestor.registrarTransporte(pasajeroSatisfecho);
+            assertEquals(2, gestor.getCantidadConCalificacion(5));
+            assertEquals(0, gestor.getCantidadConCalificacion(1));
+            assertEquals(0, gestor.getCantidadConCalificacion(9));
+            assertEquals(Map.of(5, 2), gestor.getDesgloseCalificaciones());
+
+            pasajeroNeutral.setSatisfaccion(7);
+            assertThrows(IllegalArgumentException.class, () -> gestor.registrarTransporte(pasajeroNeutral));
+            assertEquals(2, gestor.getPasajerosTransportados());
+        }
+
         @Test
         @DisplayName("registrarTransporte() debería actualizar contadores y calificaciones")
         void registrarTransporte() {
@@ -117,6 +132,39 @@ public class GestorEstadisticasTest {
             assertEquals((0.5 + 1.0 + 0.0) / 3.0, promedios.get("C1"), 0.0001);
         }
 
+        @Test
+        @DisplayName("El handle de un colectivo debería ser estable y registrar lo mismo que su ID")
+        void handlesDeColectivo() {
+            int c1 = gestor.registrarCapacidadColectivo("C1", 10);
+            int c2 = gestor.registrarCapacidadColectivo("C2", 20);
+            assertNotEquals(c1, c2);
+            assertEquals(c1, gestor.registrarCapacidadColectivo("C1", 10));
+
+            gestor.registrarOcupacionTramo(c2, 5);
+            gestor.registrarOcupacionTramo("C2", 15);
+            gestor.registrarOcupacionTramo("C9", 15); // Sin capacidad registrada: se ignora
+
+            Map<String, Double> promedios = gestor.getOcupacionPromedioPorColectivo();
+            assertEquals(1, promedios.size());
+            assertEquals(0.5, promedios.get("C2"), 0.0001);
+            assertThrows(IndexOutOfBoundsException.class, () -> gestor.registrarOcupacionTramo(5, 1));
+        }
+
+        @Test
+        @DisplayName("Debería exponer el acumulador de ocupación durante la simulación")
+        void acumuladorOcupacion() {
+            assertNull(gestor.getAcumuladorOcupacion("C1"));
+            gestor.registrarCapacidadColectivo("C1", 10);
+            gestor.registrarOcupacionTramo("C1", 2);
+            gestor.registrarOcupacionTramo("C1", 8);
+
+            AcumuladorOcupacion acumulador = gestor.getAcumuladorOcupacion("C1");
+            assertEquals(2, acumulador.getCantidad());
+            assertEquals(0.2, acumulador.getMinimo(), 0.0001);
+            assertEquals(0.8, acumulador.getMaximo(), 0.0001);
+            assertEquals(0.5, acumulador.getPromedio(), 0.0001);
+        }
+
         @Test
         @DisplayName("Debería devolver el desglose correcto del estado final de los pasajeros")
         void desglosePasajeros() {
@@ -0,0 +1,225 @@
+package proyectointegrador.logica;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import net.datastructures.AdjacencyMapGraph;
+import net.datastructures.Vertex;
+import proyectointegrador.modelo.Parada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@DisplayName("Pruebas de GrafoCSR")
+class GrafoCSRTest {
+
+    private AdjacencyMapGraph<Parada, Integer> grafo;
+    private Vertex<Parada> a, b, c, d, e;
+
+    @BeforeEach
+    void setUp() {
+        grafo = new AdjacencyMapGraph<>(true);
+        a = grafo.insertVertex(new Parada("A", "A"));
+        b = grafo.insertVertex(new Parada("B", "B"));
+        c = grafo.insertVertex(new Parada("C", "C"));
+        d = grafo.insertVertex(new Parada("D", "D"));
+        e = grafo.insertVertex(new Parada("E", "E"));
+        // A -> C (5), A -> B (1), B -> C (1), C -> D (1), B -> D (4); E aislada
+        grafo.insertEdge(a, c, 5);
+        grafo.insertEdge(a, b, 1);
+        grafo.insertEdge(b, c, 1);
+        grafo.insertEdge(c, d, 1);
+        grafo.insertEdge(b, d, 4);
+    }
+
+    @Nested
+    @DisplayName("Estructura")
+    class Estructura {
+
+        @Test
+        @DisplayName("Numera las paradas en orden de inserción y ordena los tramos por destino")
+        void numeracionYTramos() {
+            GrafoCSR csr = GrafoCSR.desde(grafo);
+            assertEquals(5, csr.cantidadParadas());
+            assertEquals(5, csr.cantidadTramos());
+            assertEquals(0, csr.indiceDe("A"));
+            assertEquals(4, csr.indiceDe("E"));
+            assertEquals(-1, csr.indiceDe("Z"));
+            assertEquals("C", csr.parada(2).getId());
+
+            assertEquals(2, csr.fin(0) - csr.inicio(0));
+            assertEquals(1, csr.destino(csr.inicio(0)));
+            assertEquals(1, csr.peso(csr.inicio(0)));
+            assertEquals(2, csr.destino(csr.inicio(0) + 1));
+            assertEquals(5, csr.peso(csr.inicio(0) + 1));
+            assertEquals(csr.inicio(4), csr.fin(4), "La parada aislada no tiene tramos.");
+        }
+
+        @Test
+        @DisplayName("Los cambios posteriores en el grafo original no se reflejan")
+        void copiaCongelada() {
+            GrafoCSR csr = GrafoCSR.desde(grafo);
+            grafo.insertEdge(d, e, 1);
+            assertEquals(5, csr.cantidadTramos());
+            assertEquals(-1, csr.caminosMinimosDesde(0)[4]);
+        }
+    }
+
+    @Nested
+    @DisplayName("Caminos mínimos")
+    class CaminosMinimos {
+
+        @Test
+        @DisplayName("Devuelve los predecesores del árbol de caminos mínimos")
+        void arbolDeCaminosMinimos() {
+            int[] prev = GrafoCSR.desde(grafo).caminosMinimosDesde(0);
+            assertArrayEquals(new int[] {-1, 0, 1, 2, -1}, prev);
+        }
+
+        @Test
+        @DisplayName("Reutiliza los arreglos de trabajo entre consultas y entre hilos")
+        void consultasRepetidasYConcurrentes() {
+            GrafoCSR csr = GrafoCSR.desde(grafo);
+            int[][] esperados = new int[5][];
+            for (int o = 0; o < 5; o++) esperados[o] = csr.caminosMinimosDesde(o);
+            IntStream.range(0, 1000).parallel()
+                    .forEach(i -> assertArrayEquals(esperados[i % 5], csr.caminosMinimosDesde(i % 5)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Rutas entre dos paradas")
+    class RutasEntreDosParadas {
+
+        @Test
+        @DisplayName("Todas las estrategias devuelven rutas válidas del costo mínimo")
+        void mismoCostoQueDijkstra() {
+            Random random = new Random(7);
+            for (int prueba = 0; prueba < 20; prueba++) {
+                GrafoCSR csr = GrafoCSR.desde(grafoAleatorio(random, 60, 150));
+                assertTrue(csr.tieneCotaGeografica());
+                for (int o = 0; o < csr.cantidadParadas(); o += 7) {
+                    int[] prev = csr.caminosMinimosDesde(o);
+                    for (int d = 0; d < csr.cantidadParadas(); d++) {
+                        int esperado = (o == d) ? 0 : costoPorArbol(csr, prev, o, d);
+                        for (EstrategiaRuteo estrategia : EstrategiaRuteo.values()) {
+                            int[] ruta = csr.rutaMinima(o, d, estrategia);
+                            assertEquals(esperado, costoRuta(csr, ruta, o, d), estrategia + " " + o + " -> " + d);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Sin coordenadas, A* se comporta como Dijkstra")
+        void aEstrellaSinCoordenadas() {
+            GrafoCSR csr = GrafoCSR.desde(grafo);
+            assertFalse(csr.tieneCotaGeografica());
+            assertArrayEquals(new int[] {0, 1, 2, 3}, csr.rutaMinima(0, 3, EstrategiaRuteo.A_ESTRELLA));
+            assertArrayEquals(new int[] {0, 1, 2, 3}, csr.rutaMinima(0, 3, EstrategiaRuteo.BIDIRECCIONAL));
+            assertArrayEquals(new int[] {2}, csr.rutaMinima(2, 2, EstrategiaRuteo.A_ESTRELLA));
+            assertEquals(0, csr.rutaMinima(0, 4, EstrategiaRuteo.BIDIRECCIONAL).length);
+            assertEquals(0, csr.rutaMinima(3, 0, EstrategiaRuteo.DIJKSTRA).length);
+        }
+
+        @Test
+        @DisplayName("En una grilla, A* y la búsqueda bidireccional asientan menos paradas")
+        void menosParadasAsentadas() {
+            int lado = 30;
+            GrafoCSR csr = GrafoCSR.desde(grilla(lado));
+            // Dos esquinas interiores de la misma fila, a 20 cuadras
+            int origen = (lado / 2) * lado + 5;
+            int destino = (lado / 2) * lado + 25;
+
+            int[] asentados = new int[EstrategiaRuteo.values().length];
+            for (EstrategiaRuteo estrategia : EstrategiaRuteo.values()) {
+                assertEquals(21, csr.rutaMinima(origen, destino, estrategia).length);
+                asentados[estrategia.ordinal()] = csr.asentadosUltimaBusqueda();
+            }
+            int dijkstra = asentados[EstrategiaRuteo.DIJKSTRA.ordinal()];
+            assertTrue(asentados[EstrategiaRuteo.BIDIRECCIONAL.ordinal()] < dijkstra, Arrays.toString(asentados));
+            assertTrue(asentados[EstrategiaRuteo.A_ESTRELLA.ordinal()] < dijkstra, Arrays.toString(asentados));
+        }
+    }
+
+    // =================================================================================
+    // MÉTODOS DE AYUDA
+    // =================================================================================
+
+    /** Paradas dispersas en unos 5 km, con tramos de peso entre 1 y 10 cada 100 m de largo. */
+    private static AdjacencyMapGraph<Parada, Integer> grafoAleatorio(Random random, int paradas, int tramos) {
+        AdjacencyMapGraph<Parada, Integer> g = new AdjacencyMapGraph<>(true);
+        List<Vertex<Parada>> vertices = new ArrayList<>();
+        for (int i = 0; i < paradas; i++) {
+            double lat = -38.70 + random.nextDouble() * 0.05;
+            double lon = -62.27 + random.nextDouble() * 0.05;
+            vertices.add(g.insertVertex(new Parada("P" + i, "Parada " + i, lat, lon)));
+        }
+        for (int k = 0; k < tramos; k++) {
+            Vertex<Parada> u = vertices.get(random.nextInt(paradas));
+            Vertex<Parada> v = vertices.get(random.nextInt(paradas));
+            if (u == v || g.getEdge(u, v) != null) continue;
+            double metros = 111_000 * Math.hypot(u.getElement().getLatitud() - v.getElement().getLatitud(),
+                    u.getElement().getLongitud() - v.getElement().getLongitud());
+            g.insertEdge(u, v, (int) (metros / 100) + 1 + random.nextInt(10));
+        }
+        return g;
+    }
+
+    /** Grilla de lado x lado paradas separadas unos 300 m, con tramos de peso 1 en ambos sentidos. */
+    private static AdjacencyMapGraph<Parada, Integer> grilla(int lado) {
+        AdjacencyMapGraph<Parada, Integer> g = new AdjacencyMapGraph<>(true);
+        List<Vertex<Parada>> vertices = new ArrayList<>();
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                vertices.add(g.insertVertex(new Parada("G" + f + "_" + c, "Esquina", -38.7 + f * 0.0027, -62.27 + c * 0.0035)));
+            }
+        }
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                Vertex<Parada> u = vertices.get(f * lado + c);
+                if (c + 1 < lado) {
+                    g.insertEdge(u, vertices.get(f * lado + c + 1), 1);
+                    g.insertEdge(vertices.get(f * lado + c + 1), u, 1);
+                }
+                if (f + 1 < lado) {
+                    g.insertEdge(u, vertices.get((f + 1) * lado + c), 1);
+                    g.insertEdge(vertices.get((f + 1) * lado + c), u, 1);
+                }
+            }
+        }
+        return g;
+    }
+
+    private static int pesoTramo(GrafoCSR csr, int u, int v) {
+        for (int k = csr.inicio(u); k < csr.fin(u); k++) {
+            if (csr.destino(k) == v) return csr.peso(k);
+        }
+        return fail("No existe el tramo " + u + " -> " + v);
+    }
+
+    /** Costo de la ruta según el árbol de predecesores, o -1 si no hay ruta. */
+    private static int costoPorArbol(GrafoCSR csr, int[] prev, int origen, int destino) {
+        if (prev[destino] < 0) return -1;
+        int costo = 0;
+        for (int v = destino; v != origen; v = prev[v]) costo += pesoTramo(csr, prev[v], v);
+        return costo;
+    }
+
+    /** Verifica que la ruta una origen y destino por tramos existentes y devuelve su costo (-1 si está vacía). */
+    private static int costoRuta(GrafoCSR csr, int[] ruta, int origen, int destino) {
+        if (ruta.length == 0) return -1;
+        assertEquals(origen, ruta[0]);
+        assertEquals(destino, ruta[ruta.length - 1]);
+        int costo = 0;
+        for (int i = 0; i + 1 < ruta.length; i++) costo += pesoTramo(csr, ruta[i], ruta[i + 1]);
+        return costo;
+    }
+}
@@ -0,0 +1,79 @@
+package proyectointegrador.logica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase HistogramaCuantiles")
+public class HistogramaCuantilesTest {
+
+    @Test
+    @DisplayName("Los valores pequeños deberían dar cuantiles exactos")
+    void cuantilesExactosEnValoresPequenios() {
+        HistogramaCuantiles histograma = new HistogramaCuantiles();
+        for (int v = 1; v <= 50; v++) {
+            histograma.registrar(v);
+        }
+        assertEquals(50, histograma.getCantidad());
+        assertEquals(25, histograma.getP50());
+        assertEquals(48, histograma.getP95());
+        assertEquals(50, histograma.getP99());
+        assertEquals(1, histograma.getCuantil(0));
+        assertEquals(25.5, histograma.getPromedio(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Los valores grandes deberían respetar el error relativo de la precisión")
+    void errorRelativoAcotado() {
+        HistogramaCuantiles histograma = new HistogramaCuantiles(6);
+        SplittableRandom azar = new SplittableRandom(3);
+        long[] muestra = new long[20_000];
+        for (int i = 0; i < muestra.length; i++) {
+            muestra[i] = azar.nextLong(1_000_000);
+            histograma.registrar(muestra[i]);
+        }
+        Arrays.sort(muestra);
+        for (double q : new double[] {0.5, 0.9, 0.95, 0.99}) {
+            long exacto = muestra[(int) Math.ceil(q * muestra.length) - 1];
+            long estimado = histograma.getCuantil(q);
+            assertTrue(estimado >= exacto, "El estimado es el mayor valor equivalente del intervalo.");
+            assertTrue(estimado - exacto <= exacto / 64 + 1, "q=" + q + " exacto=" + exacto + " estimado=" + estimado);
+        }
+        assertEquals(muestra[muestra.length - 1], histograma.getMaximo());
+    }
+
+    @Test
+    @DisplayName("Combinar histogramas debería igualar a registrar todo en uno")
+    void combinar() {
+        HistogramaCuantiles todo = new HistogramaCuantiles();
+        HistogramaCuantiles a = new HistogramaCuantiles();
+        HistogramaCuantiles b = new HistogramaCuantiles();
+        for (int v = 0; v < 5_000; v++) {
+            long valor = (v * 7919L) % 3_000;
+            todo.registrar(valor);
+            (v % 3 == 0 ? a : b).registrar(valor);
+        }
+        a.combinar(b);
+        assertEquals(todo.getCantidad(), a.getCantidad());
+        assertEquals(todo.getSuma(), a.getSuma());
+        for (double q : new double[] {0.5, 0.95, 0.99}) {
+            assertEquals(todo.getCuantil(q), a.getCuantil(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> a.combinar(new HistogramaCuantiles(4)));
+    }
+
+    @Test
+    @DisplayName("Debería validar los argumentos y responder sin observaciones")
+    void validaciones() {
+        HistogramaCuantiles histograma = new HistogramaCuantiles();
+        assertEquals(0, histograma.getP99());
+        assertEquals(0, histograma.getMinimo());
+        assertThrows(IllegalArgumentException.class, () -> histograma.registrar(-1));
+        assertThrows(IllegalArgumentException.class, () -> histograma.getCuantil(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new HistogramaCuantiles(0));
+    }
+}
@@ -0,0 +1,38 @@
+package proyectointegrador.logica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase IntervaloConfianza")
+public class IntervaloConfianzaTest {
+
+    @Test
+    @DisplayName("Debería usar la t de Student para muestras chicas")
+    void muestraChica() {
+        IntervaloConfianza ic = IntervaloConfianza.calcular(new double[] { 1, 2, 3, 4, 5 });
+        assertEquals(3.0, ic.getMedia(), 1e-12);
+        assertEquals(Math.sqrt(2.5), ic.getDesvio(), 1e-12);
+        assertEquals(2.776 * Math.sqrt(2.5) / Math.sqrt(5), ic.getMargen(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Debería usar la normal para muestras grandes")
+    void muestraGrande() {
+        double[] muestra = new double[100];
+        for (int i = 0; i < muestra.length; i++) muestra[i] = i % 2;
+        IntervaloConfianza ic = IntervaloConfianza.calcular(muestra);
+        assertEquals(0.5, ic.getMedia(), 1e-12);
+        assertEquals(1.96 * ic.getDesvio() / 10, ic.getMargen(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Con una sola observación el margen debería ser cero")
+    void unaObservacion() {
+        IntervaloConfianza ic = IntervaloConfianza.calcular(new double[] { 0.7 });
+        assertEquals(0.7, ic.getInferior());
+        assertEquals(0.7, ic.getSuperior());
+        assertThrows(IllegalArgumentException.class, () -> IntervaloConfianza.calcular(new double[0]));
+    }
+}
@@ -0,0 +1,180 @@
+package proyectointegrador.logica;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.datastructures.AdjacencyMapGraph;
+import net.datastructures.Vertex;
+import proyectointegrador.modelo.Parada;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@DisplayName("Pruebas de JerarquiaContracciones")
+class JerarquiaContraccionesTest {
+
+    @Nested
+    @DisplayName("Consultas")
+    class Consultas {
+
+        @Test
+        @DisplayName("En grafos aleatorios devuelve rutas válidas del mismo costo que Dijkstra")
+        void mismoCostoQueDijkstra() {
+            Random random = new Random(11);
+            for (int prueba = 0; prueba < 30; prueba++) {
+                GrafoCSR csr = GrafoCSR.desde(grafoAleatorio(random, 80, 40 + random.nextInt(200)));
+                JerarquiaContracciones jerarquia = JerarquiaContracciones.construir(csr);
+                for (int consulta = 0; consulta < 200; consulta++) {
+                    int o = random.nextInt(csr.cantidadParadas());
+                    int d = random.nextInt(csr.cantidadParadas());
+                    int esperado = (o == d) ? 0 : costoPorArbol(csr, csr.caminosMinimosDesde(o), o, d);
+                    assertEquals(esperado, costoRuta(csr, jerarquia.rutaMinima(o, d), o, d), o + " -> " + d);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Desarma los atajos en los tramos de una grilla")
+        void desarmaAtajos() {
+            int lado = 12;
+            GrafoCSR csr = GrafoCSR.desde(grilla(lado));
+            JerarquiaContracciones jerarquia = JerarquiaContracciones.construir(csr);
+            assertTrue(jerarquia.cantidadTramos() > csr.cantidadTramos(), "La grilla necesita atajos.");
+
+            int[] ruta = jerarquia.rutaMinima(0, lado * lado - 1);
+            assertEquals(2 * (lado - 1) + 1, ruta.length);
+            assertEquals(2 * (lado - 1), costoRuta(csr, ruta, 0, lado * lado - 1));
+            assertTrue(csr.asentadosUltimaBusqueda() < lado * lado);
+        }
+
+        @Test
+        @DisplayName("Las consultas concurrentes devuelven los mismos costos")
+        void consultasConcurrentes() {
+            GrafoCSR csr = GrafoCSR.desde(grilla(10));
+            JerarquiaContracciones jerarquia = JerarquiaContracciones.construir(csr);
+            IntStream.range(0, 2000).parallel().forEach(i -> {
+                int o = i % 100;
+                int d = (i * 37) % 100;
+                int esperado = Math.abs(o / 10 - d / 10) + Math.abs(o % 10 - d % 10);
+                assertEquals(esperado, costoRuta(csr, jerarquia.rutaMinima(o, d), o, d));
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Persistencia")
+    class Persistencia {
+
+        @TempDir
+        Path directorio;
+
+        @Test
+        @DisplayName("La jerarquía leída responde igual que la original")
+        void guardarYLeer() throws IOException {
+            GrafoCSR csr = GrafoCSR.desde(grafoAleatorio(new Random(3), 60, 180));
+            JerarquiaContracciones original = JerarquiaContracciones.construir(csr);
+            Path archivo = directorio.resolve("red.jer");
+            original.escribir(archivo);
+
+            JerarquiaContracciones leida = JerarquiaContracciones.leer(archivo, csr);
+            assertEquals(original.cantidadTramos(), leida.cantidadTramos());
+            for (int o = 0; o < csr.cantidadParadas(); o += 3) {
+                for (int d = 0; d < csr.cantidadParadas(); d += 5) {
+                    assertArrayEquals(original.rutaMinima(o, d), leida.rutaMinima(o, d));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Rechaza una jerarquía de otra red")
+        void otraRed() throws IOException {
+            Path archivo = directorio.resolve("red.jer");
+            JerarquiaContracciones.construir(GrafoCSR.desde(grilla(5))).escribir(archivo);
+            GrafoCSR otra = GrafoCSR.desde(grafoAleatorio(new Random(5), 25, 60));
+            assertThrows(IllegalStateException.class, () -> JerarquiaContracciones.leer(archivo, otra));
+        }
+
+        @Test
+        @DisplayName("Rechaza un archivo dañado")
+        void archivoDaniado() throws IOException {
+            GrafoCSR csr = GrafoCSR.desde(grilla(5));
+            Path archivo = directorio.resolve("red.jer");
+            JerarquiaContracciones.construir(csr).escribir(archivo);
+            byte[] bytes = Files.readAllBytes(archivo);
+            bytes[bytes.length - 3] ^= 0x40;
+            Files.write(archivo, bytes);
+            assertThrows(IllegalStateException.class, () -> JerarquiaContracciones.leer(archivo, csr));
+        }
+    }
+
+    // =================================================================================
+    // MÉTODOS DE AYUDA
+    // =================================================================================
+
+    /** Grafo dirigido aleatorio con pesos entre 0 y 20, que puede tener paradas inalcanzables. */
+    private static AdjacencyMapGraph<Parada, Integer> grafoAleatorio(Random random, int paradas, int tramos) {
+        AdjacencyMapGraph<Parada, Integer> g = new AdjacencyMapGraph<>(true);
+        List<Vertex<Parada>> vertices = new ArrayList<>();
+        for (int i = 0; i < paradas; i++) vertices.add(g.insertVertex(new Parada("P" + i, "Parada " + i)));
+        for (int k = 0; k < tramos; k++) {
+            Vertex<Parada> u = vertices.get(random.nextInt(paradas));
+            Vertex<Parada> v = vertices.get(random.nextInt(paradas));
+            if (g.getEdge(u, v) == null) g.insertEdge(u, v, random.nextInt(21));
+        }
+        return g;
+    }
+
+    /** Grilla de lado x lado paradas con tramos de peso 1 en ambos sentidos. */
+    private static AdjacencyMapGraph<Parada, Integer> grilla(int lado) {
+        AdjacencyMapGraph<Parada, Integer> g = new AdjacencyMapGraph<>(true);
+        List<Vertex<Parada>> vertices = new ArrayList<>();
+        for (int i = 0; i < lado * lado; i++) vertices.add(g.insertVertex(new Parada("G" + i, "Esquina " + i)));
+        for (int f = 0; f < lado; f++) {
+            for (int c = 0; c < lado; c++) {
+                Vertex<Parada> u = vertices.get(f * lado + c);
+                if (c + 1 < lado) {
+                    g.insertEdge(u, vertices.get(f * lado + c + 1), 1);
+                    g.insertEdge(vertices.get(f * lado + c + 1), u, 1);
+                }
+                if (f + 1 < lado) {
+                    g.insertEdge(u, vertices.get((f + 1) * lado + c), 1);
+                    g.insertEdge(vertices.get((f + 1) * lado + c), u, 1);
+                }
+            }
+        }
+        return g;
+    }
+
+    private static int pesoTramo(GrafoCSR csr, int u, int v) {
+        for (int k = csr.inicio(u); k < csr.fin(u); k++) {
+            if (csr.destino(k) == v) return csr.peso(k);
+        }
+        return fail("No existe el tramo " + u + " -> " + v);
+    }
+
+    /** Costo de la ruta según el árbol de predecesores, o -1 si no hay ruta. */
+    private static int costoPorArbol(GrafoCSR csr, int[] prev, int origen, int destino) {
+        if (prev[destino] < 0) return -1;
+        int costo = 0;
+        for (int v = destino; v != origen; v = prev[v]) costo += pesoTramo(csr, prev[v], v);
+        return costo;
+    }
+
+    /** Verifica que la ruta una origen y destino por tramos existentes y devuelve su costo (-1 si está vacía). */
+    private static int costoRuta(GrafoCSR csr, int[] ruta, int origen, int destino) {
+        if (ruta.length == 0) return -1;
+        assertEquals(origen, ruta[0]);
+        assertEquals(destino, ruta[ruta.length - 1]);
+        int costo = 0;
+        for (int i = 0; i + 1 < ruta.length; i++) costo += pesoTramo(csr, ruta[i], ruta[i + 1]);
+        return costo;
+    }
+}
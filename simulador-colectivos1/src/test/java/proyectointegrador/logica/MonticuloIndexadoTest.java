@@ -0,0 +1,102 @@
+package proyectointegrador.logica;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+@DisplayName("Pruebas de MonticuloIndexado")
+class MonticuloIndexadoTest {
+
+    @Nested
+    @DisplayName("Operaciones básicas")
+    class OperacionesBasicas {
+
+        @Test
+        @DisplayName("Extrae por prioridad y, a igual prioridad, por elemento")
+        void extraePorPrioridadYElemento() {
+            MonticuloIndexado m = new MonticuloIndexado(6);
+            m.insertarOReducir(4, 7);
+            m.insertarOReducir(1, 3);
+            m.insertarOReducir(5, 3);
+            m.insertarOReducir(0, 9);
+            m.insertarOReducir(2, 3);
+
+            assertEquals(5, m.tamanio());
+            assertEquals(3, m.prioridadMinima());
+            int[] esperado = {1, 2, 5, 4, 0};
+            for (int e : esperado) assertEquals(e, m.extraerMinimo());
+            assertTrue(m.estaVacio());
+        }
+
+        @Test
+        @DisplayName("Reduce la prioridad de un elemento presente y no la aumenta")
+        void reducePrioridad() {
+            MonticuloIndexado m = new MonticuloIndexado(3);
+            m.insertarOReducir(0, 5);
+            m.insertarOReducir(1, 6);
+            assertTrue(m.insertarOReducir(1, 2));
+            assertFalse(m.insertarOReducir(1, 4), "No debe aumentar la prioridad.");
+            assertEquals(2, m.prioridad(1));
+            assertEquals(1, m.extraerMinimo());
+            assertFalse(m.contiene(1));
+            assertTrue(m.contiene(0));
+        }
+
+        @Test
+        @DisplayName("Vaciar deja el montículo listo para reutilizarse")
+        void vaciarYReutilizar() {
+            MonticuloIndexado m = new MonticuloIndexado(4);
+            m.insertarOReducir(3, 1);
+            m.insertarOReducir(2, 1);
+            m.vaciar();
+            assertTrue(m.estaVacio());
+            assertFalse(m.contiene(3));
+            m.insertarOReducir(3, 8);
+            assertEquals(3, m.extraerMinimo());
+        }
+
+        @Test
+        @DisplayName("Rechaza extraer de un montículo vacío")
+        void rechazaExtraerVacio() {
+            MonticuloIndexado m = new MonticuloIndexado(2);
+            assertThrows(IllegalStateException.class, m::extraerMinimo);
+            assertThrows(IllegalStateException.class, m::prioridadMinima);
+            assertThrows(IllegalStateException.class, () -> m.prioridad(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Coincide con una PriorityQueue con reinserciones en una secuencia al azar")
+    void coincideConPriorityQueue() {
+        Random random = new Random(7);
+        int n = 500;
+        MonticuloIndexado m = new MonticuloIndexado(n);
+        int[] prioridad = new int[n];
+        PriorityQueue<Long> referencia = new PriorityQueue<>();
+        boolean[] presente = new boolean[n];
+        for (int paso = 0; paso < 20_000; paso++) {
+            if (random.nextInt(3) > 0) {
+                int e = random.nextInt(n);
+                int p = random.nextInt(1000);
+                if (!presente[e] || p < prioridad[e]) {
+                    prioridad[e] = p;
+                    presente[e] = true;
+                    referencia.add(((long) p << 32) | e);
+                }
+                m.insertarOReducir(e, p);
+            } else if (!m.estaVacio()) {
+                long esperado;
+                do {
+                    esperado = referencia.poll();
+                } while (!presente[(int) esperado] || prioridad[(int) esperado] != (int) (esperado >>> 32));
+                int e = m.extraerMinimo();
+                assertEquals((int) esperado, e);
+                presente[e] = false;
+            }
+        }
+    }
+}
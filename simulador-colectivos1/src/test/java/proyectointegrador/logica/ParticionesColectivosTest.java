@@ -0,0 +1,58 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase ParticionesColectivos")
+public class ParticionesColectivosTest {
+
+    private Linea crearLinea(String id, Parada... paradas) {
+        Linea linea = new Linea(id, "Línea " + id);
+        for (Parada p : paradas) linea.agregarParadaAlRecorrido(p);
+        return linea;
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las líneas que comparten paradas, incluso transitivamente")
+    void agrupaLineasConParadasComunes() {
+        Parada a = new Parada("A", "A"), b = new Parada("B", "B"), c = new Parada("C", "C");
+        Parada d = new Parada("D", "D"), e = new Parada("E", "E"), f = new Parada("F", "F");
+        Linea l1 = crearLinea("1", a, b);
+        Linea l2 = crearLinea("2", c, d);      // Independiente
+        Linea l3 = crearLinea("3", b, e);      // Comparte B con la línea 1
+        Linea l4 = crearLinea("4", e, f);      // Comparte E con la línea 3
+
+        RegistroColectivos registro = new RegistroColectivos();
+        for (Linea linea : new Linea[] { l1, l2, l3, l4 }) {
+            registro.registrar(new Colectivo("C" + linea.getId(), linea, 10, 5, 5, 1, 0));
+        }
+
+        ParticionesColectivos particiones = ParticionesColectivos.calcular(registro);
+
+        assertEquals(2, particiones.cantidad());
+        assertArrayEquals(new int[] { 0, 2, 3 }, particiones.handles(0));
+        assertArrayEquals(new int[] { 1 }, particiones.handles(1));
+        assertEquals(1, particiones.particionDe(1));
+        assertEquals(0, particiones.particionDe(3));
+    }
+
+    @Test
+    @DisplayName("Los colectivos de una misma línea deberían quedar en la misma partición")
+    void colectivosDeUnaLinea() {
+        Linea linea = crearLinea("1", new Parada("A", "A"), new Parada("B", "B"));
+        RegistroColectivos registro = new RegistroColectivos();
+        registro.registrar(new Colectivo("C1", linea, 10, 5, 5, 1, 0));
+        registro.registrar(new Colectivo("C2", linea, 10, 5, 5, 1, 0));
+
+        ParticionesColectivos particiones = ParticionesColectivos.calcular(registro);
+
+        assertEquals(1, particiones.cantidad());
+        assertArrayEquals(new int[] { 0, 1 }, particiones.handles(0));
+    }
+}
@@ -1,5 +1,7 @@
 package proyectointegrador.logica;
 
+import proyectointegrador.datos.ImagenRed;
+import proyectointegrador.datos.TopologiaRed;
 import proyectointegrador.modelo.Linea;
 import proyectointegrador.modelo.Parada;
 
@@ -7,10 +9,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,4 +135,234 @@ public class PlanificadorRutasTest {
             assertTrue(ruta2.isEmpty());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Pruebas del Grafo Construido desde una Imagen de Red")
+    class PruebasGrafoDesdeImagen {
+
+        @TempDir
+        Path directorio;
+
+        @Test
+        @DisplayName("Debería calcular las mismas rutas que el grafo construido desde las líneas")
+        void mismasRutasQueDesdeLineas() throws IOException {
+            Map<String, Parada> paradas = new HashMap<>(Map.of("P1", p1, "P2", p2, "P3", p3, "P4", p4, "P5", p5));
+            Path archivo = directorio.resolve("red.bin");
+            ImagenRed.escribir(TopologiaRed.desde(paradas, redDeTransporte), archivo);
+
+            PlanificadorRutas desdeImagen = new PlanificadorRutas();
+            desdeImagen.construirGrafoDesdeImagen(ImagenRed.leer(archivo), paradas);
+
+            for (Parada origen : paradas.values()) {
+                for (Parada destino : paradas.values()) {
+                    assertEquals(planificador.calcularRutaOptima(origen, destino),
+                            desdeImagen.calcularRutaOptima(origen, destino), origen.getId() + " -> " + destino.getId());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Debería admitir cargar la imagen otra vez o sumarle líneas sin perder tramos")
+        void cargasRepetidas() throws IOException {
+            Map<String, Parada> paradas = new HashMap<>(Map.of("P1", p1, "P2", p2, "P3", p3, "P4", p4, "P5", p5));
+            Path archivo = directorio.resolve("red.bin");
+            ImagenRed.escribir(TopologiaRed.desde(paradas, redDeTransporte), archivo);
+            ImagenRed imagen = ImagenRed.leer(archivo);
+
+            PlanificadorRutas desdeImagen = new PlanificadorRutas();
+            desdeImagen.construirGrafoDesdeImagen(imagen, paradas);
+            assertDoesNotThrow(() -> desdeImagen.construirGrafoDesdeImagen(imagen, paradas));
+            assertDoesNotThrow(() -> planificador.construirGrafoDesdeImagen(imagen, paradas));
+
+            PlanificadorRutas sumado = new PlanificadorRutas();
+            sumado.construirGrafoDesdeImagen(imagen, paradas);
+            Parada p6 = new Parada("P6", "Extensión Roja");
+            Linea extension = new Linea("L-EXT", "Extensión");
+            extension.agregarParadaAlRecorrido(p3);
+            extension.agregarParadaAlRecorrido(p6);
+            sumado.construirGrafoDesdeLineas(Map.of(extension.getId(), extension));
+
+            assertEquals(List.of(p1, p2, p3, p6), sumado.calcularRutaOptima(p1, p6));
+            assertEquals(List.of(p4, p2, p5), desdeImagen.calcularRutaOptima(p4, p5));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de la Caché de Rutas")
+    class PruebasCacheRutas {
+
+        @Test
+        @DisplayName("Debería calcular un único árbol por parada de origen")
+        void unArbolPorOrigen() {
+            assertEquals(0, planificador.getArbolesEnCache());
+            List<Parada> primera = planificador.calcularRutaOptima(p1, p3);
+            planificador.calcularRutaOptima(p1, p2);
+            planificador.calcularRutaOptima(p1, p3);
+            assertEquals(1, planificador.getArbolesEnCache());
+
+            planificador.calcularRutaOptima(p4, p5);
+            assertEquals(2, planificador.getArbolesEnCache());
+            assertEquals(primera, planificador.calcularRutaOptima(p1, p3));
+        }
+
+        @Test
+        @DisplayName("Modificar la ruta devuelta no debería afectar a las consultas siguientes")
+        void rutaDevueltaIndependiente() {
+            List<Parada> ruta = planificador.calcularRutaOptima(p1, p3);
+            ruta.clear();
+            assertEquals(List.of(p1, p2, p3), planificador.calcularRutaOptima(p1, p3));
+        }
+
+        @Test
+        @DisplayName("Construir el grafo con nuevas líneas debería descartar la caché")
+        void invalidaAlCambiarElGrafo() {
+            assertTrue(planificador.calcularRutaOptima(p1, p4).isEmpty());
+            planificador.calcularRutaOptima(p2, p5);
+            assertEquals(2, planificador.getArbolesEnCache());
+
+            Linea lineaVerde = new Linea("L-VERDE", "Línea Verde");
+            lineaVerde.agregarParadaAlRecorrido(p3);
+            lineaVerde.agregarParadaAlRecorrido(p4);
+            planificador.construirGrafoDesdeLineas(Map.of(lineaVerde.getId(), lineaVerde));
+
+            assertEquals(0, planificador.getArbolesEnCache());
+            assertEquals(List.of(p1, p2, p3, p4), planificador.calcularRutaOptima(p1, p4));
+        }
+
+        @Test
+        @DisplayName("En una red grande la caché debería respetar el límite de memoria")
+        void respetaLimiteDeMemoria() {
+            // Un recorrido circular con más paradas de las que entran en la caché
+            int cantidad = (int) Math.sqrt(PlanificadorRutas.MEMORIA_CACHE_RUTAS / Integer.BYTES) + 100;
+            Linea circular = new Linea("L-CIRC", "Circular");
+            List<Parada> paradas = new ArrayList<>();
+            for (int i = 0; i < cantidad; i++) {
+                paradas.add(new Parada("C" + i, "Circular " + i));
+                circular.agregarParadaAlRecorrido(paradas.get(i));
+            }
+            circular.agregarParadaAlRecorrido(paradas.get(0));
+            PlanificadorRutas grande = new PlanificadorRutas();
+            grande.construirGrafoDesdeLineas(Map.of(circular.getId(), circular));
+
+            int capacidad = grande.getCapacidadCache();
+            assertTrue(capacidad < cantidad);
+            for (int i = 0; i < capacidad + 5; i++) {
+                assertEquals(2, grande.calcularRutaOptima(paradas.get(i), paradas.get(i + 1)).size());
+            }
+            assertEquals(capacidad, grande.getArbolesEnCache());
+        }
+
+        @Test
+        @DisplayName("Las consultas concurrentes deberían devolver las mismas rutas")
+        void consultasConcurrentes() {
+            Parada[] paradas = {p1, p2, p3, p4, p5};
+            Map<String, List<Parada>> esperadas = new HashMap<>();
+            PlanificadorRutas secuencial = new PlanificadorRutas();
+            secuencial.construirGrafoDesdeLineas(redDeTransporte);
+            for (Parada o : paradas) {
+                for (Parada d : paradas) esperadas.put(o.getId() + d.getId(), secuencial.calcularRutaOptima(o, d));
+            }
+            IntStream.range(0, 2000).parallel().forEach(i -> {
+                Parada o = paradas[i % 5];
+                Parada d = paradas[(i / 5) % 5];
+                assertEquals(esperadas.get(o.getId() + d.getId()), planificador.calcularRutaOptima(o, d));
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de las Estrategias de Ruteo")
+    class PruebasEstrategiasRuteo {
+
+        @Test
+        @DisplayName("Todas las estrategias deberían devolver las mismas rutas en la red de prueba")
+        void mismasRutasEnTodasLasEstrategias() {
+            Parada[] paradas = {p1, p2, p3, p4, p5};
+            for (Parada o : paradas) {
+                for (Parada d : paradas) {
+                    List<Parada> esperada = planificador.calcularRutaOptima(o, d, EstrategiaRuteo.DIJKSTRA);
+                    assertEquals(esperada, planificador.calcularRutaOptima(o, d, EstrategiaRuteo.BIDIRECCIONAL));
+                    assertEquals(esperada, planificador.calcularRutaOptima(o, d, EstrategiaRuteo.A_ESTRELLA));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Debería usar la estrategia configurada y rechazar una nula")
+        void estrategiaConfigurada() {
+            assertEquals(EstrategiaRuteo.DIJKSTRA, planificador.getEstrategiaRuteo());
+            planificador.setEstrategiaRuteo(EstrategiaRuteo.BIDIRECCIONAL);
+            assertEquals(List.of(p4, p2, p3), planificador.calcularRutaOptima(p4, p3));
+            assertEquals(0, planificador.getArbolesEnCache(), "Solo Dijkstra usa la caché de árboles.");
+
+            assertThrows(IllegalArgumentException.class, () -> planificador.setEstrategiaRuteo(null));
+            assertThrows(IllegalArgumentException.class, () -> planificador.calcularRutaOptima(p1, p3, null));
+        }
+
+        @Test
+        @DisplayName("Sin caché, Dijkstra debería buscar solo hasta el destino")
+        void dijkstraSinCache() {
+            planificador.calcularRutaOptima(p1, p3);
+            assertEquals(1, planificador.getArbolesEnCache());
+
+            planificador.setCacheRutas(false);
+            assertEquals(0, planificador.getArbolesEnCache());
+            assertEquals(List.of(p1, p2), planificador.calcularRutaOptima(p1, p2));
+            assertEquals(2, planificador.getParadasAsentadasUltimaConsulta());
+            assertEquals(0, planificador.getArbolesEnCache());
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de la Jerarquía de Contracciones")
+    class PruebasJerarquiaContracciones {
+
+        @TempDir
+        Path directorio;
+
+        @Test
+        @DisplayName("Debería devolver las mismas rutas que Dijkstra y armar la jerarquía una sola vez")
+        void mismasRutasQueDijkstra() {
+            assertFalse(planificador.isJerarquiaPreparada());
+            Parada[] paradas = {p1, p2, p3, p4, p5};
+            for (Parada o : paradas) {
+                for (Parada d : paradas) {
+                    assertEquals(planificador.calcularRutaOptima(o, d, EstrategiaRuteo.DIJKSTRA),
+                            planificador.calcularRutaOptima(o, d, EstrategiaRuteo.CONTRACCIONES));
+                }
+            }
+            assertTrue(planificador.isJerarquiaPreparada());
+        }
+
+        @Test
+        @DisplayName("Construir el grafo con nuevas líneas debería descartar la jerarquía")
+        void invalidaAlCambiarElGrafo() {
+            planificador.prepararJerarquia();
+            Linea lineaVerde = new Linea("L-VERDE", "Línea Verde");
+            lineaVerde.agregarParadaAlRecorrido(p3);
+            lineaVerde.agregarParadaAlRecorrido(p4);
+            planificador.construirGrafoDesdeLineas(Map.of(lineaVerde.getId(), lineaVerde));
+
+            assertFalse(planificador.isJerarquiaPreparada());
+            assertEquals(List.of(p1, p2, p3, p4), planificador.calcularRutaOptima(p1, p4, EstrategiaRuteo.CONTRACCIONES));
+        }
+
+        @Test
+        @DisplayName("Debería cargar una jerarquía guardada y rechazar la de otra red")
+        void guardarYCargar() throws IOException {
+            Path archivo = directorio.resolve("red.jer");
+            planificador.guardarJerarquia(archivo);
+
+            PlanificadorRutas otro = new PlanificadorRutas();
+            otro.construirGrafoDesdeLineas(redDeTransporte);
+            otro.cargarJerarquia(archivo);
+            assertTrue(otro.isJerarquiaPreparada());
+            assertEquals(List.of(p4, p2, p3), otro.calcularRutaOptima(p4, p3, EstrategiaRuteo.CONTRACCIONES));
+
+            PlanificadorRutas distinto = new PlanificadorRutas();
+            distinto.construirGrafoDesdeLineas(Map.of(lineaRoja.getId(), lineaRoja));
+            assertThrows(IllegalStateException.class, () -> distinto.cargarJerarquia(archivo));
+            assertFalse(distinto.isJerarquiaPreparada());
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package proyectointegrador.logica;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import proyectointegrador.datos.TablaHorarios;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@DisplayName("Pruebas de PlanificadorViajes")
+class PlanificadorViajesTest {
+
+    @TempDir
+    Path directorio;
+
+    private static final int HORA_6 = 6 * 60;
+
+    private Parada a, b, d;
+    private Map<String, Linea> lineas;
+
+    /**
+     * Red de prueba: la línea 1 va directo de A a D en 5 tramos; las líneas 2
+     * (A -> B) y 3 (B -> D) hacen el mismo trayecto en 2 tramos con un transbordo.
+     */
+    @BeforeEach
+    void setUp() {
+        a = new Parada("A", "Origen");
+        b = new Parada("B", "Transbordo");
+        d = new Parada("D", "Destino");
+        lineas = new LinkedHashMap<>();
+        agregarLinea(lineas, "1", a, new Parada("X1", "X1"), new Parada("X2", "X2"), new Parada("X3", "X3"),
+                new Parada("X4", "X4"), d);
+        agregarLinea(lineas, "2", a, b);
+        agregarLinea(lineas, "3", b, d);
+    }
+
+    /** Horarios por defecto: 1 y 2 cada 10 minutos desde las 6; 3 cada 5 desde las 6:01, solo de lunes a viernes. */
+    private PlanificadorViajes planificador(DayOfWeek dia) throws IOException {
+        TablaHorarios horarios = tabla("1;Ida;L-D;06:00;08:00;10\n2;Ida;L-D;06:00;08:00;10\n3;Ida;L-V;06:01;08:01;5\n");
+        return new PlanificadorViajes(lineas, horarios, dia, 10, 2);
+    }
+
+    @Nested
+    @DisplayName("Viajes Pareto-óptimos")
+    class ViajesParetoOptimos {
+
+        @Test
+        @DisplayName("Devuelve el viaje directo y el viaje con transbordo que llega antes")
+        void directoYConTransbordo() throws IOException {
+            List<Viaje> viajes = planificador(DayOfWeek.MONDAY).calcularViajes(a, d, HORA_6);
+            assertEquals(2, viajes.size());
+
+            Viaje directo = viajes.get(0);
+            assertEquals(0, directo.getTransbordos());
+            assertEquals(HORA_6, directo.getHoraSalida());
+            assertEquals(HORA_6 + 10, directo.getHoraLlegada());
+            assertEquals(6, directo.getParadas().size());
+
+            Viaje conTransbordo = viajes.get(1);
+            assertEquals(1, conTransbordo.getTransbordos());
+            assertEquals(HORA_6 + 8, conTransbordo.getHoraLlegada());
+            Viaje.Tramo primero = conTransbordo.getTramos().get(0);
+            Viaje.Tramo segundo = conTransbordo.getTramos().get(1);
+            assertEquals("Línea 2 - Ida", primero.getLinea().getNombre());
+            assertEquals(b, primero.getParadaBajada());
+            assertEquals(HORA_6 + 2, primero.getHoraBajada());
+            assertEquals(b, segundo.getParadaSubida());
+            assertEquals(HORA_6 + 6, segundo.getHoraSubida());
+            assertEquals(List.of(a, b, d), conTransbordo.getParadas());
+        }
+
+        @Test
+        @DisplayName("Sin transbordos permitidos devuelve solo el viaje directo")
+        void sinTransbordos() throws IOException {
+            List<Viaje> viajes = planificador(DayOfWeek.MONDAY).calcularViajes(a, d, HORA_6, 0);
+            assertEquals(1, viajes.size());
+            assertEquals(HORA_6 + 10, viajes.get(0).getHoraLlegada());
+        }
+
+        @Test
+        @DisplayName("Espera el próximo colectivo y no usa líneas sin servicio ese día")
+        void esperaYDiaSinServicio() throws IOException {
+            List<Viaje> viajes = planificador(DayOfWeek.SUNDAY).calcularViajes(a, d, HORA_6 + 1);
+            assertEquals(1, viajes.size());
+            assertEquals(HORA_6 + 10, viajes.get(0).getHoraSalida());
+            assertEquals(HORA_6 + 20, viajes.get(0).getHoraLlegada());
+        }
+
+        @Test
+        @DisplayName("No hay viajes después del último servicio, a la misma parada o a paradas desconocidas")
+        void sinViajes() throws IOException {
+            PlanificadorViajes planificador = planificador(DayOfWeek.MONDAY);
+            assertTrue(planificador.calcularViajes(a, d, 9 * 60).isEmpty());
+            assertTrue(planificador.calcularViajes(d, a, HORA_6).isEmpty());
+            assertTrue(planificador.calcularViajes(a, a, HORA_6).isEmpty());
+            assertTrue(planificador.calcularViajes(a, new Parada("Z", "Fuera de la red"), HORA_6).isEmpty());
+            assertTrue(planificador.calcularViajes(null, d, HORA_6).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> planificador.calcularViajes(a, d, -1));
+        }
+
+        @Test
+        @DisplayName("Rechaza parámetros inválidos al construirse")
+        void parametrosInvalidos() throws IOException {
+            TablaHorarios horarios = tabla("1;Ida;L-D;06:00;08:00;10\n");
+            assertThrows(IllegalArgumentException.class, () -> new PlanificadorViajes(null, horarios, DayOfWeek.MONDAY, 10, 2));
+            assertThrows(IllegalArgumentException.class, () -> new PlanificadorViajes(lineas, horarios, null, 10, 2));
+            assertThrows(IllegalArgumentException.class, () -> new PlanificadorViajes(lineas, horarios, DayOfWeek.MONDAY, 0, 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Comparación con una búsqueda exhaustiva")
+    class ComparacionExhaustiva {
+
+        @Test
+        @DisplayName("En redes aleatorias encuentra todos los viajes Pareto-óptimos")
+        void redesAleatorias() throws IOException {
+            Random random = new Random(21);
+            for (int prueba = 0; prueba < 40; prueba++) {
+                RedAleatoria red = new RedAleatoria(random, 5 + random.nextInt(25), 1 + random.nextInt(8));
+                PlanificadorViajes planificador = new PlanificadorViajes(red.lineas, tabla(red.horarios.toString()),
+                        DayOfWeek.MONDAY, 10, red.minutosPorTramo);
+                for (int consulta = 0; consulta < 60; consulta++) {
+                    int o = random.nextInt(red.paradas.size());
+                    int dd = random.nextInt(red.paradas.size());
+                    int hora = HORA_6 - 30 + random.nextInt(240);
+                    int maxTransbordos = random.nextInt(4);
+                    List<Viaje> viajes = planificador.calcularViajes(red.paradas.get(o), red.paradas.get(dd), hora,
+                            maxTransbordos);
+                    if (o == dd) {
+                        assertTrue(viajes.isEmpty());
+                        continue;
+                    }
+                    assertEquals(red.frentePareto(o, dd, hora, maxTransbordos + 1), resumen(viajes), "consulta " + consulta);
+                    for (Viaje viaje : viajes) red.verificar(viaje, red.paradas.get(o), red.paradas.get(dd), hora);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Las consultas concurrentes devuelven los mismos viajes")
+        void consultasConcurrentes() throws IOException {
+            RedAleatoria red = new RedAleatoria(new Random(8), 30, 8);
+            PlanificadorViajes planificador = new PlanificadorViajes(red.lineas, tabla(red.horarios.toString()),
+                    DayOfWeek.MONDAY, 10, red.minutosPorTramo);
+            IntStream.range(0, 2000).parallel().forEach(i -> {
+                int o = i % 30;
+                int dd = (i * 7 + 3) % 30;
+                int hora = HORA_6 + i % 120;
+                List<Viaje> viajes = planificador.calcularViajes(red.paradas.get(o), red.paradas.get(dd), hora);
+                if (o != dd) assertEquals(red.frentePareto(o, dd, hora, PlanificadorViajes.TRANSBORDOS_POR_DEFECTO + 1),
+                        resumen(viajes));
+            });
+        }
+    }
+
+    // =================================================================================
+    // MÉTODOS DE AYUDA
+    // =================================================================================
+
+    private TablaHorarios tabla(String contenido) throws IOException {
+        Path archivo = Files.createTempFile(directorio, "horarios", ".txt");
+        Files.write(archivo, contenido.getBytes(StandardCharsets.UTF_8));
+        return TablaHorarios.leer(archivo);
+    }
+
+    private static Linea agregarLinea(Map<String, Linea> lineas, String id, Parada... recorrido) {
+        Linea linea = new Linea(id, "Línea " + id + " - Ida");
+        for (Parada parada : recorrido) linea.agregarParadaAlRecorrido(parada);
+        lineas.put(id + " - " + linea.getNombre(), linea);
+        return linea;
+    }
+
+    /** Pares (colectivos usados, hora de llegada) de cada viaje. */
+    private static List<List<Integer>> resumen(List<Viaje> viajes) {
+        List<List<Integer>> resumen = new ArrayList<>();
+        for (Viaje viaje : viajes) resumen.add(List.of(viaje.getTransbordos() + 1, viaje.getHoraLlegada()));
+        return resumen;
+    }
+
+    /** Red aleatoria con sus horarios y una búsqueda exhaustiva por rondas, sin podas, como referencia. */
+    private static final class RedAleatoria {
+        final List<Parada> paradas = new ArrayList<>();
+        final Map<String, Linea> lineas = new LinkedHashMap<>();
+        final StringBuilder horarios = new StringBuilder();
+        final int minutosPorTramo;
+        final List<int[]> recorridos = new ArrayList<>();
+        final List<int[]> salidas = new ArrayList<>();
+
+        RedAleatoria(Random random, int cantidadParadas, int cantidadLineas) {
+            for (int i = 0; i < cantidadParadas; i++) paradas.add(new Parada("P" + i, "Parada " + i));
+            minutosPorTramo = 1 + random.nextInt(4);
+            for (int l = 0; l < cantidadLineas; l++) {
+                int largo = 2 + random.nextInt(8);
+                int[] recorrido = new int[largo];
+                Parada[] recorridoParadas = new Parada[largo];
+                for (int i = 0; i < largo; i++) {
+                    do {
+                        recorrido[i] = random.nextInt(cantidadParadas);
+                    } while (i > 0 && recorrido[i] == recorrido[i - 1]);
+                    recorridoParadas[i] = paradas.get(recorrido[i]);
+                }
+                agregarLinea(lineas, String.valueOf(l + 1), recorridoParadas);
+                recorridos.add(recorrido);
+
+                int primera = HORA_6 + random.nextInt(60);
+                int ultima = primera + 1 + random.nextInt(180);
+                int frecuencia = 3 + random.nextInt(25);
+                horarios.append(l + 1).append(";Ida;L-V;").append(hora(primera)).append(';').append(hora(ultima))
+                        .append(';').append(frecuencia).append('\n');
+                int[] horas = new int[(ultima - primera) / frecuencia + 1];
+                for (int v = 0; v < horas.length; v++) horas[v] = primera + v * frecuencia;
+                salidas.add(horas);
+            }
+        }
+
+        private static String hora(int minutos) {
+            return String.format("%02d:%02d", minutos / 60, minutos % 60);
+        }
+
+        /** Llegada más temprana a cada parada con como mucho {@code colectivos} colectivos. */
+        int[] llegadas(int origen, int hora, int colectivos) {
+            int[] llegadas = new int[paradas.size()];
+            Arrays.fill(llegadas, Integer.MAX_VALUE);
+            llegadas[origen] = hora;
+            for (int k = 0; k < colectivos; k++) {
+                int[] siguientes = llegadas.clone();
+                for (int l = 0; l < recorridos.size(); l++) {
+                    int[] recorrido = recorridos.get(l);
+                    for (int salida : salidas.get(l)) {
+                        for (int i = 0; i < recorrido.length; i++) {
+                            if (llegadas[recorrido[i]] > salida + i * minutosPorTramo) continue;
+                            for (int j = i + 1; j < recorrido.length; j++) {
+                                siguientes[recorrido[j]] = Math.min(siguientes[recorrido[j]], salida + j * minutosPorTramo);
+                            }
+                        }
+                    }
+                }
+                llegadas = siguientes;
+            }
+            return llegadas;
+        }
+
+        /** Pares (colectivos, llegada) en los que usar un colectivo más mejora la llegada al destino. */
+        List<List<Integer>> frentePareto(int origen, int destino, int hora, int maxColectivos) {
+            List<List<Integer>> frente = new ArrayList<>();
+            int anterior = Integer.MAX_VALUE;
+            for (int k = 1; k <= maxColectivos; k++) {
+                int llegada = llegadas(origen, hora, k)[destino];
+                if (llegada < anterior) frente.add(List.of(k, llegada));
+                anterior = llegada;
+            }
+            return frente;
+        }
+
+        /** Verifica que cada tramo sea un viaje real de su línea y que los transbordos sean posibles. */
+        void verificar(Viaje viaje, Parada origen, Parada destino, int hora) {
+            assertEquals(origen, viaje.getTramos().get(0).getParadaSubida());
+            assertEquals(destino, viaje.getTramos().get(viaje.getTramos().size() - 1).getParadaBajada());
+            int disponible = hora;
+            Parada donde = origen;
+            for (Viaje.Tramo tramo : viaje.getTramos()) {
+                assertEquals(donde, tramo.getParadaSubida());
+                assertTrue(tramo.getHoraSubida() >= disponible);
+                assertTrue(esViajeDeLaLinea(tramo), "El tramo no es un viaje de " + tramo.getLinea().getNombre());
+                assertEquals(tramo.getHoraSubida() + (tramo.getParadas().size() - 1) * minutosPorTramo, tramo.getHoraBajada());
+                disponible = tramo.getHoraBajada();
+                donde = tramo.getParadaBajada();
+            }
+        }
+
+        /** Algún colectivo de la línea recorre las paradas del tramo a partir de la hora de subida. */
+        private boolean esViajeDeLaLinea(Viaje.Tramo tramo) {
+            List<Parada> recorrido = tramo.getLinea().getRecorridoVista();
+            int[] horas = salidas.get(Integer.parseInt(tramo.getLinea().getId()) - 1);
+            for (int desde = 0; desde + tramo.getParadas().size() <= recorrido.size(); desde++) {
+                if (recorrido.subList(desde, desde + tramo.getParadas().size()).equals(tramo.getParadas())
+                        && Arrays.binarySearch(horas, tramo.getHoraSubida() - desde * minutosPorTramo) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
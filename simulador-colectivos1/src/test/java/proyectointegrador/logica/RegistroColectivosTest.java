@@ -0,0 +1,134 @@
+package proyectointegrador.logica;
+
+import proyectointegrador.modelo.Colectivo;
+import proyectointegrador.modelo.Linea;
+import proyectointegrador.modelo.Parada;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pruebas de la Clase RegistroColectivos")
+public class RegistroColectivosTest {
+    private RegistroColectivos registro;
+    private Linea linea;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroColectivos();
+        linea = new Linea("L1", "Línea 1");
+        linea.agregarParadaAlRecorrido(new Parada("P1", "Parada 1"));
+        linea.agregarParadaAlRecorrido(new Parada("P2", "Parada 2"));
+    }
+
+    private Colectivo crearColectivo(String id) {
+        return new Colectivo(id, linea, 10, 5, 5, 1, 0);
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Registro y Búsqueda")
+    class PruebasDeRegistro {
+        @Test
+        @DisplayName("Debería asignar handles densos en orden de alta")
+        void handlesDensos() {
+            assertEquals(0, registro.registrar(crearColectivo("C1")));
+            assertEquals(1, registro.registrar(crearColectivo("C2")));
+            assertEquals(2, registro.registrar(crearColectivo("C3")));
+            assertEquals(3, registro.cantidad());
+            assertEquals("C2", registro.obtener(1).getIdColectivo());
+        }
+
+        @Test
+        @DisplayName("Debería encontrar colectivos por ID y devolver null o -1 si no existen")
+        void busquedaPorId() {
+            Colectivo c2 = crearColectivo("C2");
+            registro.registrar(crearColectivo("C1"));
+            registro.registrar(c2);
+
+            assertSame(c2, registro.buscarPorId("C2"));
+            assertEquals(1, registro.getHandle("C2"));
+            assertNull(registro.buscarPorId("X"));
+            assertEquals(-1, registro.getHandle("X"));
+        }
+
+        @Test
+        @DisplayName("No debería aceptar colectivos nulos ni IDs duplicados")
+        void registroInvalido() {
+            registro.registrar(crearColectivo("C1"));
+            assertThrows(IllegalArgumentException.class, () -> registro.registrar(null));
+            assertThrows(IllegalArgumentException.class, () -> registro.registrar(crearColectivo("C1")));
+            assertEquals(1, registro.cantidad());
+        }
+
+        @Test
+        @DisplayName("La lista de colectivos debería ser de solo lectura")
+        void listaSoloLectura() {
+            registro.registrar(crearColectivo("C1"));
+            assertThrows(UnsupportedOperationException.class, () -> registro.getColectivos().clear());
+        }
+
+        @Test
+        @DisplayName("limpiar() debería reiniciar los handles")
+        void limpiar() {
+            registro.registrar(crearColectivo("C1"));
+            registro.marcarPendiente(0);
+            registro.limpiar();
+
+            assertEquals(0, registro.cantidad());
+            assertFalse(registro.hayPendientes());
+            assertEquals(0, registro.registrar(crearColectivo("C9")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Colectivos Pendientes")
+    class PruebasDePendientes {
+        @BeforeEach
+        void registrarFlota() {
+            for (int i = 1; i <= 5; i++) {
+                registro.registrar(crearColectivo("C" + i));
+            }
+        }
+
+        @Test
+        @DisplayName("Debería recorrer los pendientes en orden de handle sin duplicados")
+        void recorridoOrdenado() {
+            registro.marcarPendiente(3);
+            registro.marcarPendiente(0);
+            registro.marcarPendiente(3);
+
+            List<Integer> recorridos = new ArrayList<>();
+            for (int h = registro.siguientePendiente(0); h >= 0; h = registro.siguientePendiente(h + 1)) {
+                recorridos.add(h);
+            }
+            assertEquals(List.of(0, 3), recorridos);
+            assertEquals(2, registro.cantidadPendientes());
+            assertTrue(registro.esPendiente(3));
+            assertFalse(registro.esPendiente(1));
+        }
+
+        @Test
+        @DisplayName("limpiarPendientes() debería vaciar el conjunto sin tocar la flota")
+        void limpiarPendientes() {
+            registro.marcarPendiente(2);
+            registro.limpiarPendientes();
+
+            assertFalse(registro.hayPendientes());
+            assertEquals(-1, registro.siguientePendiente(0));
+            assertEquals(5, registro.cantidad());
+        }
+
+        @Test
+        @DisplayName("No debería marcar handles fuera de rango")
+        void handleInvalido() {
+            assertThrows(IndexOutOfBoundsException.class, () -> registro.marcarPendiente(5));
+            assertThrows(IndexOutOfBoundsException.class, () -> registro.marcarPendiente(-1));
+        }
+    }
+}
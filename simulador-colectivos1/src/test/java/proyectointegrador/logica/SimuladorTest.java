@@ -10,12 +10,14 @@ import proyectointegrador.modelo.Colectivo;
 import proyectointegrador.modelo.Linea;
 import proyectointegrador.modelo.Parada;
 import proyectointegrador.modelo.Pasajero;
+import proyectointegrador.util.EventoUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 @DisplayName("Pruebas de la Clase Simulador")
 class SimuladorTest {
@@ -67,6 +69,56 @@ class SimuladorTest {
         }
     }
 
+    /**
+     * Construye un escenario independiente con dos líneas que comparten paradas,
+     * varios colectivos por línea y pasajeros fijos, para poder comparar motores.
+     */
+    private Simulador crearEscenario(ModoMotor modo, GestorEstadisticas gestorEscenario) {
+        Parada a = new Parada("A", "Parada A");
+        Parada b = new Parada("B", "Parada B");
+        Parada c = new Parada("C", "Parada C");
+        Parada d = new Parada("D", "Parada D");
+        Parada e = new Parada("E", "Parada E");
+        Parada f = new Parada("F", "Parada F");
+        Parada g = new Parada("G", "Parada G");
+        Parada h = new Parada("H", "Parada H");
+
+        Linea norte = new Linea("1", "Norte");
+        for (Parada p : List.of(a, b, c, d)) norte.agregarParadaAlRecorrido(p);
+        Linea sur = new Linea("2", "Sur");
+        for (Parada p : List.of(e, b, c, a)) sur.agregarParadaAlRecorrido(p);
+        Linea oeste = new Linea("3", "Oeste"); // No comparte paradas con las otras dos.
+        for (Parada p : List.of(f, g, h)) oeste.agregarParadaAlRecorrido(p);
+
+        Map<String, Linea> lineasEscenario = new HashMap<>();
+        lineasEscenario.put("1", norte);
+        lineasEscenario.put("2", sur);
+        lineasEscenario.put("3", oeste);
+        Map<String, Parada> paradasEscenario = new HashMap<>();
+        for (Parada p : List.of(a, b, c, d, e, f, g, h)) paradasEscenario.put(p.getId(), p);
+
+        Parada[][] viajes = { {a, d}, {a, b}, {b, d}, {b, c}, {e, a}, {e, c}, {b, a}, {c, d},
+                {a, c}, {e, b}, {b, d}, {c, a}, {a, d}, {e, a}, {b, c}, {a, b},
+                {f, h}, {g, h}, {f, g}, {f, h}, {f, h}, {g, h}, {f, g} };
+        List<Pasajero> pasajeros = new ArrayList<>();
+        for (int i = 0; i < viajes.length; i++) {
+            Pasajero p = new Pasajero("PX" + i, viajes[i][0], viajes[i][1]);
+            viajes[i][0].agregarPasajero(p);
+            gestorEscenario.registrarPasajero(p);
+            pasajeros.add(p);
+        }
+
+        Properties propsEscenario = new Properties();
+        propsEscenario.setProperty("recorridos_por_colectivo", "2");
+        propsEscenario.setProperty("cantidad_de_colectivos_simultaneos_por_linea", "3");
+        propsEscenario.setProperty("frecuencia_salida_colectivos_minutos", "4");
+        propsEscenario.setProperty("modo_motor", modo.name().toLowerCase());
+
+        Simulador simulador = new Simulador(lineasEscenario, paradasEscenario, pasajeros, gestorEscenario, null, propsEscenario);
+        simulador.inicializarColectivos(3, 2);
+        return simulador;
+    }
+
     @Nested
     @DisplayName("Pruebas de Inicialización")
     class PruebasDeInicializacion {
@@ -149,4 +201,232 @@ class SimuladorTest {
             assertEquals(1, p1.cantidadPasajerosEsperando(), "El pasajero que no subió debe seguir en la parada.");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Pruebas del Motor por Eventos")
+    class PruebasMotorEventos {
+
+        @Test
+        @DisplayName("Debería leer el modo de motor desde la configuración")
+        void modoDesdeConfiguracion() {
+            props.setProperty("modo_motor", "eventos");
+            Simulador simulador = new Simulador(lineas, paradas, new ArrayList<>(), gestor, planificador, props);
+            assertEquals(ModoMotor.EVENTOS, simulador.getModoMotor());
+        }
+
+        @Test
+        @DisplayName("Debería producir las mismas estadísticas finales que el motor por pasos")
+        void mismasEstadisticasQueMotorPorPasos() {
+            GestorEstadisticas gestorPasos = new GestorEstadisticas();
+            GestorEstadisticas gestorEventos = new GestorEstadisticas();
+            ejecutarSimulacionCompleta(crearEscenario(ModoMotor.PASOS, gestorPasos));
+            ejecutarSimulacionCompleta(crearEscenario(ModoMotor.EVENTOS, gestorEventos));
+
+            assertEquals(gestorPasos.getPasajerosTransportados(), gestorEventos.getPasajerosTransportados());
+            assertEquals(gestorPasos.getIndiceSatisfaccion(), gestorEventos.getIndiceSatisfaccion());
+            assertEquals(gestorPasos.getDesgloseCalificaciones(), gestorEventos.getDesgloseCalificaciones());
+            assertEquals(gestorPasos.getDesglosePasajeros(), gestorEventos.getDesglosePasajeros());
+            assertEquals(gestorPasos.getOcupacionPromedioPorColectivo(), gestorEventos.getOcupacionPromedioPorColectivo());
+        }
+
+        @Test
+        @DisplayName("El motor paralelo debería producir estadísticas y eventos idénticos al secuencial")
+        void motorParaleloIdenticoAlSecuencial() {
+            GestorEstadisticas gestorPasos = new GestorEstadisticas();
+            GestorEstadisticas gestorParalelo = new GestorEstadisticas();
+            Simulador secuencial = crearEscenario(ModoMotor.PASOS, gestorPasos);
+            Simulador paralelo = crearEscenario(ModoMotor.PARALELO, gestorParalelo);
+
+            while (!secuencial.isSimulacionTerminada()) {
+                assertFalse(paralelo.isSimulacionTerminada());
+                assertEquals(secuencial.ejecutarPasoDeSimulacion(), paralelo.ejecutarPasoDeSimulacion());
+            }
+            assertTrue(paralelo.isSimulacionTerminada());
+
+            assertEquals(gestorPasos.getPasajerosTransportados(), gestorParalelo.getPasajerosTransportados());
+            assertEquals(gestorPasos.getIndiceSatisfaccion(), gestorParalelo.getIndiceSatisfaccion());
+            assertEquals(gestorPasos.getDesgloseCalificaciones(), gestorParalelo.getDesgloseCalificaciones());
+            assertEquals(gestorPasos.getDesglosePasajeros(), gestorParalelo.getDesglosePasajeros());
+            assertEquals(gestorPasos.getOcupacionPromedioPorColectivo(), gestorParalelo.getOcupacionPromedioPorColectivo());
+        }
+
+        @Test
+        @DisplayName("Debería medir esperas y viajes en pasos, igual en el motor paralelo")
+        void tiemposDeEsperaYViaje() {
+            GestorEstadisticas gestorPasos = new GestorEstadisticas();
+            GestorEstadisticas gestorParalelo = new GestorEstadisticas();
+            Simulador secuencial = crearEscenario(ModoMotor.PASOS, gestorPasos);
+            ejecutarSimulacionCompleta(secuencial);
+            ejecutarSimulacionCompleta(crearEscenario(ModoMotor.PARALELO, gestorParalelo));
+
+            long subieron = secuencial.getPasajerosSimuladosVista().stream().filter(Pasajero::isPudoSubir).count();
+            long esperas = gestorPasos.getEsperasPorLinea().values().stream().mapToLong(HistogramaCuantiles::getCantidad).sum();
+            long viajes = gestorPasos.getViajesPorLinea().values().stream().mapToLong(HistogramaCuantiles::getCantidad).sum();
+            assertTrue(subieron > 0);
+            assertEquals(subieron, esperas, "Cada pasajero que subió registra una espera.");
+            assertEquals(subieron, viajes, "Cada pasajero que subió registra un viaje al bajar.");
+
+            for (Map.Entry<String, HistogramaCuantiles> entry : gestorPasos.getEsperasPorParada().entrySet()) {
+                HistogramaCuantiles paralelo = gestorParalelo.getEsperasPorParada().get(entry.getKey());
+                assertEquals(entry.getValue().getCantidad(), paralelo.getCantidad());
+                assertEquals(entry.getValue().getSuma(), paralelo.getSuma());
+                assertEquals(entry.getValue().getP95(), paralelo.getP95());
+            }
+            for (Pasajero p : secuencial.getPasajerosSimuladosVista()) {
+                if (p.isPudoSubir()) {
+                    Parada origen = p.getParadaOrigen();
+                    assertEquals(gestorPasos.getEsperasPorParada().get(origen.getId()).getPromedio(),
+                            origen.getTiempoEsperaPromedio(), 1e-9);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("La ida y el regreso de una línea (mismo ID) deberían medirse por separado")
+        void tiemposPorSentidoDeLinea() {
+            for (ModoMotor modo : List.of(ModoMotor.PASOS, ModoMotor.PARALELO)) {
+                Parada a = new Parada("A", "Parada A");
+                Parada b = new Parada("B", "Parada B");
+                Parada c = new Parada("C", "Parada C");
+                Linea ida = new Linea("1", "Línea 1 - Ida");
+                for (Parada p : List.of(a, b, c)) ida.agregarParadaAlRecorrido(p);
+                Linea regreso = new Linea("1", "Línea 1 - Regreso");
+                for (Parada p : List.of(c, b, a)) regreso.agregarParadaAlRecorrido(p);
+                Map<String, Linea> lineasEscenario = new HashMap<>();
+                lineasEscenario.put("1 - Línea 1 - Ida", ida);
+                lineasEscenario.put("1 - Línea 1 - Regreso", regreso);
+                Map<String, Parada> paradasEscenario = Map.of("A", a, "B", b, "C", c);
+
+                GestorEstadisticas gestorEscenario = new GestorEstadisticas();
+                List<Pasajero> pasajeros = new ArrayList<>();
+                for (Parada[] viaje : new Parada[][] { {a, c}, {b, c}, {c, a} }) {
+                    Pasajero p = new Pasajero("PX" + pasajeros.size(), viaje[0], viaje[1]);
+                    viaje[0].agregarPasajero(p);
+                    gestorEscenario.registrarPasajero(p);
+                    pasajeros.add(p);
+                }
+                Properties propsEscenario = new Properties();
+                propsEscenario.setProperty("modo_motor", modo.name().toLowerCase());
+                Simulador simulador = new Simulador(lineasEscenario, paradasEscenario, pasajeros, gestorEscenario, null, propsEscenario);
+                simulador.inicializarColectivos(10, 5);
+                ejecutarSimulacionCompleta(simulador);
+
+                Map<String, HistogramaCuantiles> esperas = gestorEscenario.getEsperasPorLinea();
+                Map<String, HistogramaCuantiles> viajes = gestorEscenario.getViajesPorLinea();
+                assertEquals(Set.of("1 - Línea 1 - Ida", "1 - Línea 1 - Regreso"), esperas.keySet(), modo.name());
+                assertEquals(2, esperas.get("1 - Línea 1 - Ida").getCantidad(), modo.name());
+                assertEquals(1, esperas.get("1 - Línea 1 - Regreso").getCantidad(), modo.name());
+                assertEquals(2, viajes.get("1 - Línea 1 - Ida").getCantidad(), modo.name());
+                assertEquals(1, viajes.get("1 - Línea 1 - Regreso").getCantidad(), modo.name());
+            }
+        }
+
+        @Test
+        @DisplayName("La espera de un pasajero con llegada diferida debería contarse desde su llegada")
+        void esperaDesdeLaLlegadaDiferida() {
+            props.setProperty("modo_motor", "eventos");
+            props.setProperty("cantidad_de_colectivos_simultaneos_por_linea", "2");
+            props.setProperty("frecuencia_salida_colectivos_minutos", "10");
+            Pasajero tardio = new Pasajero("TARDIO", p1, p3);
+
+            Simulador simulador = new Simulador(lineas, paradas, List.of(tardio), gestor, planificador, props);
+            simulador.inicializarColectivos(10, 5);
+            simulador.programarLlegadaPasajero(tardio, 1);
+            ejecutarSimulacionCompleta(simulador);
+
+            assertEquals(1, tardio.getPasoLlegada());
+            HistogramaCuantiles esperas = gestor.getEsperasPorParada().get("P1");
+            assertEquals(1, esperas.getCantidad());
+            assertEquals(tardio.getPasoSubida() - 1, esperas.getMaximo());
+            assertEquals(tardio.getPasoSubida() - 1, p1.getTiempoEsperaPromedio(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Un pasajero con llegada diferida debería esperar al colectivo siguiente")
+        void llegadaDiferidaDePasajero() {
+            props.setProperty("modo_motor", "eventos");
+            props.setProperty("cantidad_de_colectivos_simultaneos_por_linea", "2");
+            props.setProperty("frecuencia_salida_colectivos_minutos", "10");
+            Pasajero tardio = new Pasajero("TARDIO", p1, p3);
+
+            Simulador simulador = new Simulador(lineas, paradas, List.of(tardio), gestor, planificador, props);
+            simulador.inicializarColectivos(10, 5);
+            simulador.programarLlegadaPasajero(tardio, 1); // El primer colectivo ya dejó P1 en el paso 0.
+
+            simulador.ejecutarPasoDeSimulacion();
+            assertFalse(p1.hayPasajerosEsperando(), "El pasajero todavía no llegó a la parada.");
+
+            ejecutarSimulacionCompleta(simulador);
+            assertTrue(tardio.isPudoSubir(), "El segundo colectivo debería llevarlo.");
+            assertEquals(0, tardio.getColectivosEsperados());
+            assertEquals(1, gestor.getPasajerosTransportados());
+        }
+
+        @Test
+        @DisplayName("La llegada diferida de pasajeros no debería estar disponible en el motor por pasos")
+        void llegadaDiferidaSoloEnMotorPorEventos() {
+            Pasajero pasajero = new Pasajero(p1, p3);
+            Simulador simulador = new Simulador(lineas, paradas, List.of(pasajero), gestor, planificador, props);
+            assertThrows(IllegalStateException.class, () -> simulador.programarLlegadaPasajero(pasajero, 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Eventos Tipados")
+    class PruebasEventosTipados {
+
+        @Test
+        @DisplayName("La agrupación tipada debería coincidir con la agrupación del texto por regex")
+        void agrupacionTipadaIgualARegex() {
+            Simulador simulador = crearEscenario(ModoMotor.PASOS, new GestorEstadisticas());
+            FormateadorEventos formateador = simulador.getFormateadorEventos();
+            while (!simulador.isSimulacionTerminada()) {
+                BufferEventos eventos = simulador.avanzarPaso();
+                List<String> textos = formateador.formatear(eventos);
+                assertEquals(EventoUtils.mostrarEventosAgrupadosPorColectivo(textos),
+                        EventoUtils.agruparEventosPorColectivo(eventos, formateador));
+            }
+        }
+
+        @Test
+        @DisplayName("Debería conservar el texto de los eventos de subida, bajada y terminal")
+        void textoDeEventos() {
+            props.setProperty("recorridos_por_colectivo", "2");
+            Pasajero pasajero = new Pasajero("PAX", p1, p3);
+            p1.agregarPasajero(pasajero);
+            Simulador simulador = new Simulador(lineas, paradas, List.of(pasajero), gestor, planificador, props);
+            simulador.inicializarColectivos(10, 5);
+
+            List<String> todos = new ArrayList<>();
+            while (!simulador.isSimulacionTerminada()) {
+                todos.addAll(simulador.ejecutarPasoDeSimulacion());
+            }
+
+            assertTrue(todos.contains("\nColectivo C1-L1 (Linea Unica) en Parada: Origen (ID: P1)"));
+            assertTrue(todos.contains("  Pasajeros a bordo: 0/10"));
+            assertTrue(todos.contains("  + Subió " + pasajero));
+            assertTrue(todos.contains("  Colectivo C1-L1 ha llegado a la terminal."));
+            assertTrue(todos.contains("Colectivo C1-L1 (Linea Unica) ha finalizado su recorrido 1 en: Destino/Terminal (ID: P3)"));
+            assertTrue(todos.contains("  - Bajó " + pasajero + " en su destino (terminal)."));
+            assertTrue(todos.contains("\n\n--##--->\n\nEVENTO: Colectivo C1-L1 reiniciado para un nuevo recorrido \n\n--##--->\n\n"));
+            assertTrue(todos.contains("  Colectivo C1-L1 ha finalizado todos sus recorridos."));
+        }
+
+        @Test
+        @DisplayName("Sin registro de eventos el buffer queda vacío y las estadísticas no cambian")
+        void sinRegistroDeEventos() {
+            GestorEstadisticas gestorConEventos = new GestorEstadisticas();
+            GestorEstadisticas gestorSinEventos = new GestorEstadisticas();
+            ejecutarSimulacionCompleta(crearEscenario(ModoMotor.PASOS, gestorConEventos));
+
+            Simulador simulador = crearEscenario(ModoMotor.PASOS, gestorSinEventos);
+            simulador.setRegistrarEventos(false);
+            while (!simulador.isSimulacionTerminada()) {
+                assertTrue(simulador.avanzarPaso().estaVacio());
+            }
+
+            assertEquals(gestorConEventos.getPasajerosTransportados(), gestorSinEventos.getPasajerosTransportados());
+            assertEquals(gestorConEventos.getDesgloseCalificaciones(), gestorSinEventos.getDesgloseCalificaciones());
+        }
+    }
+}
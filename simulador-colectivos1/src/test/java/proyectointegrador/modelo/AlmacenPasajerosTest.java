@@ -0,0 +1,125 @@
+package proyectointegrador.modelo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests para la clase AlmacenPasajeros y para Pasajero como vista sobre ella.
+ */
+@DisplayName("Pruebas de la Clase AlmacenPasajeros")
+class AlmacenPasajerosTest {
+
+    private AlmacenPasajeros almacen;
+    private Parada p1, p2, p3;
+
+    @BeforeEach
+    void setUp() {
+        almacen = new AlmacenPasajeros(2);
+        p1 = new Parada("P1", "Calle A");
+        p2 = new Parada("P2", "Calle B");
+        p3 = new Parada("P3", "Calle C");
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Alta")
+    class PruebasDeAlta {
+
+        @Test
+        @DisplayName("Debería asignar handles densos y crecer sin perder datos")
+        void handlesDensos() {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, almacen.agregar(i % 2 == 0 ? p1 : p2, p3));
+            }
+            assertEquals(100, almacen.cantidad());
+            assertEquals(3, almacen.cantidadParadas(), "Cada parada se guarda una sola vez.");
+            assertSame(p2, almacen.origen(99));
+            assertSame(p3, almacen.destino(0));
+        }
+
+        @Test
+        @DisplayName("Debería usar el ID por defecto o el explícito")
+        void ids() {
+            int h0 = almacen.agregar(p1, p2);
+            int h1 = almacen.agregar("Juan", p1, p2);
+            int h2 = almacen.agregar("Pasajero-3", p1, p2);
+            assertEquals("Pasajero-1", almacen.id(h0));
+            assertEquals("Juan", almacen.id(h1));
+            assertEquals("Pasajero-3", almacen.id(h2));
+        }
+
+        @Test
+        @DisplayName("Debería validar las paradas y el ID como el constructor de Pasajero")
+        void validaciones() {
+            assertThrows(IllegalArgumentException.class, () -> almacen.agregar(null, p2));
+            assertThrows(IllegalArgumentException.class, () -> almacen.agregar(p1, null));
+            assertThrows(IllegalArgumentException.class, () -> almacen.agregar(p1, p1));
+            assertThrows(IllegalArgumentException.class, () -> almacen.agregar(" ", p1, p2));
+            assertThrows(IndexOutOfBoundsException.class, () -> almacen.vista(0));
+        }
+
+        @Test
+        @DisplayName("Los handles reservados deberían poder completarse después")
+        void reservarYAsignar() {
+            int primero = almacen.reservar(3);
+            int o = almacen.indiceDeParada(p1);
+            int d = almacen.indiceDeParada(p3);
+            almacen.asignarParadas(primero + 2, o, d);
+            assertSame(p1, almacen.origen(2));
+            assertSame(p3, almacen.destino(2));
+            assertThrows(IndexOutOfBoundsException.class, () -> almacen.asignarParadas(3, o, d));
+            assertThrows(IllegalArgumentException.class, () -> almacen.asignarParadas(0, o, o), "Origen y destino no pueden coincidir.");
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Estado y Vistas")
+    class PruebasDeEstado {
+
+        @Test
+        @DisplayName("Las banderas de un handle no deberían afectar a otro")
+        void banderasIndependientes() {
+            int a = almacen.agregar(p1, p2);
+            int b = almacen.agregar(p1, p2);
+            almacen.setPudoSubir(a, true);
+            almacen.setViajoSentado(a, true);
+            almacen.setBajadaForzosa(b, true);
+            assertTrue(almacen.pudoSubir(a) && almacen.viajoSentado(a) && !almacen.bajadaForzosa(a));
+            assertTrue(!almacen.pudoSubir(b) && !almacen.viajoSentado(b) && almacen.bajadaForzosa(b));
+            almacen.setViajoSentado(a, false);
+            assertTrue(almacen.pudoSubir(a) && !almacen.viajoSentado(a));
+        }
+
+        @Test
+        @DisplayName("Una vista debería leer y escribir las columnas del almacén")
+        void vistaCompartida() {
+            int h = almacen.agregar(p1, p2);
+            Pasajero vista = almacen.vista(h);
+            vista.setPudoSubir(true);
+            vista.incrementarColectivosEsperados();
+            assertEquals(1, almacen.colectivosEsperados(h));
+            assertEquals(3, almacen.calcularSatisfaccion(h));
+            assertEquals(almacen.vista(h), vista, "Dos vistas del mismo handle son iguales.");
+            assertEquals(vista.hashCode(), almacen.vista(h).hashCode());
+
+            vista.resetearEstadoViaje();
+            assertFalse(almacen.pudoSubir(h));
+            assertEquals(0, almacen.colectivosEsperados(h));
+        }
+
+        @Test
+        @DisplayName("Las vistas se comparan por almacén y handle, no por ID")
+        void igualdadPorHandle() {
+            int h = almacen.agregar(p1, p2);
+            AlmacenPasajeros otro = new AlmacenPasajeros();
+            int g = otro.agregar(p1, p2);
+            assertEquals("Pasajero-1", almacen.id(h));
+            assertEquals(almacen.id(h), otro.id(g));
+            assertNotEquals(almacen.vista(h), otro.vista(g), "Mismo ID en almacenes distintos.");
+            assertNotEquals(new Pasajero("Pasajero-1", p1, p2), almacen.vista(h), "Un pasajero suelto no es una vista del almacén.");
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -140,6 +141,111 @@ class ColectivoTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pruebas del Manifiesto por Destino")
+    class PruebasDeManifiesto {
+
+        @Test
+        @DisplayName("bajarPasajerosEnParadaActual() debería bajar solo a quienes terminan ahí, en orden de subida")
+        void bajaSoloLosDeLaParada() {
+            colectivoSUT.subirPasajero(pax1); // Destino p2, sentado
+            colectivoSUT.subirPasajero(pax2); // Destino p3, sentado
+            colectivoSUT.subirPasajero(pax4); // Destino p2, de pie
+
+            assertTrue(colectivoSUT.bajarPasajerosEnParadaActual().isEmpty(), "En p1 no baja nadie.");
+            colectivoSUT.avanzarAProximaParada();
+            assertEquals(List.of(pax1, pax4), colectivoSUT.bajarPasajerosEnParadaActual());
+            assertEquals(List.of(pax2), colectivoSUT.getPasajerosABordo());
+            assertEquals(1, colectivoSUT.getAsientosDisponibles());
+            assertTrue(colectivoSUT.bajarPasajerosEnParadaActual().isEmpty(), "Una segunda llamada no debe bajar a nadie.");
+        }
+
+        @Test
+        @DisplayName("bajarPasajero() debería quitar al pasajero también del manifiesto")
+        void bajarIndividualActualizaManifiesto() {
+            colectivoSUT.subirPasajero(pax1);
+            assertFalse(colectivoSUT.subirPasajero(pax1), "Un pasajero no puede subir dos veces.");
+            assertTrue(colectivoSUT.bajarPasajero(pax1));
+            colectivoSUT.avanzarAProximaParada();
+            assertTrue(colectivoSUT.bajarPasajerosEnParadaActual().isEmpty());
+        }
+
+        @Test
+        @DisplayName("bajarTodosLosPasajeros() debería vaciar el colectivo, incluso con destinos fuera del recorrido")
+        void bajarTodos() {
+            Pasajero fueraDeRecorrido = new Pasajero(p1, new Parada("PX", "Fuera del recorrido"));
+            colectivoSUT.subirPasajero(pax2);
+            colectivoSUT.subirPasajero(fueraDeRecorrido);
+            assertEquals(List.of(pax2, fueraDeRecorrido), colectivoSUT.bajarTodosLosPasajeros());
+            assertEquals(0, colectivoSUT.getCantidadPasajerosABordo());
+            assertEquals(2, colectivoSUT.getAsientosDisponibles());
+        }
+
+        @Test
+        @DisplayName("Con muchos pasajeros, subidas y bajadas sueltas deberían mantener el orden y los grupos")
+        void manifiestoGrande() {
+            Colectivo grande = new Colectivo("C02", linea, 200, 50, 150, 1, 0);
+            AlmacenPasajeros almacen = new AlmacenPasajeros();
+            List<Pasajero> esperados = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                Pasajero p = almacen.vista(almacen.agregar(p1, (i % 2 == 0) ? p2 : p3));
+                assertTrue(grande.subirPasajero(p));
+                esperados.add(p);
+            }
+            for (int i = 0; i < 120; i += 3) {
+                assertTrue(grande.bajarPasajero(almacen.vista(i)));
+                esperados.remove(almacen.vista(i));
+            }
+            for (int i = 0; i < 120; i++) {
+                assertEquals(i % 3 == 0, grande.subirPasajero(almacen.vista(i)), "Solo vuelven a subir los que habían bajado.");
+            }
+            // Los que bajaron y volvieron a subir quedan al final, en orden.
+            for (int i = 0; i < 120; i += 3) {
+                esperados.add(almacen.vista(i));
+            }
+            assertEquals(esperados, grande.getPasajerosABordo());
+
+            grande.avanzarAProximaParada();
+            List<Pasajero> bajanEnP2 = esperados.stream().filter(p -> p.getParadaDestino() == p2).toList();
+            assertEquals(bajanEnP2, grande.bajarPasajerosEnParadaActual());
+            assertEquals(120 - bajanEnP2.size(), grande.getCantidadPasajerosABordo());
+            assertTrue(grande.getPasajerosABordo().stream().allMatch(p -> p.getParadaDestino() == p3));
+        }
+
+        @Test
+        @DisplayName("Debería llevar a la vez pasajeros de almacenes distintos")
+        void pasajerosDeAlmacenesDistintos() {
+            AlmacenPasajeros almacen = new AlmacenPasajeros();
+            Pasajero a = almacen.vista(almacen.agregar(p1, p3));
+            Pasajero b = almacen.vista(almacen.agregar(p1, p2));
+            assertTrue(colectivoSUT.subirPasajero(a));
+            assertTrue(colectivoSUT.subirPasajero(pax1), "Un pasajero suelto puede viajar con los de un almacén.");
+            assertTrue(colectivoSUT.subirPasajero(b));
+            assertFalse(colectivoSUT.subirPasajero(almacen.vista(a.getHandle())), "Otra vista del mismo handle ya está a bordo.");
+            assertEquals(List.of(a, pax1, b), colectivoSUT.getPasajerosABordo());
+
+            colectivoSUT.avanzarAProximaParada();
+            assertEquals(List.of(pax1, b), colectivoSUT.bajarPasajerosEnParadaActual());
+            assertTrue(colectivoSUT.bajarPasajero(a));
+            assertEquals(0, colectivoSUT.getCantidadPasajerosABordo());
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Vistas de Solo Lectura")
+    class PruebasDeVistas {
+
+        @Test
+        @DisplayName("getPasajerosABordoVista() debería reflejar cambios y no permitir modificarla")
+        void vistaPasajerosABordo() {
+            var vista = colectivoSUT.getPasajerosABordoVista();
+            assertSame(vista, colectivoSUT.getPasajerosABordoVista(), "No debe crearse una vista nueva en cada llamada.");
+            colectivoSUT.subirPasajero(pax1);
+            assertEquals(1, vista.size());
+            assertThrows(UnsupportedOperationException.class, () -> vista.add(pax2));
+        }
+    }
+
     @Nested
     @DisplayName("Pruebas de Movimiento y Recorrido")
     class PruebasDeMovimiento {
@@ -136,6 +136,45 @@ class LineaTest {
             assertEquals(-1, lineaSUT.getIndiceParada(null));
         }
 
+        @Test
+        @DisplayName("getIndiceParada() debería devolver la primera posición si la parada se repite")
+        void getIndiceParadaConRepetidas() {
+            lineaSUT.agregarParadaAlRecorrido(p3);
+            lineaSUT.agregarParadaAlRecorrido(p1); // Recorrido circular: P01 -> P02 -> P03 -> P01
+            assertEquals(0, lineaSUT.getIndiceParada(p1));
+            assertEquals(2, lineaSUT.getIndiceParada(new Parada("P03", "Misma parada por ID")));
+            assertEquals(4, lineaSUT.getCantidadParadas());
+        }
+
+        @Test
+        @DisplayName("Los destinos posteriores deberían seguir a la primera aparición de cada parada")
+        void destinosPosteriores() {
+            Parada p4 = new Parada("P04", "Parada Cuatro");
+            lineaSUT.agregarParadaAlRecorrido(p3);
+            lineaSUT.agregarParadaAlRecorrido(p1); // P01 -> P02 -> P03 -> P01 -> P04
+            lineaSUT.agregarParadaAlRecorrido(p4);
+
+            Linea.DestinosPosteriores destinos = lineaSUT.destinosPosteriores();
+            assertArrayEquals(new Parada[] { p1, p2, p3, p4 }, destinos.destinos());
+            int[] desde = new int[5];
+            for (int i = 0; i < desde.length; i++) desde[i] = destinos.desde(i);
+            assertArrayEquals(new int[] { 1, 2, 3, 1, 4 }, desde, "La segunda visita a P01 sirve lo mismo que la primera.");
+            assertSame(destinos, lineaSUT.destinosPosteriores(), "Se calculan una sola vez.");
+
+            Parada p5 = new Parada("P05", "Parada Cinco");
+            lineaSUT.agregarParadaAlRecorrido(p5);
+            assertArrayEquals(new Parada[] { p1, p2, p3, p4, p5 }, lineaSUT.destinosPosteriores().destinos());
+        }
+
+        @Test
+        @DisplayName("getRecorridoVista() debería ser de solo lectura y reflejar cambios")
+        void getRecorridoVista() {
+            List<Parada> vista = lineaSUT.getRecorridoVista();
+            assertThrows(UnsupportedOperationException.class, () -> vista.add(p3));
+            lineaSUT.agregarParadaAlRecorrido(p3);
+            assertEquals(List.of(p1, p2, p3), vista);
+        }
+
         @Test
         @DisplayName("tieneParadaEnRecorrido() debería devolver true si la contiene, false si no")
         void tieneParadaEnRecorrido() {
@@ -0,0 +1,82 @@
+package proyectointegrador.modelo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la lista compacta de pasajeros.
+ */
+@DisplayName("Pruebas de la Clase ListaPasajeros")
+class ListaPasajerosTest {
+
+    private Parada p1, p2;
+    private AlmacenPasajeros almacen;
+    private ListaPasajeros lista;
+
+    @BeforeEach
+    void setUp() {
+        p1 = new Parada("P01", "Origen");
+        p2 = new Parada("P02", "Destino");
+        almacen = new AlmacenPasajeros();
+        for (int i = 0; i < 3; i++) {
+            almacen.agregar(p1, p2);
+        }
+        lista = new ListaPasajeros(1);
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Alta y Consulta")
+    class PruebasDeAlta {
+
+        @Test
+        @DisplayName("agregarRango() debería guardar los handles en orden y crear vistas al pedirlas")
+        void agregarRango() {
+            lista.agregarRango(almacen, 0, 3);
+            assertEquals(3, lista.size());
+            assertEquals(2, lista.handle(2));
+            assertSame(almacen, lista.getAlmacenUnico());
+            assertEquals(almacen.vista(1), lista.get(1));
+            assertEquals(List.of(almacen.vista(0), almacen.vista(1), almacen.vista(2)), lista);
+        }
+
+        @Test
+        @DisplayName("Debería admitir pasajeros de almacenes distintos")
+        void almacenesMezclados() {
+            Pasajero suelto = new Pasajero("S", p1, p2);
+            lista.agregar(almacen, 0);
+            lista.add(suelto);
+            lista.agregar(almacen, 2);
+
+            assertNull(lista.getAlmacenUnico(), "La lista mezcla almacenes.");
+            assertSame(almacen, lista.almacen(0));
+            assertSame(suelto.getAlmacen(), lista.almacen(1));
+            assertEquals(List.of(almacen.vista(0), suelto, almacen.vista(2)), lista);
+        }
+
+        @Test
+        @DisplayName("recortar() debería conservar solo los primeros pasajeros")
+        void recortar() {
+            lista.agregarRango(almacen, 0, 3);
+            lista.recortar(1);
+            assertEquals(List.of(almacen.vista(0)), lista);
+            lista.clear();
+            assertTrue(lista.isEmpty());
+            assertNull(lista.getAlmacenUnico());
+        }
+
+        @Test
+        @DisplayName("Debería rechazar almacenes nulos, rangos e índices inválidos")
+        void valoresInvalidos() {
+            assertThrows(IllegalArgumentException.class, () -> lista.agregar(null, 0));
+            assertThrows(IllegalArgumentException.class, () -> lista.agregarRango(almacen, 2, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> lista.handle(0));
+            assertThrows(UnsupportedOperationException.class, () -> lista.set(0, almacen.vista(0)));
+        }
+    }
+}
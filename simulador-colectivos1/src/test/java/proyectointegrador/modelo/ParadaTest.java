@@ -7,6 +7,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Pruebas unitarias para la clase Parada.
  * Verifica la correcta creación, la gestión de la cola de pasajeros,
@@ -112,6 +115,110 @@ class ParadaTest {
             assertEquals(pasajero1, paradaSUT.peekSiguientePasajero(), "Peek debe devolver el primer pasajero.");
             assertEquals(2, paradaSUT.cantidadPasajerosEsperando(), "Peek no debe modificar el tamaño de la cola.");
         }
+
+        @Test
+        @DisplayName("agregarPasajeros() debería encolar el tramo en orden, igual que uno por uno")
+        void agregarPasajerosEnBloque() {
+            Parada d1 = new Parada("D1", "Destino Uno");
+            Parada d2 = new Parada("D2", "Destino Dos");
+            AlmacenPasajeros almacen = new AlmacenPasajeros();
+            int[] handles = new int[5];
+            for (int i = 0; i < handles.length; i++) {
+                handles[i] = almacen.agregar(paradaSUT, (i < 2 || i == 4) ? d1 : d2);
+            }
+            paradaSUT.agregarPasajero(pasajero1);
+            int version = paradaSUT.getVersionEstado();
+            paradaSUT.agregarPasajeros(almacen, handles, 1, 5);
+
+            assertEquals(5, paradaSUT.cantidadPasajerosEsperando());
+            assertNotEquals(version, paradaSUT.getVersionEstado());
+            assertEquals(List.of(pasajero1, almacen.vista(1), almacen.vista(2), almacen.vista(3), almacen.vista(4)),
+                    new ArrayList<>(paradaSUT.getPasajerosEsperando()));
+            assertThrows(IllegalArgumentException.class, () -> paradaSUT.agregarPasajeros(almacen, handles, 3, 6));
+            assertThrows(IllegalArgumentException.class, () -> paradaSUT.agregarPasajeros(null, handles, 0, 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pruebas de Atención por Destino")
+    class PruebasDeAtencionPorDestino {
+
+        private Parada d1, d2, d3;
+
+        @BeforeEach
+        void crearDestinos() {
+            d1 = new Parada("D1", "Destino Uno");
+            d2 = new Parada("D2", "Destino Dos");
+            d3 = new Parada("D3", "Destino Tres");
+        }
+
+        @Test
+        @DisplayName("Debería ofrecer el abordaje solo a los destinos pedidos y en orden de llegada")
+        void atiendeEnOrdenDeLlegada() {
+            Pasajero a = new Pasajero("A", paradaSUT, d1);
+            Pasajero b = new Pasajero("B", paradaSUT, d2);
+            Pasajero c = new Pasajero("C", paradaSUT, d3);
+            Pasajero d = new Pasajero("D", paradaSUT, d1);
+            for (Pasajero p : List.of(a, b, c, d)) paradaSUT.agregarPasajero(p);
+
+            List<Pasajero> ofrecidos = new ArrayList<>();
+            int subidos = paradaSUT.atenderPasajerosHacia(List.of(d2, d1), p -> ofrecidos.add(p) && !p.equals(d));
+
+            assertEquals(List.of(a, b, d), ofrecidos, "No debe ofrecerse el abordaje a quien va a D3.");
+            assertEquals(2, subidos);
+            assertEquals(2, paradaSUT.cantidadPasajerosEsperando());
+            assertEquals(List.of(c, d), new ArrayList<>(paradaSUT.getPasajerosEsperando()), "Los que quedan mantienen su orden.");
+        }
+
+        @Test
+        @DisplayName("Debería atender a los destinos posteriores del recorrido igual que con la lista de destinos")
+        void atiendePorLinea() {
+            Parada d4 = new Parada("D4", "Destino Cuatro");
+            Linea linea = new Linea("L1", "Circular");
+            for (Parada p : List.of(d1, paradaSUT, d2, d1, d3)) linea.agregarParadaAlRecorrido(p); // D1 antes que P01
+
+            Parada[] destinos = { d1, d2, d3, d4 };
+            Parada copia = new Parada("P01", "Terminal");
+            for (int i = 0; i < 40; i++) {
+                Parada destino = destinos[(i * 7) % 4];
+                paradaSUT.agregarPasajero(new Pasajero("X" + i, paradaSUT, destino));
+                copia.agregarPasajero(new Pasajero("X" + i, copia, destino));
+            }
+
+            List<String> porLinea = new ArrayList<>();
+            List<String> porLista = new ArrayList<>();
+            int[] contador = { 0 };
+            int subidos = paradaSUT.atenderPasajerosDeLinea(linea, 1, p -> porLinea.add(p.getId()) && contador[0]++ % 3 != 0);
+            contador[0] = 0;
+            int subidosLista = copia.atenderPasajerosHacia(List.of(d3, d2), p -> porLista.add(p.getId()) && contador[0]++ % 3 != 0);
+
+            assertEquals(porLista, porLinea, "Solo D2 y D3 siguen a P01; D1 aparece antes en el recorrido.");
+            assertEquals(20, porLinea.size());
+            assertEquals(subidosLista, subidos);
+            assertEquals(copia.cantidadPasajerosEsperando(), paradaSUT.cantidadPasajerosEsperando());
+            List<String> quedan = new ArrayList<>();
+            for (Pasajero p : paradaSUT.getPasajerosEsperando()) quedan.add(p.getId());
+            List<String> quedanCopia = new ArrayList<>();
+            for (Pasajero p : copia.getPasajerosEsperando()) quedanCopia.add(p.getId());
+            assertEquals(quedanCopia, quedan);
+        }
+
+        @Test
+        @DisplayName("La cola debería conservar el orden FIFO global tras muchas altas y bajas")
+        void ordenGlobalConMuchasOperaciones() {
+            Parada[] destinos = { d1, d2, d3 };
+            List<Pasajero> esperados = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                Pasajero p = new Pasajero("X" + i, paradaSUT, destinos[i % 3]);
+                paradaSUT.agregarPasajero(p);
+                esperados.add(p);
+            }
+            for (int i = 0; i < 20; i++) {
+                assertEquals(esperados.remove(0), paradaSUT.removerSiguientePasajero());
+            }
+            assertEquals(esperados.get(0), paradaSUT.peekSiguientePasajero());
+            assertEquals(esperados, new ArrayList<>(paradaSUT.getPasajerosEsperando()));
+        }
     }
 
     @Nested
@@ -128,6 +235,17 @@ class ParadaTest {
             assertEquals(2, paradaSUT.getPasajerosAbordados());
         }
 
+        @Test
+        @DisplayName("registrarTiempoEspera() debería mantener el promedio de espera")
+        void registrarTiempoEspera() {
+            assertEquals(0.0, paradaSUT.getTiempoEsperaPromedio());
+            paradaSUT.registrarTiempoEspera(2);
+            paradaSUT.registrarTiempoEspera(6);
+            paradaSUT.registrarTiempoEspera(1);
+            assertEquals(3.0, paradaSUT.getTiempoEsperaPromedio(), 1e-12);
+            assertThrows(IllegalArgumentException.class, () -> paradaSUT.registrarTiempoEspera(-1));
+        }
+
         @Test
         @DisplayName("incrementarColectivosPasados() debería aumentar el contador")
         void incrementarColectivosPasados() {
@@ -195,6 +195,19 @@ class PasajeroTest {
             Pasajero pas2 = new Pasajero("ID_DOS", p1, p2);
             assertNotEquals(pas1, pas2);
         }
+
+        @Test
+        @DisplayName("Cada pasajero suelto debería tener su propio almacén")
+        void pasajerosSueltosNoCompartenAlmacen() {
+            Pasajero pas1 = new Pasajero("ID_UNO", p1, p2);
+            Pasajero pas2 = new Pasajero("ID_DOS", p1, p2);
+            assertNotSame(pas1.getAlmacen(), pas2.getAlmacen());
+            assertTrue(pas1.getAlmacen().isIndividual());
+            assertEquals(1, pas1.getAlmacen().cantidad());
+
+            pas1.setPudoSubir(true);
+            assertFalse(pas2.isPudoSubir(), "El estado de un pasajero suelto no afecta a otro.");
+        }
     
         @Test
         @DisplayName("toString: debería contener la información relevante")